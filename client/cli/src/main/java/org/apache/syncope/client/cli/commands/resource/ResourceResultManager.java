@@ -53,6 +53,8 @@ public class ResourceResultManager extends CommonsResultManager {
         System.out.println("    enforce mandatory condition: " + resourceTO.isEnforceMandatoryCondition());
         System.out.println("    override capabilities: " + resourceTO.isOverrideCapabilities());
         System.out.println("    random password if not provided: " + resourceTO.isRandomPwdIfNotProvided());
+        System.out.println("    trust local state: " + resourceTO.isTrustLocalState());
+        System.out.println("    change detection: " + resourceTO.isChangeDetection());
         System.out.println("");
     }
 
@@ -165,6 +165,7 @@ public class TaskResultManager extends CommonsResultManager {
         System.out.println("     cron expression: " + pullTaskTO.getCronExpression());
         System.out.println("     description: " + pullTaskTO.getDescription());
         System.out.println("     pull mode: " + pullTaskTO.getPullMode());
+        System.out.println("     concurrency: " + pullTaskTO.getConcurrency());
         System.out.println("     perform create: " + pullTaskTO.isPerformCreate());
         System.out.println("     perform delete: " + pullTaskTO.isPerformDelete());
         System.out.println("     perform update: " + pullTaskTO.isPerformUpdate());
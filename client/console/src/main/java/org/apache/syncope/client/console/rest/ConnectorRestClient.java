@@ -29,6 +29,8 @@ import org.apache.commons.collections4.Predicate;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.client.console.SyncopeConsoleSession;
 import org.apache.syncope.common.lib.SyncopeClientException;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
 import org.apache.syncope.common.lib.to.BulkAction;
 import org.apache.syncope.common.lib.to.BulkActionResult;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
@@ -36,6 +38,7 @@ import org.apache.syncope.common.lib.to.ConnIdObjectClassTO;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.rest.api.service.ConnectorService;
+import org.apache.syncope.common.rest.api.service.SyncopeService;
 import org.springframework.beans.BeanUtils;
 
 /**
@@ -184,6 +187,36 @@ public class ConnectorRestClient extends BaseRestClient {
         return result;
     }
 
+    public CircuitBreakerInfo getBreaker(final String key) {
+        CircuitBreakerInfo result = null;
+        try {
+            for (CircuitBreakerInfo breaker : getService(ConnectorService.class).breakers()) {
+                if (key.equals(breaker.getConnector())) {
+                    result = breaker;
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("While reading circuit breakers", e);
+        }
+
+        return result;
+    }
+
+    public ConnectorMetricsInfo getMetrics(final String key) {
+        ConnectorMetricsInfo result = null;
+        try {
+            for (ConnectorMetricsInfo metrics : getService(SyncopeService.class).connectorMetrics()) {
+                if (key.equals(metrics.getConnector())) {
+                    result = metrics;
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("While reading connector metrics", e);
+        }
+
+        return result;
+    }
+
     public void reload() {
         getService(ConnectorService.class).reload();
     }
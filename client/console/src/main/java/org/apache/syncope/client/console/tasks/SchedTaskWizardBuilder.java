@@ -33,6 +33,7 @@ import org.apache.syncope.client.console.wicket.ajax.form.IndicatorAjaxFormCompo
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxCheckBoxPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxDropDownChoicePanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxPalettePanel;
+import org.apache.syncope.client.console.wicket.markup.html.form.AjaxSpinnerFieldPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxTextFieldPanel;
 import org.apache.syncope.client.console.wizards.AjaxWizardBuilder;
 import org.apache.syncope.common.lib.to.AbstractProvisioningTaskTO;
@@ -226,6 +227,9 @@ public class SchedTaskWizardBuilder<T extends SchedTaskTO> extends AjaxWizardBui
                 }
             });
 
+            pullTaskSpecifics.add(new AjaxSpinnerFieldPanel.Builder<Integer>().min(1).build(
+                    "concurrency", "concurrency", Integer.class, new PropertyModel<Integer>(taskTO, "concurrency")));
+
             AjaxDropDownChoicePanel<String> destinationRealm = new AjaxDropDownChoicePanel<>(
                     "destinationRealm", "destinationRealm",
                     new PropertyModel<String>(taskTO, "destinationRealm"), false).
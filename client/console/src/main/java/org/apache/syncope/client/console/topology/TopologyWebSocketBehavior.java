@@ -28,8 +28,11 @@ import java.util.Set;
 import org.apache.syncope.client.console.SyncopeConsoleSession;
 import org.apache.syncope.client.console.rest.ConnectorRestClient;
 import org.apache.syncope.client.console.rest.ResourceRestClient;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
 import org.apache.syncope.common.lib.to.ResourceTO;
+import org.apache.syncope.common.lib.types.CircuitBreakerState;
 import org.apache.wicket.Application;
 import org.apache.wicket.Session;
 import org.apache.wicket.ThreadContext;
@@ -120,6 +123,35 @@ public class TopologyWebSocketBehavior extends WebSocketBehavior {
         }
     }
 
+    /**
+     * Summarizes the metrics of the calls performed to the given connector instance, by operation.
+     *
+     * @param key connector instance key
+     * @return metrics summary, empty if no calls were performed
+     */
+    private String getMetrics(final String key) {
+        StringBuilder summary = new StringBuilder();
+
+        ConnectorMetricsInfo metrics = connectorRestClient.getMetrics(key);
+        if (metrics != null) {
+            if (metrics.getPoolSize() > 0) {
+                summary.append(String.format("executor: %d/%d active, %d/%d queued, %d rejected",
+                        metrics.getActiveCount(), metrics.getPoolSize(),
+                        metrics.getQueueSize(), metrics.getQueueCapacity(), metrics.getRejected()));
+            }
+            for (ConnectorMetricsInfo.OperationStats stats : metrics.getOperations()) {
+                if (summary.length() > 0) {
+                    summary.append("; ");
+                }
+                summary.append(String.format("%s: %d calls (%d errors, %d in the last minute) p50/p95/p99 %d/%d/%d ms",
+                        stats.getOperation(), stats.getCount(), stats.getErrors(), stats.getLastMinute(),
+                        stats.getP50(), stats.getP95(), stats.getP99()));
+            }
+        }
+
+        return summary.toString();
+    }
+
     class ConnCheck implements Runnable {
 
         private final String key;
@@ -143,9 +175,13 @@ public class TopologyWebSocketBehavior extends WebSocketBehavior {
                 String res;
                 try {
                     final ConnInstanceTO connector = connectorRestClient.read(key);
-                    res = String.format("{ \"status\": \"%s\", \"target\": \"%s\"}",
+                    final CircuitBreakerInfo breaker = connectorRestClient.getBreaker(key);
+                    res = String.format("{ \"status\": \"%s\", \"target\": \"%s\", \"breaker\": \"%s\", "
+                            + "\"metrics\": \"%s\"}",
                             connectorRestClient.check(connector).getLeft()
-                            ? TopologyNode.Status.REACHABLE : TopologyNode.Status.UNREACHABLE, key);
+                            ? TopologyNode.Status.REACHABLE : TopologyNode.Status.UNREACHABLE, key,
+                            breaker == null ? CircuitBreakerState.CLOSED : breaker.getState(),
+                            getMetrics(key));
                 } catch (Exception e) {
                     LOG.warn("Error checking connection for {}", key, e);
                     res = String.format("{ \"status\": \"%s\", \"target\": \"%s\"}", TopologyNode.Status.FAILURE, key);
@@ -184,9 +220,10 @@ public class TopologyWebSocketBehavior extends WebSocketBehavior {
                 String res;
                 try {
                     final ResourceTO resource = resourceRestClient.read(key);
-                    res = String.format("{ \"status\": \"%s\", \"target\": \"%s\"}",
+                    res = String.format("{ \"status\": \"%s\", \"target\": \"%s\", \"metrics\": \"%s\"}",
                             resourceRestClient.check(resource).getLeft()
-                            ? TopologyNode.Status.REACHABLE : TopologyNode.Status.UNREACHABLE, key);
+                            ? TopologyNode.Status.REACHABLE : TopologyNode.Status.UNREACHABLE, key,
+                            getMetrics(resource.getConnector()));
                 } catch (Exception e) {
                     LOG.warn("Error checking connection for {}", key, e);
                     res = String.format("{ \"status\": \"%s\", \"target\": \"%s\"}", TopologyNode.Status.FAILURE, key);
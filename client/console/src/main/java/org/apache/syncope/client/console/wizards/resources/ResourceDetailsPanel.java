@@ -85,6 +85,16 @@ public class ResourceDetailsPanel extends WizardStep {
                 new PropertyModel<Boolean>(resourceTO, "randomPwdIfNotProvided"),
                 false));
 
+        container.add(new AjaxCheckBoxPanel("trustLocalState",
+                new ResourceModel("trustLocalState", "trustLocalState").getObject(),
+                new PropertyModel<Boolean>(resourceTO, "trustLocalState"),
+                false));
+
+        container.add(new AjaxCheckBoxPanel("changeDetection",
+                new ResourceModel("changeDetection", "changeDetection").getObject(),
+                new PropertyModel<Boolean>(resourceTO, "changeDetection"),
+                false));
+
         container.add(new AjaxPalettePanel.Builder<String>().
                 setAllowMoveAll(true).setAllowOrder(true).
                 build("propagationActionsClassNames",
@@ -130,6 +130,23 @@ window.failure = function (targetName) {
 window.unknown = function (targetName) {
 }
 
+window.metrics = function (targetName, summary) {
+  var element = $(document.getElementById(targetName));
+  if (element.attr("data-base-title") == null) {
+    element.attr("data-base-title", element.attr("data-original-title") || "");
+  }
+  element.attr("data-original-title", summary == "" ? element.attr("data-base-title")
+          : element.attr("data-base-title") + " [" + summary + "]");
+}
+
+window.breaker = function (targetName, state) {
+  var element = $(document.getElementById(targetName));
+  element.removeClass("breaker_OPEN breaker_HALF_OPEN");
+  if (state != null && state != "CLOSED") {
+    element.addClass("breaker_" + state);
+  }
+}
+
 function getTopology() {
   var topology = $.cookie("topology");
 
@@ -307,5 +324,11 @@ jQuery(function ($) {
       default:
         break;
     }
+    if (val.breaker != null) {
+      breaker(val.target, val.breaker);
+    }
+    if (val.metrics != null) {
+      metrics(val.target, val.metrics);
+    }
   });
 });
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.info;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+
+@XmlRootElement(name = "cacheInfo")
+@XmlType
+public class CacheInfo extends AbstractBaseBean {
+
+    private static final long serialVersionUID = -4012934826361482915L;
+
+    private String domain;
+
+    private String remoteCommitProvider;
+
+    private final List<CacheStats> caches = new ArrayList<>();
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(final String domain) {
+        this.domain = domain;
+    }
+
+    public String getRemoteCommitProvider() {
+        return remoteCommitProvider;
+    }
+
+    public void setRemoteCommitProvider(final String remoteCommitProvider) {
+        this.remoteCommitProvider = remoteCommitProvider;
+    }
+
+    @XmlElementWrapper(name = "caches")
+    @XmlElement(name = "cache")
+    @JsonProperty("caches")
+    public List<CacheStats> getCaches() {
+        return caches;
+    }
+
+    @XmlRootElement(name = "cacheStats")
+    @XmlType
+    public static class CacheStats extends AbstractBaseBean {
+
+        private static final long serialVersionUID = 6403157247285213372L;
+
+        private String name;
+
+        private boolean enabled;
+
+        private long reads;
+
+        private long hits;
+
+        private long writes;
+
+        private double hitRatio;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getReads() {
+            return reads;
+        }
+
+        public void setReads(final long reads) {
+            this.reads = reads;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public void setHits(final long hits) {
+            this.hits = hits;
+        }
+
+        public long getWrites() {
+            return writes;
+        }
+
+        public void setWrites(final long writes) {
+            this.writes = writes;
+        }
+
+        public double getHitRatio() {
+            return hitRatio;
+        }
+
+        public void setHitRatio(final double hitRatio) {
+            this.hitRatio = hitRatio;
+        }
+    }
+}
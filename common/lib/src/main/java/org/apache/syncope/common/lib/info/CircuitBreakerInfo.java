@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.info;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+import org.apache.syncope.common.lib.jaxb.XmlGenericMapAdapter;
+import org.apache.syncope.common.lib.types.CircuitBreakerState;
+
+@XmlRootElement(name = "circuitBreakerInfo")
+@XmlType
+public class CircuitBreakerInfo extends AbstractBaseBean {
+
+    private static final long serialVersionUID = 2923384476314521580L;
+
+    private String connector;
+
+    private CircuitBreakerState state;
+
+    private Date since;
+
+    private int calls;
+
+    private double failureRate;
+
+    private long timeout;
+
+    @XmlJavaTypeAdapter(XmlGenericMapAdapter.class)
+    @JsonIgnore
+    private final Map<String, Long> timeouts = new HashMap<>();
+
+    public String getConnector() {
+        return connector;
+    }
+
+    public void setConnector(final String connector) {
+        this.connector = connector;
+    }
+
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    public void setState(final CircuitBreakerState state) {
+        this.state = state;
+    }
+
+    public Date getSince() {
+        return since == null ? null : new Date(since.getTime());
+    }
+
+    public void setSince(final Date since) {
+        this.since = since == null ? null : new Date(since.getTime());
+    }
+
+    public int getCalls() {
+        return calls;
+    }
+
+    public void setCalls(final int calls) {
+        this.calls = calls;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(final double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return adaptive timeouts, in milliseconds, by operation; other operations wait for {@link #getTimeout()}
+     */
+    @JsonProperty
+    public Map<String, Long> getTimeouts() {
+        return timeouts;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.info;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+
+@XmlRootElement(name = "connectorMetricsInfo")
+@XmlType
+public class ConnectorMetricsInfo extends AbstractBaseBean {
+
+    private static final long serialVersionUID = 7253498712745301245L;
+
+    private String connector;
+
+    private String displayName;
+
+    private int poolSize;
+
+    private int activeCount;
+
+    private int queueSize;
+
+    private int queueCapacity;
+
+    private long rejected;
+
+    private final List<OperationStats> operations = new ArrayList<>();
+
+    public String getConnector() {
+        return connector;
+    }
+
+    public void setConnector(final String connector) {
+        this.connector = connector;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(final int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public void setActiveCount(final int activeCount) {
+        this.activeCount = activeCount;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(final long rejected) {
+        this.rejected = rejected;
+    }
+
+    @XmlElementWrapper(name = "operations")
+    @XmlElement(name = "operation")
+    @JsonProperty("operations")
+    public List<OperationStats> getOperations() {
+        return operations;
+    }
+
+    @XmlRootElement(name = "operationStats")
+    @XmlType
+    public static class OperationStats extends AbstractBaseBean {
+
+        private static final long serialVersionUID = -3181503716430567296L;
+
+        private String operation;
+
+        private long count;
+
+        private long errors;
+
+        private long lastMinute;
+
+        private long p50;
+
+        private long p95;
+
+        private long p99;
+
+        private long max;
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public void setOperation(final String operation) {
+            this.operation = operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(final long count) {
+            this.count = count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public void setErrors(final long errors) {
+            this.errors = errors;
+        }
+
+        public long getLastMinute() {
+            return lastMinute;
+        }
+
+        public void setLastMinute(final long lastMinute) {
+            this.lastMinute = lastMinute;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public void setP50(final long p50) {
+            this.p50 = p50;
+        }
+
+        public long getP95() {
+            return p95;
+        }
+
+        public void setP95(final long p95) {
+            this.p95 = p95;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public void setP99(final long p99) {
+            this.p99 = p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public void setMax(final long max) {
+            this.max = max;
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class PullTaskTO extends AbstractProvisioningTaskTO implements Templatabl
 
     private String reconciliationFilterBuilderClassName;
 
+    private int concurrency = 1;
+
     private String destinationRealm;
 
     @XmlJavaTypeAdapter(XmlGenericMapAdapter.class)
@@ -63,6 +65,14 @@ public class PullTaskTO extends AbstractProvisioningTaskTO implements Templatabl
         this.reconciliationFilterBuilderClassName = reconciliationFilterBuilderClassName;
     }
 
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(final int concurrency) {
+        this.concurrency = concurrency;
+    }
+
     public String getDestinationRealm() {
         return destinationRealm;
     }
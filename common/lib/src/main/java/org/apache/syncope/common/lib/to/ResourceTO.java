@@ -63,6 +63,10 @@ public class ResourceTO extends AbstractBaseBean implements EntityTO {
 
     private boolean randomPwdIfNotProvided;
 
+    private boolean trustLocalState;
+
+    private boolean changeDetection;
+
     private boolean enforceMandatoryCondition;
 
     private TraceLevel createTraceLevel = TraceLevel.ALL;
@@ -138,6 +142,22 @@ public class ResourceTO extends AbstractBaseBean implements EntityTO {
         this.randomPwdIfNotProvided = randomPwdIfNotProvided;
     }
 
+    public boolean isTrustLocalState() {
+        return trustLocalState;
+    }
+
+    public void setTrustLocalState(final boolean trustLocalState) {
+        this.trustLocalState = trustLocalState;
+    }
+
+    public boolean isChangeDetection() {
+        return changeDetection;
+    }
+
+    public void setChangeDetection(final boolean changeDetection) {
+        this.changeDetection = changeDetection;
+    }
+
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
     }
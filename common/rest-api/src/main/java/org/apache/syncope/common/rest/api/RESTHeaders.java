@@ -29,6 +29,17 @@ public final class RESTHeaders {
 
     public static final String RESOURCE_KEY = "X-Syncope-Key";
 
+    /**
+     * Access token, as issued by {@link org.apache.syncope.common.rest.api.service.AccessTokenService#login()}; to be
+     * sent back as {@code Authorization: Bearer <token>}.
+     */
+    public static final String TOKEN = "X-Syncope-Token";
+
+    /**
+     * Expiration of the access token, as milliseconds since the epoch.
+     */
+    public static final String TOKEN_EXPIRE = "X-Syncope-Token-Expire";
+
     /**
      * Asks for asynchronous propagation towards external resources with null priority.
      */
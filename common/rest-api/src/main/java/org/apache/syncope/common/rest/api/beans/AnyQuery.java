@@ -50,6 +50,12 @@ public class AnyQuery extends AbstractQuery {
 
             return this;
         }
+
+        public Builder after(final String after) {
+            getInstance().setAfter(after);
+
+            return this;
+        }
     }
 
     private String realm;
@@ -58,6 +64,8 @@ public class AnyQuery extends AbstractQuery {
 
     private String fiql;
 
+    private String after;
+
     public String getRealm() {
         return realm;
     }
@@ -87,4 +95,19 @@ public class AnyQuery extends AbstractQuery {
         this.fiql = fiql;
     }
 
+    /**
+     * When not null, keyset pagination is performed: results are ordered by key, start right after the given key
+     * (or from the first, if empty) and no total count is computed; page and order by are ignored.
+     *
+     * @return key of the last item of the previous page
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    @QueryParam(JAXRSService.PARAM_AFTER)
+    public void setAfter(final String after) {
+        this.after = after;
+    }
+
 }
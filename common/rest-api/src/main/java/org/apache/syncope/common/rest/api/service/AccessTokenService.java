@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.rest.api.service;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST operations for access tokens.
+ */
+@Path("accessTokens")
+public interface AccessTokenService extends JAXRSService {
+
+    /**
+     * Returns an empty response bearing the {@link org.apache.syncope.common.rest.api.RESTHeaders#TOKEN} header
+     * value, with a new signed access token for the caller, and the
+     * {@link org.apache.syncope.common.rest.api.RESTHeaders#TOKEN_EXPIRE} header value, with its expiration.
+     * Subsequent requests can authenticate by sending such token as {@code Authorization: Bearer <token>}, instead
+     * of username and password; when invoked that way, the same access token is returned, with unchanged expiration.
+     *
+     * @return an empty response bearing the access token and its expiration as headers
+     */
+    @POST
+    @Path("login")
+    Response login();
+}
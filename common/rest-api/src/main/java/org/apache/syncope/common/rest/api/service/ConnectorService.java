@@ -32,6 +32,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
 import org.apache.syncope.common.lib.to.BulkAction;
 import org.apache.syncope.common.lib.to.BulkActionResult;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
@@ -150,6 +151,16 @@ public interface ConnectorService extends JAXRSService {
     @Consumes({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
     void check(@NotNull ConnInstanceTO connInstanceTO);
 
+    /**
+     * Returns the state of the circuit breakers guarding calls to connector instances.
+     *
+     * @return state of the circuit breakers guarding calls to connector instances
+     */
+    @GET
+    @Path("breakers")
+    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
+    List<CircuitBreakerInfo> breakers();
+
     /**
      * Reload all connector bundles and instances.
      */
@@ -18,10 +18,13 @@
  */
 package org.apache.syncope.common.rest.api.service;
 
+import java.util.List;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import org.apache.syncope.common.lib.info.CacheInfo;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
 import org.apache.syncope.common.lib.info.NumbersInfo;
 import org.apache.syncope.common.lib.info.SystemInfo;
 import org.apache.syncope.common.lib.info.PlatformInfo;
@@ -63,4 +66,25 @@ public interface SyncopeService extends JAXRSService {
     @Path("/numbers")
     @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
     NumbersInfo numbers();
+
+    /**
+     * Provides usage statistics (reads, hits, hit ratio) of the persistence caches for the current domain.
+     *
+     * @return usage statistics of the persistence caches for the current domain
+     */
+    @GET
+    @Path("/caches")
+    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
+    CacheInfo caches();
+
+    /**
+     * Provides latency percentiles, throughput and error counters of the calls performed to each connector instance
+     * of the current domain, by operation.
+     *
+     * @return latency percentiles, throughput and error counters of the calls performed to each connector instance
+     */
+    @GET
+    @Path("/connectorMetrics")
+    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
+    List<ConnectorMetricsInfo> connectorMetrics();
 }
@@ -239,11 +239,17 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, P extends AnyPatch>
             String realm,
             boolean details);
 
-    public abstract List<TO> search(
+    public abstract Pair<Integer, List<TO>> search(
             SearchCond searchCondition,
             int page, int size, List<OrderByClause> orderBy,
             String realm,
             boolean details);
 
+    public abstract List<TO> searchAfter(
+            SearchCond searchCondition,
+            String after, int size,
+            String realm,
+            boolean details);
+
     public abstract int searchCount(SearchCond searchCondition, String realm);
 }
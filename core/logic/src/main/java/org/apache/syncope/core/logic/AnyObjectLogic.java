@@ -95,33 +95,41 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectPatch
     @Transactional(readOnly = true)
     @Override
     public int searchCount(final SearchCond searchCond, final String realm) {
-        if (searchCond.hasAnyTypeCond() == null) {
-            throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
-        }
+        return searchDAO.count(getEffectiveSearchRealms(searchCond, realm), searchCond, AnyTypeKind.ANY_OBJECT);
+    }
 
-        Set<String> effectiveRealms = getEffectiveRealms(
-                AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
-                realm);
+    @Transactional(readOnly = true)
+    @Override
+    public Pair<Integer, List<AnyObjectTO>> search(final SearchCond searchCond, final int page, final int size,
+            final List<OrderByClause> orderBy, final String realm, final boolean details) {
 
-        return searchDAO.count(effectiveRealms, searchCond, AnyTypeKind.ANY_OBJECT);
+        Pair<Integer, List<AnyObject>> matchingAnyObjects = searchDAO.searchAndCount(
+                getEffectiveSearchRealms(searchCond, realm), searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT);
+        return Pair.of(matchingAnyObjects.getLeft(), getAnyObjectTOs(matchingAnyObjects.getRight(), details));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<AnyObjectTO> search(final SearchCond searchCond, final int page, final int size,
-            final List<OrderByClause> orderBy, final String realm, final boolean details) {
+    public List<AnyObjectTO> searchAfter(final SearchCond searchCond, final String after, final int size,
+            final String realm, final boolean details) {
 
+        List<AnyObject> matchingAnyObjects = searchDAO.searchAfter(
+                getEffectiveSearchRealms(searchCond, realm), searchCond, after, size, AnyTypeKind.ANY_OBJECT);
+        return getAnyObjectTOs(matchingAnyObjects, details);
+    }
+
+    private Set<String> getEffectiveSearchRealms(final SearchCond searchCond, final String realm) {
         if (searchCond.hasAnyTypeCond() == null) {
             throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
         }
 
-        Set<String> effectiveRealms = getEffectiveRealms(
+        return getEffectiveRealms(
                 AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
                 realm);
+    }
 
-        List<AnyObject> matchingAnyObjects = searchDAO.search(
-                effectiveRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT);
-        return CollectionUtils.collect(matchingAnyObjects, new Transformer<AnyObject, AnyObjectTO>() {
+    private List<AnyObjectTO> getAnyObjectTOs(final List<AnyObject> anyObjects, final boolean details) {
+        return CollectionUtils.collect(anyObjects, new Transformer<AnyObject, AnyObjectTO>() {
 
             @Override
             public AnyObjectTO transform(final AnyObject input) {
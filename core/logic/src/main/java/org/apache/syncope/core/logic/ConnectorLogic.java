@@ -31,6 +31,7 @@ import org.apache.commons.collections4.Transformer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeClientException;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
 import org.apache.syncope.common.lib.to.ConnIdObjectClassTO;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
@@ -44,6 +45,9 @@ import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
 import org.apache.syncope.core.provisioning.api.ConnectorFactory;
 import org.apache.syncope.core.provisioning.api.data.ConnInstanceDataBinder;
+import org.apache.syncope.core.provisioning.java.ConnectorCircuitBreaker;
+import org.apache.syncope.core.provisioning.java.ConnectorCircuitBreakerRegistry;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.common.l10n.CurrentLocale;
 import org.identityconnectors.framework.api.ConfigurationProperties;
 import org.identityconnectors.framework.api.ConnectorInfo;
@@ -75,6 +79,9 @@ public class ConnectorLogic extends AbstractTransactionalLogic<ConnInstanceTO> {
     @Autowired
     private ConnectorFactory connFactory;
 
+    @Autowired
+    private ConnectorCircuitBreakerRegistry breakers;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_CREATE + "')")
     public ConnInstanceTO create(final ConnInstanceTO connInstanceTO) {
         ConnInstance connInstance = binder.getConnInstance(connInstanceTO);
@@ -253,6 +260,19 @@ public class ConnectorLogic extends AbstractTransactionalLogic<ConnInstanceTO> {
         return connInstance;
     }
 
+    @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_READ + "')")
+    @Transactional(readOnly = true)
+    public List<CircuitBreakerInfo> breakers() {
+        List<CircuitBreakerInfo> result = new ArrayList<>();
+        for (ConnectorCircuitBreaker breaker : breakers.getAll(AuthContextUtils.getDomain())) {
+            ConnInstance connInstance = connInstanceDAO.find(breaker.getConnector());
+            if (connInstance != null) {
+                result.add(breaker.getInfo(connInstance.getConnRequestTimeout()));
+            }
+        }
+        return result;
+    }
+
     @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_RELOAD + "')")
     @Transactional(readOnly = true)
     public void reload() {
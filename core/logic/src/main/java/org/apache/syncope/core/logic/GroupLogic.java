@@ -201,13 +201,29 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupPatch> {
     @PreAuthorize("hasRole('" + StandardEntitlement.GROUP_SEARCH + "')")
     @Transactional(readOnly = true)
     @Override
-    public List<GroupTO> search(final SearchCond searchCondition, final int page, final int size,
+    public Pair<Integer, List<GroupTO>> search(final SearchCond searchCondition, final int page, final int size,
             final List<OrderByClause> orderBy, final String realm, final boolean details) {
 
-        List<Group> matchingGroups = searchDAO.search(
+        Pair<Integer, List<Group>> matchingGroups = searchDAO.searchAndCount(
                 getEffectiveRealms(AuthContextUtils.getAuthorizations().get(StandardEntitlement.GROUP_SEARCH), realm),
                 searchCondition, page, size, orderBy, AnyTypeKind.GROUP);
-        return CollectionUtils.collect(matchingGroups, new Transformer<Group, GroupTO>() {
+        return Pair.of(matchingGroups.getLeft(), getGroupTOs(matchingGroups.getRight(), details));
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public List<GroupTO> searchAfter(final SearchCond searchCondition, final String after, final int size,
+            final String realm, final boolean details) {
+
+        List<Group> matchingGroups = searchDAO.searchAfter(
+                getEffectiveRealms(AuthContextUtils.getAuthorizations().get(StandardEntitlement.GROUP_SEARCH), realm),
+                searchCondition, after, size, AnyTypeKind.GROUP);
+        return getGroupTOs(matchingGroups, details);
+    }
+
+    private List<GroupTO> getGroupTOs(final List<Group> groups, final boolean details) {
+        return CollectionUtils.collect(groups, new Transformer<Group, GroupTO>() {
 
             @Override
             public GroupTO transform(final Group input) {
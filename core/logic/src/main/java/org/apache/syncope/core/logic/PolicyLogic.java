@@ -35,6 +35,8 @@ import org.apache.syncope.core.persistence.api.entity.Policy;
 import org.apache.syncope.core.persistence.api.entity.policy.PullPolicy;
 import org.apache.syncope.core.persistence.api.entity.policy.PushPolicy;
 import org.apache.syncope.core.provisioning.api.data.PolicyDataBinder;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.CredentialsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Component;
@@ -48,6 +50,9 @@ public class PolicyLogic extends AbstractTransactionalLogic<AbstractPolicyTO> {
     @Autowired
     private PolicyDataBinder binder;
 
+    @Autowired
+    private CredentialsCache credentialsCache;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.POLICY_CREATE + "')")
     public <T extends AbstractPolicyTO> T create(final T policyTO) {
         return binder.getPolicyTO(policyDAO.save(binder.create(policyTO)));
@@ -56,7 +61,12 @@ public class PolicyLogic extends AbstractTransactionalLogic<AbstractPolicyTO> {
     @PreAuthorize("hasRole('" + StandardEntitlement.POLICY_UPDATE + "')")
     public AbstractPolicyTO update(final AbstractPolicyTO policyTO) {
         Policy policy = policyDAO.find(policyTO.getKey());
-        return binder.getPolicyTO(policyDAO.save(binder.update(policy, policyTO)));
+        policy = policyDAO.save(binder.update(policy, policyTO));
+        if (policy instanceof AccountPolicy) {
+            credentialsCache.evictAll(AuthContextUtils.getDomain());
+        }
+
+        return binder.getPolicyTO(policy);
     }
 
     private Class<? extends Policy> getPolicyClass(final PolicyType policyType) {
@@ -106,6 +116,9 @@ public class PolicyLogic extends AbstractTransactionalLogic<AbstractPolicyTO> {
 
         T policyToDelete = binder.getPolicyTO(policy);
         policyDAO.delete(policy);
+        if (policy instanceof AccountPolicy) {
+            credentialsCache.evictAll(AuthContextUtils.getDomain());
+        }
 
         return policyToDelete;
     }
@@ -48,6 +48,9 @@ import org.apache.syncope.core.provisioning.api.data.RealmDataBinder;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.AuthoritiesCache;
+import org.apache.syncope.core.spring.security.CredentialsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Component;
@@ -70,6 +73,12 @@ public class RealmLogic extends AbstractTransactionalLogic<RealmTO> {
     @Autowired
     private PropagationTaskExecutor taskExecutor;
 
+    @Autowired
+    private AuthoritiesCache authoritiesCache;
+
+    @Autowired
+    private CredentialsCache credentialsCache;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.REALM_LIST + "')")
     public List<RealmTO> list(final String fullPath) {
         Realm realm = realmDAO.findByFullPath(fullPath);
@@ -122,6 +131,8 @@ public class RealmLogic extends AbstractTransactionalLogic<RealmTO> {
 
         PropagationByResource propByRes = binder.update(realm, realmTO);
         realm = realmDAO.save(realm);
+        authoritiesCache.evictAll(AuthContextUtils.getDomain());
+        credentialsCache.evictAll(AuthContextUtils.getDomain());
 
         List<PropagationTask> tasks = propagationManager.createTasks(realm, propByRes, null);
         PropagationReporter propagationReporter = taskExecutor.execute(tasks, false);
@@ -174,6 +185,8 @@ public class RealmLogic extends AbstractTransactionalLogic<RealmTO> {
         result.getPropagationStatuses().addAll(propagationReporter.getStatuses());
 
         realmDAO.delete(realm);
+        authoritiesCache.evictAll(AuthContextUtils.getDomain());
+        credentialsCache.evictAll(AuthContextUtils.getDomain());
 
         return result;
     }
@@ -54,6 +54,7 @@ import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.ConnInstanceDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
@@ -62,6 +63,8 @@ import org.apache.syncope.core.persistence.api.entity.VirSchema;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.provisioning.api.MappingManager;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.CredentialsCache;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
@@ -98,6 +101,9 @@ public class ResourceLogic extends AbstractTransactionalLogic<ResourceTO> {
     @Autowired
     private VirSchemaDAO virSchemaDAO;
 
+    @Autowired
+    private ProvisionHashDAO provisionHashDAO;
+
     @Autowired
     private ResourceDataBinder binder;
 
@@ -110,6 +116,9 @@ public class ResourceLogic extends AbstractTransactionalLogic<ResourceTO> {
     @Autowired
     private ConnectorFactory connFactory;
 
+    @Autowired
+    private CredentialsCache credentialsCache;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.RESOURCE_CREATE + "')")
     public ResourceTO create(final ResourceTO resourceTO) {
         if (StringUtils.isBlank(resourceTO.getKey())) {
@@ -154,6 +163,10 @@ public class ResourceLogic extends AbstractTransactionalLogic<ResourceTO> {
             throw ex;
         }
 
+        // mapping or connector changes make stored content hashes meaningless
+        provisionHashDAO.deleteByResource(resource.getKey());
+        credentialsCache.evictAll(AuthContextUtils.getDomain());
+
         return binder.getResourceTO(resource);
     }
 
@@ -214,6 +227,7 @@ public class ResourceLogic extends AbstractTransactionalLogic<ResourceTO> {
         ResourceTO resourceToDelete = binder.getResourceTO(resource);
 
         resourceDAO.delete(resourceName);
+        credentialsCache.evictAll(AuthContextUtils.getDomain());
 
         return resourceToDelete;
     }
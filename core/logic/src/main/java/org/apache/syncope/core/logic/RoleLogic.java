@@ -31,6 +31,8 @@ import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
 import org.apache.syncope.core.persistence.api.entity.Role;
 import org.apache.syncope.core.provisioning.api.data.RoleDataBinder;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.AuthoritiesCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Component;
@@ -44,6 +46,9 @@ public class RoleLogic extends AbstractTransactionalLogic<RoleTO> {
     @Autowired
     private RoleDAO roleDAO;
 
+    @Autowired
+    private AuthoritiesCache authoritiesCache;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.ROLE_READ + "')")
     public RoleTO read(final String key) {
         Role role = roleDAO.find(key);
@@ -69,7 +74,10 @@ public class RoleLogic extends AbstractTransactionalLogic<RoleTO> {
 
     @PreAuthorize("hasRole('" + StandardEntitlement.ROLE_CREATE + "')")
     public RoleTO create(final RoleTO roleTO) {
-        return binder.getRoleTO(roleDAO.save(binder.create(roleTO)));
+        Role role = roleDAO.save(binder.create(roleTO));
+        authoritiesCache.evictAll(AuthContextUtils.getDomain());
+
+        return binder.getRoleTO(role);
     }
 
     @PreAuthorize("hasRole('" + StandardEntitlement.ROLE_UPDATE + "')")
@@ -82,6 +90,7 @@ public class RoleLogic extends AbstractTransactionalLogic<RoleTO> {
 
         binder.update(role, roleTO);
         role = roleDAO.save(role);
+        authoritiesCache.evictAll(AuthContextUtils.getDomain());
 
         return binder.getRoleTO(role);
     }
@@ -97,6 +106,7 @@ public class RoleLogic extends AbstractTransactionalLogic<RoleTO> {
 
         RoleTO deleted = binder.getRoleTO(role);
         roleDAO.delete(key);
+        authoritiesCache.evictAll(AuthContextUtils.getDomain());
         return deleted;
     }
 
@@ -26,19 +26,26 @@ import java.lang.reflect.Method;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Resource;
 import org.apache.syncope.common.lib.AbstractBaseBean;
+import org.apache.syncope.common.lib.info.CacheInfo;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
 import org.apache.syncope.common.lib.info.NumbersInfo;
 import org.apache.syncope.common.lib.info.SystemInfo;
 import org.apache.syncope.common.lib.info.PlatformInfo;
+import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.spring.security.PasswordGenerator;
 import org.apache.syncope.core.persistence.api.ImplementationLookup;
 import org.apache.syncope.core.persistence.api.ImplementationLookup.Type;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
+import org.apache.syncope.core.persistence.api.dao.ConnInstanceDAO;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
@@ -49,6 +56,7 @@ import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
 import org.apache.syncope.core.persistence.api.entity.policy.AccountPolicy;
 import org.apache.syncope.core.persistence.api.entity.policy.PasswordPolicy;
 import org.apache.syncope.core.provisioning.api.AnyObjectProvisioningManager;
@@ -56,6 +64,11 @@ import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
 import org.apache.syncope.core.provisioning.api.GroupProvisioningManager;
 import org.apache.syncope.core.provisioning.api.UserProvisioningManager;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
+import org.apache.syncope.core.provisioning.java.ConnectorBulkhead;
+import org.apache.syncope.core.provisioning.java.ConnectorBulkheadRegistry;
+import org.apache.syncope.core.provisioning.java.ConnectorMetrics;
+import org.apache.syncope.core.provisioning.java.ConnectorMetricsRegistry;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.workflow.api.AnyObjectWorkflowAdapter;
 import org.apache.syncope.core.workflow.api.GroupWorkflowAdapter;
 import org.apache.syncope.core.workflow.api.UserWorkflowAdapter;
@@ -108,6 +121,18 @@ public class SyncopeLogic extends AbstractLogic<AbstractBaseBean> {
     @Autowired
     private ConfDAO confDAO;
 
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    @Autowired
+    private ConnInstanceDAO connInstanceDAO;
+
+    @Autowired
+    private ConnectorMetricsRegistry connectorMetrics;
+
+    @Autowired
+    private ConnectorBulkheadRegistry connectorBulkheads;
+
     @Resource(name = "version")
     private String version;
 
@@ -299,6 +324,36 @@ public class SyncopeLogic extends AbstractLogic<AbstractBaseBean> {
         return numbersInfo;
     }
 
+    @PreAuthorize("isAuthenticated()")
+    public CacheInfo caches() {
+        return entityCacheDAO.getCacheInfo();
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_READ + "')")
+    public List<ConnectorMetricsInfo> connectorMetrics() {
+        List<ConnectorMetricsInfo> result = new ArrayList<>();
+        for (ConnectorMetrics metrics : connectorMetrics.getAll(AuthContextUtils.getDomain())) {
+            ConnInstance connInstance = connInstanceDAO.find(metrics.getConnector());
+            if (connInstance != null) {
+                ConnectorMetricsInfo info = metrics.getInfo();
+                info.setDisplayName(connInstance.getDisplayName());
+
+                ConnectorBulkhead bulkhead = connectorBulkheads.get(
+                        AuthContextUtils.getDomain(), metrics.getConnector());
+                if (bulkhead != null) {
+                    info.setPoolSize(bulkhead.getPoolSize());
+                    info.setActiveCount(bulkhead.getActiveCount());
+                    info.setQueueSize(bulkhead.getQueueSize());
+                    info.setQueueCapacity(bulkhead.getQueueCapacity());
+                    info.setRejected(bulkhead.getRejected());
+                }
+
+                result.add(info);
+            }
+        }
+        return result;
+    }
+
     @Override
     protected AbstractBaseBean resolveReference(final Method method, final Object... args)
             throws UnresolvedReferenceException {
@@ -140,13 +140,29 @@ public class UserLogic extends AbstractAnyLogic<UserTO, UserPatch> {
     @PreAuthorize("hasRole('" + StandardEntitlement.USER_SEARCH + "')")
     @Transactional(readOnly = true)
     @Override
-    public List<UserTO> search(final SearchCond searchCondition, final int page, final int size,
+    public Pair<Integer, List<UserTO>> search(final SearchCond searchCondition, final int page, final int size,
             final List<OrderByClause> orderBy, final String realm, final boolean details) {
 
-        List<User> matchingUsers = searchDAO.search(
+        Pair<Integer, List<User>> matchingUsers = searchDAO.searchAndCount(
                 getEffectiveRealms(AuthContextUtils.getAuthorizations().get(StandardEntitlement.USER_SEARCH), realm),
                 searchCondition, page, size, orderBy, AnyTypeKind.USER);
-        return CollectionUtils.collect(matchingUsers, new Transformer<User, UserTO>() {
+        return Pair.of(matchingUsers.getLeft(), getUserTOs(matchingUsers.getRight(), details));
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserTO> searchAfter(final SearchCond searchCondition, final String after, final int size,
+            final String realm, final boolean details) {
+
+        List<User> matchingUsers = searchDAO.searchAfter(
+                getEffectiveRealms(AuthContextUtils.getAuthorizations().get(StandardEntitlement.USER_SEARCH), realm),
+                searchCondition, after, size, AnyTypeKind.USER);
+        return getUserTOs(matchingUsers, details);
+    }
+
+    private List<UserTO> getUserTOs(final List<User> users, final boolean details) {
+        return CollectionUtils.collect(users, new Transformer<User, UserTO>() {
 
             @Override
             public UserTO transform(final User input) {
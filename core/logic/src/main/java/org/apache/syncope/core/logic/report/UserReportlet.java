@@ -18,8 +18,8 @@
  */
 package org.apache.syncope.core.logic.report;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
@@ -34,7 +34,9 @@ import org.apache.syncope.common.lib.to.RelationshipTO;
 import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
@@ -53,7 +55,7 @@ import org.xml.sax.helpers.AttributesImpl;
 @ReportletConfClass(UserReportletConf.class)
 public class UserReportlet extends AbstractReportlet {
 
-    private static final int PAGE_SIZE = 10;
+    private static final int CHUNK_SIZE = 100;
 
     @Autowired
     private UserDAO userDAO;
@@ -177,6 +179,17 @@ public class UserReportlet extends AbstractReportlet {
         }
     }
 
+    /**
+     * Extracts the given users, then detaches them, in order to keep the persistence context small.
+     */
+    private void doExtractChunk(final ContentHandler handler, final List<String> keys) throws SAXException {
+        List<User> users = userDAO.findByKeys(keys);
+        doExtract(handler, users);
+        for (User user : users) {
+            userDAO.detach(user);
+        }
+    }
+
     private void doExtract(final ContentHandler handler, final List<User> users) throws SAXException {
         AttributesImpl atts = new AttributesImpl();
         for (User user : users) {
@@ -347,13 +360,6 @@ public class UserReportlet extends AbstractReportlet {
         handler.endElement("", "", "configurations");
     }
 
-    private int count() {
-        return StringUtils.isBlank(conf.getMatchingCond())
-                ? userDAO.count()
-                : searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS,
-                        SearchCondConverter.convert(conf.getMatchingCond()), AnyTypeKind.USER);
-    }
-
     @Override
     protected void doExtract(final ReportletConf conf, final ContentHandler handler) throws SAXException {
         if (conf instanceof UserReportletConf) {
@@ -364,15 +370,26 @@ public class UserReportlet extends AbstractReportlet {
 
         doExtractConf(handler);
 
+        SearchCond cond;
         if (StringUtils.isBlank(this.conf.getMatchingCond())) {
-            doExtract(handler, userDAO.findAll());
+            AnyCond keyCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
+            keyCond.setSchema("key");
+            cond = SearchCond.getLeafCond(keyCond);
         } else {
-            for (int page = 1; page <= (count() / PAGE_SIZE) + 1; page++) {
-                List<User> users = searchDAO.search(SyncopeConstants.FULL_ADMIN_REALMS,
-                        SearchCondConverter.convert(this.conf.getMatchingCond()),
-                        page, PAGE_SIZE, Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
-                doExtract(handler, users);
+            cond = SearchCondConverter.convert(this.conf.getMatchingCond());
+        }
+
+        List<String> keys = new ArrayList<>(CHUNK_SIZE);
+        for (String key
+                : searchDAO.searchKeys(SyncopeConstants.FULL_ADMIN_REALMS, cond, CHUNK_SIZE, AnyTypeKind.USER)) {
+            keys.add(key);
+            if (keys.size() == CHUNK_SIZE) {
+                doExtractChunk(handler, keys);
+                keys.clear();
             }
         }
+        if (!keys.isEmpty()) {
+            doExtractChunk(handler, keys);
+        }
     }
 }
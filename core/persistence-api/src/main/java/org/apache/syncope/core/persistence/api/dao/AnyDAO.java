@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
@@ -32,6 +33,15 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
 
     A find(String key);
 
+    /**
+     * Find any objects by their keys, with as few queries as possible; the returned list follows the iteration order
+     * of the given keys, with no duplicates; keys not matching any entity are ignored.
+     *
+     * @param keys any object keys
+     * @return any objects matching the given keys
+     */
+    List<A> findByKeys(Collection<String> keys);
+
     A findByWorkflowId(String workflowId);
 
     List<A> findByAttrValue(String schemaName, PlainAttrValue attrValue);
@@ -42,6 +42,15 @@ public interface AnyObjectDAO extends AnyDAO<AnyObject> {
 
     AnyObject findByName(String name);
 
+    /**
+     * Find the keys of any objects of the given type with the given names, with as few queries as possible.
+     *
+     * @param anyType type
+     * @param names names
+     * @return keys of matching any objects, by name
+     */
+    Map<String, String> findKeysByNames(AnyType anyType, Collection<String> names);
+
     AnyObject authFindByName(String name);
 
     List<Group> findDynGroupMemberships(AnyObject anyObject);
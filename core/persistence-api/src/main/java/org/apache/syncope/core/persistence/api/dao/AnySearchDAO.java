@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.List;
 import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
@@ -74,6 +75,56 @@ public interface AnySearchDAO extends DAO<Any<?>> {
             Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
             List<OrderByClause> orderBy, AnyTypeKind kind);
 
+    /**
+     * Same as {@link #search(java.util.Set, SearchCond, int, int, java.util.List, AnyTypeKind)}, but also reports the
+     * total number of matching any objects; whenever supported by the underlying DBMS, such total is computed by the
+     * same statement returning the requested page.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param page position of the first result, start from 1
+     * @param itemsPerPage number of results per page
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param <T> any
+     * @return the total number of any objects matching the given search condition, and the list of such any objects
+     * in the given page
+     */
+    <T extends Any<?>> Pair<Integer, List<T>> searchAndCount(
+            Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
+            List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Keyset pagination: as opposed to {@link #search(java.util.Set, SearchCond, int, int, java.util.List,
+     * AnyTypeKind)}, the cost of this method does not grow with the position of the requested page.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param afterKey key of the last any object of the previous page, or null to start from the first page
+     * @param itemsPerPage number of results per page
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition, with key greater than afterKey, ordered
+     * by key
+     */
+    <T extends Any<?>> List<T> searchAfter(
+            Set<String> adminRealms, SearchCond searchCondition, String afterKey, int itemsPerPage,
+            AnyTypeKind kind);
+
+    /**
+     * Streams the keys of all any objects matching the given search condition, ordered by key, with bounded memory
+     * usage: keys are read in chunks by means of keyset pagination, so that reading each chunk costs about the same,
+     * whatever its position. The persistence context is not affected: callers loading the matching entities may
+     * detach them once processed, in order to keep memory usage bounded as well.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param chunkSize number of keys read at once
+     * @param kind any object
+     * @return keys of the any objects matching the given search condition
+     */
+    Iterable<String> searchKeys(Set<String> adminRealms, SearchCond searchCondition, int chunkSize, AnyTypeKind kind);
+
     /**
      * Verify if any matches the given search condition.
      *
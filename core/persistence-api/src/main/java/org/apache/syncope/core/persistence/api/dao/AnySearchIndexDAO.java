@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Any;
+
+/**
+ * Maintains the search index, e.g. a denormalized copy of plain attribute values which can be enabled per domain
+ * and is then used by {@link AnySearchDAO} instead of the search views.
+ */
+public interface AnySearchIndexDAO extends DAO<Any<?>> {
+
+    /**
+     * @return whether the search index is enabled for the current domain
+     */
+    boolean isEnabled();
+
+    /**
+     * Records that plain attribute values of the given entity were written in the current transaction: the search
+     * index is aligned before the transaction commits, or before searching within the same transaction.
+     *
+     * @param kind any type kind
+     * @param anyKey entity key
+     */
+    void changed(AnyTypeKind kind, String anyKey);
+
+    /**
+     * Aligns the search index with the plain attribute values of the entities recorded as changed in the current
+     * transaction, if any; pending changes are flushed beforehand.
+     */
+    void align();
+
+    /**
+     * Removes the given entity from the search index.
+     *
+     * @param kind any type kind
+     * @param anyKey entity key
+     */
+    void remove(AnyTypeKind kind, String anyKey);
+
+    /**
+     * Removes all values for the given plain schema from the search index.
+     *
+     * @param schemaKey plain schema key
+     */
+    void removeSchema(String schemaKey);
+
+    /**
+     * Fully rebuilds the search index for the given any type kind.
+     *
+     * @param kind any type kind
+     */
+    void rebuild(AnyTypeKind kind);
+
+    /**
+     * Rebuilds the search index for all any type kinds with no indexed value yet, e.g. after the search index was
+     * enabled on a domain with existing data.
+     */
+    void rebuildIfEmpty();
+}
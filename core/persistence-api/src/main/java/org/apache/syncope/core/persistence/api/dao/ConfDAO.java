@@ -29,6 +29,15 @@ public interface ConfDAO extends DAO<Conf> {
 
     Conf get();
 
+    /**
+     * Returns the configuration of the current domain as immutable snapshot, replaced after each committed change
+     * performed via this DAO or received from other nodes, and anyway rebuilt every minute; to be preferred to
+     * {@link #find(java.lang.String, java.lang.String)} on hot paths.
+     *
+     * @return configuration snapshot for the current domain
+     */
+    ConfSnapshot snapshot();
+
     Conf save(CPlainAttr attr);
 
     Conf delete(String key);
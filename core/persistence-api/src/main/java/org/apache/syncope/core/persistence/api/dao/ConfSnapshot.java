@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
+
+/**
+ * Immutable view of the configuration attributes of a domain, as found at a given point in time.
+ */
+public final class ConfSnapshot {
+
+    private final Map<String, List<String>> values;
+
+    private final Map<String, Object> firstValues;
+
+    private final Map<String, String> firstValuesAsStrings;
+
+    public ConfSnapshot(final Collection<? extends CPlainAttr> attrs) {
+        Map<String, List<String>> values = new HashMap<>();
+        Map<String, Object> firstValues = new HashMap<>();
+        Map<String, String> firstValuesAsStrings = new HashMap<>();
+
+        for (CPlainAttr attr : attrs) {
+            String key = attr.getSchema().getKey();
+            List<String> valuesAsStrings = attr.getValuesAsStrings();
+            values.put(key, Collections.unmodifiableList(valuesAsStrings));
+            if (!valuesAsStrings.isEmpty()) {
+                firstValuesAsStrings.put(key, valuesAsStrings.get(0));
+                firstValues.put(key, attr.getUniqueValue() == null
+                        ? attr.getValues().get(0).getValue()
+                        : attr.getUniqueValue().getValue());
+            }
+        }
+
+        this.values = Collections.unmodifiableMap(values);
+        this.firstValues = Collections.unmodifiableMap(firstValues);
+        this.firstValuesAsStrings = Collections.unmodifiableMap(firstValuesAsStrings);
+    }
+
+    public boolean contains(final String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * @param key configuration key
+     * @return all values for the given key, as strings; empty if not found
+     */
+    public List<String> getValues(final String key) {
+        List<String> result = values.get(key);
+        return result == null ? Collections.<String>emptyList() : result;
+    }
+
+    public String getString(final String key, final String defaultValue) {
+        String result = firstValuesAsStrings.get(key);
+        return result == null ? defaultValue : result;
+    }
+
+    public boolean getBoolean(final String key, final boolean defaultValue) {
+        Object value = firstValues.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value == null ? defaultValue : Boolean.parseBoolean(value.toString());
+    }
+
+    public long getLong(final String key, final long defaultValue) {
+        Object value = firstValues.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
+    /**
+     * @return first value of each configuration attribute, as string
+     */
+    public Map<String, String> asMap() {
+        return firstValuesAsStrings;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
+
+/**
+ * Recomputes the members of dynamic group and role memberships via set-based statements, rather than by loading and
+ * adding each matching entity.
+ */
+public interface DynMembershipDAO extends DAO<DynMembership<?>> {
+
+    int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Notified after each chunk of a rebuild.
+     */
+    interface RebuildListener {
+
+        /**
+         * @param membership dynamic membership being rebuilt
+         * @param processed number of matching entities processed so far
+         * @param added members added so far
+         * @param removed members removed so far
+         */
+        void onChunk(DynMembership<?> membership, int processed, int added, int removed);
+    }
+
+    /**
+     * Outcome of a single chunk of a rebuild.
+     */
+    class RebuildChunk {
+
+        private final String upper;
+
+        private final int matched;
+
+        private final int added;
+
+        private final int removed;
+
+        public RebuildChunk(final String upper, final int matched, final int added, final int removed) {
+            this.upper = upper;
+            this.matched = matched;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        /**
+         * @return key of the last matching entity in this chunk, where the next chunk starts; null if last chunk
+         */
+        public String getUpper() {
+            return upper;
+        }
+
+        public boolean isLast() {
+            return upper == null;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+    }
+
+    /**
+     * @return all dynamic group (for users and any objects) and role memberships
+     */
+    List<DynMembership<?>> findAll();
+
+    /**
+     * Recomputes the members of the given dynamic membership within the current transaction: matching entities are
+     * looked up at most {@code chunkSize} at a time, then missing ones are inserted and leftover members in the same
+     * key range are deleted.
+     *
+     * @param membership dynamic group or role membership
+     * @param chunkSize maximum number of matching entities per chunk, up to 1000
+     * @param listener progress listener, can be null
+     * @return number of added and removed members
+     */
+    Pair<Integer, Integer> rebuild(DynMembership<?> membership, int chunkSize, RebuildListener listener);
+
+    /**
+     * Recomputes the members of the given dynamic membership in the key range starting after {@code lower}, within
+     * a new transaction; rebuilding chunk by chunk keeps locks and rollback data bounded, but only committed
+     * changes are seen.
+     *
+     * @param membership dynamic group or role membership
+     * @param lower key where the previous chunk ended, null for the first chunk
+     * @param chunkSize maximum number of matching entities per chunk, up to 1000
+     * @return outcome of the chunk
+     */
+    RebuildChunk rebuildChunk(DynMembership<?> membership, String lower, int chunkSize);
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import org.apache.syncope.common.lib.info.CacheInfo;
+
+/**
+ * Access to the second-level caches of the current domain.
+ */
+public interface EntityCacheDAO {
+
+    /**
+     * Reports usage statistics of the entity cache, the query cache and of any other cache kept by the persistence
+     * layer.
+     *
+     * @return usage statistics of the caches configured for the current domain
+     */
+    CacheInfo getCacheInfo();
+
+    /**
+     * Evicts all entries from the entity and query caches; to be invoked after the underlying tables have been
+     * modified outside of the persistence layer.
+     */
+    void evictAll();
+
+    /**
+     * Registers a listener for the changes committed by other nodes, in any domain: in-memory caches kept outside
+     * the second-level cache can rely on this to stay consistent across the cluster.
+     *
+     * @param listener listener
+     */
+    void addRemoteChangeListener(RemoteChangeListener listener);
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
@@ -36,6 +37,14 @@ public interface GroupDAO extends AnyDAO<Group> {
 
     Group findByName(String name);
 
+    /**
+     * Find the keys of groups with the given names, with as few queries as possible.
+     *
+     * @param names names
+     * @return keys of matching groups, by name
+     */
+    Map<String, String> findKeysByNames(Collection<String> names);
+
     Group authFindByName(String name);
 
     List<Group> findOwnedByUser(String userKey);
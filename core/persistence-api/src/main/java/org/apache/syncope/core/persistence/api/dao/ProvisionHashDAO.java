@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.MappingPurpose;
+
+/**
+ * Keeps, for each entity and external resource, the content hash of the mapped attributes last exchanged by pull
+ * and the one last exchanged by push, allowing to skip unchanged objects; directions are identified by
+ * {@link MappingPurpose#PULL} and {@link MappingPurpose#PROPAGATION}.
+ */
+public interface ProvisionHashDAO {
+
+    /**
+     * Returns the stored hash, provided that the given entity is still directly assigned to the given resource.
+     *
+     * @param kind any type kind
+     * @param anyKey entity key
+     * @param resourceKey resource key
+     * @param direction either {@link MappingPurpose#PULL} or {@link MappingPurpose#PROPAGATION}
+     * @return stored hash, or null if none was stored or the entity is not assigned to the resource
+     */
+    String find(AnyTypeKind kind, String anyKey, String resourceKey, MappingPurpose direction);
+
+    /**
+     * Stores the given hash for the given direction, replacing any previous value; the hash stored for the other
+     * direction is cleared, as it no longer describes the latest exchange.
+     *
+     * @param anyKey entity key
+     * @param resourceKey resource key
+     * @param direction either {@link MappingPurpose#PULL} or {@link MappingPurpose#PROPAGATION}
+     * @param hash content hash
+     */
+    void save(String anyKey, String resourceKey, MappingPurpose direction, String hash);
+
+    void delete(String anyKey, String resourceKey);
+
+    void deleteByAny(String anyKey);
+
+    void deleteByResource(String resourceKey);
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notified about changes committed by other nodes of the cluster, as reported by the configured OpenJPA remote commit
+ * provider; allows in-memory caches kept by each node to drop what the changes made stale.
+ *
+ * @see EntityCacheDAO#addRemoteChangeListener(RemoteChangeListener)
+ */
+public interface RemoteChangeListener {
+
+    /**
+     * Invoked by the thread receiving remote commit events, thus without any authentication context or transaction.
+     *
+     * @param domain domain where the changes were committed
+     * @param changes changed entity types (implementation classes), each with the keys of the changed entities, if
+     * known; an empty set of keys means that any entity of the given type might have changed
+     */
+    void changed(String domain, Map<Class<?>, Set<String>> changes);
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Date;
 import java.util.List;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -55,6 +56,17 @@ public interface TaskDAO extends DAO<Task> {
 
     <T extends Task> T save(T task);
 
+    /**
+     * Atomically assigns the propagation task with given key to the given owner, unless currently assigned to a
+     * different owner which claimed it after the given date.
+     *
+     * @param key propagation task key
+     * @param owner owner, e.g. the node willing to execute the task
+     * @param expiredBefore claims performed by other owners before this date are considered as expired
+     * @return whether the task was assigned to the given owner
+     */
+    boolean claim(String key, String owner, Date expiredBefore);
+
     void delete(String key);
 
     void delete(Task task);
@@ -40,6 +40,14 @@ public interface UserDAO extends AnyDAO<User> {
 
     User findByUsername(String username);
 
+    /**
+     * Find the keys of users with the given usernames, with as few queries as possible.
+     *
+     * @param usernames usernames
+     * @return keys of matching users, by username
+     */
+    Map<String, String> findKeysByUsernames(Collection<String> usernames);
+
     User findByToken(String token);
 
     List<User> findBySecurityQuestion(SecurityQuestion securityQuestion);
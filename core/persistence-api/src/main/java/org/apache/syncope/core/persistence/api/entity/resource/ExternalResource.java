@@ -89,6 +89,27 @@ public interface ExternalResource extends ProvidedKeyEntity {
 
     void setRandomPwdIfNotProvided(boolean condition);
 
+    /**
+     * When true, propagation does not read the remote object before acting on it: the operation is chosen according
+     * to the stored connObjectKey and the task type, and the remote object is read only if the resource reports an
+     * unknown or already existing object.
+     *
+     * @return whether local state is trusted when propagating to this resource
+     */
+    boolean isTrustLocalState();
+
+    void setTrustLocalState(boolean trustLocalState);
+
+    /**
+     * When true, pull and push store the content hash of the mapped attributes exchanged for each entity and skip
+     * the update of objects whose hash did not change since.
+     *
+     * @return whether change detection is enabled for this resource
+     */
+    boolean isChangeDetection();
+
+    void setChangeDetection(boolean changeDetection);
+
     boolean add(Provision provision);
 
     Provision getProvision(AnyType anyType);
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.entity.task;
 
+import java.util.Date;
 import java.util.Set;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ResourceOperation;
@@ -63,4 +64,12 @@ public interface PropagationTask extends Task {
     ExternalResource getResource();
 
     void setResource(ExternalResource resource);
+
+    String getClaimedBy();
+
+    void setClaimedBy(String claimedBy);
+
+    Date getClaimedAt();
+
+    void setClaimedAt(Date claimedAt);
 }
@@ -33,6 +33,16 @@ public interface PullTask extends ProvisioningTask {
 
     void setReconciliationFilterBuilderClassName(String reconciliationFilterBuilderClassName);
 
+    /**
+     * Number of threads processing remote objects during reconciliation: objects are dispatched by key, so that
+     * deltas about the same object are always handled in order by the same thread.
+     *
+     * @return number of threads processing remote objects during reconciliation, 1 for sequential processing
+     */
+    int getConcurrency();
+
+    void setConcurrency(int concurrency);
+
     Realm getDestinatioRealm();
 
     void setDestinationRealm(Realm destinationRealm);
@@ -61,13 +61,20 @@ import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttr;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrValue;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAARelationship;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchUniqueAttr;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchUniqueAttr;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAProvisionHash;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUMembership;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttr;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrValue;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAURelationship;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchUniqueAttr;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.security.crypto.codec.Hex;
@@ -86,7 +93,11 @@ public class XMLContentExporter extends AbstractContentDealer implements Content
         JPAUser.TABLE, JPAUPlainAttr.TABLE, JPAUPlainAttrValue.TABLE, JPAUPlainAttrUniqueValue.TABLE,
         JPAURelationship.TABLE, JPAUMembership.TABLE,
         JPAAnyObject.TABLE, JPAAPlainAttr.TABLE, JPAAPlainAttrValue.TABLE, JPAAPlainAttrUniqueValue.TABLE,
-        JPAARelationship.TABLE, JPAAMembership.TABLE
+        JPAARelationship.TABLE, JPAAMembership.TABLE,
+        JPAUSearchAttr.TABLE, JPAUSearchUniqueAttr.TABLE,
+        JPAASearchAttr.TABLE, JPAASearchUniqueAttr.TABLE,
+        JPAGSearchAttr.TABLE, JPAGSearchUniqueAttr.TABLE,
+        JPAProvisionHash.TABLE
     }));
 
     protected static final Map<String, String> TABLES_TO_BE_FILTERED =
@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,14 +41,17 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.dao.AllowedSchemas;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchIndexDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
 import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
@@ -63,12 +67,20 @@ import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.user.UMembership;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.entity.AbstractPlainAttrValue;
+import org.apache.syncope.core.spring.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> implements AnyDAO<A> {
 
+    /**
+     * Max number of keys bound to a single {@code IN} clause: some DBMS (notably Oracle) refuse more than 1000.
+     */
+    protected static final int MAX_IN_KEYS = 500;
+
     @Autowired
     protected PlainSchemaDAO plainSchemaDAO;
 
@@ -78,6 +90,15 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
     @Autowired
     protected AnySearchDAO searchDAO;
 
+    @Autowired
+    protected AnySearchIndexDAO searchIndex;
+
+    @Autowired
+    protected ProvisionHashDAO provisionHashDAO;
+
+    @Autowired
+    protected ApplicationEventPublisher publisher;
+
     protected AnyUtils anyUtils;
 
     protected abstract AnyUtils init();
@@ -118,6 +139,113 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return (A) entityManager().find(getAnyUtils().anyClass(), key);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<A> findByKeys(final Collection<String> keys) {
+        Set<String> uniqueKeys = new LinkedHashSet<>(keys);
+        if (uniqueKeys.isEmpty()) {
+            return Collections.<A>emptyList();
+        }
+
+        Map<String, A> found = new HashMap<>(uniqueKeys.size());
+
+        List<String> chunk = new ArrayList<>(Math.min(MAX_IN_KEYS, uniqueKeys.size()));
+        for (String key : uniqueKeys) {
+            chunk.add(key);
+            if (chunk.size() == MAX_IN_KEYS) {
+                findByKeys(chunk, found);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            findByKeys(chunk, found);
+        }
+
+        List<A> result = new ArrayList<>(found.size());
+        for (String key : uniqueKeys) {
+            A any = found.get(key);
+            if (any != null) {
+                result.add(any);
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void findByKeys(final List<String> keys, final Map<String, A> found) {
+        Query query = entityManager().createQuery("SELECT e FROM " + getAnyUtils().anyClass().getSimpleName()
+                + " e WHERE e.id IN (:keys)");
+        query.setParameter("keys", keys);
+
+        for (A any : (List<A>) query.getResultList()) {
+            found.put(any.getKey(), any);
+        }
+    }
+
+    /**
+     * Find the keys of any objects whose given field matches any of the given values, with as few queries as
+     * possible.
+     *
+     * @param field entity field, expected to hold unique values
+     * @param values values to match
+     * @return keys of matching any objects, by field value
+     */
+    protected Map<String, String> findKeysBy(final String field, final Collection<String> values) {
+        return findKeysBy(field, values, null);
+    }
+
+    /**
+     * Same as {@link #findKeysBy(java.lang.String, java.util.Collection)}, restricted to the given type.
+     *
+     * @param field entity field, expected to hold unique values
+     * @param values values to match
+     * @param anyType type of matching any objects, or {@code null} for any type
+     * @return keys of matching any objects, by field value
+     */
+    protected Map<String, String> findKeysBy(
+            final String field, final Collection<String> values, final AnyType anyType) {
+
+        Set<String> uniqueValues = new LinkedHashSet<>(values);
+        if (uniqueValues.isEmpty()) {
+            return Collections.<String, String>emptyMap();
+        }
+
+        Map<String, String> result = new HashMap<>(uniqueValues.size());
+
+        List<String> chunk = new ArrayList<>(Math.min(MAX_IN_KEYS, uniqueValues.size()));
+        for (String value : uniqueValues) {
+            chunk.add(value);
+            if (chunk.size() == MAX_IN_KEYS) {
+                findKeysBy(field, chunk, anyType, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            findKeysBy(field, chunk, anyType, result);
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void findKeysBy(
+            final String field, final List<String> values, final AnyType anyType, final Map<String, String> found) {
+
+        Query query = entityManager().createQuery("SELECT e." + field + ", e.id FROM "
+                + getAnyUtils().anyClass().getSimpleName() + " e WHERE e." + field + " IN (:values)"
+                + (anyType == null ? "" : " AND e.type=:type"));
+        query.setParameter("values", values);
+        if (anyType != null) {
+            query.setParameter("type", anyType);
+        }
+
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            found.put((String) row[0], (String) row[1]);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public A findByWorkflowId(final String workflowId) {
@@ -380,15 +508,12 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
 
         Query query = entityManager().createNativeQuery(querystring.toString());
 
-        List<A> result = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
         for (Object anyKey : query.getResultList()) {
-            A any = find(anyKey.toString());
-            if (!result.contains(any)) {
-                result.add(any);
-            }
+            keys.add(anyKey.toString());
         }
 
-        return result;
+        return findByKeys(keys);
     }
 
     @SuppressWarnings("unchecked")
@@ -486,7 +611,12 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
 
     @Override
     public A save(final A any) {
-        return entityManager().merge(any);
+        A merged = entityManager().merge(any);
+
+        publisher.publishEvent(
+                new AnyCreatedUpdatedEvent(this, getAnyUtils().getAnyTypeKind(), merged, AuthContextUtils.getDomain()));
+
+        return merged;
     }
 
     @Override
@@ -0,0 +1,938 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.TypedQuery;
+import javax.validation.ValidationException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.enhance.PersistenceCapable;
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DB2Dictionary;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.H2Dictionary;
+import org.apache.openjpa.jdbc.sql.OracleDictionary;
+import org.apache.openjpa.jdbc.sql.PostgresDictionary;
+import org.apache.openjpa.kernel.OpenJPAStateManager;
+import org.apache.openjpa.meta.FieldMetaData;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
+import org.apache.syncope.core.persistence.api.entity.GroupablePlainAttr;
+import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
+import org.apache.syncope.core.persistence.api.entity.Membership;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
+import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.DynRoleMembership;
+import org.apache.syncope.core.persistence.api.entity.user.UDynGroupMembership;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyUtilsFactory;
+import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAADynGroupMembership;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPADynRoleMembership;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUDynGroupMembership;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Index of the dynamic membership conditions defined by groups and roles, built per domain and indexed by the plain
+ * schemas and fields each condition refers to.
+ * When users or any objects are saved, only the conditions possibly affected by what was changed are evaluated again:
+ * simple conditions are matched in memory, the others via {@link AnySearchDAO#matches}; role conditions are never
+ * matched in memory, as roles can be assigned dynamically as well.
+ * The index is dropped whenever dynamic memberships, roles, realms or plain schemas are changed, as well as groups
+ * the index depends on, either locally or by other nodes of the cluster.
+ */
+@Component
+public class DynMembershipIndex extends AbstractDAO<DynMembership<?>> implements InitializingBean {
+
+    private static final String PLAIN_ATTRS = "plainAttrs";
+
+    private static final String MEMBERSHIPS = "memberships";
+
+    /**
+     * Group fields the index depends on.
+     */
+    private static final Set<String> GROUP_FIELDS = new HashSet<>(
+            Arrays.asList("name", "realm", "uDynMembership", "aDynMemberships"));
+
+    /**
+     * Indexes are rebuilt at least this often, in case remote commit events are not configured.
+     */
+    private static final long SNAPSHOT_TTL = 60000L;
+
+    /**
+     * Dynamic membership condition, as parsed when loading the index.
+     */
+    static class DynCond {
+
+        private final String key;
+
+        private final String fiql;
+
+        private final String realmFullPath;
+
+        private SearchCond cond;
+
+        /**
+         * Fields and plain schemas referenced by the condition; {@code null} when the condition needs to be evaluated
+         * after any change.
+         */
+        private Set<String> references = new HashSet<>();
+
+        private boolean attributes;
+
+        private boolean inMemory = true;
+
+        /**
+         * Validated expressions of attribute conditions and resolved keys of membership conditions.
+         */
+        private final Map<Object, Object> resolved = new IdentityHashMap<>();
+
+        DynCond(final String key, final String fiql, final String realmFullPath) {
+            this.key = key;
+            this.fiql = fiql;
+            this.realmFullPath = realmFullPath;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public boolean isInMemory() {
+            return inMemory;
+        }
+
+        public boolean isAffectedBy(final Set<String> changes) {
+            if (changes == null || references == null) {
+                return true;
+            }
+
+            for (String change : changes) {
+                if (references.contains(change)) {
+                    return true;
+                }
+            }
+            return attributes && changes.contains(PLAIN_ATTRS);
+        }
+
+        private void referenceAll() {
+            references = null;
+        }
+
+        private void reference(final String... refs) {
+            if (references != null) {
+                for (String ref : refs) {
+                    references.add(ref);
+                }
+            }
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long created = System.currentTimeMillis();
+
+        private long generation;
+
+        /**
+         * Keys of the groups the index depends on: groups with dynamic memberships and groups resolved from
+         * membership conditions.
+         */
+        private final Set<String> groupKeys = new HashSet<>();
+
+        private final List<DynCond> uDynGroupConds = new ArrayList<>();
+
+        private final List<DynCond> aDynGroupConds = new ArrayList<>();
+
+        private final List<DynCond> dynRoleConds = new ArrayList<>();
+    }
+
+    /**
+     * Builds the search condition to be matched by the members of a dynamic membership.
+     *
+     * @param fiql dynamic membership condition
+     * @param realmFullPath full path of the realm of the owning group, or {@code null} for roles
+     * @return search condition
+     */
+    public static SearchCond buildDynMembershipCond(final String fiql, final String realmFullPath) {
+        SearchCond cond = SearchCondConverter.convert(fiql);
+        if (realmFullPath == null) {
+            return cond;
+        }
+
+        AssignableCond assignableCond = new AssignableCond();
+        assignableCond.setRealmFullPath(realmFullPath);
+        assignableCond.setFromGroup(false);
+        return SearchCond.getAndCond(SearchCond.getLeafCond(assignableCond), cond);
+    }
+
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Per-domain counters of invalidations: indexes are only served and installed if built in the current
+     * generation, so that no index loaded before a change can be installed after its invalidation.
+     */
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    @Override
+    public void afterPropertiesSet() {
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                for (Map.Entry<Class<?>, Set<String>> entry : changes.entrySet()) {
+                    Class<?> type = entry.getKey();
+                    if (DynMembership.class.isAssignableFrom(type)
+                            || (Group.class.isAssignableFrom(type) && dependsOn(domain, entry.getValue()))
+                            || Role.class.isAssignableFrom(type)
+                            || Realm.class.isAssignableFrom(type)
+                            || PlainSchema.class.isAssignableFrom(type)) {
+
+                        invalidate(domain);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @param domain domain
+     * @param groupKeys keys of changed groups, empty if unknown
+     * @return whether the index of the given domain, if any, might depend on any of the given groups
+     */
+    private boolean dependsOn(final String domain, final Set<String> groupKeys) {
+        Snapshot snapshot = snapshots.get(domain);
+        return snapshot == null || groupKeys == null || groupKeys.isEmpty()
+                || !Collections.disjoint(snapshot.groupKeys, groupKeys);
+    }
+
+    private AtomicLong generation(final String domain) {
+        AtomicLong generation = generations.get(domain);
+        if (generation == null) {
+            AtomicLong newGeneration = new AtomicLong();
+            generation = generations.putIfAbsent(domain, newGeneration);
+            if (generation == null) {
+                generation = newGeneration;
+            }
+        }
+        return generation;
+    }
+
+    private Snapshot getSnapshot() {
+        String domain = AuthContextUtils.getDomain();
+        AtomicLong generation = generation(domain);
+
+        Snapshot snapshot = snapshots.get(domain);
+        if (snapshot != null && snapshot.generation == generation.get()
+                && System.currentTimeMillis() - snapshot.created < SNAPSHOT_TTL) {
+
+            return snapshot;
+        }
+
+        long current = generation.get();
+        Snapshot newSnapshot = load();
+        newSnapshot.generation = current;
+        if (snapshot == null) {
+            snapshots.putIfAbsent(domain, newSnapshot);
+        } else {
+            snapshots.replace(domain, snapshot, newSnapshot);
+        }
+        // invalidated while loading: the index might miss the latest changes, hence it is not kept
+        if (generation.get() != current) {
+            snapshots.remove(domain, newSnapshot);
+        }
+        return newSnapshot;
+    }
+
+    private Snapshot load() {
+        DBDictionary dictionary = ((JDBCConfiguration) entityManager().
+                unwrap(OpenJPAEntityManagerSPI.class).getConfiguration()).getDBDictionaryInstance();
+        // string equality is matched in memory only where the database compares strings case-sensitively
+        boolean caseSensitive = dictionary instanceof H2Dictionary
+                || dictionary instanceof PostgresDictionary
+                || dictionary instanceof OracleDictionary
+                || dictionary instanceof DB2Dictionary;
+
+        List<UDynGroupMembership> uDynGroupMemberships = entityManager().createQuery(
+                "SELECT e FROM " + JPAUDynGroupMembership.class.getSimpleName() + " e",
+                UDynGroupMembership.class).getResultList();
+        List<ADynGroupMembership> aDynGroupMemberships = entityManager().createQuery(
+                "SELECT e FROM " + JPAADynGroupMembership.class.getSimpleName() + " e",
+                ADynGroupMembership.class).getResultList();
+        List<DynRoleMembership> dynRoleMemberships = entityManager().createQuery(
+                "SELECT e FROM " + JPADynRoleMembership.class.getSimpleName() + " e",
+                DynRoleMembership.class).getResultList();
+
+        // membership and role conditions on dynamic groups and roles depend on other dynamic memberships
+        Set<String> dynGroups = new HashSet<>();
+        for (UDynGroupMembership memb : uDynGroupMemberships) {
+            dynGroups.add(memb.getGroup().getKey());
+            dynGroups.add(memb.getGroup().getName());
+        }
+        for (ADynGroupMembership memb : aDynGroupMemberships) {
+            dynGroups.add(memb.getGroup().getKey());
+            dynGroups.add(memb.getGroup().getName());
+        }
+        Set<String> dynRoles = new HashSet<>();
+        for (DynRoleMembership memb : dynRoleMemberships) {
+            dynRoles.add(memb.getRole().getKey());
+        }
+
+        Snapshot snapshot = new Snapshot();
+        for (UDynGroupMembership memb : uDynGroupMemberships) {
+            snapshot.uDynGroupConds.add(build(
+                    memb.getKey(), memb.getFIQLCond(), memb.getGroup().getRealm().getFullPath(),
+                    AnyTypeKind.USER, dynGroups, dynRoles, caseSensitive));
+        }
+        for (ADynGroupMembership memb : aDynGroupMemberships) {
+            snapshot.aDynGroupConds.add(build(
+                    memb.getKey(), memb.getFIQLCond(), memb.getGroup().getRealm().getFullPath(),
+                    AnyTypeKind.ANY_OBJECT, dynGroups, dynRoles, caseSensitive));
+        }
+        for (DynRoleMembership memb : dynRoleMemberships) {
+            snapshot.dynRoleConds.add(build(
+                    memb.getKey(), memb.getFIQLCond(), null,
+                    AnyTypeKind.USER, dynGroups, dynRoles, caseSensitive));
+        }
+
+        for (UDynGroupMembership memb : uDynGroupMemberships) {
+            snapshot.groupKeys.add(memb.getGroup().getKey());
+        }
+        for (ADynGroupMembership memb : aDynGroupMemberships) {
+            snapshot.groupKeys.add(memb.getGroup().getKey());
+        }
+        for (List<DynCond> dynConds : Arrays.asList(
+                snapshot.uDynGroupConds, snapshot.aDynGroupConds, snapshot.dynRoleConds)) {
+
+            for (DynCond dynCond : dynConds) {
+                for (Map.Entry<Object, Object> entry : dynCond.resolved.entrySet()) {
+                    if (entry.getKey() instanceof MembershipCond) {
+                        snapshot.groupKeys.add((String) entry.getValue());
+                    }
+                }
+            }
+        }
+
+        LOG.debug("Loaded {} user group, {} any object group and {} role dynamic membership conditions",
+                snapshot.uDynGroupConds.size(), snapshot.aDynGroupConds.size(), snapshot.dynRoleConds.size());
+        return snapshot;
+    }
+
+    private DynCond build(
+            final String key,
+            final String fiql,
+            final String realmFullPath,
+            final AnyTypeKind anyTypeKind,
+            final Set<String> dynGroups,
+            final Set<String> dynRoles,
+            final boolean caseSensitive) {
+
+        DynCond dynCond = new DynCond(key, fiql, realmFullPath);
+        try {
+            dynCond.cond = buildDynMembershipCond(fiql, realmFullPath);
+            analyze(dynCond, dynCond.cond, anyTypeKind, dynGroups, dynRoles, caseSensitive);
+        } catch (Exception e) {
+            LOG.error("While analyzing dynamic membership condition {}", fiql, e);
+            dynCond.referenceAll();
+            dynCond.inMemory = false;
+        }
+        return dynCond;
+    }
+
+    private void analyze(
+            final DynCond dynCond,
+            final SearchCond node,
+            final AnyTypeKind anyTypeKind,
+            final Set<String> dynGroups,
+            final Set<String> dynRoles,
+            final boolean caseSensitive) {
+
+        switch (node.getType()) {
+            case AND:
+            case OR:
+                analyze(dynCond, node.getLeftNodeCond(), anyTypeKind, dynGroups, dynRoles, caseSensitive);
+                analyze(dynCond, node.getRightNodeCond(), anyTypeKind, dynGroups, dynRoles, caseSensitive);
+                break;
+
+            case LEAF:
+            case NOT_LEAF:
+                boolean not = node.getType() == SearchCond.Type.NOT_LEAF;
+
+                if (node.getAnyTypeCond() != null) {
+                    dynCond.reference("type");
+                    dynCond.inMemory &= anyTypeKind == AnyTypeKind.ANY_OBJECT;
+                } else if (node.getRelationshipTypeCond() != null || node.getRelationshipCond() != null) {
+                    dynCond.reference("relationships");
+                    dynCond.inMemory = false;
+                } else if (node.getMembershipCond() != null) {
+                    String group = node.getMembershipCond().getGroup();
+                    if (dynGroups.contains(group)) {
+                        dynCond.referenceAll();
+                        dynCond.inMemory = false;
+                    } else {
+                        dynCond.reference(MEMBERSHIPS);
+                        String groupKey = resolveGroup(group);
+                        if (groupKey == null) {
+                            dynCond.inMemory = false;
+                        } else {
+                            dynCond.resolved.put(node.getMembershipCond(), groupKey);
+                        }
+                    }
+                } else if (node.getAssignableCond() != null) {
+                    dynCond.reference("realm");
+                    dynCond.inMemory &= !node.getAssignableCond().isFromGroup()
+                            && resolveRealm(node.getAssignableCond().getRealmFullPath());
+                } else if (node.getRoleCond() != null) {
+                    if (dynRoles.contains(node.getRoleCond().getRoleKey())) {
+                        dynCond.referenceAll();
+                        dynCond.inMemory = false;
+                    } else {
+                        // static roles only are available in memory, dynamic roles are not
+                        dynCond.reference("roles");
+                        dynCond.inMemory = false;
+                    }
+                } else if (node.getResourceCond() != null) {
+                    dynCond.reference("resources", MEMBERSHIPS);
+                } else if (node.getAttributeCond() != null) {
+                    dynCond.attributes = true;
+                    dynCond.reference(node.getAttributeCond().getSchema());
+                    dynCond.inMemory &= analyze(dynCond, node.getAttributeCond(), not, anyTypeKind, caseSensitive);
+                } else if (node.getAnyCond() != null) {
+                    AnyCond cond = node.getAnyCond();
+                    if (!"key".equals(cond.getSchema()) && !"id".equals(cond.getSchema())) {
+                        dynCond.reference(cond.getSchema());
+                    }
+                    dynCond.inMemory &= analyze(cond, anyTypeKind, caseSensitive);
+                } else {
+                    dynCond.referenceAll();
+                    dynCond.inMemory = false;
+                }
+                break;
+
+            default:
+        }
+    }
+
+    private boolean analyze(
+            final DynCond dynCond,
+            final AttributeCond cond,
+            final boolean not,
+            final AnyTypeKind anyTypeKind,
+            final boolean caseSensitive) {
+
+        if (cond.getType() == AttributeCond.Type.ISNULL || cond.getType() == AttributeCond.Type.ISNOTNULL) {
+            return !not;
+        }
+        if (cond.getType() == AttributeCond.Type.LIKE) {
+            return false;
+        }
+
+        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
+        if (schema == null) {
+            return false;
+        }
+        switch (schema.getType()) {
+            case Long:
+            case Double:
+            case Date:
+                break;
+
+            case Boolean:
+            case String:
+            case Enum:
+                if (cond.getType() != AttributeCond.Type.EQ
+                        || (schema.getType() != AttrSchemaType.Boolean && !caseSensitive)) {
+
+                    return false;
+                }
+                break;
+
+            default:
+                return false;
+        }
+
+        PlainAttrValue attrValue = new JPAAnyUtilsFactory().getInstance(anyTypeKind).newPlainAttrValue();
+        try {
+            schema.getValidator().validate(cond.getExpression(), attrValue);
+        } catch (ValidationException e) {
+            return false;
+        }
+        if (attrValue.getValue() == null) {
+            return false;
+        }
+
+        dynCond.resolved.put(cond, attrValue.getValue());
+        return true;
+    }
+
+    private boolean analyze(final AnyCond cond, final AnyTypeKind anyTypeKind, final boolean caseSensitive) {
+        switch (cond.getSchema()) {
+            case "key":
+            case "id":
+            case "status":
+                break;
+
+            case "username":
+                if (anyTypeKind != AnyTypeKind.USER) {
+                    return false;
+                }
+                break;
+
+            case "name":
+                if (anyTypeKind != AnyTypeKind.ANY_OBJECT) {
+                    return false;
+                }
+                break;
+
+            default:
+                return false;
+        }
+
+        return cond.getType() == AttributeCond.Type.ISNULL
+                || cond.getType() == AttributeCond.Type.ISNOTNULL
+                || (cond.getType() == AttributeCond.Type.EQ && caseSensitive);
+    }
+
+    private String resolveGroup(final String group) {
+        if (SyncopeConstants.UUID_PATTERN.matcher(group).matches()) {
+            return entityManager().find(JPAGroup.class, group) == null ? null : group;
+        }
+
+        List<String> keys = entityManager().createQuery(
+                "SELECT e.id FROM " + JPAGroup.class.getSimpleName() + " e WHERE e.name=:name", String.class).
+                setParameter("name", group).getResultList();
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    private boolean resolveRealm(final String fullPath) {
+        return !entityManager().createQuery(
+                "SELECT e.id FROM " + JPARealm.class.getSimpleName() + " e WHERE e.fullPath=:fullPath", String.class).
+                setParameter("fullPath", fullPath).getResultList().isEmpty();
+    }
+
+    /**
+     * Drops the index for the current domain; to be invoked when dynamic memberships of groups or roles are created,
+     * updated or removed. As the index could be reloaded before the current transaction is over, the index is dropped
+     * once more upon transaction completion.
+     */
+    public void invalidate() {
+        invalidate(AuthContextUtils.getDomain());
+    }
+
+    /**
+     * Drops the index for the given domain, as {@link #invalidate()}.
+     *
+     * @param domain domain
+     */
+    public void invalidate(final String domain) {
+        drop(domain);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    drop(domain);
+                }
+            });
+        }
+    }
+
+    private void drop(final String domain) {
+        generation(domain).incrementAndGet();
+        snapshots.remove(domain);
+    }
+
+    /**
+     * Tells whether saving the given group, as changed within the current transaction, might affect the index: this
+     * happens when its dynamic memberships, name or realm were changed.
+     *
+     * @param group group about to be saved
+     * @return whether the index needs to be dropped after saving the given group
+     */
+    public boolean isAffectedBy(final Group group) {
+        if (!(group instanceof PersistenceCapable)) {
+            return true;
+        }
+        Object sm = ((PersistenceCapable) group).pcGetStateManager();
+        if (!(sm instanceof OpenJPAStateManager)) {
+            // detached: changes are not known
+            return true;
+        }
+        OpenJPAStateManager stateManager = (OpenJPAStateManager) sm;
+        if (stateManager.isNew() || stateManager.isDeleted()) {
+            return hasDynMemberships(group);
+        }
+
+        BitSet dirty = stateManager.getDirty();
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            if (GROUP_FIELDS.contains(stateManager.getMetaData().getField(i).getName())) {
+                return true;
+            }
+        }
+
+        if (isChanged(group.getUDynMembership())) {
+            return true;
+        }
+        for (ADynGroupMembership memb : group.getADynMemberships()) {
+            if (isChanged(memb)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param group group
+     * @return whether the given group defines any dynamic membership
+     */
+    public boolean hasDynMemberships(final Group group) {
+        return group.getUDynMembership() != null || !group.getADynMemberships().isEmpty();
+    }
+
+    private static boolean isChanged(final Object entity) {
+        if (entity == null) {
+            return false;
+        }
+        if (!(entity instanceof PersistenceCapable)) {
+            return true;
+        }
+
+        Object sm = ((PersistenceCapable) entity).pcGetStateManager();
+        return !(sm instanceof OpenJPAStateManager)
+                || ((OpenJPAStateManager) sm).isNew()
+                || ((OpenJPAStateManager) sm).isDirty();
+    }
+
+    /**
+     * Returns the names of the fields and the keys of the plain schemas changed on the given user or any object within
+     * the current transaction, as tracked by OpenJPA.
+     *
+     * @param any user or any object
+     * @return changed fields and plain schemas, or {@code null} if the given instance is new or not managed
+     */
+    public Set<String> getChanges(final GroupableRelatable<?, ?, ?, ?, ?> any) {
+        if (!(any instanceof PersistenceCapable)) {
+            return null;
+        }
+        Object sm = ((PersistenceCapable) any).pcGetStateManager();
+        if (!(sm instanceof OpenJPAStateManager)
+                || ((OpenJPAStateManager) sm).isNew() || ((OpenJPAStateManager) sm).isDeleted()) {
+
+            return null;
+        }
+        OpenJPAStateManager stateManager = (OpenJPAStateManager) sm;
+
+        Set<String> changes = new HashSet<>();
+        BitSet dirty = stateManager.getDirty();
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            changes.add(stateManager.getMetaData().getField(i).getName());
+        }
+
+        // values of plain attributes are changed without touching the owner's fields
+        FieldMetaData plainAttrs = stateManager.getMetaData().getField(PLAIN_ATTRS);
+        if (plainAttrs != null && stateManager.getLoaded().get(plainAttrs.getIndex())) {
+            List<GroupablePlainAttr<?, ?>> attrs = new ArrayList<>();
+            attrs.addAll(any.getPlainAttrs());
+            for (Membership<?> membership : any.getMemberships()) {
+                attrs.addAll(any.getPlainAttrs(membership));
+            }
+
+            for (GroupablePlainAttr<?, ?> attr : attrs) {
+                boolean changed = isChanged(attr) || isChanged(attr.getUniqueValue());
+                for (int i = 0; i < attr.getValues().size() && !changed; i++) {
+                    changed = isChanged(attr.getValues().get(i));
+                }
+                if (changed && attr.getSchema() != null) {
+                    changes.add(attr.getSchema().getKey());
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    private Set<String> merge(final GroupableRelatable<?, ?, ?, ?, ?> any, final Set<String> changes) {
+        if (changes == null) {
+            return null;
+        }
+
+        Set<String> later = getChanges(any);
+        if (later == null) {
+            return null;
+        }
+        later.addAll(changes);
+        return later;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean compare(
+            final AttributeCond.Type type, final boolean not, final Object value, final Object expected) {
+
+        int result = ((Comparable<Object>) value).compareTo(expected);
+        switch (type) {
+            case EQ:
+                return not ? result != 0 : result == 0;
+
+            case GE:
+                return not ? result < 0 : result >= 0;
+
+            case GT:
+                return not ? result <= 0 : result > 0;
+
+            case LE:
+                return not ? result > 0 : result <= 0;
+
+            case LT:
+                return not ? result >= 0 : result < 0;
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean matches(
+            final GroupableRelatable<?, ?, ?, ?, ?> any,
+            final DynCond dynCond,
+            final AttributeCond cond,
+            final boolean not) {
+
+        Collection<? extends GroupablePlainAttr<?, ?>> attrs = any.getPlainAttrs(cond.getSchema());
+        switch (cond.getType()) {
+            case ISNULL:
+                return attrs.isEmpty();
+
+            case ISNOTNULL:
+                return !attrs.isEmpty();
+
+            default:
+                Object expected = dynCond.resolved.get(cond);
+                for (GroupablePlainAttr<?, ?> attr : attrs) {
+                    List<PlainAttrValue> values = new ArrayList<>();
+                    if (attr.getUniqueValue() == null) {
+                        values.addAll(attr.getValues());
+                    } else {
+                        values.add(attr.getUniqueValue());
+                    }
+
+                    for (PlainAttrValue value : values) {
+                        if (value.getValue() != null && compare(cond.getType(), not, value.getValue(), expected)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+        }
+    }
+
+    private static boolean matches(final Any<?> any, final AnyCond cond, final boolean not) {
+        String value;
+        switch (cond.getSchema()) {
+            case "status":
+                value = any.getStatus();
+                break;
+
+            case "username":
+                value = ((User) any).getUsername();
+                break;
+
+            case "name":
+                value = ((AnyObject) any).getName();
+                break;
+
+            default:
+                value = any.getKey();
+        }
+
+        switch (cond.getType()) {
+            case ISNULL:
+                return (value == null) != not;
+
+            case ISNOTNULL:
+                return (value != null) != not;
+
+            default:
+                return value != null && value.equals(cond.getExpression()) != not;
+        }
+    }
+
+    private static boolean matches(final Any<?> any, final DynCond dynCond, final SearchCond node) {
+        boolean not = node.getType() == SearchCond.Type.NOT_LEAF;
+
+        if (node.getAttributeCond() != null) {
+            return matches((GroupableRelatable<?, ?, ?, ?, ?>) any, dynCond, node.getAttributeCond(), not);
+        }
+
+        if (node.getAnyCond() != null) {
+            return matches(any, node.getAnyCond(), not);
+        }
+
+        if (node.getAssignableCond() != null) {
+            String fullPath = node.getAssignableCond().getRealmFullPath();
+            return any.getRealm().getFullPath().equals(fullPath)
+                    || any.getRealm().getFullPath().startsWith(StringUtils.appendIfMissing(fullPath, "/"));
+        }
+
+        boolean matches = false;
+        if (node.getAnyTypeCond() != null) {
+            matches = node.getAnyTypeCond().getAnyTypeKey().equals(any.getType().getKey());
+        } else if (node.getMembershipCond() != null) {
+            matches = ((GroupableRelatable<?, ?, ?, ?, ?>) any).getMembership(
+                    (String) dynCond.resolved.get(node.getMembershipCond())) != null;
+        } else if (node.getResourceCond() != null) {
+            String resource = node.getResourceCond().getResourceKey();
+            matches = any.getResourceKeys().contains(resource);
+            if (any instanceof User) {
+                for (Membership<?> membership : ((User) any).getMemberships()) {
+                    matches |= membership.getRightEnd().getResourceKeys().contains(resource);
+                }
+            }
+        }
+        return matches != not;
+    }
+
+    private static boolean evaluate(final Any<?> any, final DynCond dynCond, final SearchCond node) {
+        switch (node.getType()) {
+            case AND:
+                return evaluate(any, dynCond, node.getLeftNodeCond())
+                        && evaluate(any, dynCond, node.getRightNodeCond());
+
+            case OR:
+                return evaluate(any, dynCond, node.getLeftNodeCond())
+                        || evaluate(any, dynCond, node.getRightNodeCond());
+
+            default:
+                return matches(any, dynCond, node);
+        }
+    }
+
+    private <A extends Any<?>> void refresh(
+            final A any,
+            final AnyTypeKind anyTypeKind,
+            final List<DynCond> dynConds,
+            final Set<String> changes,
+            final Class<? extends DynMembership<A>> reference,
+            final String membersField) {
+
+        Set<String> current = null;
+        for (DynCond dynCond : dynConds) {
+            if (!dynCond.isAffectedBy(changes)) {
+                continue;
+            }
+
+            if (current == null) {
+                TypedQuery<String> query = entityManager().createQuery(
+                        "SELECT e.id FROM " + reference.getSimpleName() + " e "
+                        + "WHERE :any MEMBER OF e." + membersField, String.class);
+                query.setParameter("any", any);
+                current = new HashSet<>(query.getResultList());
+            }
+
+            boolean matches = dynCond.isInMemory()
+                    ? evaluate(any, dynCond, dynCond.cond)
+                    : searchDAO.matches(
+                            any, buildDynMembershipCond(dynCond.fiql, dynCond.realmFullPath), anyTypeKind);
+            if (matches != current.contains(dynCond.getKey())) {
+                DynMembership<A> memb = entityManager().find(reference, dynCond.getKey());
+                if (memb != null) {
+                    if (matches) {
+                        memb.add(any);
+                    } else {
+                        memb.getMembers().remove(any);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Refreshes the dynamic group and role memberships of the given user, by evaluating only the conditions which
+     * might be affected by the given changes.
+     *
+     * @param user user, after being saved
+     * @param changes as returned by {@link #getChanges(GroupableRelatable)} before saving; {@code null} to evaluate
+     * all conditions
+     */
+    public void refresh(final User user, final Set<String> changes) {
+        Snapshot snapshot = getSnapshot();
+        Set<String> actual = merge(user, changes);
+
+        refresh(user, AnyTypeKind.USER, snapshot.uDynGroupConds, actual, JPAUDynGroupMembership.class, "users");
+        refresh(user, AnyTypeKind.USER, snapshot.dynRoleConds, actual, JPADynRoleMembership.class, "users");
+    }
+
+    /**
+     * Refreshes the dynamic group memberships of the given any object, by evaluating only the conditions which might
+     * be affected by the given changes.
+     *
+     * @param anyObject any object, after being saved
+     * @param changes as returned by {@link #getChanges(GroupableRelatable)} before saving; {@code null} to evaluate
+     * all conditions
+     */
+    public void refresh(final AnyObject anyObject, final Set<String> changes) {
+        refresh(anyObject, AnyTypeKind.ANY_OBJECT, getSnapshot().aDynGroupConds, merge(anyObject, changes),
+                JPAADynGroupMembership.class, "anyObjects");
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.commons.collections4.Predicate;
 import org.apache.commons.collections4.Transformer;
 import org.apache.syncope.common.lib.types.AnyEntitlement;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.provisioning.api.utils.EntityUtils;
@@ -72,6 +73,9 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
     @Autowired
     private GroupDAO groupDAO;
 
+    @Autowired
+    private DynMembershipIndex dynMembershipIndex;
+
     @Override
     public Map<AnyType, Integer> countByType() {
         Query query = entityManager().createQuery(
@@ -142,6 +146,11 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
         return result;
     }
 
+    @Override
+    public Map<String, String> findKeysByNames(final AnyType anyType, final Collection<String> names) {
+        return findKeysBy("name", names, anyType);
+    }
+
     @Override
     public AnyObject authFindByName(final String name) {
         if (name == null) {
@@ -180,9 +189,11 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
 
     @Override
     public AnyObject save(final AnyObject anyObject) {
+        Set<String> changes = dynMembershipIndex.getChanges(anyObject);
+
         AnyObject merged = super.save(anyObject);
 
-        groupDAO.refreshDynMemberships(merged);
+        dynMembershipIndex.refresh(merged, changes);
 
         return merged;
     }
@@ -206,6 +217,11 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
             entityManager().remove(relationship);
         }
 
+        searchIndex.remove(AnyTypeKind.ANY_OBJECT, any.getKey());
+        provisionHashDAO.deleteByAny(any.getKey());
+        publisher.publishEvent(
+                new AnyDeletedEvent(this, AnyTypeKind.ANY_OBJECT, any.getKey(), AuthContextUtils.getDomain()));
+
         entityManager().remove(any);
     }
 
@@ -24,28 +24,43 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.persistence.Entity;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DB2Dictionary;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.OracleDictionary;
+import org.apache.openjpa.jdbc.sql.PostgresDictionary;
+import org.apache.openjpa.jdbc.sql.SQLServerDictionary;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
-import org.apache.syncope.core.provisioning.api.utils.EntityUtils;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchIndexDAO;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
@@ -68,17 +83,33 @@ import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.ReflectionUtils;
 
-@Repository
-public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO {
+/**
+ * Search over the SQL views (or the optional search index tables) of the configured DBMS; this is the default
+ * {@link AnySearchDAO} implementation, as set by the {@code anySearchDAO} property in {@code persistence.properties}.
+ */
+public class JPAAnySearchDAO extends AbstractDAO<Any<?>>
+        implements AnySearchDAO, SearchStatementBuilder, InitializingBean {
 
     private static final String EMPTY_QUERY = "SELECT any_id FROM user_search_attr WHERE 1=2";
 
+    /**
+     * Value of {@code afterKey} requesting the first page with keyset pagination: no keyset predicate is added.
+     */
+    private static final String FIRST_PAGE_KEY = "";
+
+    private static final Map<String, Boolean> WINDOW_FUNCTIONS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, SearchPlanCache> PLAN_CACHES = new ConcurrentHashMap<>();
+
     @Autowired
     private RealmDAO realmDAO;
 
@@ -97,35 +128,150 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
     @Autowired
     private AnyUtilsFactory anyUtilsFactory;
 
+    @Autowired
+    private AnySearchIndexDAO searchIndex;
+
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    /**
+     * Returns the search plan cache of the given domain.
+     *
+     * @param domain domain
+     * @return search plan cache of the given domain
+     */
+    public static SearchPlanCache getPlanCache(final String domain) {
+        SearchPlanCache planCache = PLAN_CACHES.get(domain);
+        if (planCache == null) {
+            planCache = new SearchPlanCache(1000);
+            SearchPlanCache existing = PLAN_CACHES.putIfAbsent(domain, planCache);
+            if (existing != null) {
+                planCache = existing;
+            }
+        }
+        return planCache;
+    }
+
+    /**
+     * Clears the search plan cache of the current domain, both immediately and after the current transaction
+     * completes, so that no plan built from outdated plain schemas can survive.
+     */
+    public static void clearPlanCache() {
+        final String domain = AuthContextUtils.getDomain();
+        getPlanCache(domain).clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    getPlanCache(domain).clear();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                for (Class<?> type : changes.keySet()) {
+                    if (PlainSchema.class.isAssignableFrom(type)) {
+                        getPlanCache(domain).clear();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Iterates over the keys of matching any objects by means of keyset pagination; the persistence context is left
+     * untouched, as it is shared with the caller.
+     */
+    private class KeysetIterator implements Iterator<String> {
+
+        private final Set<String> adminRealms;
+
+        private final SearchCond searchCondition;
+
+        private final int chunkSize;
+
+        private final AnyTypeKind typeKind;
+
+        private Iterator<String> chunk;
+
+        private String lastKey;
+
+        private boolean exhausted;
+
+        KeysetIterator(
+                final Set<String> adminRealms,
+                final SearchCond searchCondition,
+                final int chunkSize,
+                final AnyTypeKind typeKind) {
+
+            this.adminRealms = adminRealms;
+            this.searchCondition = searchCondition;
+            this.chunkSize = chunkSize;
+            this.typeKind = typeKind;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk != null && chunk.hasNext()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+
+            // the first chunk is read with no keyset predicate
+            Set<String> keys = doSearchKeys(adminRealms, searchCondition, 1, chunkSize,
+                    Collections.<OrderByClause>emptyList(), lastKey == null ? FIRST_PAGE_KEY : lastKey, false,
+                    typeKind).getRight();
+            exhausted = keys.size() < chunkSize;
+            chunk = keys.iterator();
+
+            return chunk.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            lastKey = chunk.next();
+            return lastKey;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private String getAdminRealmsFilter(
             final Set<String> adminRealms,
             final SearchSupport svs,
             final List<Object> parameters) {
 
-        Set<String> realmKeys = new HashSet<>();
-        for (String realmPath : RealmUtils.normalize(adminRealms)) {
-            Realm realm = realmDAO.findByFullPath(realmPath);
-            if (realm == null) {
-                LOG.warn("Ignoring invalid realm {}", realmPath);
-            } else {
-                CollectionUtils.collect(
-                        realmDAO.findDescendants(realm), EntityUtils.<Realm>keyTransformer(), realmKeys);
-            }
-        }
-
         StringBuilder adminRealmFilter = new StringBuilder().
                 append("SELECT any_id FROM ").append(svs.field().name).
                 append(" WHERE realm_id IN (SELECT id AS realm_id FROM Realm");
 
         boolean firstRealm = true;
-        for (String realmKey : realmKeys) {
+        for (String realmPath : RealmUtils.normalize(adminRealms)) {
             if (firstRealm) {
                 adminRealmFilter.append(" WHERE");
                 firstRealm = false;
             } else {
                 adminRealmFilter.append(" OR");
             }
-            adminRealmFilter.append(" id=?").append(setParameter(parameters, realmKey));
+            adminRealmFilter.append(realmFullPathFilter(realmPath, parameters));
         }
 
         adminRealmFilter.append(')');
@@ -133,24 +279,73 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         return adminRealmFilter.toString();
     }
 
+    /**
+     * Matches the given realm and all of its descendants, by means of the materialized realm full path.
+     *
+     * @param realmPath realm full path
+     * @param parameters query parameters
+     * @return condition on Realm table
+     */
+    private String realmFullPathFilter(final String realmPath, final List<Object> parameters) {
+        return new StringBuilder().
+                append(" (fullPath=?").append(setParameter(parameters, realmPath)).
+                append(" OR fullPath LIKE ?").
+                append(setParameter(parameters, StringUtils.appendIfMissing(realmPath, "/") + "%")).
+                append(')').toString();
+    }
+
+    /**
+     * Builds the key for the plan cache: the given query parts only contain positional parameters, thus
+     * representing the normalized shape of the search condition.
+     *
+     * @param mode kind of statement (search, count, ...)
+     * @param svs search support
+     * @param orderBy ordering clauses
+     * @param parts query parts
+     * @return plan cache key
+     */
+    private String getPlanKey(
+            final String mode,
+            final SearchSupport svs,
+            final List<OrderByClause> orderBy,
+            final String... parts) {
+
+        StringBuilder key = new StringBuilder(mode).append('|').append(svs.anyTypeKind().name()).
+                append('|').append(svs.isIndexed());
+        for (OrderByClause clause : orderBy) {
+            key.append('|').append(clause.getField()).append(' ').append(clause.getDirection().name());
+        }
+        for (String part : parts) {
+            key.append('|').append(part);
+        }
+        return key.toString();
+    }
+
     @Override
     public int count(final Set<String> adminRealms, final SearchCond searchCondition, final AnyTypeKind typeKind) {
-        List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
+        List<Object> parameters = new ArrayList<>();
 
         // 1. get the query string from the search condition
-        SearchSupport svs = new SearchSupport(typeKind);
-        StringBuilder queryString = getQuery(searchCondition, parameters, svs);
+        SearchSupport svs = searchSupport(typeKind);
+        String condQuery = getQuery(searchCondition, parameters, svs).toString();
 
         // 2. take into account administrative realms
-        queryString.insert(0, "SELECT u.any_id FROM (");
-        queryString.append(") u WHERE any_id IN (");
-        queryString.append(getAdminRealmsFilter(adminRealms, svs, parameters)).append(')');
-
-        // 3. prepare the COUNT query
-        queryString.insert(0, "SELECT COUNT(any_id) FROM (");
-        queryString.append(") count_any_id");
+        String realmsFilter = getAdminRealmsFilter(adminRealms, svs, parameters);
+
+        // 3. prepare the COUNT query, unless already available
+        String planKey = getPlanKey("COUNT", svs, Collections.<OrderByClause>emptyList(),
+                condQuery, realmsFilter);
+        SearchPlanCache planCache = getPlanCache(AuthContextUtils.getDomain());
+        SearchPlanCache.Plan plan = planCache.get(planKey);
+        if (plan == null) {
+            plan = new SearchPlanCache.Plan(new StringBuilder("SELECT COUNT(any_id) FROM (").
+                    append("SELECT u.any_id FROM (").append(condQuery).
+                    append(") u WHERE any_id IN (").append(realmsFilter).append(')').
+                    append(") count_any_id").toString(), false);
+            planCache.put(planKey, plan);
+        }
 
-        Query countQuery = entityManager().createNativeQuery(queryString.toString());
+        Query countQuery = entityManager().createNativeQuery(plan.getStatement());
         fillWithParameters(countQuery, parameters);
 
         return ((Number) countQuery.getSingleResult()).intValue();
@@ -188,7 +383,63 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
 
             if (searchCondition != null && searchCondition.isValid()) {
                 try {
-                    result = doSearch(adminRealms, searchCondition, page, itemsPerPage, orderBy, typeKind);
+                    result = this.<T>doSearch(
+                            adminRealms, searchCondition, page, itemsPerPage, orderBy, null, false, typeKind).
+                            getRight();
+                } catch (Exception e) {
+                    LOG.error("While searching for {}", typeKind, e);
+                }
+            } else {
+                LOG.error("Invalid search condition:\n{}", searchCondition);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public <T extends Any<?>> Pair<Integer, List<T>> searchAndCount(
+            final Set<String> adminRealms, final SearchCond searchCondition, final int page, final int itemsPerPage,
+            final List<OrderByClause> orderBy, final AnyTypeKind typeKind) {
+
+        Pair<Integer, List<T>> result = Pair.of(0, Collections.<T>emptyList());
+
+        if (adminRealms != null && !adminRealms.isEmpty()) {
+            LOG.debug("Search condition:\n{}", searchCondition);
+
+            if (searchCondition != null && searchCondition.isValid()) {
+                try {
+                    Pair<Integer, List<T>> found = doSearch(
+                            adminRealms, searchCondition, page, itemsPerPage, orderBy, null, true, typeKind);
+                    result = found.getLeft() == null
+                            ? Pair.of(count(adminRealms, searchCondition, typeKind), found.getRight())
+                            : found;
+                } catch (Exception e) {
+                    LOG.error("While searching for {}", typeKind, e);
+                }
+            } else {
+                LOG.error("Invalid search condition:\n{}", searchCondition);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public <T extends Any<?>> List<T> searchAfter(
+            final Set<String> adminRealms, final SearchCond searchCondition, final String afterKey,
+            final int itemsPerPage, final AnyTypeKind typeKind) {
+
+        List<T> result = Collections.<T>emptyList();
+
+        if (adminRealms != null && !adminRealms.isEmpty()) {
+            LOG.debug("Search condition:\n{}", searchCondition);
+
+            if (searchCondition != null && searchCondition.isValid()) {
+                try {
+                    result = this.<T>doSearch(adminRealms, searchCondition, 1, itemsPerPage,
+                            Collections.<OrderByClause>emptyList(), afterKey == null ? FIRST_PAGE_KEY : afterKey, false,
+                            typeKind).getRight();
                 } catch (Exception e) {
                     LOG.error("While searching for {}", typeKind, e);
                 }
@@ -200,27 +451,59 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         return result;
     }
 
+    @Override
+    public Iterable<String> searchKeys(
+            final Set<String> adminRealms, final SearchCond searchCondition, final int chunkSize,
+            final AnyTypeKind typeKind) {
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (adminRealms == null || adminRealms.isEmpty()) {
+            return Collections.<String>emptyList();
+        }
+        if (searchCondition == null || !searchCondition.isValid()) {
+            LOG.error("Invalid search condition:\n{}", searchCondition);
+            return Collections.<String>emptyList();
+        }
+
+        return new Iterable<String>() {
+
+            @Override
+            public Iterator<String> iterator() {
+                return new KeysetIterator(adminRealms, searchCondition, chunkSize, typeKind);
+            }
+        };
+    }
+
     @Override
     public <T extends Any<?>> boolean matches(
             final T any, final SearchCond searchCondition, final AnyTypeKind typeKind) {
 
-        List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
+        List<Object> parameters = new ArrayList<>();
 
         // 1. get the query string from the search condition
-        SearchSupport svs = new SearchSupport(typeKind);
-        StringBuilder queryString = getQuery(searchCondition, parameters, svs);
+        SearchSupport svs = searchSupport(typeKind);
+        String condQuery = getQuery(searchCondition, parameters, svs).toString();
 
         boolean matches;
-        if (queryString.length() == 0) {
+        if (condQuery.isEmpty()) {
             // Could be empty: got into a group search with a single membership condition ...
             matches = false;
         } else {
             // 2. take into account the passed user
-            queryString.insert(0, "SELECT u.any_id FROM (");
-            queryString.append(") u WHERE any_id=?").append(setParameter(parameters, any.getKey()));
-
-            // 3. prepare the search query
-            Query query = entityManager().createNativeQuery(queryString.toString());
+            int anyKeyParam = setParameter(parameters, any.getKey());
+
+            // 3. prepare the search query, unless already available
+            String planKey = getPlanKey("MATCH", svs, Collections.<OrderByClause>emptyList(), condQuery);
+            SearchPlanCache planCache = getPlanCache(AuthContextUtils.getDomain());
+            SearchPlanCache.Plan plan = planCache.get(planKey);
+            if (plan == null) {
+                plan = new SearchPlanCache.Plan(new StringBuilder("SELECT u.any_id FROM (").append(condQuery).
+                        append(") u WHERE any_id=?").append(anyKeyParam).toString(), false);
+                planCache.put(planKey, plan);
+            }
+            Query query = entityManager().createNativeQuery(plan.getStatement());
 
             // 4. populate the search query with parameter values
             fillWithParameters(query, parameters);
@@ -232,17 +515,19 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         return matches;
     }
 
-    private int setParameter(final List<Object> parameters, final Object parameter) {
-        int key;
-        synchronized (parameters) {
-            parameters.add(parameter);
-            key = parameters.size();
-        }
+    @Override
+    public Statement buildKeysStatement(final SearchCond searchCondition, final AnyTypeKind typeKind) {
+        List<Object> parameters = new ArrayList<>();
+        String condQuery = getQuery(searchCondition, parameters, searchSupport(typeKind)).toString();
+        return new Statement(condQuery, parameters);
+    }
 
-        return key;
+    private int setParameter(final List<Object> parameters, final Object parameter) {
+        parameters.add(parameter);
+        return parameters.size();
     }
 
-    private void fillWithParameters(final Query query, final List<Object> parameters) {
+    static void fillWithParameters(final Query query, final List<Object> parameters) {
         for (int i = 0; i < parameters.size(); i++) {
             if (parameters.get(i) instanceof Date) {
                 query.setParameter(i + 1, (Date) parameters.get(i), TemporalType.TIMESTAMP);
@@ -256,20 +541,27 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         }
     }
 
-    private StringBuilder buildSelect(final OrderBySupport orderBySupport) {
+    private StringBuilder buildSelect(final OrderBySupport orderBySupport, final boolean withTotalCount) {
         final StringBuilder select = new StringBuilder("SELECT u.any_id");
 
         for (OrderBySupport.Item obs : orderBySupport.items) {
             select.append(',').append(obs.select);
         }
+        if (withTotalCount) {
+            select.append(", COUNT(*) OVER() AS total_count");
+        }
         select.append(" FROM ");
 
         return select;
     }
 
-    private StringBuilder buildWhere(final OrderBySupport orderBySupport, final AnyTypeKind typeKind) {
-        SearchSupport svs = new SearchSupport(typeKind);
+    private StringBuilder buildWhere(final OrderBySupport orderBySupport, final SearchSupport svs) {
         StringBuilder where = new StringBuilder(" u");
+        for (OrderBySupport.Item obs : orderBySupport.items) {
+            if (StringUtils.isNotBlank(obs.join)) {
+                where.append(obs.join);
+            }
+        }
         for (SearchSupport.SearchView searchView : orderBySupport.views) {
             where.append(',');
             if (searchView.name.equals(svs.attr().name)) {
@@ -336,6 +628,19 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
                                 append(svs.uniqueAttr().alias).
                                 append(".schema_id='").append(fieldName).append("'").toString();
                         obs.orderBy = fieldName + " " + clause.getDirection().name();
+                    } else if (svs.isIndexed()) {
+                        // outer join with search index, to include any objects without values for the given schema
+                        String alias = svs.attr().alias + orderBySupport.items.size();
+
+                        obs.select = new StringBuilder().
+                                append(alias).append('.').append(svs.fieldName(schema.getType())).
+                                append(" AS ").append(fieldName).toString();
+                        obs.join = new StringBuilder().
+                                append(" LEFT OUTER JOIN ").append(svs.attr().name).append(' ').append(alias).
+                                append(" ON (u.any_id=").append(alias).append(".any_id").
+                                append(" AND ").append(alias).append(".schema_id='").append(fieldName).append("')").
+                                toString();
+                        obs.orderBy = fieldName + " " + clause.getDirection().name();
                     } else {
                         orderBySupport.views.add(svs.attr());
 
@@ -366,35 +671,142 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         return orderBySupport;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends Any<?>> List<T> doSearch(final Set<String> adminRealms,
+    /**
+     * Whether {@code COUNT(*) OVER()} can be used for the current domain, e.g. whether the DBMS supports window
+     * functions.
+     *
+     * @return whether the total count can be computed along with search results
+     */
+    private boolean supportsWindowFunctions() {
+        Boolean supports = WINDOW_FUNCTIONS.get(AuthContextUtils.getDomain());
+        if (supports == null) {
+            DBDictionary dictionary = ((JDBCConfiguration) entityManager().
+                    unwrap(OpenJPAEntityManagerSPI.class).getConfiguration()).getDBDictionaryInstance();
+            supports = dictionary instanceof PostgresDictionary
+                    || dictionary instanceof OracleDictionary
+                    || dictionary instanceof SQLServerDictionary
+                    || dictionary instanceof DB2Dictionary;
+            WINDOW_FUNCTIONS.put(AuthContextUtils.getDomain(), supports);
+        }
+
+        return supports;
+    }
+
+    /**
+     * Window functions provide the right total count only if no ordering view can multiply result rows, e.g. only if
+     * ordering (if any) is performed on fields.
+     *
+     * @param orderBySupport ordering support
+     * @param svs search support
+     * @return whether ordering will not produce duplicate result rows
+     */
+    private boolean isOneRowPerAny(final OrderBySupport orderBySupport, final SearchSupport svs) {
+        boolean oneRowPerAny = true;
+        for (SearchSupport.SearchView searchView : orderBySupport.views) {
+            oneRowPerAny &= searchView.name.equals(svs.field().name);
+        }
+        for (OrderBySupport.Item obs : orderBySupport.items) {
+            oneRowPerAny &= StringUtils.isBlank(obs.join);
+        }
+        return oneRowPerAny;
+    }
+
+    /**
+     * Builds the search statement, taking into account ordering.
+     *
+     * @param condQuery query string generated from the search condition
+     * @param realmsFilter administrative realms filter
+     * @param orderBy ordering clauses, ignored with keyset pagination
+     * @param keyset whether keyset pagination is performed
+     * @param afterKeyParam index of the keyset pagination parameter, or -1 if not performing keyset pagination or
+     * when fetching the first page
+     * @param windowFunctions whether total count shall be computed along with search results, when possible
+     * @param svs search support
+     * @return search statement
+     */
+    private SearchPlanCache.Plan buildSearchPlan(
+            final String condQuery,
+            final String realmsFilter,
+            final List<OrderByClause> orderBy,
+            final boolean keyset,
+            final int afterKeyParam,
+            final boolean windowFunctions,
+            final SearchSupport svs) {
+
+        OrderBySupport orderBySupport = parseOrderBy(svs.anyTypeKind(), svs, orderBy);
+        boolean totalCount = windowFunctions && isOneRowPerAny(orderBySupport, svs);
+
+        StringBuilder statement = buildSelect(orderBySupport, totalCount);
+        if (condQuery.charAt(0) == '(') {
+            statement.append(condQuery).append(buildWhere(orderBySupport, svs));
+        } else {
+            statement.append('(').append(condQuery).append(')').append(buildWhere(orderBySupport, svs));
+        }
+        statement.append(realmsFilter).append(')');
+        if (keyset) {
+            // no predicate for the first page: comparing with '' would not match anything where '' is NULL (Oracle)
+            if (afterKeyParam != -1) {
+                statement.append(" AND u.any_id>?").append(afterKeyParam);
+            }
+            statement.append(" ORDER BY u.any_id");
+        } else {
+            statement.append(buildOrderBy(orderBySupport));
+        }
+
+        return new SearchPlanCache.Plan(statement.toString(), totalCount);
+    }
+
+    /**
+     * Runs the search query.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param nodeCond search condition
+     * @param page page, ignored when afterKey is not null
+     * @param itemsPerPage number of items per page
+     * @param orderBy ordering clauses, ignored when afterKey is not null
+     * @param afterKey when not null, keyset pagination is performed: only matching any objects with key greater than
+     * the given value, or all of them if {@link #FIRST_PAGE_KEY}, are returned, ordered by key
+     * @param withTotalCount whether total count shall be computed along with search results, when supported
+     * @param typeKind any type kind
+     * @return total count (or null, if not computed) and keys of matching any objects
+     */
+    protected Pair<Integer, Set<String>> doSearchKeys(final Set<String> adminRealms,
             final SearchCond nodeCond, final int page, final int itemsPerPage, final List<OrderByClause> orderBy,
-            final AnyTypeKind typeKind) {
+            final String afterKey, final boolean withTotalCount, final AnyTypeKind typeKind) {
 
-        List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
+        List<Object> parameters = new ArrayList<>();
 
         // 1. get the query string from the search condition
-        SearchSupport svs = new SearchSupport(typeKind);
-        StringBuilder queryString = getQuery(nodeCond, parameters, svs);
-
-        // 2. take into account administrative groups and ordering
-        OrderBySupport orderBySupport = parseOrderBy(typeKind, svs, orderBy);
-        if (queryString.charAt(0) == '(') {
-            queryString.insert(0, buildSelect(orderBySupport));
-            queryString.append(buildWhere(orderBySupport, typeKind));
-        } else {
-            queryString.insert(0, buildSelect(orderBySupport).append('('));
-            queryString.append(')').append(buildWhere(orderBySupport, typeKind));
+        SearchSupport svs = searchSupport(typeKind);
+        String condQuery = getQuery(nodeCond, parameters, svs).toString();
+
+        // 2. take into account administrative realms and keyset pagination
+        String realmsFilter = getAdminRealmsFilter(adminRealms, svs, parameters);
+        boolean keyset = afterKey != null;
+        int afterKeyParam = keyset && !FIRST_PAGE_KEY.equals(afterKey) ? setParameter(parameters, afterKey) : -1;
+
+        // 3. prepare the search query, unless already available
+        boolean windowFunctions = withTotalCount && !keyset && supportsWindowFunctions();
+        String planKey = getPlanKey(
+                keyset ? afterKeyParam == -1 ? "SEARCH_FIRST" : "SEARCH_AFTER" : "SEARCH", svs, orderBy,
+                String.valueOf(windowFunctions), condQuery, realmsFilter);
+        SearchPlanCache planCache = getPlanCache(AuthContextUtils.getDomain());
+        SearchPlanCache.Plan plan = planCache.get(planKey);
+        if (plan == null) {
+            plan = buildSearchPlan(condQuery, realmsFilter, orderBy, keyset, afterKeyParam, windowFunctions, svs);
+            planCache.put(planKey, plan);
+
+            LOG.debug("Search plan cache: {} hits, {} misses, {} statements",
+                    planCache.getHits(), planCache.getMisses(), planCache.size());
         }
-        queryString.
-                append(getAdminRealmsFilter(adminRealms, svs, parameters)).append(')').
-                append(buildOrderBy(orderBySupport));
+        boolean totalCount = plan.isWithTotalCount();
 
-        // 3. prepare the search query
-        Query query = entityManager().createNativeQuery(queryString.toString());
+        Query query = entityManager().createNativeQuery(plan.getStatement());
 
         // 4. page starts from 1, while setFirtResult() starts from 0
-        query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
+        if (!keyset) {
+            query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
+        }
 
         if (itemsPerPage >= 0) {
             query.setMaxResults(itemsPerPage);
@@ -404,27 +816,75 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         fillWithParameters(query, parameters);
 
         // 6. Prepare the result (avoiding duplicates)
-        List<T> result = new ArrayList<>();
-
+        Integer count = null;
+        Set<String> keys = new LinkedHashSet<>();
         for (Object anyKey : query.getResultList()) {
-            String actualKey = anyKey instanceof Object[]
-                    ? (String) ((Object[]) anyKey)[0]
-                    : ((String) anyKey);
-
-            T any = typeKind == AnyTypeKind.USER
-                    ? (T) userDAO.find(actualKey)
-                    : typeKind == AnyTypeKind.GROUP
-                            ? (T) groupDAO.find(actualKey)
-                            : (T) anyObjectDAO.find(actualKey);
-            if (any == null) {
-                LOG.error("Could not find {} with id {}, even though returned by the native query",
-                        typeKind, actualKey);
-            } else if (!result.contains(any)) {
-                result.add(any);
+            if (anyKey instanceof Object[]) {
+                Object[] row = (Object[]) anyKey;
+                keys.add((String) row[0]);
+                if (totalCount) {
+                    count = ((Number) row[row.length - 1]).intValue();
+                }
+            } else {
+                keys.add((String) anyKey);
             }
         }
 
-        return result;
+        // with no rows (e.g. page out of range), the total count could not be read from the result
+        if (totalCount && count == null && page <= 1) {
+            count = 0;
+        }
+
+        return Pair.of(count, keys);
+    }
+
+    /**
+     * Runs the search query, then fetches all matching entities at once.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param nodeCond search condition
+     * @param page page, ignored when afterKey is not null
+     * @param itemsPerPage number of items per page
+     * @param orderBy ordering clauses, ignored when afterKey is not null
+     * @param afterKey when not null, keyset pagination is performed, from the first matching any object if
+     * {@link #FIRST_PAGE_KEY}
+     * @param withTotalCount whether total count shall be computed along with search results, when supported
+     * @param typeKind any type kind
+     * @param <T> any
+     * @return total count (or null, if not computed) and matching any objects
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Any<?>> Pair<Integer, List<T>> doSearch(final Set<String> adminRealms,
+            final SearchCond nodeCond, final int page, final int itemsPerPage, final List<OrderByClause> orderBy,
+            final String afterKey, final boolean withTotalCount, final AnyTypeKind typeKind) {
+
+        Pair<Integer, Set<String>> keys = doSearchKeys(
+                adminRealms, nodeCond, page, itemsPerPage, orderBy, afterKey, withTotalCount, typeKind);
+
+        List<T> result = (List<T>) anyDAO(typeKind).findByKeys(keys.getRight());
+        if (result.size() < keys.getRight().size()) {
+            LOG.error("Could not find {} {} out of {}, even though returned by the native query",
+                    keys.getRight().size() - result.size(), typeKind, keys.getRight().size());
+        }
+
+        return Pair.of(keys.getLeft(), result);
+    }
+
+    private SearchSupport searchSupport(final AnyTypeKind typeKind) {
+        boolean indexed = searchIndex.isEnabled();
+        if (indexed) {
+            // make values written by the current transaction visible to its own searches
+            searchIndex.align();
+        }
+        return new SearchSupport(typeKind, indexed);
+    }
+
+    private AnyDAO<?> anyDAO(final AnyTypeKind typeKind) {
+        return typeKind == AnyTypeKind.USER
+                ? userDAO
+                : typeKind == AnyTypeKind.GROUP
+                        ? groupDAO
+                        : anyObjectDAO;
     }
 
     private StringBuilder getQuery(final SearchCond nodeCond, final List<Object> parameters, final SearchSupport svs) {
@@ -679,10 +1139,8 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
             }
             query.append("realm_id=?").append(setParameter(parameters, realmDAO.getRoot().getKey()));
         } else {
-            for (Realm current : realmDAO.findDescendants(realm)) {
-                query.append("realm_id=?").append(setParameter(parameters, current.getKey())).append(" OR ");
-            }
-            query.setLength(query.length() - 4);
+            query.append("realm_id IN (SELECT id AS realm_id FROM Realm WHERE").
+                    append(realmFullPathFilter(realm.getFullPath(), parameters)).append(')');
         }
         query.append(')');
 
@@ -850,8 +1308,16 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
         }
 
         StringBuilder query = new StringBuilder("SELECT DISTINCT any_id FROM ");
+        SearchSupport.SearchView attrView = schema.isUniqueConstraint() ? svs.uniqueAttr() : svs.attr();
         switch (cond.getType()) {
             case ISNOTNULL:
+                if (svs.isIndexed()) {
+                    // the search index only contains actual values, hence there is no need to check null values
+                    query.append(attrView.name).
+                            append(" WHERE schema_id='").append(schema.getKey()).append("'");
+                    break;
+                }
+
                 query.append(svs.field().name).
                         append(" WHERE any_id NOT IN (SELECT any_id FROM ").
                         append(svs.nullAttr().name).
@@ -859,17 +1325,21 @@ public class JPAAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO
                 break;
 
             case ISNULL:
+                if (svs.isIndexed()) {
+                    query.append(svs.field().name).
+                            append(" WHERE any_id NOT IN (SELECT any_id FROM ").
+                            append(attrView.name).
+                            append(" WHERE schema_id='").append(schema.getKey()).append("')");
+                    break;
+                }
+
                 query.append(svs.nullAttr().name).
                         append(" WHERE schema_id='").append(schema.getKey()).append("'");
                 break;
 
             default:
-                if (schema.isUniqueConstraint()) {
-                    query.append(svs.uniqueAttr().name);
-                } else {
-                    query.append(svs.attr().name);
-                }
-                query.append(" WHERE schema_id='").append(schema.getKey());
+                query.append(attrView.name).
+                        append(" WHERE schema_id='").append(schema.getKey());
                 fillAttributeQuery(query, attrValue, schema, cond, not, parameters, svs);
         }
 
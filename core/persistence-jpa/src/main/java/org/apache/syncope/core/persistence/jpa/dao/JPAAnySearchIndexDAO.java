@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.Query;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchIndexDAO;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchUniqueAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchUniqueAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchUniqueAttr;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Search index tables are denormalized copies of plain attribute values, which {@link JPAAnySearchDAO} queries
+ * instead of the {@code *_search_attr} and {@code *_search_unique_attr} views.
+ * The search index is enabled for a given domain by defining a {@code Boolean} bean named
+ * {@code <domain>SearchIndex}, with value {@code true}.
+ * Plain attributes and values report their own writes, whatever the path they are written through (see
+ * {@link org.apache.syncope.core.persistence.jpa.entity.SearchIndexListener}): only the entities whose values were
+ * actually written are aligned, once per transaction.
+ */
+@Repository
+public class JPAAnySearchIndexDAO extends AbstractDAO<Any<?>> implements AnySearchIndexDAO {
+
+    private static final Map<String, Boolean> ENABLED = new ConcurrentHashMap<>();
+
+    private static final String COLUMNS = "id, any_id, schema_id, "
+            + "booleanvalue, datevalue, doublevalue, longvalue, stringvalue";
+
+    private static final String SELECT = "SELECT uav.id, ua.owner_id, ua.schema_id, "
+            + "uav.booleanvalue, uav.datevalue, uav.doublevalue, uav.longvalue, uav.stringvalue";
+
+    private static final class Tables {
+
+        private final String plainAttr;
+
+        private final String plainAttrValue;
+
+        private final String plainAttrUniqueValue;
+
+        private final String searchAttr;
+
+        private final String searchUniqueAttr;
+
+        Tables(
+                final String plainAttr,
+                final String plainAttrValue,
+                final String plainAttrUniqueValue,
+                final String searchAttr,
+                final String searchUniqueAttr) {
+
+            this.plainAttr = plainAttr;
+            this.plainAttrValue = plainAttrValue;
+            this.plainAttrUniqueValue = plainAttrUniqueValue;
+            this.searchAttr = searchAttr;
+            this.searchUniqueAttr = searchUniqueAttr;
+        }
+    }
+
+    private static Tables tables(final AnyTypeKind kind) {
+        Tables tables;
+        switch (kind) {
+            case ANY_OBJECT:
+                tables = new Tables(JPAAPlainAttr.TABLE, JPAAPlainAttrValue.TABLE, JPAAPlainAttrUniqueValue.TABLE,
+                        JPAASearchAttr.TABLE, JPAASearchUniqueAttr.TABLE);
+                break;
+
+            case GROUP:
+                tables = new Tables(JPAGPlainAttr.TABLE, JPAGPlainAttrValue.TABLE, JPAGPlainAttrUniqueValue.TABLE,
+                        JPAGSearchAttr.TABLE, JPAGSearchUniqueAttr.TABLE);
+                break;
+
+            case USER:
+            default:
+                tables = new Tables(JPAUPlainAttr.TABLE, JPAUPlainAttrValue.TABLE, JPAUPlainAttrUniqueValue.TABLE,
+                        JPAUSearchAttr.TABLE, JPAUSearchUniqueAttr.TABLE);
+        }
+
+        return tables;
+    }
+
+    /**
+     * Entities whose plain attribute values were written in the current transaction, by any type kind.
+     */
+    private class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final String domain;
+
+        private final Map<AnyTypeKind, Set<String>> changed = new EnumMap<>(AnyTypeKind.class);
+
+        PendingChanges(final String domain) {
+            this.domain = domain;
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            align();
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResource(resourceKey(domain));
+        }
+    }
+
+    private static String resourceKey(final String domain) {
+        return JPAAnySearchIndexDAO.class.getName() + "." + domain;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        String domain = AuthContextUtils.getDomain();
+
+        Boolean enabled = ENABLED.get(domain);
+        if (enabled == null) {
+            String beanName = domain + "SearchIndex";
+            enabled = ApplicationContextProvider.getBeanFactory().containsBean(beanName)
+                    && ApplicationContextProvider.getBeanFactory().getBean(beanName, Boolean.class);
+            ENABLED.put(domain, enabled);
+        }
+
+        return enabled;
+    }
+
+    private void execute(final String statement, final String parameter) {
+        Query query = entityManager().createNativeQuery(statement);
+        if (parameter != null) {
+            query.setParameter(1, parameter);
+        }
+        query.executeUpdate();
+    }
+
+    private void copy(final Tables tables, final String anyKey) {
+        String where = anyKey == null ? "" : " AND ua.owner_id=?1";
+
+        execute("INSERT INTO " + tables.searchAttr + " (" + COLUMNS + ") " + SELECT
+                + " FROM " + tables.plainAttrValue + " uav, " + tables.plainAttr + " ua"
+                + " WHERE uav.attribute_id=ua.id" + where, anyKey);
+        execute("INSERT INTO " + tables.searchUniqueAttr + " (" + COLUMNS + ") " + SELECT
+                + " FROM " + tables.plainAttrUniqueValue + " uav, " + tables.plainAttr + " ua"
+                + " WHERE uav.attribute_id=ua.id" + where, anyKey);
+    }
+
+    @Override
+    public void changed(final AnyTypeKind kind, final String anyKey) {
+        if (!isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        String domain = AuthContextUtils.getDomain();
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey(domain));
+        if (pending == null) {
+            pending = new PendingChanges(domain);
+            TransactionSynchronizationManager.bindResource(resourceKey(domain), pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        Set<String> keys = pending.changed.get(kind);
+        if (keys == null) {
+            keys = new HashSet<>();
+            pending.changed.put(kind, keys);
+        }
+        keys.add(anyKey);
+    }
+
+    @Override
+    public void align() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(
+                resourceKey(AuthContextUtils.getDomain()));
+        // flushing might report further writes: repeat until none is left
+        while (pending != null && !pending.changed.isEmpty()) {
+            entityManager().flush();
+
+            Map<AnyTypeKind, Set<String>> changed = new EnumMap<>(pending.changed);
+            pending.changed.clear();
+            for (Map.Entry<AnyTypeKind, Set<String>> entry : changed.entrySet()) {
+                for (String anyKey : entry.getValue()) {
+                    remove(entry.getKey(), anyKey);
+                    copy(tables(entry.getKey()), anyKey);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(final AnyTypeKind kind, final String anyKey) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Tables tables = tables(kind);
+        execute("DELETE FROM " + tables.searchAttr + " WHERE any_id=?1", anyKey);
+        execute("DELETE FROM " + tables.searchUniqueAttr + " WHERE any_id=?1", anyKey);
+    }
+
+    @Override
+    public void removeSchema(final String schemaKey) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            Tables tables = tables(kind);
+            execute("DELETE FROM " + tables.searchAttr + " WHERE schema_id=?1", schemaKey);
+            execute("DELETE FROM " + tables.searchUniqueAttr + " WHERE schema_id=?1", schemaKey);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void rebuild(final AnyTypeKind kind) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        LOG.info("[{}] Rebuilding search index for {}", AuthContextUtils.getDomain(), kind);
+
+        entityManager().flush();
+
+        Tables tables = tables(kind);
+        execute("DELETE FROM " + tables.searchAttr, null);
+        execute("DELETE FROM " + tables.searchUniqueAttr, null);
+        copy(tables, null);
+    }
+
+    @Transactional
+    @Override
+    public void rebuildIfEmpty() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            Tables tables = tables(kind);
+
+            Query query = entityManager().createNativeQuery("SELECT COUNT(id) FROM " + tables.searchAttr);
+            int indexed = ((Number) query.getSingleResult()).intValue();
+            query = entityManager().createNativeQuery("SELECT COUNT(id) FROM " + tables.searchUniqueAttr);
+            indexed += ((Number) query.getSingleResult()).intValue();
+
+            if (indexed == 0) {
+                rebuild(kind);
+            }
+        }
+    }
+}
@@ -18,27 +18,103 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
+import org.apache.syncope.core.persistence.api.dao.ConfSnapshot;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
+import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.conf.Conf;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttr;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPACPlainAttrValue;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPAConf;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Repository
-public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
+public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO, InitializingBean {
 
     private static final String KEY = "cd64d66f-6fff-4008-b966-a06b1cc1436d";
 
+    /**
+     * Snapshots are rebuilt at least this often, in case remote commit events are not configured.
+     */
+    private static final long SNAPSHOT_TTL = 60000L;
+
+    private static final class SnapshotEntry {
+
+        private final long generation;
+
+        private final long created = System.currentTimeMillis();
+
+        private final ConfSnapshot snapshot;
+
+        SnapshotEntry(final long generation, final ConfSnapshot snapshot) {
+            this.generation = generation;
+            this.snapshot = snapshot;
+        }
+    }
+
     @Autowired
     private PlainSchemaDAO schemaDAO;
 
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    private final ConcurrentMap<String, SnapshotEntry> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Per-domain counters of invalidations: snapshots are only served and installed if built in the current
+     * generation, so that no snapshot read before a change can be installed after its invalidation.
+     */
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private AtomicLong generation(final String domain) {
+        AtomicLong generation = generations.get(domain);
+        if (generation == null) {
+            AtomicLong newGeneration = new AtomicLong();
+            generation = generations.putIfAbsent(domain, newGeneration);
+            if (generation == null) {
+                generation = newGeneration;
+            }
+        }
+        return generation;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                for (Class<?> type : changes.keySet()) {
+                    if (Conf.class.isAssignableFrom(type)
+                            || CPlainAttr.class.isAssignableFrom(type)
+                            || CPlainAttrValue.class.isAssignableFrom(type)
+                            || CPlainAttrUniqueValue.class.isAssignableFrom(type)) {
+
+                        invalidate(domain);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
     @Override
     public Conf get() {
         Conf instance = entityManager().find(JPAConf.class, KEY);
@@ -52,6 +128,57 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
         return instance;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public ConfSnapshot snapshot() {
+        String domain = AuthContextUtils.getDomain();
+        AtomicLong generation = generation(domain);
+
+        SnapshotEntry entry = snapshots.get(domain);
+        if (entry != null && entry.generation == generation.get()
+                && System.currentTimeMillis() - entry.created < SNAPSHOT_TTL) {
+
+            return entry.snapshot;
+        }
+
+        long current = generation.get();
+        SnapshotEntry newEntry = new SnapshotEntry(current, new ConfSnapshot(get().getPlainAttrs()));
+        if (entry == null) {
+            snapshots.putIfAbsent(domain, newEntry);
+        } else {
+            snapshots.replace(domain, entry, newEntry);
+        }
+        // invalidated while reading: the snapshot might miss the latest changes, hence it is not kept
+        if (generation.get() != current) {
+            snapshots.remove(domain, newEntry);
+        }
+        return newEntry.snapshot;
+    }
+
+    private void invalidate(final String domain) {
+        generation(domain).incrementAndGet();
+        snapshots.remove(domain);
+    }
+
+    /**
+     * Drops the snapshot of the current domain, immediately and once the current transaction completes: the next
+     * invocation of {@link #snapshot()} after commit will then reflect the changes.
+     */
+    private void invalidate() {
+        final String domain = AuthContextUtils.getDomain();
+        invalidate(domain);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    invalidate(domain);
+                }
+            });
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public CPlainAttr find(final String key) {
@@ -99,7 +226,9 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
         instance.add(attr);
         attr.setOwner(instance);
 
-        return entityManager().merge(instance);
+        instance = entityManager().merge(instance);
+        invalidate();
+        return instance;
     }
 
     @Override
@@ -111,6 +240,7 @@ public class JPAConfDAO extends AbstractDAO<Conf> implements ConfDAO {
             instance.remove(attr);
 
             instance = entityManager().merge(instance);
+            invalidate();
         }
 
         return instance;
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.Query;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.DynMembershipDAO;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
+import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
+import org.apache.syncope.core.persistence.api.entity.user.DynRoleMembership;
+import org.apache.syncope.core.persistence.api.entity.user.UDynGroupMembership;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAADynGroupMembership;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPADynRoleMembership;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUDynGroupMembership;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class JPADynMembershipDAO extends AbstractDAO<DynMembership<?>> implements DynMembershipDAO {
+
+    /**
+     * Where members of a given kind of dynamic membership are stored.
+     */
+    private static final class MembersTable {
+
+        private final Class<? extends DynMembership<?>> reference;
+
+        private final String ownerTable;
+
+        private final String table;
+
+        private final String membershipColumn;
+
+        private final String anyColumn;
+
+        private final String anyTable;
+
+        private final AnyTypeKind anyTypeKind;
+
+        MembersTable(
+                final Class<? extends DynMembership<?>> reference,
+                final String ownerTable,
+                final String table,
+                final String membershipColumn,
+                final String anyColumn,
+                final String anyTable,
+                final AnyTypeKind anyTypeKind) {
+
+            this.reference = reference;
+            this.ownerTable = ownerTable;
+            this.table = table;
+            this.membershipColumn = membershipColumn;
+            this.anyColumn = anyColumn;
+            this.anyTable = anyTable;
+            this.anyTypeKind = anyTypeKind;
+        }
+    }
+
+    private static final MembersTable U_DYN_GROUP = new MembersTable(
+            JPAUDynGroupMembership.class, JPAUDynGroupMembership.TABLE, JPAUDynGroupMembership.TABLE + "_User",
+            "uDynGroupMembership_id", "user_id", JPAUser.TABLE, AnyTypeKind.USER);
+
+    private static final MembersTable A_DYN_GROUP = new MembersTable(
+            JPAADynGroupMembership.class, JPAADynGroupMembership.TABLE, JPAADynGroupMembership.TABLE + "_AnyObject",
+            "aDynGroupMembership_id", "anyObject_id", JPAAnyObject.TABLE, AnyTypeKind.ANY_OBJECT);
+
+    private static final MembersTable DYN_ROLE = new MembersTable(
+            JPADynRoleMembership.class, JPADynRoleMembership.TABLE, JPADynRoleMembership.TABLE + "_User",
+            "dynRoleMembership_id", "user_id", JPAUser.TABLE, AnyTypeKind.USER);
+
+    /**
+     * Matching keys of each chunk are passed as IN list parameters, whose size some databases limit to 1000.
+     */
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private SearchStatementBuilder statementBuilder;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<DynMembership<?>> findAll() {
+        List<DynMembership<?>> result = new ArrayList<>();
+        result.addAll(entityManager().createQuery(
+                "SELECT e FROM " + JPAUDynGroupMembership.class.getSimpleName() + " e",
+                UDynGroupMembership.class).getResultList());
+        result.addAll(entityManager().createQuery(
+                "SELECT e FROM " + JPAADynGroupMembership.class.getSimpleName() + " e",
+                ADynGroupMembership.class).getResultList());
+        result.addAll(entityManager().createQuery(
+                "SELECT e FROM " + JPADynRoleMembership.class.getSimpleName() + " e",
+                DynRoleMembership.class).getResultList());
+        return result;
+    }
+
+    private static String range(
+            final String column, final String lower, final String upper, final List<Object> parameters) {
+
+        StringBuilder range = new StringBuilder();
+        if (lower != null) {
+            parameters.add(lower);
+            range.append(" AND ").append(column).append(">?").append(parameters.size());
+        }
+        if (upper != null) {
+            parameters.add(upper);
+            range.append(" AND ").append(column).append("<=?").append(parameters.size());
+        }
+        return range.toString();
+    }
+
+    private static String in(final List<String> keys, final List<Object> parameters) {
+        StringBuilder in = new StringBuilder("(");
+        for (String key : keys) {
+            parameters.add(key);
+            if (in.length() > 1) {
+                in.append(", ");
+            }
+            in.append('?').append(parameters.size());
+        }
+        return in.append(')').toString();
+    }
+
+    private static MembersTable membersTable(final DynMembership<?> membership) {
+        if (membership instanceof UDynGroupMembership) {
+            return U_DYN_GROUP;
+        }
+        if (membership instanceof ADynGroupMembership) {
+            return A_DYN_GROUP;
+        }
+        if (membership instanceof DynRoleMembership) {
+            return DYN_ROLE;
+        }
+        throw new IllegalArgumentException("Unsupported dynamic membership: " + membership);
+    }
+
+    private DynMembership<?> findManaged(final MembersTable members, final DynMembership<?> membership) {
+        DynMembership<?> managed = entityManager().find(members.reference, membership.getKey());
+        if (managed == null) {
+            throw new IllegalArgumentException("Dynamic membership " + membership.getKey() + " not found");
+        }
+        return managed;
+    }
+
+    private SearchStatementBuilder.Statement statement(final MembersTable members, final DynMembership<?> managed) {
+        String realmFullPath = null;
+        if (managed instanceof UDynGroupMembership) {
+            realmFullPath = ((UDynGroupMembership) managed).getGroup().getRealm().getFullPath();
+        } else if (managed instanceof ADynGroupMembership) {
+            realmFullPath = ((ADynGroupMembership) managed).getGroup().getRealm().getFullPath();
+        }
+
+        return statementBuilder.buildKeysStatement(
+                DynMembershipIndex.buildDynMembershipCond(managed.getFIQLCond(), realmFullPath),
+                members.anyTypeKind);
+    }
+
+    /**
+     * Keyset pagination over the matching entities: the search is evaluated once per chunk.
+     */
+    private List<String> nextMatches(
+            final SearchStatementBuilder.Statement statement, final String lower, final int chunkSize) {
+
+        if (statement.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> parameters = statement.getParameters();
+        String select = "SELECT u.any_id FROM (" + statement.getQuery() + ") u WHERE 1=1"
+                + range("u.any_id", lower, null, parameters) + " ORDER BY u.any_id";
+
+        Query query = entityManager().createNativeQuery(select);
+        SearchStatementBuilder.Statement.fill(query, parameters);
+        query.setMaxResults(chunkSize);
+
+        List<String> keys = new ArrayList<>();
+        for (Object key : query.getResultList()) {
+            keys.add(key instanceof Object[] ? (String) ((Object[]) key)[0] : (String) key);
+        }
+        return keys;
+    }
+
+    private int insert(final MembersTable members, final String membershipKey, final List<String> matches) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(membershipKey);
+        StringBuilder insert = new StringBuilder("INSERT INTO ").append(members.table).
+                append(" (").append(members.membershipColumn).append(", ").append(members.anyColumn).append(") ").
+                append("SELECT m.id, a.id FROM ").
+                append(members.ownerTable).append(" m, ").append(members.anyTable).append(" a WHERE m.id=?1").
+                append(" AND a.id IN ").append(in(matches, parameters)).
+                append(" AND a.id NOT IN (SELECT ").append(members.anyColumn).
+                append(" FROM ").append(members.table).
+                append(" WHERE ").append(members.membershipColumn).append("=?");
+        parameters.add(membershipKey);
+        insert.append(parameters.size()).append(')');
+
+        Query query = entityManager().createNativeQuery(insert.toString());
+        SearchStatementBuilder.Statement.fill(query, parameters);
+        return query.executeUpdate();
+    }
+
+    private int delete(
+            final MembersTable members,
+            final String membershipKey,
+            final List<String> matches,
+            final String lower,
+            final String upper) {
+
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(membershipKey);
+        StringBuilder delete = new StringBuilder("DELETE FROM ").append(members.table).
+                append(" WHERE ").append(members.membershipColumn).append("=?1").
+                append(range(members.anyColumn, lower, upper, parameters));
+        if (!matches.isEmpty()) {
+            delete.append(" AND ").append(members.anyColumn).append(" NOT IN ").append(in(matches, parameters));
+        }
+
+        Query query = entityManager().createNativeQuery(delete.toString());
+        SearchStatementBuilder.Statement.fill(query, parameters);
+        return query.executeUpdate();
+    }
+
+    private RebuildChunk rebuildChunk(
+            final MembersTable members,
+            final DynMembership<?> managed,
+            final SearchStatementBuilder.Statement statement,
+            final String lower,
+            final int chunkSize) {
+
+        List<String> matches = nextMatches(statement, lower, chunkSize);
+        boolean last = matches.size() < chunkSize;
+        String upper = last ? null : matches.get(matches.size() - 1);
+
+        int added = matches.isEmpty() ? 0 : insert(members, managed.getKey(), matches);
+        int removed = delete(members, managed.getKey(), matches, lower, upper);
+
+        return new RebuildChunk(upper, matches.size(), added, removed);
+    }
+
+    private static void check(final int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                    "Chunk size must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+    }
+
+    @Transactional
+    @Override
+    public Pair<Integer, Integer> rebuild(
+            final DynMembership<?> membership, final int chunkSize, final RebuildListener listener) {
+
+        check(chunkSize);
+        MembersTable members = membersTable(membership);
+
+        // pending changes, including the membership itself if new, need to be in the database
+        entityManager().flush();
+        DynMembership<?> managed = findManaged(members, membership);
+
+        SearchStatementBuilder.Statement statement = statement(members, managed);
+
+        int processed = 0;
+        int added = 0;
+        int removed = 0;
+
+        // chunks of at most chunkSize matching entities each, the last one being open-ended
+        String lower = null;
+        boolean last = false;
+        while (!last) {
+            RebuildChunk chunk = rebuildChunk(members, managed, statement, lower, chunkSize);
+            processed += chunk.getMatched();
+            added += chunk.getAdded();
+            removed += chunk.getRemoved();
+            lower = chunk.getUpper();
+            last = chunk.isLast();
+
+            LOG.debug("Dynamic membership {}: {} matching processed, {} added, {} removed",
+                    managed.getKey(), processed, added, removed);
+            if (listener != null) {
+                listener.onChunk(managed, processed, added, removed);
+            }
+        }
+
+        // members were changed behind the persistence context
+        entityManager().refresh(managed);
+        entityManager().getEntityManagerFactory().getCache().evict(members.reference, managed.getKey());
+
+        return Pair.of(added, removed);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public RebuildChunk rebuildChunk(final DynMembership<?> membership, final String lower, final int chunkSize) {
+        check(chunkSize);
+        MembersTable members = membersTable(membership);
+        DynMembership<?> managed = findManaged(members, membership);
+
+        RebuildChunk chunk = rebuildChunk(members, managed, statement(members, managed), lower, chunkSize);
+
+        entityManager().getEntityManagerFactory().getCache().evict(members.reference, managed.getKey());
+
+        return chunk;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import org.apache.openjpa.conf.OpenJPAConfiguration;
+import org.apache.openjpa.datacache.CacheStatistics;
+import org.apache.openjpa.datacache.DataCache;
+import org.apache.openjpa.datacache.DataCacheManager;
+import org.apache.openjpa.datacache.QueryCache;
+import org.apache.openjpa.datacache.QueryKey;
+import org.apache.openjpa.event.RemoteCommitEventManager;
+import org.apache.openjpa.kernel.QueryStatistics;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+import org.apache.syncope.common.lib.info.CacheInfo;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.apache.syncope.core.persistence.jpa.openjpa.RemoteChangeDispatcher;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reports about the OpenJPA data and query caches, configured via {@code dataCache}, {@code queryCache},
+ * {@code sharedCacheMode} and {@code remoteCommitProvider} in {@code persistence.properties}.
+ */
+@Repository
+public class JPAEntityCacheDAO extends AbstractDAO<Entity> implements EntityCacheDAO {
+
+    @Autowired
+    private RemoteChangeDispatcher remoteChangeDispatcher;
+
+    private OpenJPAConfiguration getConfiguration() {
+        return entityManager().unwrap(OpenJPAEntityManagerSPI.class).getConfiguration();
+    }
+
+    private static CacheInfo.CacheStats stats(final String name, final long reads, final long hits, final long writes) {
+        CacheInfo.CacheStats stats = new CacheInfo.CacheStats();
+        stats.setName(name);
+        stats.setEnabled(true);
+        stats.setReads(reads);
+        stats.setHits(hits);
+        stats.setWrites(writes);
+        stats.setHitRatio(reads == 0 ? 0 : (double) hits / reads);
+        return stats;
+    }
+
+    private static CacheInfo.CacheStats disabled(final String name) {
+        CacheInfo.CacheStats stats = new CacheInfo.CacheStats();
+        stats.setName(name);
+        stats.setEnabled(false);
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CacheInfo getCacheInfo() {
+        OpenJPAConfiguration conf = getConfiguration();
+        DataCacheManager cacheManager = conf.getDataCacheManagerInstance();
+
+        CacheInfo cacheInfo = new CacheInfo();
+        cacheInfo.setDomain(AuthContextUtils.getDomain());
+
+        RemoteCommitEventManager remoteEventManager = conf.getRemoteCommitEventManager();
+        if (remoteEventManager != null && remoteEventManager.getRemoteCommitProvider() != null) {
+            cacheInfo.setRemoteCommitProvider(remoteEventManager.getRemoteCommitProvider().getClass().getName());
+        }
+
+        DataCache dataCache = cacheManager == null ? null : cacheManager.getSystemDataCache();
+        if (dataCache == null) {
+            cacheInfo.getCaches().add(disabled("data"));
+        } else {
+            CacheStatistics statistics = dataCache.getStatistics();
+            cacheInfo.getCaches().add(stats("data",
+                    statistics.getReadCount(), statistics.getHitCount(), statistics.getWriteCount()));
+        }
+
+        QueryCache queryCache = cacheManager == null ? null : cacheManager.getSystemQueryCache();
+        if (queryCache == null) {
+            cacheInfo.getCaches().add(disabled("query"));
+        } else {
+            QueryStatistics<QueryKey> statistics = queryCache.getStatistics();
+            cacheInfo.getCaches().add(stats("query",
+                    statistics.getExecutionCount(), statistics.getHitCount(), 0));
+        }
+
+        SearchPlanCache planCache = JPAAnySearchDAO.getPlanCache(AuthContextUtils.getDomain());
+        cacheInfo.getCaches().add(stats("searchPlan",
+                planCache.getHits() + planCache.getMisses(), planCache.getHits(), planCache.getMisses()));
+
+        return cacheInfo;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void evictAll() {
+        entityManager().getEntityManagerFactory().getCache().evictAll();
+
+        DataCacheManager cacheManager = getConfiguration().getDataCacheManagerInstance();
+        QueryCache queryCache = cacheManager == null ? null : cacheManager.getSystemQueryCache();
+        if (queryCache != null) {
+            queryCache.clear();
+        }
+
+        LOG.debug("Data and query caches evicted for domain {}", AuthContextUtils.getDomain());
+    }
+
+    @Override
+    public void addRemoteChangeListener(final RemoteChangeListener listener) {
+        remoteChangeDispatcher.addListener(listener);
+    }
+}
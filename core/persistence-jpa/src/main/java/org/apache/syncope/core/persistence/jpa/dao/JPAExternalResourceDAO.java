@@ -29,6 +29,7 @@ import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.PolicyDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
@@ -74,6 +75,9 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
     @Autowired
     private VirSchemaDAO virSchemaDAO;
 
+    @Autowired
+    private ProvisionHashDAO provisionHashDAO;
+
     @Autowired
     private ConnectorRegistry connRegistry;
 
@@ -195,6 +199,8 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
         taskDAO.deleteAll(resource, TaskType.PULL);
         taskDAO.deleteAll(resource, TaskType.PUSH);
 
+        provisionHashDAO.deleteByResource(resource.getKey());
+
         for (AnyObject anyObject : anyObjectDAO.findByResource(resource)) {
             anyObject.getResources().remove(resource);
         }
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -36,14 +37,13 @@ import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.DynMembershipDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
-import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
-import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.Realm;
@@ -74,6 +74,12 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Autowired
     private PlainAttrDAO plainAttrDAO;
 
+    @Autowired
+    private DynMembershipIndex dynMembershipIndex;
+
+    @Autowired
+    private DynMembershipDAO dynMembershipDAO;
+
     @Override
     protected AnyUtils init() {
         return new JPAAnyUtilsFactory().getInstance(AnyTypeKind.GROUP);
@@ -133,6 +139,11 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return result;
     }
 
+    @Override
+    public Map<String, String> findKeysByNames(final Collection<String> names) {
+        return findKeysBy("name", names);
+    }
+
     @Override
     public Group authFindByName(final String name) {
         if (name == null) {
@@ -204,38 +215,20 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return query.getResultList();
     }
 
-    private SearchCond buildDynMembershipCond(final String baseCondFIQL, final Realm groupRealm) {
-        AssignableCond cond = new AssignableCond();
-        cond.setRealmFullPath(groupRealm.getFullPath());
-        cond.setFromGroup(false);
-
-        return SearchCond.getAndCond(SearchCond.getLeafCond(cond), SearchCondConverter.convert(baseCondFIQL));
-    }
-
     @Override
     public Group save(final Group group) {
+        boolean dynMembershipsAffected = dynMembershipIndex.isAffectedBy(group);
         Group merged = super.save(group);
+        if (dynMembershipsAffected) {
+            dynMembershipIndex.invalidate();
+        }
 
         // refresh dynaminc memberships
         if (merged.getUDynMembership() != null) {
-            List<User> matching = searchDAO.search(
-                    buildDynMembershipCond(merged.getUDynMembership().getFIQLCond(), merged.getRealm()),
-                    AnyTypeKind.USER);
-
-            merged.getUDynMembership().getMembers().clear();
-            for (User user : matching) {
-                merged.getUDynMembership().add(user);
-            }
+            dynMembershipDAO.rebuild(merged.getUDynMembership(), DynMembershipDAO.DEFAULT_CHUNK_SIZE, null);
         }
         for (ADynGroupMembership memb : merged.getADynMemberships()) {
-            List<AnyObject> matching = searchDAO.search(
-                    buildDynMembershipCond(memb.getFIQLCond(), merged.getRealm()),
-                    AnyTypeKind.ANY_OBJECT);
-
-            memb.getMembers().clear();
-            for (AnyObject anyObject : matching) {
-                memb.add(anyObject);
-            }
+            dynMembershipDAO.rebuild(memb, DynMembershipDAO.DEFAULT_CHUNK_SIZE, null);
         }
 
         return merged;
@@ -270,7 +263,16 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
             userDAO.save(leftEnd);
         }
 
+        searchIndex.remove(AnyTypeKind.GROUP, group.getKey());
+        provisionHashDAO.deleteByAny(group.getKey());
+        publisher.publishEvent(
+                new AnyDeletedEvent(this, AnyTypeKind.GROUP, group.getKey(), AuthContextUtils.getDomain()));
+
+        boolean dynMembershipsAffected = dynMembershipIndex.hasDynMemberships(group);
         entityManager().remove(group);
+        if (dynMembershipsAffected) {
+            dynMembershipIndex.invalidate();
+        }
     }
 
     @Override
@@ -286,36 +288,12 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Transactional
     @Override
     public void refreshDynMemberships(final AnyObject anyObject) {
-        for (Group group : findAll()) {
-            for (ADynGroupMembership memb : group.getADynMemberships()) {
-                if (searchDAO.matches(
-                        anyObject,
-                        buildDynMembershipCond(memb.getFIQLCond(), group.getRealm()),
-                        AnyTypeKind.ANY_OBJECT)) {
-
-                    memb.add(anyObject);
-                } else {
-                    memb.getMembers().remove(anyObject);
-                }
-            }
-        }
+        dynMembershipIndex.refresh(anyObject, null);
     }
 
     @Transactional
     @Override
     public void refreshDynMemberships(final User user) {
-        for (Group group : findAll()) {
-            if (group.getUDynMembership() != null) {
-                if (searchDAO.matches(
-                        user,
-                        buildDynMembershipCond(group.getUDynMembership().getFIQLCond(), group.getRealm()),
-                        AnyTypeKind.USER)) {
-
-                    group.getUDynMembership().add(user);
-                } else {
-                    group.getUDynMembership().getMembers().remove(user);
-                }
-            }
-        }
+        dynMembershipIndex.refresh(user, null);
     }
 }
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchIndexDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
@@ -44,6 +45,9 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private AnySearchIndexDAO searchIndex;
+
     @Override
     public PlainSchema find(final String key) {
         return entityManager().find(JPAPlainSchema.class, key);
@@ -83,6 +87,9 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
 
     @Override
     public PlainSchema save(final PlainSchema schema) {
+        // plain schemas might be used for ordering search results
+        JPAAnySearchDAO.clearPlanCache();
+
         return entityManager().merge(schema);
     }
 
@@ -93,6 +100,9 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
             return;
         }
 
+        JPAAnySearchDAO.clearPlanCache();
+        searchIndex.removeSchema(key);
+
         AnyUtilsFactory anyUtilsFactory = new JPAAnyUtilsFactory();
         for (AnyTypeKind anyTypeKind : AnyTypeKind.values()) {
             AnyUtils anyUtils = anyUtilsFactory.getInstance(anyTypeKind);
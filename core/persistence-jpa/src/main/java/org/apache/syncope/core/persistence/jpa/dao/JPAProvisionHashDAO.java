@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.List;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.MappingPurpose;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAProvisionHash;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class JPAProvisionHashDAO extends AbstractDAO<Entity> implements ProvisionHashDAO {
+
+    private static String resourcesTable(final AnyTypeKind kind) {
+        String table;
+        switch (kind) {
+            case ANY_OBJECT:
+                table = JPAAnyObject.TABLE + "_ExternalResource t1 ON t0.any_id = t1.anyObject_id";
+                break;
+
+            case GROUP:
+                table = JPAGroup.TABLE + "_ExternalResource t1 ON t0.any_id = t1.group_id";
+                break;
+
+            case USER:
+            default:
+                table = JPAUser.TABLE + "_ExternalResource t1 ON t0.any_id = t1.user_id";
+        }
+
+        return table;
+    }
+
+    private JPAProvisionHash findEntity(final String anyKey, final String resourceKey) {
+        TypedQuery<JPAProvisionHash> query = entityManager().createQuery(
+                "SELECT e FROM " + JPAProvisionHash.class.getSimpleName() + " e "
+                + "WHERE e.anyKey=:anyKey AND e.resourceKey=:resourceKey", JPAProvisionHash.class);
+        query.setParameter("anyKey", anyKey);
+        query.setParameter("resourceKey", resourceKey);
+
+        List<JPAProvisionHash> result = query.getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    private static boolean isPull(final MappingPurpose direction) {
+        switch (direction) {
+            case PULL:
+                return true;
+
+            case PROPAGATION:
+                return false;
+
+            default:
+                throw new IllegalArgumentException("Not a direction: " + direction);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String find(
+            final AnyTypeKind kind, final String anyKey, final String resourceKey, final MappingPurpose direction) {
+
+        Query query = entityManager().createNativeQuery(
+                "SELECT t0." + (isPull(direction) ? "pullHash" : "pushHash") + " "
+                + "FROM " + JPAProvisionHash.TABLE + " t0 "
+                + "INNER JOIN " + resourcesTable(kind) + " AND t0.resource_id = t1.resource_id "
+                + "WHERE t0.any_id = ?1 AND t0.resource_id = ?2");
+        query.setParameter(1, anyKey);
+        query.setParameter(2, resourceKey);
+
+        List<?> result = query.getResultList();
+        if (result.isEmpty()) {
+            return null;
+        }
+
+        Object hash = result.get(0);
+        return hash instanceof Object[]
+                ? (String) ((Object[]) hash)[0]
+                : (String) hash;
+    }
+
+    @Override
+    public void save(
+            final String anyKey, final String resourceKey, final MappingPurpose direction, final String hash) {
+
+        boolean pull = isPull(direction);
+
+        JPAProvisionHash entity = findEntity(anyKey, resourceKey);
+        boolean create = entity == null;
+        if (create) {
+            entity = new JPAProvisionHash();
+            entity.setAnyKey(anyKey);
+            entity.setResourceKey(resourceKey);
+        }
+        entity.setPullHash(pull ? hash : null);
+        entity.setPushHash(pull ? null : hash);
+        if (create) {
+            entityManager().persist(entity);
+        }
+    }
+
+    private void delete(final String condition, final String... values) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPAProvisionHash.class.getSimpleName() + " e WHERE " + condition);
+        for (int i = 0; i < values.length; i++) {
+            query.setParameter(i + 1, values[i]);
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    public void delete(final String anyKey, final String resourceKey) {
+        delete("e.anyKey=?1 AND e.resourceKey=?2", anyKey, resourceKey);
+    }
+
+    @Override
+    public void deleteByAny(final String anyKey) {
+        delete("e.anyKey=?1", anyKey);
+    }
+
+    @Override
+    public void deleteByResource(final String resourceKey) {
+        delete("e.resourceKey=?1", resourceKey);
+    }
+}
@@ -23,8 +23,6 @@ import java.util.Collections;
 import java.util.List;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
-import org.apache.commons.collections4.IterableUtils;
-import org.apache.commons.collections4.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.dao.MalformedPathException;
@@ -78,25 +76,18 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
             throw new MalformedPathException(fullPath);
         }
 
-        Realm root = getRoot();
-        if (root == null) {
-            return null;
-        }
+        TypedQuery<Realm> query = entityManager().createQuery(
+                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e WHERE e.fullPath=:fullPath", Realm.class);
+        query.setParameter("fullPath", fullPath);
 
-        Realm current = root;
-        for (final String pathElement : fullPath.substring(1).split("/")) {
-            current = IterableUtils.find(findChildren(current), new Predicate<Realm>() {
-
-                @Override
-                public boolean evaluate(final Realm realm) {
-                    return pathElement.equals(realm.getName());
-                }
-            });
-            if (current == null) {
-                return null;
-            }
+        Realm result = null;
+        try {
+            result = query.getSingleResult();
+        } catch (NoResultException e) {
+            LOG.debug("Realm with fullPath {} not found", fullPath, e);
         }
-        return current;
+
+        return result;
     }
 
     private <T extends Policy> List<Realm> findSamePolicyChildren(final Realm realm, final T policy) {
@@ -159,21 +150,15 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
         return query.getResultList();
     }
 
-    private void findDescendants(final List<Realm> result, final Realm realm) {
-        result.add(realm);
-        List<Realm> children = findChildren(realm);
-        if (children != null) {
-            for (Realm child : children) {
-                findDescendants(result, child);
-            }
-        }
-    }
-
     @Override
     public List<Realm> findDescendants(final Realm realm) {
-        List<Realm> result = new ArrayList<>();
-        findDescendants(result, realm);
-        return result;
+        TypedQuery<Realm> query = entityManager().createQuery(
+                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e "
+                + "WHERE e.fullPath=:fullPath OR e.fullPath LIKE :pathPrefix ORDER BY e.fullPath", Realm.class);
+        query.setParameter("fullPath", realm.getFullPath());
+        query.setParameter("pathPrefix", StringUtils.appendIfMissing(realm.getFullPath(), "/") + "%");
+
+        return query.getResultList();
     }
 
     @Override
@@ -183,9 +168,28 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
         return query.getResultList();
     }
 
+    private void updateDescendantsFullPath(final Realm realm) {
+        for (Realm child : findChildren(realm)) {
+            if (!(StringUtils.appendIfMissing(realm.getFullPath(), "/") + child.getName()).
+                    equals(child.getFullPath())) {
+
+                // resetting the parent recomputes the child's full path
+                child.setParent(realm);
+                updateDescendantsFullPath(child);
+            }
+        }
+    }
+
     @Override
     public Realm save(final Realm realm) {
-        return entityManager().merge(realm);
+        Realm merged = entityManager().merge(realm);
+
+        // when renamed or moved, the materialized full path of all descendants needs to be refreshed
+        if (realm.getKey() != null) {
+            updateDescendantsFullPath(merged);
+        }
+
+        return merged;
     }
 
     @Override
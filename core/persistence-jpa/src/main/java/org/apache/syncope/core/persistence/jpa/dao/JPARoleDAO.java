@@ -21,10 +21,8 @@ package org.apache.syncope.core.persistence.jpa.dao;
 import java.util.List;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
-import org.apache.syncope.common.lib.types.AnyTypeKind;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.persistence.api.dao.DynMembershipDAO;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.Role;
 import org.apache.syncope.core.persistence.api.entity.user.User;
@@ -38,7 +36,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     @Autowired
-    private AnySearchDAO searchDAO;
+    private DynMembershipDAO dynMembershipDAO;
+
+    @Autowired
+    private DynMembershipIndex dynMembershipIndex;
 
     @Override
     public int count() {
@@ -69,18 +70,15 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     @Override
     public Role save(final Role role) {
+        Role merged = entityManager().merge(role);
+        dynMembershipIndex.invalidate();
+
         // refresh dynaminc memberships
-        if (role.getDynMembership() != null) {
-            List<User> matchingUsers = searchDAO.search(
-                    SearchCondConverter.convert(role.getDynMembership().getFIQLCond()), AnyTypeKind.USER);
-
-            role.getDynMembership().getMembers().clear();
-            for (User user : matchingUsers) {
-                role.getDynMembership().add(user);
-            }
+        if (merged.getDynMembership() != null) {
+            dynMembershipDAO.rebuild(merged.getDynMembership(), DynMembershipDAO.DEFAULT_CHUNK_SIZE, null);
         }
 
-        return entityManager().merge(role);
+        return merged;
     }
 
     @Override
@@ -94,6 +92,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         }
 
         entityManager().remove(role);
+        dynMembershipIndex.invalidate();
     }
 
     @Override
@@ -109,17 +108,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
     @Transactional
     @Override
     public void refreshDynMemberships(final User user) {
-        for (Role role : findAll()) {
-            if (role.getDynMembership() != null) {
-                if (searchDAO.matches(user,
-                        SearchCondConverter.convert(role.getDynMembership().getFIQLCond()), AnyTypeKind.USER)) {
-
-                    role.getDynMembership().add(user);
-                } else {
-                    role.getDynMembership().getMembers().remove(user);
-                }
-            }
-        }
+        dynMembershipIndex.refresh(user, null);
     }
 
 }
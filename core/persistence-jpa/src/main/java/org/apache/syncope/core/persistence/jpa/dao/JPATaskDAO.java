@@ -19,8 +19,10 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import org.apache.commons.collections4.Closure;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -249,6 +251,25 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
         return entityManager().merge(task);
     }
 
+    @Transactional(rollbackFor = { Throwable.class })
+    @Override
+    public boolean claim(final String key, final String owner, final Date expiredBefore) {
+        // a single UPDATE statement, so that concurrent claims for the same task cannot both succeed
+        Query query = entityManager().createQuery("UPDATE " + JPAPropagationTask.class.getSimpleName() + " e "
+                + "SET e.claimedBy=:owner, e.claimedAt=:now "
+                + "WHERE e.id=:key AND (e.claimedBy IS NULL OR e.claimedBy=:owner OR e.claimedAt < :expiredBefore)");
+        query.setParameter("owner", owner);
+        query.setParameter("now", new Date(), TemporalType.TIMESTAMP);
+        query.setParameter("key", key);
+        query.setParameter("expiredBefore", expiredBefore, TemporalType.TIMESTAMP);
+
+        boolean claimed = query.executeUpdate() > 0;
+        if (claimed) {
+            entityManager().getEntityManagerFactory().getCache().evict(JPAPropagationTask.class, key);
+        }
+        return claimed;
+    }
+
     @Override
     public void delete(final String id) {
         Task task = find(id);
@@ -45,6 +45,7 @@ import org.apache.syncope.common.lib.types.EntityViolationType;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.provisioning.api.utils.policy.AccountPolicyException;
 import org.apache.syncope.core.provisioning.api.utils.policy.PasswordPolicyException;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -98,6 +99,9 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
     @Autowired
     private ImplementationLookup implementationLookup;
 
+    @Autowired
+    private DynMembershipIndex dynMembershipIndex;
+
     @Resource(name = "adminUser")
     private String adminUser;
 
@@ -200,6 +204,11 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         return result;
     }
 
+    @Override
+    public Map<String, String> findKeysByUsernames(final Collection<String> usernames) {
+        return findKeysBy("username", usernames);
+    }
+
     @Override
     public User findByToken(final String token) {
         TypedQuery<User> query = entityManager().createQuery("SELECT e FROM " + JPAUser.class.getSimpleName()
@@ -390,8 +399,9 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
 
     @Override
     public User save(final User user) {
-        // 1. save clear password value before save
+        // 1. save clear password value and changes relevant to dynamic memberships before save
         String clearPwd = user.getClearPassword();
+        Set<String> changes = dynMembershipIndex.getChanges(user);
 
         // 2. save and flush to trigger entity validation        
         User merged = super.save(user);
@@ -408,8 +418,8 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
             throw e;
         }
 
-        roleDAO.refreshDynMemberships(merged);
-        groupDAO.refreshDynMemberships(merged);
+        // 5. refresh dynamic memberships affected by changes
+        dynMembershipIndex.refresh(merged, changes);
 
         return merged;
     }
@@ -423,6 +433,11 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
             group.getUDynMembership().getMembers().remove(user);
         }
 
+        searchIndex.remove(AnyTypeKind.USER, user.getKey());
+        provisionHashDAO.deleteByAny(user.getKey());
+        publisher.publishEvent(
+                new AnyDeletedEvent(this, AnyTypeKind.USER, user.getKey(), AuthContextUtils.getDomain()));
+
         entityManager().remove(user);
     }
 
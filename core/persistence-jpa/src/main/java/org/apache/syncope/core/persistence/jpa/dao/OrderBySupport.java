@@ -31,6 +31,8 @@ class OrderBySupport {
 
         protected String where;
 
+        protected String join;
+
         protected String orderBy;
 
         protected boolean isEmpty() {
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.collections4.map.LRUMap;
+
+/**
+ * Bounded cache, kept for each domain, of the native statements generated by {@link JPAAnySearchDAO}, keyed on the SQL
+ * fragment generated from the search condition: such fragment only refers to types, schemas and operators, while all
+ * values are bound as positional parameters, hence structurally identical searches share the same statement whatever
+ * their values.
+ * Statements depend on plain schemas, so the cache must be cleared whenever any of them changes.
+ */
+public class SearchPlanCache {
+
+    static class Plan {
+
+        private final String statement;
+
+        private final boolean withTotalCount;
+
+        Plan(final String statement, final boolean withTotalCount) {
+            this.statement = statement;
+            this.withTotalCount = withTotalCount;
+        }
+
+        public String getStatement() {
+            return statement;
+        }
+
+        public boolean isWithTotalCount() {
+            return withTotalCount;
+        }
+    }
+
+    private final Map<String, Plan> plans;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchPlanCache(final int maxSize) {
+        this.plans = Collections.synchronizedMap(new LRUMap<String, Plan>(maxSize));
+    }
+
+    Plan get(final String key) {
+        Plan plan = plans.get(key);
+        if (plan == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return plan;
+    }
+
+    void put(final String key, final Plan plan) {
+        plans.put(key, plan);
+    }
+
+    /**
+     * Removes all cached statements; to be invoked when the information used to build them (e.g. plain schemas)
+     * changes.
+     */
+    public void clear() {
+        plans.clear();
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
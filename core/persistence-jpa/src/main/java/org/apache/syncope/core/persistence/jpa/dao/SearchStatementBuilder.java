@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.Query;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+
+/**
+ * Exposes the native SQL generated by {@link JPAAnySearchDAO} for search conditions, so that it can be embedded into
+ * set-based statements.
+ */
+public interface SearchStatementBuilder {
+
+    /**
+     * Native SQL statement selecting the matching keys as {@code any_id}, with its positional parameters.
+     */
+    class Statement {
+
+        private final String query;
+
+        private final List<Object> parameters;
+
+        public Statement(final String query, final List<Object> parameters) {
+            this.query = query;
+            this.parameters = parameters;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * @return a copy of the parameters, which further parameters can be appended to
+         */
+        public List<Object> getParameters() {
+            return new ArrayList<>(parameters);
+        }
+
+        /**
+         * @return whether no entity can match, e.g. the condition could not be translated into SQL
+         */
+        public boolean isEmpty() {
+            return query.isEmpty();
+        }
+
+        public static void fill(final Query query, final List<Object> parameters) {
+            JPAAnySearchDAO.fillWithParameters(query, parameters);
+        }
+    }
+
+    /**
+     * Builds the statement selecting the keys of all entities matching the given condition, with no restriction on
+     * administrative realms.
+     *
+     * @param searchCondition search condition
+     * @param typeKind any type kind
+     * @return native SQL statement
+     */
+    Statement buildKeysStatement(SearchCond searchCondition, AnyTypeKind typeKind);
+}
@@ -22,6 +22,12 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAASearchUniqueAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGSearchUniqueAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUSearchUniqueAttr;
 
 class SearchSupport {
 
@@ -49,14 +55,28 @@ class SearchSupport {
 
     private final AnyTypeKind anyTypeKind;
 
+    private final boolean indexed;
+
     SearchSupport(final AnyTypeKind anyTypeKind) {
+        this(anyTypeKind, false);
+    }
+
+    SearchSupport(final AnyTypeKind anyTypeKind, final boolean indexed) {
         this.anyTypeKind = anyTypeKind;
+        this.indexed = indexed;
     }
 
     public AnyTypeKind anyTypeKind() {
         return anyTypeKind;
     }
 
+    /**
+     * @return whether plain attribute values are read from the search index tables rather than from views
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
     public String fieldName(final AttrSchemaType attrSchemaType) {
         String result;
 
@@ -111,7 +131,26 @@ class SearchSupport {
     }
 
     public SearchView attr() {
-        return new SearchView("sva", field().name + "_attr");
+        String result;
+        if (indexed) {
+            switch (anyTypeKind) {
+                case ANY_OBJECT:
+                    result = JPAASearchAttr.TABLE;
+                    break;
+
+                case GROUP:
+                    result = JPAGSearchAttr.TABLE;
+                    break;
+
+                case USER:
+                default:
+                    result = JPAUSearchAttr.TABLE;
+            }
+        } else {
+            result = field().name + "_attr";
+        }
+
+        return new SearchView("sva", result);
     }
 
     public SearchView relationship() {
@@ -150,7 +189,26 @@ class SearchSupport {
     }
 
     public SearchView uniqueAttr() {
-        return new SearchView("svua", field().name + "_unique_attr");
+        String result;
+        if (indexed) {
+            switch (anyTypeKind) {
+                case ANY_OBJECT:
+                    result = JPAASearchUniqueAttr.TABLE;
+                    break;
+
+                case GROUP:
+                    result = JPAGSearchUniqueAttr.TABLE;
+                    break;
+
+                case USER:
+                default:
+                    result = JPAUSearchUniqueAttr.TABLE;
+            }
+        } else {
+            result = field().name + "_unique_attr";
+        }
+
+        return new SearchView("svua", result);
     }
 
     public SearchView entitlements() {
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.jpa.entity;
 
 import java.util.Date;
 import javax.persistence.Basic;
+import javax.persistence.EntityListeners;
 import javax.persistence.Lob;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.Temporal;
@@ -40,6 +41,7 @@ import org.apache.syncope.core.persistence.jpa.validation.entity.PlainAttrValueC
 import org.apache.syncope.core.spring.security.Encryptor;
 
 @MappedSuperclass
+@EntityListeners(value = SearchIndexListener.class)
 @PlainAttrValueCheck
 public abstract class AbstractPlainAttrValue extends AbstractGeneratedKeyEntity implements PlainAttrValue {
 
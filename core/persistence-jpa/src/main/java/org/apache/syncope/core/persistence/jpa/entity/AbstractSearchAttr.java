@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Denormalized copy of a plain attribute value, used for searching when the search index is enabled for the current
+ * domain; rows are only written by native SQL statements and share the key of the original plain attribute value.
+ */
+@MappedSuperclass
+public abstract class AbstractSearchAttr extends AbstractProvidedKeyEntity {
+
+    private static final long serialVersionUID = 3507417232573431092L;
+
+    @Column(name = "any_id")
+    private String anyKey;
+
+    @Column(name = "schema_id")
+    private String schemaKey;
+
+    private String stringValue;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date dateValue;
+
+    private Integer booleanValue;
+
+    private Long longValue;
+
+    private Double doubleValue;
+
+    public String getAnyKey() {
+        return anyKey;
+    }
+
+    public String getSchemaKey() {
+        return schemaKey;
+    }
+
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    public Date getDateValue() {
+        return dateValue == null
+                ? null
+                : new Date(dateValue.getTime());
+    }
+
+    public Boolean getBooleanValue() {
+        return booleanValue == null
+                ? null
+                : isBooleanAsInteger(booleanValue);
+    }
+
+    public Long getLongValue() {
+        return longValue;
+    }
+
+    public Double getDoubleValue() {
+        return doubleValue;
+    }
+}
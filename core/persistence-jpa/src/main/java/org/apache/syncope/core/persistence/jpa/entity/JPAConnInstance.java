@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -48,6 +49,7 @@ import org.apache.syncope.core.persistence.jpa.entity.resource.JPAExternalResour
 
 @Entity
 @Table(name = JPAConnInstance.TABLE)
+@Cacheable
 @ConnInstanceCheck
 public class JPAConnInstance extends AbstractGeneratedKeyEntity implements ConnInstance {
 
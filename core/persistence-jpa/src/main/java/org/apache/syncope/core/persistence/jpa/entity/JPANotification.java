@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa.entity;
 import java.util.ArrayList;
 import java.util.List;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -47,6 +48,7 @@ import org.apache.syncope.core.persistence.jpa.validation.entity.NotificationChe
 
 @Entity
 @Table(name = JPANotification.TABLE)
+@Cacheable
 @NotificationCheck
 public class JPANotification extends AbstractGeneratedKeyEntity implements Notification {
 
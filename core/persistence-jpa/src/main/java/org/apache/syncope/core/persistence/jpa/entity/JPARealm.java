@@ -69,6 +69,14 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
     @Size(min = 1)
     private String name;
 
+    /**
+     * Materialized full path, kept current by {@link #setName(java.lang.String)} and
+     * {@link #setParent(org.apache.syncope.core.persistence.api.entity.Realm)}: this allows to look up realms and their
+     * descendants with plain (indexed) queries, instead of walking the realm tree.
+     */
+    @Column(nullable = false)
+    private String fullPath;
+
     @ManyToOne
     private JPARealm parent;
 
@@ -107,7 +115,11 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
 
     @Override
     public String getFullPath() {
-        return getParent() == null
+        return fullPath;
+    }
+
+    private void updateFullPath() {
+        fullPath = getParent() == null
                 ? SyncopeConstants.ROOT_REALM
                 : StringUtils.appendIfMissing(getParent().getFullPath(), "/") + getName();
     }
@@ -125,12 +137,14 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
     @Override
     public void setName(final String name) {
         this.name = name;
+        updateFullPath();
     }
 
     @Override
     public void setParent(final Realm parent) {
         checkType(parent, JPARealm.class);
         this.parent = (JPARealm) parent;
+        updateFullPath();
     }
 
     @Override
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchIndexDAO;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+
+/**
+ * Reports to the search index the users, groups and any objects whose plain attributes or values were actually
+ * written, whatever the path they were written through.
+ */
+public class SearchIndexListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(final Object entity) {
+        PlainAttr<?> attr = entity instanceof PlainAttrValue
+                ? ((PlainAttrValue) entity).getAttr()
+                : entity instanceof PlainAttr
+                        ? (PlainAttr<?>) entity
+                        : null;
+        if (attr == null || attr.getOwner() == null) {
+            return;
+        }
+
+        Any<?> owner = attr.getOwner();
+        AnyTypeKind kind = owner instanceof User
+                ? AnyTypeKind.USER
+                : owner instanceof Group
+                        ? AnyTypeKind.GROUP
+                        : owner instanceof AnyObject
+                                ? AnyTypeKind.ANY_OBJECT
+                                : null;
+        // configuration parameters are not indexed
+        if (kind != null) {
+            ApplicationContextProvider.getBeanFactory().getBean(AnySearchIndexDAO.class).changed(kind, owner.getKey());
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -69,6 +70,7 @@ import org.identityconnectors.framework.common.objects.ObjectClass;
  */
 @Entity
 @Table(name = JPAExternalResource.TABLE)
+@Cacheable
 @ExternalResourceCheck
 public class JPAExternalResource extends AbstractProvidedKeyEntity implements ExternalResource {
 
@@ -112,6 +114,22 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
     @Max(1)
     private Integer randomPwdIfNotProvided;
 
+    /**
+     * Skip reading remote objects before propagation.
+     */
+    @Basic
+    @Min(0)
+    @Max(1)
+    private Integer trustLocalState;
+
+    /**
+     * Skip unchanged objects during pull and push.
+     */
+    @Basic
+    @Min(0)
+    @Max(1)
+    private Integer changeDetection;
+
     @Enumerated(EnumType.STRING)
     @NotNull
     private TraceLevel createTraceLevel;
@@ -173,6 +191,8 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
         enforceMandatoryCondition = getBooleanAsInteger(false);
         propagationPriority = 0;
         randomPwdIfNotProvided = 0;
+        trustLocalState = 0;
+        changeDetection = 0;
         overrideCapabilities = 0;
 
         createTraceLevel = TraceLevel.FAILURES;
@@ -268,6 +288,26 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
         this.randomPwdIfNotProvided = getBooleanAsInteger(randomPwdIfNotProvided);
     }
 
+    @Override
+    public boolean isTrustLocalState() {
+        return isBooleanAsInteger(trustLocalState);
+    }
+
+    @Override
+    public void setTrustLocalState(final boolean trustLocalState) {
+        this.trustLocalState = getBooleanAsInteger(trustLocalState);
+    }
+
+    @Override
+    public boolean isChangeDetection() {
+        return isBooleanAsInteger(changeDetection);
+    }
+
+    @Override
+    public void setChangeDetection(final boolean changeDetection) {
+        this.changeDetection = getBooleanAsInteger(changeDetection);
+    }
+
     @Override
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity.resource;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import org.apache.syncope.core.persistence.jpa.entity.AbstractGeneratedKeyEntity;
+
+/**
+ * Content hashes of the mapped attributes last exchanged between an entity and an external resource, one for each
+ * direction, used by pull and push to detect unchanged objects; rows are only accessed via {@link
+ * org.apache.syncope.core.persistence.jpa.dao.JPAProvisionHashDAO}.
+ */
+@Entity
+@Table(name = JPAProvisionHash.TABLE, uniqueConstraints =
+        @UniqueConstraint(columnNames = { "any_id", "resource_id" }))
+public class JPAProvisionHash extends AbstractGeneratedKeyEntity {
+
+    private static final long serialVersionUID = -4236155693702582458L;
+
+    public static final String TABLE = "ProvisionHash";
+
+    @NotNull
+    @Column(name = "any_id")
+    private String anyKey;
+
+    @NotNull
+    @Column(name = "resource_id")
+    private String resourceKey;
+
+    private String pullHash;
+
+    private String pushHash;
+
+    public String getAnyKey() {
+        return anyKey;
+    }
+
+    public void setAnyKey(final String anyKey) {
+        this.anyKey = anyKey;
+    }
+
+    public String getResourceKey() {
+        return resourceKey;
+    }
+
+    public void setResourceKey(final String resourceKey) {
+        this.resourceKey = resourceKey;
+    }
+
+    public String getPullHash() {
+        return pullHash;
+    }
+
+    public void setPullHash(final String pullHash) {
+        this.pullHash = pullHash;
+    }
+
+    public String getPushHash() {
+        return pushHash;
+    }
+
+    public void setPushHash(final String pushHash) {
+        this.pushHash = pushHash;
+    }
+}
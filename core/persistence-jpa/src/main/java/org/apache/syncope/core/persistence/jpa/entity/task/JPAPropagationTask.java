@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.task;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.DiscriminatorValue;
@@ -26,6 +27,8 @@ import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
@@ -84,6 +87,17 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
     @ManyToOne
     private JPAExternalResource resource;
 
+    /**
+     * The node in charge of executing this task, when queued.
+     */
+    private String claimedBy;
+
+    /**
+     * When this task was last claimed.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date claimedAt;
+
     @Override
     public String getConnObjectKey() {
         return connObjectKey;
@@ -186,4 +200,24 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
     public void setEntityKey(final String entityKey) {
         this.entityKey = entityKey;
     }
+
+    @Override
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    @Override
+    public void setClaimedBy(final String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    @Override
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    @Override
+    public void setClaimedAt(final Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
 }
@@ -34,6 +34,7 @@ import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.collections4.Predicate;
@@ -57,6 +58,9 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
 
     private String reconciliationFilterBuilderClassName;
 
+    @Min(1)
+    private Integer concurrency;
+
     @ManyToOne(fetch = FetchType.EAGER, optional = false)
     private JPARealm destinationRealm;
 
@@ -90,6 +94,16 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
         this.reconciliationFilterBuilderClassName = reconciliationFilterBuilderClassName;
     }
 
+    @Override
+    public int getConcurrency() {
+        return concurrency == null ? 1 : concurrency;
+    }
+
+    @Override
+    public void setConcurrency(final int concurrency) {
+        this.concurrency = concurrency;
+    }
+
     @Override
     public Realm getDestinatioRealm() {
         return destinationRealm;
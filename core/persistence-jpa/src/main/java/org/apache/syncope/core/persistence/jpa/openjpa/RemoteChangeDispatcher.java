@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.apache.openjpa.conf.OpenJPAConfiguration;
+import org.apache.openjpa.event.RemoteCommitEvent;
+import org.apache.openjpa.event.RemoteCommitEventManager;
+import org.apache.openjpa.event.RemoteCommitListener;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+import org.apache.openjpa.util.OpenJPAId;
+import org.apache.syncope.core.persistence.api.DomainsHolder;
+import org.apache.syncope.core.persistence.api.SyncopeLoader;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens to the remote commit events of each domain and dispatches them, as entity types and keys, to the registered
+ * {@link RemoteChangeListener} instances.
+ * With the default {@code sjvm} provider, commits performed on a domain are also received by the other domains of the
+ * same JVM: listeners might then drop a bit more than needed, never less.
+ */
+@Component
+public class RemoteChangeDispatcher implements SyncopeLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RemoteChangeDispatcher.class);
+
+    @Autowired
+    private DomainsHolder domainsHolder;
+
+    private final List<RemoteChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(final RemoteChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Integer getPriority() {
+        return 5;
+    }
+
+    @Override
+    public void load() {
+        for (final String domain : domainsHolder.getDomains().keySet()) {
+            EntityManagerFactory emf = EntityManagerFactoryUtils.findEntityManagerFactory(
+                    ApplicationContextProvider.getBeanFactory(), domain);
+            OpenJPAConfiguration conf;
+            EntityManager entityManager = emf.createEntityManager();
+            try {
+                conf = entityManager.unwrap(OpenJPAEntityManagerSPI.class).getConfiguration();
+            } finally {
+                entityManager.close();
+            }
+
+            RemoteCommitEventManager eventManager = conf.getRemoteCommitEventManager();
+            if (eventManager == null || eventManager.getRemoteCommitProvider() == null) {
+                LOG.warn("No remote commit provider for domain {}: changes from other nodes will be ignored", domain);
+            } else {
+                eventManager.addListener(new RemoteCommitListener() {
+
+                    @Override
+                    public void afterCommit(final RemoteCommitEvent event) {
+                        dispatch(domain, event);
+                    }
+
+                    @Override
+                    public void close() {
+                        // nothing to do
+                    }
+                });
+            }
+        }
+    }
+
+    private static void addOids(final Map<Class<?>, Set<String>> changes, final Collection<?> oids) {
+        for (Object oid : oids) {
+            if (oid instanceof OpenJPAId) {
+                OpenJPAId openJPAId = (OpenJPAId) oid;
+                Set<String> keys = changes.get(openJPAId.getType());
+                if (keys == null) {
+                    keys = new HashSet<>();
+                    changes.put(openJPAId.getType(), keys);
+                }
+                keys.add(openJPAId.getIdObject().toString());
+            }
+        }
+    }
+
+    private static void addTypes(final Map<Class<?>, Set<String>> changes, final Collection<?> typeNames) {
+        for (Object typeName : typeNames) {
+            try {
+                // no keys: any entity of the given type might have changed
+                changes.put(Class.forName(typeName.toString()), new HashSet<String>());
+            } catch (ClassNotFoundException e) {
+                LOG.error("Unexpected type in remote commit event: {}", typeName, e);
+            }
+        }
+    }
+
+    private void dispatch(final String domain, final RemoteCommitEvent event) {
+        Map<Class<?>, Set<String>> changes = new HashMap<>();
+        switch (event.getPayloadType()) {
+            case RemoteCommitEvent.PAYLOAD_EXTENTS:
+                addTypes(changes, event.getPersistedTypeNames());
+                addTypes(changes, event.getUpdatedTypeNames());
+                addTypes(changes, event.getDeletedTypeNames());
+                break;
+
+            case RemoteCommitEvent.PAYLOAD_OIDS:
+                addOids(changes, event.getUpdatedObjectIds());
+                addOids(changes, event.getDeletedObjectIds());
+                addTypes(changes, event.getPersistedTypeNames());
+                break;
+
+            case RemoteCommitEvent.PAYLOAD_OIDS_WITH_ADDS:
+            default:
+                addOids(changes, event.getPersistedObjectIds());
+                addOids(changes, event.getUpdatedObjectIds());
+                addOids(changes, event.getDeletedObjectIds());
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Changes committed on another node for domain {}: {}", domain, changes);
+        for (RemoteChangeListener listener : listeners) {
+            try {
+                listener.changed(domain, changes);
+            } catch (Exception e) {
+                LOG.error("While notifying {} about remote changes", listener, e);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa.inner;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Set;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.collections4.Predicate;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
@@ -53,6 +55,8 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.JPAAnySearchDAO;
+import org.apache.syncope.core.persistence.jpa.dao.SearchPlanCache;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -269,6 +273,101 @@ public class AnySearchTest extends AbstractTest {
         assertEquals(1, users.size());
     }
 
+    @Test
+    public void searchAndCount() {
+        AttributeCond coolLeafCond = new AttributeCond(AttributeCond.Type.ISNULL);
+        coolLeafCond.setSchema("cool");
+        SearchCond cond = SearchCond.getLeafCond(coolLeafCond);
+
+        Pair<Integer, List<User>> result = searchDAO.searchAndCount(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 1, 2,
+                Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        assertEquals(4, result.getLeft(), 0);
+        assertEquals(2, result.getRight().size());
+
+        result = searchDAO.searchAndCount(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 10, 2,
+                Collections.<OrderByClause>emptyList(), AnyTypeKind.USER);
+        assertEquals(4, result.getLeft(), 0);
+        assertTrue(result.getRight().isEmpty());
+    }
+
+    @Test
+    public void searchAfter() {
+        AttributeCond coolLeafCond = new AttributeCond(AttributeCond.Type.ISNULL);
+        coolLeafCond.setSchema("cool");
+        SearchCond cond = SearchCond.getLeafCond(coolLeafCond);
+
+        List<User> all = new ArrayList<>();
+        String after = null;
+        List<User> page;
+        do {
+            page = searchDAO.searchAfter(SyncopeConstants.FULL_ADMIN_REALMS, cond, after, 3, AnyTypeKind.USER);
+            for (User user : page) {
+                assertTrue(after == null || user.getKey().compareTo(after) > 0);
+                after = user.getKey();
+            }
+            all.addAll(page);
+        } while (page.size() == 3);
+
+        assertEquals(4, all.size());
+        assertEquals(new HashSet<>(searchDAO.<User>search(cond, AnyTypeKind.USER)), new HashSet<>(all));
+    }
+
+    @Test
+    public void searchKeys() {
+        AttributeCond coolLeafCond = new AttributeCond(AttributeCond.Type.ISNULL);
+        coolLeafCond.setSchema("cool");
+        SearchCond cond = SearchCond.getLeafCond(coolLeafCond);
+
+        List<String> keys = new ArrayList<>();
+        for (String key : searchDAO.searchKeys(SyncopeConstants.FULL_ADMIN_REALMS, cond, 3, AnyTypeKind.USER)) {
+            assertTrue(keys.isEmpty() || key.compareTo(keys.get(keys.size() - 1)) > 0);
+            keys.add(key);
+        }
+        assertEquals(4, keys.size());
+
+        Set<String> expected = new HashSet<>();
+        for (User user : searchDAO.<User>search(cond, AnyTypeKind.USER)) {
+            expected.add(user.getKey());
+        }
+        assertEquals(expected, new HashSet<>(keys));
+    }
+
+    @Test
+    public void searchPlanCache() {
+        AttributeCond fullnameLeafCond = new AttributeCond(AttributeCond.Type.LIKE);
+        fullnameLeafCond.setSchema("fullname");
+        fullnameLeafCond.setExpression("%o%");
+
+        List<User> users = searchDAO.search(SearchCond.getLeafCond(fullnameLeafCond), AnyTypeKind.USER);
+        assertFalse(users.isEmpty());
+
+        SearchPlanCache planCache = JPAAnySearchDAO.getPlanCache(SyncopeConstants.MASTER_DOMAIN);
+        long hits = planCache.getHits();
+        int size = planCache.size();
+
+        // same condition: the statement is not built again
+        List<User> cached = searchDAO.search(SearchCond.getLeafCond(fullnameLeafCond), AnyTypeKind.USER);
+        assertEquals(users, cached);
+        assertEquals(hits + 1, planCache.getHits());
+
+        // same condition shape, different value: the cached statement is reused, no new entry is added
+        fullnameLeafCond.setExpression("%nonexisting%");
+        users = searchDAO.search(SearchCond.getLeafCond(fullnameLeafCond), AnyTypeKind.USER);
+        assertTrue(users.isEmpty());
+
+        assertEquals(hits + 2, planCache.getHits());
+        assertEquals(size, planCache.size());
+
+        // each domain has its own cache
+        assertNotSame(planCache, JPAAnySearchDAO.getPlanCache("Two"));
+
+        // plain schema changes clear the cache
+        JPAAnySearchDAO.clearPlanCache();
+        assertEquals(0, planCache.size());
+    }
+
     @Test
     public void searchByResource() {
         ResourceCond ws2 = new ResourceCond();
@@ -463,6 +562,11 @@ public class AnySearchTest extends AbstractTest {
         assertEquals(
                 searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, searchCondition, AnyTypeKind.USER),
                 users.size());
+
+        // ordering from native query is preserved while fetching entities
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getUsername().compareTo(users.get(i).getUsername()) >= 0);
+        }
     }
 
     @Test
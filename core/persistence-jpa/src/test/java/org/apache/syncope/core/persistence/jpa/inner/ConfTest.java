@@ -19,6 +19,7 @@
 package org.apache.syncope.core.persistence.jpa.inner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -28,6 +29,7 @@ import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.common.lib.types.EntityViolationType;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
+import org.apache.syncope.core.persistence.api.dao.ConfSnapshot;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
@@ -61,6 +63,22 @@ public class ConfTest extends AbstractTest {
         assertNull(conf);
     }
 
+    @Test
+    public void snapshot() {
+        ConfSnapshot snapshot = confDAO.snapshot();
+        assertTrue(snapshot.getBoolean("selfRegistration.allowed", false));
+        assertEquals(2, snapshot.getValues("authentication.statuses").size());
+        assertEquals(
+                confDAO.find("token.expireTime").getValues().get(0).getLongValue().longValue(),
+                snapshot.getLong("token.expireTime", -1));
+        assertEquals(confDAO.get().getPlainAttrs().size(), snapshot.asMap().size());
+
+        assertFalse(snapshot.contains("non.existing"));
+        assertTrue(snapshot.getValues("non.existing").isEmpty());
+        assertEquals("default", snapshot.getString("non.existing", "default"));
+        assertEquals(-1L, snapshot.getLong("non.existing", -1L));
+    }
+
     private void add(final CPlainAttr newAttr, final String value) {
         JPACPlainAttrValue attrValue;
         if (newAttr.getSchema().isUniqueConstraint()) {
@@ -90,6 +108,7 @@ public class ConfTest extends AbstractTest {
 
         CPlainAttr actual = confDAO.find("useless");
         assertEquals(actual.getValuesAsStrings(), newConf.getValuesAsStrings());
+        assertEquals("2014-06-20", confDAO.snapshot().getString("useless", null));
 
         // 3. update conf
         newConf.getValues().clear();
@@ -102,6 +121,7 @@ public class ConfTest extends AbstractTest {
         // 4. delete conf
         confDAO.delete("useless");
         assertNull(confDAO.find("useless"));
+        assertFalse(confDAO.snapshot().contains("useless"));
     }
 
     @Test
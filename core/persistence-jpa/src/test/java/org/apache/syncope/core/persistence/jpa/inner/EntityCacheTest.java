@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.syncope.common.lib.info.CacheInfo;
+import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class EntityCacheTest extends AbstractTest {
+
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    @Autowired
+    private AnyTypeDAO anyTypeDAO;
+
+    private static CacheInfo.CacheStats find(final CacheInfo cacheInfo, final String name) {
+        for (CacheInfo.CacheStats stats : cacheInfo.getCaches()) {
+            if (name.equals(stats.getName())) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void getCacheInfo() {
+        assertNotNull(anyTypeDAO.findUser());
+        anyTypeDAO.clear();
+        assertNotNull(anyTypeDAO.findUser());
+
+        CacheInfo cacheInfo = entityCacheDAO.getCacheInfo();
+        assertEquals("Master", cacheInfo.getDomain());
+        assertTrue(cacheInfo.getRemoteCommitProvider().endsWith("SingleJVMRemoteCommitProvider"));
+
+        CacheInfo.CacheStats data = find(cacheInfo, "data");
+        assertNotNull(data);
+        assertTrue(data.isEnabled());
+        assertTrue(data.getReads() > 0);
+        assertTrue(data.getHits() <= data.getReads());
+
+        CacheInfo.CacheStats query = find(cacheInfo, "query");
+        assertNotNull(query);
+        assertTrue(query.isEnabled());
+
+        assertNotNull(find(cacheInfo, "searchPlan"));
+    }
+
+    @Test
+    public void evictAll() {
+        assertNotNull(anyTypeDAO.findUser());
+
+        entityCacheDAO.evictAll();
+
+        anyTypeDAO.clear();
+        assertNotNull(anyTypeDAO.findUser());
+    }
+}
@@ -24,17 +24,25 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.Transformer;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.spring.security.SyncopeAuthenticationDetails;
 import org.apache.syncope.core.spring.security.SyncopeGrantedAuthority;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.user.UPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
 import org.junit.AfterClass;
@@ -58,6 +66,9 @@ public class MultitenancyTest extends AbstractTest {
     @Autowired
     private UserDAO userDAO;
 
+    @Autowired
+    private AnySearchDAO searchDAO;
+
     @BeforeClass
     public static void setAuthContext() {
         List<GrantedAuthority> authorities = CollectionUtils.collect(StandardEntitlement.values(),
@@ -106,4 +117,61 @@ public class MultitenancyTest extends AbstractTest {
         assertNotNull("expected save to work", actual);
         assertEquals(0, actual.getPasswordHistory().size());
     }
+
+    @Test
+    public void searchIndex() {
+        User user = entityFactory.newEntity(User.class);
+        user.setRealm(realmDAO.getRoot());
+        user.setPassword("password", CipherAlgorithm.SHA256);
+        user.setUsername("indexed");
+
+        UPlainAttr attr = entityFactory.newEntity(UPlainAttr.class);
+        attr.setOwner(user);
+        attr.setSchema(plainSchemaDAO.find("email"));
+        attr.add("indexed@syncope.apache.org", anyUtilsFactory.getInstance(AnyTypeKind.USER));
+        user.add(attr);
+
+        user = userDAO.save(user);
+
+        User other = entityFactory.newEntity(User.class);
+        other.setRealm(realmDAO.getRoot());
+        other.setPassword("password", CipherAlgorithm.SHA256);
+        other.setUsername("other");
+        other = userDAO.save(other);
+
+        // search index has been updated upon save, since it is enabled for this domain
+        AttributeCond emailCond = new AttributeCond(AttributeCond.Type.LIKE);
+        emailCond.setSchema("email");
+        emailCond.setExpression("indexed@%");
+        List<User> users = searchDAO.search(SearchCond.getLeafCond(emailCond), AnyTypeKind.USER);
+        assertEquals(1, users.size());
+        assertEquals(user, users.get(0));
+
+        emailCond = new AttributeCond(AttributeCond.Type.ISNOTNULL);
+        emailCond.setSchema("email");
+        users = searchDAO.search(SearchCond.getLeafCond(emailCond), AnyTypeKind.USER);
+        assertEquals(1, users.size());
+        assertEquals(user, users.get(0));
+
+        emailCond = new AttributeCond(AttributeCond.Type.ISNULL);
+        emailCond.setSchema("email");
+        users = searchDAO.search(SearchCond.getLeafCond(emailCond), AnyTypeKind.USER);
+        assertEquals(1, users.size());
+        assertEquals(other, users.get(0));
+
+        // users without email are included when ordering by email
+        AnyCond usernameCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
+        usernameCond.setSchema("username");
+        OrderByClause orderByEmail = new OrderByClause();
+        orderByEmail.setField("email");
+        users = searchDAO.search(
+                SearchCond.getLeafCond(usernameCond), Collections.singletonList(orderByEmail), AnyTypeKind.USER);
+        assertEquals(2, users.size());
+
+        userDAO.delete(user);
+
+        emailCond = new AttributeCond(AttributeCond.Type.ISNOTNULL);
+        emailCond.setSchema("email");
+        assertTrue(searchDAO.search(SearchCond.getLeafCond(emailCond), AnyTypeKind.USER).isEmpty());
+    }
 }
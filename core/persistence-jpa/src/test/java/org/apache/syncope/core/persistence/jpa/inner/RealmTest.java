@@ -134,6 +134,23 @@ public class RealmTest extends AbstractTest {
         assertEquals("986d1236-3ac5-4a19-810c-5ab21d79cba1", actual.getPasswordPolicy().getKey());
     }
 
+    @Test
+    public void saveRenamedWithDescendants() {
+        Realm even = realmDAO.findByFullPath("/even");
+        assertNotNull(even);
+        even.setName("odds");
+
+        Realm actual = realmDAO.save(even);
+        assertEquals("/odds", actual.getFullPath());
+
+        assertNull(realmDAO.findByFullPath("/even/two"));
+        Realm two = realmDAO.findByFullPath("/odds/two");
+        assertNotNull(two);
+        assertEquals(actual, two.getParent());
+
+        assertEquals(2, realmDAO.findDescendants(actual).size());
+    }
+
     @Test
     public void saveInvalidName() {
         Realm realm = entityFactory.newEntity(Realm.class);
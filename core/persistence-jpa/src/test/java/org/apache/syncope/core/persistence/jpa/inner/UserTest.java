@@ -23,9 +23,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
@@ -121,6 +123,20 @@ public class UserTest extends AbstractTest {
         assertEquals("did not get expected number of users", 1, list.size());
     }
 
+    @Test
+    public void findByKeys() {
+        List<User> users = userDAO.findByKeys(Arrays.asList(
+                "c9b2dec2-00a7-4855-97c0-d854842b4b24",
+                "notfound",
+                "1417acbe-cbf6-4277-9372-e75e04f97000",
+                "c9b2dec2-00a7-4855-97c0-d854842b4b24"));
+        assertEquals(2, users.size());
+        assertEquals("c9b2dec2-00a7-4855-97c0-d854842b4b24", users.get(0).getKey());
+        assertEquals("1417acbe-cbf6-4277-9372-e75e04f97000", users.get(1).getKey());
+
+        assertEquals(Collections.emptyList(), userDAO.findByKeys(Collections.<String>emptyList()));
+    }
+
     @Test
     public void findByKey() {
         User user = userDAO.find("1417acbe-cbf6-4277-9372-e75e04f97000");
@@ -137,6 +153,14 @@ public class UserTest extends AbstractTest {
         assertNull("found user but did not expect it", user);
     }
 
+    @Test
+    public void findKeysByUsernames() {
+        Map<String, String> keys = userDAO.findKeysByUsernames(Arrays.asList("rossini", "vivaldi", "user6"));
+        assertEquals(2, keys.size());
+        assertEquals("1417acbe-cbf6-4277-9372-e75e04f97000", keys.get("rossini"));
+        assertEquals("b3cbc78d-32e6-4bd4-92e0-bbe07566a2ee", keys.get("vivaldi"));
+    }
+
     @Test
     public void save() {
         User user = entityFactory.newEntity(User.class);
@@ -24,12 +24,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import javax.persistence.TypedQuery;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.provisioning.api.utils.EntityUtils;
@@ -37,12 +39,14 @@ import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntit
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeClassDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
+import org.apache.syncope.core.persistence.api.dao.DynMembershipDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrValueDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
 import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.anyobject.APlainAttr;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
@@ -90,6 +94,9 @@ public class GroupTest extends AbstractTest {
     @Autowired
     private AnyTypeClassDAO anyTypeClassDAO;
 
+    @Autowired
+    private DynMembershipDAO dynMembershipDAO;
+
     @Test(expected = InvalidEntityException.class)
     public void saveWithTwoOwners() {
         Group root = groupDAO.findByName("root");
@@ -264,6 +271,96 @@ public class GroupTest extends AbstractTest {
         assertTrue(dynGroupMemberships.isEmpty());
     }
 
+    @Test
+    public void udynMembershipRefresh() {
+        // 1. create group with dynamic membership
+        Group group = entityFactory.newEntity(Group.class);
+        group.setRealm(realmDAO.getRoot());
+        group.setName("refresh");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("cool==true");
+        dynMembership.setGroup(group);
+
+        group.setUDynMembership(dynMembership);
+
+        group = groupDAO.save(group);
+        groupDAO.flush();
+
+        User user = userDAO.findByUsername("bellini");
+        assertTrue(findDynGroupMemberships(user).contains(group));
+
+        // 2. update a field not referenced by the condition: dynamic membership is preserved
+        user.setStatus("refreshed");
+        userDAO.save(user);
+        userDAO.flush();
+
+        assertTrue(findDynGroupMemberships(user).contains(group));
+
+        // 3. update the attribute value referenced by the condition: dynamic membership is removed
+        user.getPlainAttr("cool").getValues().get(0).setBooleanValue(false);
+        userDAO.save(user);
+        userDAO.flush();
+
+        assertFalse(findDynGroupMemberships(user).contains(group));
+
+        // 4. restore the attribute value: dynamic membership is back
+        user.getPlainAttr("cool").getValues().get(0).setBooleanValue(true);
+        userDAO.save(user);
+        userDAO.flush();
+
+        assertTrue(findDynGroupMemberships(user).contains(group));
+    }
+
+    @Test
+    public void udynMembershipRebuild() {
+        // 1. create group with dynamic membership
+        Group group = entityFactory.newEntity(Group.class);
+        group.setRealm(realmDAO.getRoot());
+        group.setName("rebuild");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("cool==true");
+        dynMembership.setGroup(group);
+
+        group.setUDynMembership(dynMembership);
+
+        group = groupDAO.save(group);
+        groupDAO.flush();
+
+        assertEquals(1, group.getUDynMembership().getMembers().size());
+        assertEquals("bellini", group.getUDynMembership().getMembers().get(0).getUsername());
+
+        // 2. redefine the condition and rebuild in small chunks
+        group.getUDynMembership().setFIQLCond("username==rossini");
+
+        final List<Integer> progress = new ArrayList<>();
+        Pair<Integer, Integer> outcome = dynMembershipDAO.rebuild(
+                group.getUDynMembership(), 1, new DynMembershipDAO.RebuildListener() {
+
+            @Override
+            public void onChunk(
+                    final DynMembership<?> membership,
+                    final int processed,
+                    final int added,
+                    final int removed) {
+
+                progress.add(processed);
+            }
+        });
+        assertEquals(Integer.valueOf(1), outcome.getLeft());
+        assertEquals(Integer.valueOf(1), outcome.getRight());
+
+        assertEquals(2, progress.size());
+        assertEquals(Integer.valueOf(1), progress.get(progress.size() - 1));
+
+        // 3. verify that only the new matching user is member
+        assertEquals(1, group.getUDynMembership().getMembers().size());
+        assertEquals("rossini", group.getUDynMembership().getMembers().get(0).getUsername());
+        assertTrue(findDynGroupMemberships(userDAO.findByUsername("rossini")).contains(group));
+        assertFalse(findDynGroupMemberships(userDAO.findByUsername("bellini")).contains(group));
+    }
+
     /**
      * Static copy of {@link org.apache.syncope.core.persistence.jpa.dao.JPAAnyObjectDAO} method with same signature:
      * required for avoiding creating of a new transaction - good for general use case but bad for the way how
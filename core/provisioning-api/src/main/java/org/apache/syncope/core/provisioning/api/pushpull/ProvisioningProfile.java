@@ -20,6 +20,7 @@ package org.apache.syncope.core.provisioning.api.pushpull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.syncope.core.persistence.api.entity.task.ProvisioningTask;
@@ -31,17 +32,34 @@ public class ProvisioningProfile<T extends ProvisioningTask, A extends Provision
 
     private final T task;
 
-    private final List<ProvisioningReport> results = new ArrayList<>();
+    private final List<ProvisioningReport> results;
 
     private boolean dryRun;
 
     private ConflictResolutionAction resAct;
 
-    private final List<A> actions = new ArrayList<>();
+    private final List<A> actions;
 
     public ProvisioningProfile(final Connector connector, final T task) {
         this.connector = connector;
         this.task = task;
+        this.results = Collections.synchronizedList(new ArrayList<ProvisioningReport>());
+        this.actions = new ArrayList<>();
+    }
+
+    /**
+     * Creates a profile for the given task, sharing connector, results, actions and settings with the given profile.
+     *
+     * @param profile profile to share connector, results, actions and settings with
+     * @param task task, as read by the caller
+     */
+    public ProvisioningProfile(final ProvisioningProfile<T, A> profile, final T task) {
+        this.connector = profile.connector;
+        this.task = task;
+        this.results = profile.results;
+        this.dryRun = profile.dryRun;
+        this.resAct = profile.resAct;
+        this.actions = profile.actions;
     }
 
     public Connector getConnector() {
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.provisioning.api.pushpull;
 
+import java.util.List;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncResultsHandler;
 import org.apache.syncope.core.persistence.api.entity.task.PullTask;
@@ -26,6 +27,26 @@ public interface SyncopePullResultHandler extends SyncopeResultHandler<PullTask,
 
     void setPullExecutor(SyncopePullExecutor executor);
 
+    /**
+     * Looks up, with as few queries as possible, the matches for the given deltas, about to be handled.
+     *
+     * @param deltas deltas about to be handled
+     */
+    void prefetch(List<SyncDelta> deltas);
+
+    /**
+     * Drops the matches looked up in bulk and not used yet, as when the pull stops before handling all deltas.
+     */
+    void clearPrefetched();
+
+    /**
+     * Whether deltas are about to be handled by threads other than the pull job's: if so, the task is read again
+     * within the transaction of each delta, instead of using the instance loaded by the pull job.
+     *
+     * @param concurrent whether deltas are handled concurrently
+     */
+    void setConcurrent(boolean concurrent);
+
     @Override
     boolean handle(SyncDelta delta);
 }
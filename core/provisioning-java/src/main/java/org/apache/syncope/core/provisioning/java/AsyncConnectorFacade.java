@@ -20,7 +20,10 @@ package org.apache.syncope.core.provisioning.java;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import javax.annotation.Resource;
+import org.apache.syncope.core.provisioning.api.ConnectorUnavailableException;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.common.objects.Attribute;
@@ -32,101 +35,172 @@ import org.identityconnectors.framework.common.objects.SyncToken;
 import org.identityconnectors.framework.common.objects.Uid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Component;
 
 /**
- * Intercept calls to ConnectorFacade's methods and check if the corresponding connector instance has been configured to
- * allow every single operation: if not, simply do nothing.
+ * Performs calls to ConnectorFacade's methods asynchronously, on the given executor - typically the bulkhead
+ * dedicated to the connector instance - or on the shared {@code asyncConnectorFacadeExecutor} if none is given.
+ * Calls rejected by the executor, as saturated, fail fast with {@link ConnectorUnavailableException}, returned
+ * by the future.
  */
 @Component
 public class AsyncConnectorFacade {
 
     private static final Logger LOG = LoggerFactory.getLogger(AsyncConnectorFacade.class);
 
-    @Async
+    @Resource(name = "asyncConnectorFacadeExecutor")
+    private AsyncTaskExecutor defaultExecutor;
+
+    private <T> Future<T> submit(final AsyncTaskExecutor executor, final Callable<T> call) {
+        try {
+            return (executor == null ? defaultExecutor : executor).submit(call);
+        } catch (TaskRejectedException e) {
+            LOG.error("Connector request rejected", e);
+            return AsyncResult.forExecutionException(
+                    new ConnectorUnavailableException("Too many concurrent requests to connector"));
+        }
+    }
+
     public Future<Uid> authenticate(
+            final AsyncTaskExecutor executor,
             final ConnectorFacade connector,
             final String username,
             final GuardedString password,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.authenticate(ObjectClass.ACCOUNT, username, password, options));
+        return submit(executor, new Callable<Uid>() {
+
+            @Override
+            public Uid call() {
+                return connector.authenticate(ObjectClass.ACCOUNT, username, password, options);
+            }
+        });
     }
 
-    @Async
     public Future<Uid> create(
+            final AsyncTaskExecutor executor,
             final ConnectorFacade connector,
             final ObjectClass objectClass,
             final Set<Attribute> attrs,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.create(objectClass, attrs, options));
+        return submit(executor, new Callable<Uid>() {
+
+            @Override
+            public Uid call() {
+                return connector.create(objectClass, attrs, options);
+            }
+        });
     }
 
-    @Async
     public Future<Uid> update(
+            final AsyncTaskExecutor executor,
             final ConnectorFacade connector,
             final ObjectClass objectClass,
             final Uid uid,
             final Set<Attribute> attrs,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.update(objectClass, uid, attrs, options));
+        return submit(executor, new Callable<Uid>() {
+
+            @Override
+            public Uid call() {
+                return connector.update(objectClass, uid, attrs, options);
+            }
+        });
     }
 
-    @Async
     public Future<Uid> delete(
+            final AsyncTaskExecutor executor,
             final ConnectorFacade connector,
             final ObjectClass objectClass,
             final Uid uid,
             final OperationOptions options) {
 
-        connector.delete(objectClass, uid, options);
-        return new AsyncResult<>(uid);
+        return submit(executor, new Callable<Uid>() {
+
+            @Override
+            public Uid call() {
+                connector.delete(objectClass, uid, options);
+                return uid;
+            }
+        });
     }
 
-    @Async
     public Future<SyncToken> getLatestSyncToken(
-            final ConnectorFacade connector, final ObjectClass objectClass) {
+            final AsyncTaskExecutor executor,
+            final ConnectorFacade connector,
+            final ObjectClass objectClass) {
+
+        return submit(executor, new Callable<SyncToken>() {
 
-        return new AsyncResult<>(connector.getLatestSyncToken(objectClass));
+            @Override
+            public SyncToken call() {
+                return connector.getLatestSyncToken(objectClass);
+            }
+        });
     }
 
-    @Async
     public Future<ConnectorObject> getObject(
+            final AsyncTaskExecutor executor,
             final ConnectorFacade connector,
             final ObjectClass objectClass,
             final Uid uid,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.getObject(objectClass, uid, options));
+        return submit(executor, new Callable<ConnectorObject>() {
+
+            @Override
+            public ConnectorObject call() {
+                return connector.getObject(objectClass, uid, options);
+            }
+        });
     }
 
-    @Async
-    public Future<Set<ObjectClassInfo>> getObjectClassInfo(final ConnectorFacade connector) {
-        Set<ObjectClassInfo> result = Collections.emptySet();
+    public Future<Set<ObjectClassInfo>> getObjectClassInfo(
+            final AsyncTaskExecutor executor,
+            final ConnectorFacade connector) {
 
-        try {
-            result = connector.schema().getObjectClassInfo();
-        } catch (Exception e) {
-            // catch exception in order to manage unpredictable behaviors
-            LOG.debug("While reading schema on connector {}", connector, e);
-        }
+        return submit(executor, new Callable<Set<ObjectClassInfo>>() {
 
-        return new AsyncResult<>(result);
+            @Override
+            public Set<ObjectClassInfo> call() {
+                Set<ObjectClassInfo> result = Collections.emptySet();
+
+                try {
+                    result = connector.schema().getObjectClassInfo();
+                } catch (Exception e) {
+                    // catch exception in order to manage unpredictable behaviors
+                    LOG.debug("While reading schema on connector {}", connector, e);
+                }
+
+                return result;
+            }
+        });
     }
 
-    @Async
-    public Future<String> validate(final ConnectorFacade connector) {
-        connector.validate();
-        return new AsyncResult<>("OK");
+    public Future<String> validate(final AsyncTaskExecutor executor, final ConnectorFacade connector) {
+        return submit(executor, new Callable<String>() {
+
+            @Override
+            public String call() {
+                connector.validate();
+                return "OK";
+            }
+        });
     }
 
-    @Async
-    public Future<String> test(final ConnectorFacade connector) {
-        connector.test();
-        return new AsyncResult<>("OK");
+    public Future<String> test(final AsyncTaskExecutor executor, final ConnectorFacade connector) {
+        return submit(executor, new Callable<String>() {
+
+            @Override
+            public String call() {
+                connector.test();
+                return "OK";
+            }
+        });
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executor dedicated to calls to a given connector instance, so that slow or flooded connector instances
+ * cannot starve calls to other connector instances.
+ */
+public class ConnectorBulkhead {
+
+    private final String connector;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConnectorBulkhead(
+            final String domain,
+            final String connector,
+            final int poolSize,
+            final int queueCapacity,
+            final boolean callerRuns) {
+
+        this.connector = connector;
+
+        final RejectedExecutionHandler policy = callerRuns
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("connector-" + domain + "-" + connector + "-");
+        executor.setRejectedExecutionHandler(new RejectedExecutionHandler() {
+
+            @Override
+            public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+                rejected.incrementAndGet();
+                policy.rejectedExecution(runnable, executor);
+            }
+        });
+        executor.initialize();
+    }
+
+    public String getConnector() {
+        return connector;
+    }
+
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Changes the number of threads available for calls to the connector instance.
+     *
+     * @param poolSize new pool size
+     */
+    public void resize(final int poolSize) {
+        if (poolSize > executor.getMaxPoolSize()) {
+            executor.setMaxPoolSize(poolSize);
+            executor.setCorePoolSize(poolSize);
+        } else {
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getMaxPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getThreadPoolExecutor().getQueue().size()
+                + executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
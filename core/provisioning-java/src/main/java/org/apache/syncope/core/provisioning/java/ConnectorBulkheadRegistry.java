@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Holds the {@link ConnectorBulkhead} instances for all connector instances, by domain; each bulkhead is sized after
+ * the maximum number of objects in the connector pool, if configured, or after the default pool size otherwise.
+ */
+public class ConnectorBulkheadRegistry implements DisposableBean {
+
+    public enum RejectionPolicy {
+        /**
+         * Calls exceeding pool size and queue capacity fail fast.
+         */
+        ABORT,
+        /**
+         * Calls exceeding pool size and queue capacity are performed by the calling thread.
+         */
+        CALLER_RUNS;
+
+    }
+
+    private boolean enabled = true;
+
+    private int poolSize = 10;
+
+    private int queueCapacity = 100;
+
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+    private final Map<String, ConnectorBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(final int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public void setRejectionPolicy(final RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * Returns the bulkhead for the given connector instance, creating it if not existing or resizing it if the
+     * connector pool configuration has changed meanwhile.
+     *
+     * @param domain domain
+     * @param connInstance connector instance
+     * @return bulkhead for the given connector instance, or null if disabled
+     */
+    public ConnectorBulkhead register(final String domain, final ConnInstance connInstance) {
+        if (!enabled) {
+            return null;
+        }
+
+        int size = connInstance.getPoolConf() != null && connInstance.getPoolConf().getMaxObjects() != null
+                && connInstance.getPoolConf().getMaxObjects() > 0
+                ? connInstance.getPoolConf().getMaxObjects()
+                : poolSize;
+
+        String key = domain + "/" + connInstance.getKey();
+
+        ConnectorBulkhead result;
+        synchronized (bulkheads) {
+            result = bulkheads.get(key);
+            if (result == null) {
+                result = new ConnectorBulkhead(
+                        domain, connInstance.getKey(), size, queueCapacity,
+                        rejectionPolicy == RejectionPolicy.CALLER_RUNS);
+                bulkheads.put(key, result);
+            } else if (result.getPoolSize() != size) {
+                result.resize(size);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param domain domain
+     * @param connInstance connector instance key
+     * @return bulkhead for the given connector instance, or null if not existing
+     */
+    public ConnectorBulkhead get(final String domain, final String connInstance) {
+        return bulkheads.get(domain + "/" + connInstance);
+    }
+
+    @Override
+    public void destroy() {
+        for (ConnectorBulkhead bulkhead : bulkheads.values()) {
+            bulkhead.shutdown();
+        }
+        bulkheads.clear();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
+import org.apache.syncope.common.lib.types.CircuitBreakerState;
+import org.apache.syncope.core.provisioning.api.ConnectorUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker for calls to a connector instance.
+ * Outcomes and latencies of the last calls are kept: when enough of them failed - or were slower than the configured
+ * threshold - the circuit is opened and calls fail fast until the configured time has elapsed; then a single probing
+ * call is let through, whose outcome determines whether the circuit is closed or opened again.
+ * When enabled, latencies observed for each operation are also used to adapt the timeout for waiting on calls of the
+ * same operation, within the configured request timeout.
+ *
+ * @see ConnectorCircuitBreakerRegistry
+ */
+public class ConnectorCircuitBreaker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectorCircuitBreaker.class);
+
+    /**
+     * Latencies of the last calls of an operation.
+     */
+    private static final class Latencies {
+
+        private final long[] values;
+
+        private int samples;
+
+        private int next;
+
+        Latencies(final int size) {
+            this.values = new long[size];
+        }
+
+        void add(final long latency) {
+            values[next] = latency;
+            next = (next + 1) % values.length;
+            samples = Math.min(samples + 1, values.length);
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, samples);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private final String connector;
+
+    private final ConnectorCircuitBreakerRegistry conf;
+
+    private final boolean[] failures;
+
+    private final Map<String, Latencies> latencies = new HashMap<>();
+
+    private int calls;
+
+    private int next;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+
+    private long since = System.currentTimeMillis();
+
+    private long probeStarted;
+
+    public ConnectorCircuitBreaker(final String connector, final ConnectorCircuitBreakerRegistry conf) {
+        this.connector = connector;
+        this.conf = conf;
+        this.failures = new boolean[Math.max(1, conf.getWindowSize())];
+    }
+
+    public String getConnector() {
+        return connector;
+    }
+
+    private void transition(final CircuitBreakerState newState) {
+        LOG.info("Circuit breaker for connector {}: {} -> {}", connector, state, newState);
+
+        state = newState;
+        since = System.currentTimeMillis();
+        probeStarted = 0;
+        calls = 0;
+        next = 0;
+    }
+
+    private long getOpenDuration() {
+        return TimeUnit.SECONDS.toMillis(conf.getOpenDuration());
+    }
+
+    /**
+     * Checks whether a call can be performed; to be followed by either {@link #onSuccess(String, long)} or
+     * {@link #onFailure()} once the call is completed.
+     *
+     * @throws ConnectorUnavailableException if the circuit is open, or if a probing call is already running
+     */
+    public synchronized void acquire() {
+        if (!conf.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        switch (state) {
+            case OPEN:
+                if (now - since < getOpenDuration()) {
+                    throw new ConnectorUnavailableException("Circuit open for connector " + connector);
+                }
+                transition(CircuitBreakerState.HALF_OPEN);
+                probeStarted = now;
+                break;
+
+            case HALF_OPEN:
+                // a probe not completed within the open duration is considered lost
+                if (probeStarted > 0 && now - probeStarted < getOpenDuration()) {
+                    throw new ConnectorUnavailableException("Probing connector " + connector);
+                }
+                probeStarted = now;
+                break;
+
+            case CLOSED:
+            default:
+        }
+    }
+
+    /**
+     * Records a call completed with success, or failed for reasons not related to the connector availability.
+     *
+     * @param operation operation name
+     * @param latency call duration in milliseconds, negative if not to be considered for timeouts
+     */
+    public synchronized void onSuccess(final String operation, final long latency) {
+        if (latency >= 0) {
+            Latencies opLatencies = latencies.get(operation);
+            if (opLatencies == null) {
+                opLatencies = new Latencies(failures.length);
+                latencies.put(operation, opLatencies);
+            }
+            opLatencies.add(latency);
+        }
+
+        record(latency >= 0 && conf.getSlowCallDuration() > 0 && latency > conf.getSlowCallDuration());
+    }
+
+    /**
+     * Records a call failed because the connector could not be reached or did not reply in time.
+     */
+    public synchronized void onFailure() {
+        record(true);
+    }
+
+    private void record(final boolean failure) {
+        if (!conf.isEnabled()) {
+            return;
+        }
+
+        if (state == CircuitBreakerState.HALF_OPEN) {
+            transition(failure ? CircuitBreakerState.OPEN : CircuitBreakerState.CLOSED);
+            return;
+        }
+        if (state == CircuitBreakerState.OPEN) {
+            return;
+        }
+
+        failures[next] = failure;
+        next = (next + 1) % failures.length;
+        calls = Math.min(calls + 1, failures.length);
+
+        if (calls >= Math.min(conf.getMinCalls(), failures.length) && getFailureRate() >= conf.getFailureRate()) {
+            transition(CircuitBreakerState.OPEN);
+        }
+    }
+
+    private double getFailureRate() {
+        if (calls == 0) {
+            return 0;
+        }
+
+        int failed = 0;
+        for (int i = 0; i < calls; i++) {
+            if (failures[i]) {
+                failed++;
+            }
+        }
+        return failed * 100.0 / calls;
+    }
+
+    /**
+     * @return milliseconds to wait before calls can be performed again; 0 if the circuit is not open
+     */
+    public synchronized long retryAfter() {
+        return state == CircuitBreakerState.OPEN
+                ? Math.max(0, since + getOpenDuration() - System.currentTimeMillis())
+                : 0;
+    }
+
+    /**
+     * Computes the timeout for waiting on calls of the given operation as the configured percentile of the latencies
+     * observed for that operation, multiplied by the configured factor; the given request timeout is returned unless
+     * adaptive timeouts are enabled and enough latencies were observed.
+     *
+     * @param operation operation name
+     * @param requestTimeout request timeout configured for the connector instance, in seconds
+     * @return timeout in milliseconds, never greater than the given request timeout
+     */
+    public synchronized long getTimeout(final String operation, final int requestTimeout) {
+        long max = TimeUnit.SECONDS.toMillis(requestTimeout);
+        Latencies opLatencies = latencies.get(operation);
+        if (!conf.isAdaptiveTimeout() || opLatencies == null || opLatencies.samples < conf.getMinCalls()) {
+            return max;
+        }
+
+        long percentile = ConnectorOperationMetrics.percentile(opLatencies.sorted(), conf.getTimeoutPercentile());
+
+        return Math.min(max, Math.max(conf.getMinTimeout(), Math.round(percentile * conf.getTimeoutFactor())));
+    }
+
+    public synchronized CircuitBreakerState getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerInfo getInfo(final int requestTimeout) {
+        CircuitBreakerInfo info = new CircuitBreakerInfo();
+        info.setConnector(connector);
+        info.setState(state);
+        info.setSince(new Date(since));
+        info.setCalls(calls);
+        info.setFailureRate(getFailureRate());
+        info.setTimeout(TimeUnit.SECONDS.toMillis(requestTimeout));
+        if (conf.isAdaptiveTimeout()) {
+            for (String operation : latencies.keySet()) {
+                info.getTimeouts().put(operation, getTimeout(operation, requestTimeout));
+            }
+        }
+        return info;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link ConnectorCircuitBreaker} instances for all connector instances, by domain, together with their
+ * configuration; each breaker is also available via the keys of the external resources using its connector instance.
+ */
+public class ConnectorCircuitBreakerRegistry {
+
+    private boolean enabled = true;
+
+    private int windowSize = 20;
+
+    private int minCalls = 10;
+
+    private double failureRate = 50;
+
+    private long slowCallDuration = 0;
+
+    private long openDuration = 30;
+
+    private boolean adaptiveTimeout = false;
+
+    private double timeoutPercentile = 99;
+
+    private double timeoutFactor = 3;
+
+    private long minTimeout = 1000;
+
+    private final Map<String, ConnectorCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final Map<String, ConnectorCircuitBreaker> byResource = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(final int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinCalls() {
+        return minCalls;
+    }
+
+    public void setMinCalls(final int minCalls) {
+        this.minCalls = minCalls;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(final double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(final long slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(final long openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public boolean isAdaptiveTimeout() {
+        return adaptiveTimeout;
+    }
+
+    public void setAdaptiveTimeout(final boolean adaptiveTimeout) {
+        this.adaptiveTimeout = adaptiveTimeout;
+    }
+
+    public double getTimeoutPercentile() {
+        return timeoutPercentile;
+    }
+
+    public void setTimeoutPercentile(final double timeoutPercentile) {
+        this.timeoutPercentile = timeoutPercentile;
+    }
+
+    public double getTimeoutFactor() {
+        return timeoutFactor;
+    }
+
+    public void setTimeoutFactor(final double timeoutFactor) {
+        this.timeoutFactor = timeoutFactor;
+    }
+
+    public long getMinTimeout() {
+        return minTimeout;
+    }
+
+    public void setMinTimeout(final long minTimeout) {
+        this.minTimeout = minTimeout;
+    }
+
+    /**
+     * Returns the circuit breaker for the given connector instance, creating it if not existing, and makes it
+     * available via the given resource as well.
+     *
+     * @param domain domain
+     * @param connInstance connector instance key
+     * @param resource external resource key
+     * @return circuit breaker for the given connector instance
+     */
+    public ConnectorCircuitBreaker register(final String domain, final String connInstance, final String resource) {
+        String key = domain + "/" + connInstance;
+
+        ConnectorCircuitBreaker breaker = breakers.get(key);
+        if (breaker == null) {
+            synchronized (breakers) {
+                breaker = breakers.get(key);
+                if (breaker == null) {
+                    breaker = new ConnectorCircuitBreaker(connInstance, this);
+                    breakers.put(key, breaker);
+                }
+            }
+        }
+        byResource.put(domain + "/" + resource, breaker);
+
+        return breaker;
+    }
+
+    /**
+     * @param domain domain
+     * @param resource external resource key
+     * @return circuit breaker for the connector instance used by the given resource, or null if not available
+     */
+    public ConnectorCircuitBreaker getByResource(final String domain, final String resource) {
+        return byResource.get(domain + "/" + resource);
+    }
+
+    /**
+     * @param domain domain
+     * @return circuit breakers for all connector instances of the given domain
+     */
+    public List<ConnectorCircuitBreaker> getAll(final String domain) {
+        List<ConnectorCircuitBreaker> result = new ArrayList<>();
+        for (Map.Entry<String, ConnectorCircuitBreaker> entry : breakers.entrySet()) {
+            if (entry.getKey().startsWith(domain + "/")) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+}
@@ -47,6 +47,10 @@ import org.identityconnectors.framework.api.ConfigurationProperties;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.api.ConnectorFacadeFactory;
 import org.identityconnectors.framework.api.ConnectorInfo;
+import org.identityconnectors.framework.common.exceptions.ConnectionBrokenException;
+import org.identityconnectors.framework.common.exceptions.ConnectionFailedException;
+import org.identityconnectors.framework.common.exceptions.ConnectorIOException;
+import org.identityconnectors.framework.common.exceptions.OperationTimeoutException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
@@ -66,6 +70,7 @@ import org.identityconnectors.framework.spi.SearchResultsHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.util.ClassUtils;
 
 public class ConnectorFacadeProxy implements Connector {
@@ -84,6 +89,21 @@ public class ConnectorFacadeProxy implements Connector {
      */
     private final ConnInstance connInstance;
 
+    /**
+     * Circuit breaker for calls to the connector instance, if any.
+     */
+    private final ConnectorCircuitBreaker breaker;
+
+    /**
+     * Metrics for calls to the connector instance, if any.
+     */
+    private final ConnectorMetrics metrics;
+
+    /**
+     * Executor dedicated to calls to the connector instance, if any.
+     */
+    private final AsyncTaskExecutor executor;
+
     @Autowired
     private AsyncConnectorFacade asyncFacade;
 
@@ -97,7 +117,28 @@ public class ConnectorFacadeProxy implements Connector {
      * @see ConnectorFacade
      */
     public ConnectorFacadeProxy(final ConnInstance connInstance) {
+        this(connInstance, null, null, null);
+    }
+
+    /**
+     * Use the passed connector instance to build a ConnectorFacade that will be used to make all wrapped calls,
+     * guarded by the given circuit breaker, reported to the given metrics and performed by the given executor.
+     *
+     * @param connInstance the connector instance
+     * @param breaker circuit breaker for calls to the connector instance, or null to always perform calls
+     * @param metrics metrics for calls to the connector instance, or null not to record any
+     * @param bulkhead executor dedicated to calls to the connector instance, or null to use the shared one
+     */
+    public ConnectorFacadeProxy(
+            final ConnInstance connInstance,
+            final ConnectorCircuitBreaker breaker,
+            final ConnectorMetrics metrics,
+            final ConnectorBulkhead bulkhead) {
+
         this.connInstance = connInstance;
+        this.breaker = breaker;
+        this.metrics = metrics;
+        this.executor = bulkhead == null ? null : bulkhead.getExecutor();
 
         ConnIdBundleManager connIdBundleManager = ApplicationContextProvider.getBeanFactory().getBean(
                 ConnIdBundleManager.class);
@@ -139,21 +180,10 @@ public class ConnectorFacadeProxy implements Connector {
         Uid result = null;
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.AUTHENTICATE)) {
+            long start = acquire();
             Future<Uid> future = asyncFacade.authenticate(
-                    connector, username, new GuardedString(password.toCharArray()), options);
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new IllegalArgumentException(e.getCause());
-                }
-            }
+                    executor, connector, username, new GuardedString(password.toCharArray()), options);
+            result = waitFor("authenticate", future, start);
         } else {
             LOG.info("Authenticate was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -174,20 +204,9 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.CREATE)) {
             propagationAttempted[0] = true;
 
-            Future<Uid> future = asyncFacade.create(connector, objectClass, attrs, options);
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new IllegalArgumentException(e.getCause());
-                }
-            }
+            long start = acquire();
+            Future<Uid> future = asyncFacade.create(executor, connector, objectClass, attrs, options);
+            result = waitFor("create", future, start);
         } else {
             LOG.info("Create was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -209,21 +228,9 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.UPDATE)) {
             propagationAttempted[0] = true;
 
-            Future<Uid> future = asyncFacade.update(connector, objectClass, uid, attrs, options);
-
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new IllegalArgumentException(e.getCause());
-                }
-            }
+            long start = acquire();
+            Future<Uid> future = asyncFacade.update(executor, connector, objectClass, uid, attrs, options);
+            result = waitFor("update", future, start);
         } else {
             LOG.info("Update for {} was attempted, although the "
                     + "connector only has these capabilities: {}. No action.",
@@ -243,21 +250,9 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.DELETE)) {
             propagationAttempted[0] = true;
 
-            Future<Uid> future = asyncFacade.delete(connector, objectClass, uid, options);
-
-            try {
-                future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new IllegalArgumentException(e.getCause());
-                }
-            }
+            long start = acquire();
+            Future<Uid> future = asyncFacade.delete(executor, connector, objectClass, uid, options);
+            waitFor("delete", future, start);
         } else {
             LOG.info("Delete for {} was attempted, although the connector only has these capabilities: {}. No action.",
                     uid.getUidValue(), connInstance.getCapabilities());
@@ -269,7 +264,14 @@ public class ConnectorFacadeProxy implements Connector {
             final OperationOptions options) {
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SYNC)) {
-            connector.sync(objectClass, token, handler, options);
+            long start = acquire();
+            try {
+                connector.sync(objectClass, token, handler, options);
+                release("sync", start, false, null);
+            } catch (RuntimeException e) {
+                release("sync", start, false, e);
+                throw e;
+            }
         } else {
             LOG.info("Sync was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -281,21 +283,9 @@ public class ConnectorFacadeProxy implements Connector {
         SyncToken result = null;
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SYNC)) {
-            Future<SyncToken> future = asyncFacade.getLatestSyncToken(connector, objectClass);
-
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new IllegalArgumentException(e.getCause());
-                }
-            }
+            long start = acquire();
+            Future<SyncToken> future = asyncFacade.getLatestSyncToken(executor, connector, objectClass);
+            result = waitFor("getLatestSyncToken", future, start);
         } else {
             LOG.info("getLatestSyncToken was attempted, although the "
                     + "connector only has these capabilities: {}. No action.", connInstance.getCapabilities());
@@ -306,30 +296,18 @@ public class ConnectorFacadeProxy implements Connector {
 
     @Override
     public ConnectorObject getObject(final ObjectClass objectClass, final Uid uid, final OperationOptions options) {
-        Future<ConnectorObject> future = null;
+        ConnectorObject result = null;
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
-            future = asyncFacade.getObject(connector, objectClass, uid, options);
+            long start = acquire();
+            Future<ConnectorObject> future = asyncFacade.getObject(executor, connector, objectClass, uid, options);
+            result = waitFor("getObject", future, start);
         } else {
             LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
         }
 
-        try {
-            return future == null ? null : future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            if (future != null) {
-                future.cancel(true);
-            }
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new IllegalArgumentException(e.getCause());
-            }
-        }
+        return result;
     }
 
     @Override
@@ -364,56 +342,17 @@ public class ConnectorFacadeProxy implements Connector {
 
     @Override
     public Set<ObjectClassInfo> getObjectClassInfo() {
-        Future<Set<ObjectClassInfo>> future = asyncFacade.getObjectClassInfo(connector);
-        try {
-            return future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new IllegalArgumentException(e.getCause());
-            }
-        }
+        return waitFor("getObjectClassInfo", asyncFacade.getObjectClassInfo(executor, connector), -1);
     }
 
     @Override
     public void validate() {
-        Future<String> future = asyncFacade.test(connector);
-        try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new IllegalArgumentException(e.getCause());
-            }
-        }
+        waitFor("test", asyncFacade.test(executor, connector), -1);
     }
 
     @Override
     public void test() {
-        Future<String> future = asyncFacade.test(connector);
-        try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new IllegalArgumentException(e.getCause());
-            }
-        }
+        waitFor("test", asyncFacade.test(executor, connector), -1);
     }
 
     @Override
@@ -424,37 +363,53 @@ public class ConnectorFacadeProxy implements Connector {
             final OperationOptions options) {
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
-            if (options.getPageSize() == null && options.getPagedResultsCookie() == null) {
-                OperationOptionsBuilder builder = new OperationOptionsBuilder(options).setPageSize(DEFAULT_PAGE_SIZE);
+            long start = acquire();
+            try {
+                doSearch(objectClass, filter, handler, options);
+                release("search", start, false, null);
+            } catch (RuntimeException e) {
+                release("search", start, false, e);
+                throw e;
+            }
+        } else {
+            LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
+                    connInstance.getCapabilities());
+        }
+    }
 
-                final String[] cookies = new String[] { null };
-                do {
-                    if (cookies[0] != null) {
-                        builder.setPagedResultsCookie(cookies[0]);
-                    }
+    private void doSearch(
+            final ObjectClass objectClass,
+            final Filter filter,
+            final ResultsHandler handler,
+            final OperationOptions options) {
 
-                    connector.search(objectClass, filter, new SearchResultsHandler() {
+        if (options.getPageSize() == null && options.getPagedResultsCookie() == null) {
+            OperationOptionsBuilder builder = new OperationOptionsBuilder(options).setPageSize(DEFAULT_PAGE_SIZE);
 
-                        @Override
-                        public void handleResult(final SearchResult result) {
-                            if (handler instanceof SearchResultsHandler) {
-                                SearchResultsHandler.class.cast(handler).handleResult(result);
-                            }
-                            cookies[0] = result.getPagedResultsCookie();
-                        }
+            final String[] cookies = new String[] { null };
+            do {
+                if (cookies[0] != null) {
+                    builder.setPagedResultsCookie(cookies[0]);
+                }
 
-                        @Override
-                        public boolean handle(final ConnectorObject connectorObject) {
-                            return handler.handle(connectorObject);
+                connector.search(objectClass, filter, new SearchResultsHandler() {
+
+                    @Override
+                    public void handleResult(final SearchResult result) {
+                        if (handler instanceof SearchResultsHandler) {
+                            SearchResultsHandler.class.cast(handler).handleResult(result);
                         }
-                    }, builder.build());
-                } while (cookies[0] != null);
-            } else {
-                connector.search(objectClass, filter, handler, options);
-            }
+                        cookies[0] = result.getPagedResultsCookie();
+                    }
+
+                    @Override
+                    public boolean handle(final ConnectorObject connectorObject) {
+                        return handler.handle(connectorObject);
+                    }
+                }, builder.build());
+            } while (cookies[0] != null);
         } else {
-            LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
-                    connInstance.getCapabilities());
+            connector.search(objectClass, filter, handler, options);
         }
     }
 
@@ -490,6 +445,88 @@ public class ConnectorFacadeProxy implements Connector {
         return connInstance;
     }
 
+    /**
+     * Checks whether the circuit breaker, if any, allows to call the connector.
+     *
+     * @return call start time, to be passed to {@link #release(String, long, boolean, Throwable)}
+     */
+    private long acquire() {
+        if (breaker != null) {
+            breaker.acquire();
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Reports the outcome of a call to metrics and circuit breaker, if any: only failures related to the connector
+     * availability are considered as such by the circuit breaker.
+     *
+     * @param operation operation name
+     * @param start call start time
+     * @param timed whether the call duration is to be considered for timeouts
+     * @param error error raised by the call, if any
+     */
+    private void release(final String operation, final long start, final boolean timed, final Throwable error) {
+        long latency = System.currentTimeMillis() - start;
+
+        if (metrics != null) {
+            metrics.record(operation, latency, error != null);
+        }
+
+        if (breaker != null) {
+            if (error instanceof java.util.concurrent.TimeoutException
+                    || error instanceof TimeoutException
+                    || error instanceof ConnectionFailedException
+                    || error instanceof ConnectionBrokenException
+                    || error instanceof ConnectorIOException
+                    || error instanceof OperationTimeoutException) {
+
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess(operation, timed ? latency : -1);
+            }
+        }
+    }
+
+    /**
+     * Waits for the given call to complete, within the request timeout - as adapted by the circuit breaker, if any.
+     *
+     * @param <T> call result type
+     * @param operation operation name
+     * @param future call
+     * @param start call start time as returned by {@link #acquire()}, or negative if neither guarded by the circuit
+     * breaker nor to be reported to metrics
+     * @return call result
+     */
+    private <T> T waitFor(final String operation, final Future<T> future, final long start) {
+        long timeout = start < 0 || breaker == null
+                ? TimeUnit.SECONDS.toMillis(connInstance.getConnRequestTimeout())
+                : breaker.getTimeout(operation, connInstance.getConnRequestTimeout());
+        try {
+            T result = future.get(timeout, TimeUnit.MILLISECONDS);
+            if (start >= 0) {
+                release(operation, start, true, null);
+            }
+            return result;
+        } catch (java.util.concurrent.TimeoutException e) {
+            future.cancel(true);
+            if (start >= 0) {
+                release(operation, start, true, e);
+            }
+            throw new TimeoutException("Request timeout");
+        } catch (Exception e) {
+            if (start >= 0) {
+                release(operation, start, true, e.getCause() == null ? e : e.getCause());
+            }
+            LOG.error("Connector request execution failure: {}", operation, e);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new IllegalArgumentException(e.getCause());
+            }
+        }
+    }
+
     private Object getPropertyValue(final String propType, final List<?> values) {
         Object value = null;
 
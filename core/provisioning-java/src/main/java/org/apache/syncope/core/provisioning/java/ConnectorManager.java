@@ -55,6 +55,15 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private ConnectorCircuitBreakerRegistry breakers;
+
+    @Autowired
+    private ConnectorMetricsRegistry metrics;
+
+    @Autowired
+    private ConnectorBulkheadRegistry bulkheads;
+
     private EntityFactory entityFactory;
 
     @Override
@@ -134,7 +143,16 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
 
     @Override
     public Connector createConnector(final ConnInstance connInstance) {
-        Connector connector = new ConnectorFacadeProxy(connInstance);
+        return createConnector(connInstance, null, null, null);
+    }
+
+    private Connector createConnector(
+            final ConnInstance connInstance,
+            final ConnectorCircuitBreaker breaker,
+            final ConnectorMetrics metrics,
+            final ConnectorBulkhead bulkhead) {
+
+        Connector connector = new ConnectorFacadeProxy(connInstance, breaker, metrics, bulkhead);
         ApplicationContextProvider.getBeanFactory().autowireBean(connector);
 
         return connector;
@@ -146,7 +164,11 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
                 resource.getConnector(),
                 resource.getConfOverride(),
                 resource.isOverrideCapabilities() ? resource.getCapabilitiesOverride() : null);
-        Connector connector = createConnector(connInstance);
+        Connector connector = createConnector(
+                connInstance,
+                breakers.register(AuthContextUtils.getDomain(), resource.getConnector().getKey(), resource.getKey()),
+                metrics.register(AuthContextUtils.getDomain(), resource.getConnector().getKey()),
+                bulkheads.register(AuthContextUtils.getDomain(), resource.getConnector()));
         LOG.debug("Connector to be registered: {}", connector);
 
         String beanName = getBeanName(resource);
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
+
+/**
+ * Metrics for calls to a connector instance, by operation.
+ *
+ * @see ConnectorMetricsRegistry
+ */
+public class ConnectorMetrics {
+
+    private final String domain;
+
+    private final String connector;
+
+    private final ConnectorMetricsRegistry conf;
+
+    private final Map<String, ConnectorOperationMetrics> operations = new TreeMap<>();
+
+    public ConnectorMetrics(final String domain, final String connector, final ConnectorMetricsRegistry conf) {
+        this.domain = domain;
+        this.connector = connector;
+        this.conf = conf;
+    }
+
+    public String getConnector() {
+        return connector;
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param operation operation name
+     * @param latency call duration in milliseconds
+     * @param error whether the call failed
+     */
+    public void record(final String operation, final long latency, final boolean error) {
+        ConnectorOperationMetrics metrics;
+        boolean created = false;
+        synchronized (operations) {
+            metrics = operations.get(operation);
+            if (metrics == null) {
+                metrics = new ConnectorOperationMetrics(operation, conf.getReservoirSize());
+                operations.put(operation, metrics);
+                created = true;
+            }
+        }
+        if (created) {
+            conf.export(domain, connector, metrics);
+        }
+
+        metrics.record(latency, error);
+    }
+
+    public Collection<ConnectorOperationMetrics> getOperations() {
+        synchronized (operations) {
+            return new ArrayList<>(operations.values());
+        }
+    }
+
+    public ConnectorMetricsInfo getInfo() {
+        ConnectorMetricsInfo info = new ConnectorMetricsInfo();
+        info.setConnector(connector);
+        for (ConnectorOperationMetrics metrics : getOperations()) {
+            info.getOperations().add(metrics.getStats());
+        }
+        return info;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Holds the {@link ConnectorMetrics} instances for all connector instances, by domain; when enabled, metrics are also
+ * exported via JMX, one MBean for each connector instance and operation.
+ */
+public class ConnectorMetricsRegistry implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectorMetricsRegistry.class);
+
+    private int reservoirSize = 1024;
+
+    private boolean jmxExport = false;
+
+    private final Map<String, ConnectorMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final Set<ObjectName> exported =
+            Collections.newSetFromMap(new ConcurrentHashMap<ObjectName, Boolean>());
+
+    public int getReservoirSize() {
+        return reservoirSize;
+    }
+
+    public void setReservoirSize(final int reservoirSize) {
+        this.reservoirSize = reservoirSize;
+    }
+
+    public boolean isJmxExport() {
+        return jmxExport;
+    }
+
+    public void setJmxExport(final boolean jmxExport) {
+        this.jmxExport = jmxExport;
+    }
+
+    /**
+     * Returns the metrics for the given connector instance, creating them if not existing.
+     *
+     * @param domain domain
+     * @param connInstance connector instance key
+     * @return metrics for the given connector instance
+     */
+    public ConnectorMetrics register(final String domain, final String connInstance) {
+        String key = domain + "/" + connInstance;
+
+        ConnectorMetrics result = metrics.get(key);
+        if (result == null) {
+            synchronized (metrics) {
+                result = metrics.get(key);
+                if (result == null) {
+                    result = new ConnectorMetrics(domain, connInstance, this);
+                    metrics.put(key, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param domain domain
+     * @return metrics for all connector instances of the given domain
+     */
+    public List<ConnectorMetrics> getAll(final String domain) {
+        List<ConnectorMetrics> result = new ArrayList<>();
+        for (Map.Entry<String, ConnectorMetrics> entry : metrics.entrySet()) {
+            if (entry.getKey().startsWith(domain + "/")) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    protected void export(final String domain, final String connInstance, final ConnectorOperationMetrics operation) {
+        if (!jmxExport) {
+            return;
+        }
+
+        try {
+            ObjectName name = new ObjectName("org.apache.syncope:type=ConnectorMetrics"
+                    + ",domain=" + ObjectName.quote(domain)
+                    + ",connector=" + ObjectName.quote(connInstance)
+                    + ",operation=" + operation.getOperation());
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(operation, name);
+                exported.add(name);
+            }
+        } catch (Exception e) {
+            LOG.error("While exporting metrics for {} / {} via JMX", connInstance, operation.getOperation(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : exported) {
+            try {
+                server.unregisterMBean(name);
+            } catch (Exception e) {
+                LOG.debug("While unregistering {}", name, e);
+            }
+        }
+        exported.clear();
+    }
+}
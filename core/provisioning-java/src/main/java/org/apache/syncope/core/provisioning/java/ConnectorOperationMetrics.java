@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.Arrays;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
+
+/**
+ * Counters and latencies for calls of a given operation to a connector instance: percentiles are computed over the
+ * latest calls, up to the configured number.
+ */
+public class ConnectorOperationMetrics implements ConnectorOperationMetricsMXBean {
+
+    private final String operation;
+
+    private final long[] latencies;
+
+    private int samples;
+
+    private int next;
+
+    private long count;
+
+    private long errors;
+
+    private long max;
+
+    private final long[] seconds = new long[60];
+
+    private final long[] calls = new long[60];
+
+    public ConnectorOperationMetrics(final String operation, final int reservoirSize) {
+        this.operation = operation;
+        this.latencies = new long[Math.max(1, reservoirSize)];
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param latency call duration in milliseconds
+     * @param error whether the call failed
+     */
+    public synchronized void record(final long latency, final boolean error) {
+        count++;
+        if (error) {
+            errors++;
+        }
+        max = Math.max(max, latency);
+
+        latencies[next] = latency;
+        next = (next + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+
+        long second = System.currentTimeMillis() / 1000;
+        int bucket = (int) (second % seconds.length);
+        if (seconds[bucket] != second) {
+            seconds[bucket] = second;
+            calls[bucket] = 0;
+        }
+        calls[bucket]++;
+    }
+
+    @Override
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    @Override
+    public synchronized long getLastMinute() {
+        long now = System.currentTimeMillis() / 1000;
+
+        long result = 0;
+        for (int i = 0; i < seconds.length; i++) {
+            if (now - seconds[i] < seconds.length) {
+                result += calls[i];
+            }
+        }
+        return result;
+    }
+
+    static long percentile(final long[] sorted, final double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private synchronized long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @Override
+    public long getP50() {
+        return percentile(sorted(), 50);
+    }
+
+    @Override
+    public long getP95() {
+        return percentile(sorted(), 95);
+    }
+
+    @Override
+    public long getP99() {
+        return percentile(sorted(), 99);
+    }
+
+    @Override
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized ConnectorMetricsInfo.OperationStats getStats() {
+        long[] sorted = sorted();
+
+        ConnectorMetricsInfo.OperationStats stats = new ConnectorMetricsInfo.OperationStats();
+        stats.setOperation(operation);
+        stats.setCount(count);
+        stats.setErrors(errors);
+        stats.setLastMinute(getLastMinute());
+        stats.setP50(percentile(sorted, 50));
+        stats.setP95(percentile(sorted, 95));
+        stats.setP99(percentile(sorted, 99));
+        stats.setMax(max);
+        return stats;
+    }
+}
@@ -120,6 +120,8 @@ public class ResourceDataBinderImpl implements ResourceDataBinder {
         resource.setPropagationPriority(resourceTO.getPropagationPriority());
 
         resource.setRandomPwdIfNotProvided(resourceTO.isRandomPwdIfNotProvided());
+        resource.setTrustLocalState(resourceTO.isTrustLocalState());
+        resource.setChangeDetection(resourceTO.isChangeDetection());
 
         // 1. add or update all (valid) provisions from TO
         for (ProvisionTO provisionTO : resourceTO.getProvisions()) {
@@ -491,6 +493,8 @@ public class ResourceDataBinderImpl implements ResourceDataBinder {
         resourceTO.setPropagationPriority(resource.getPropagationPriority());
 
         resourceTO.setRandomPwdIfNotProvided(resource.isRandomPwdIfNotProvided());
+        resourceTO.setTrustLocalState(resource.isTrustLocalState());
+        resourceTO.setChangeDetection(resource.isChangeDetection());
 
         resourceTO.setCreateTraceLevel(resource.getCreateTraceLevel());
         resourceTO.setUpdateTraceLevel(resource.getUpdateTraceLevel());
@@ -150,6 +150,7 @@ public class TaskDataBinderImpl implements TaskDataBinder {
 
             pullTask.setPullMode(pullTaskTO.getPullMode());
             pullTask.setReconciliationFilterBuilderClassName(pullTaskTO.getReconciliationFilterBuilderClassName());
+            pullTask.setConcurrency(pullTaskTO.getConcurrency() < 1 ? 1 : pullTaskTO.getConcurrency());
 
             pullTask.setDestinationRealm(realmDAO.findByFullPath(pullTaskTO.getDestinationRealm()));
 
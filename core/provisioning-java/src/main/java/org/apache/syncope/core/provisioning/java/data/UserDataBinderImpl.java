@@ -112,7 +112,7 @@ public class UserDataBinderImpl extends AbstractAnyDataBinder implements UserDat
     @Transactional(readOnly = true)
     @Override
     public UserTO returnUserTO(final UserTO userTO) {
-        if (!confDAO.find("return.password.value", "false").getValues().get(0).getBooleanValue()) {
+        if (!confDAO.snapshot().getBoolean("return.password.value", false)) {
             userTO.setPassword(null);
         }
         return userTO;
@@ -154,9 +154,8 @@ public class UserDataBinderImpl extends AbstractAnyDataBinder implements UserDat
 
     private void setPassword(final User user, final String password, final SyncopeClientCompositeException scce) {
         try {
-            String algorithm = confDAO.find(
-                    "password.cipher.algorithm", CipherAlgorithm.AES.name()).getValues().get(0).getStringValue();
-            CipherAlgorithm predefined = CipherAlgorithm.valueOf(algorithm);
+            CipherAlgorithm predefined = CipherAlgorithm.valueOf(
+                    confDAO.snapshot().getString("password.cipher.algorithm", CipherAlgorithm.AES.name()));
             user.setPassword(password, predefined);
         } catch (IllegalArgumentException e) {
             SyncopeClientException invalidCiperAlgorithm = SyncopeClientException.build(ClientExceptionType.NotFound);
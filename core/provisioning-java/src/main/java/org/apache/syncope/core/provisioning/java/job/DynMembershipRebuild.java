@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import org.apache.syncope.core.persistence.api.dao.DynMembershipDAO;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
+import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.persistence.api.entity.user.DynRoleMembership;
+import org.apache.syncope.core.persistence.api.entity.user.UDynGroupMembership;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Recomputes the members of all dynamic group and role memberships, e.g. after data were loaded directly into the
+ * database.
+ */
+public class DynMembershipRebuild extends AbstractSchedTaskJobDelegate {
+
+    @Autowired
+    private DynMembershipDAO dynMembershipDAO;
+
+    private static String describe(final DynMembership<?> membership) {
+        if (membership instanceof UDynGroupMembership) {
+            return "Group " + ((UDynGroupMembership) membership).getGroup().getName() + " (users)";
+        }
+        if (membership instanceof ADynGroupMembership) {
+            return "Group " + ((ADynGroupMembership) membership).getGroup().getName()
+                    + " (" + ((ADynGroupMembership) membership).getAnyType().getKey() + ")";
+        }
+        return "Role " + ((DynRoleMembership) membership).getRole().getKey();
+    }
+
+    @Override
+    protected String doExecute(final boolean dryRun) throws JobExecutionException {
+        StringBuilder result = new StringBuilder("Dynamic memberships rebuild\n\n");
+
+        for (DynMembership<?> membership : dynMembershipDAO.findAll()) {
+            String description = describe(membership);
+            if (dryRun) {
+                result.append(description).append('\t').append(membership.getFIQLCond()).append('\n');
+                continue;
+            }
+
+            // each chunk is committed on its own, not to hold locks on large member tables until all are processed
+            int processed = 0;
+            int added = 0;
+            int removed = 0;
+            DynMembershipDAO.RebuildChunk chunk = null;
+            do {
+                chunk = dynMembershipDAO.rebuildChunk(
+                        membership, chunk == null ? null : chunk.getUpper(), DynMembershipDAO.DEFAULT_CHUNK_SIZE);
+                processed += chunk.getMatched();
+                added += chunk.getAdded();
+                removed += chunk.getRemoved();
+
+                LOG.info("{}: {} matching processed, {} members added, {} removed",
+                        description, processed, added, removed);
+            } while (!chunk.isLast());
+
+            result.append(description).append('\t').
+                    append("added ").append(added).append('\t').
+                    append("removed ").append(removed).append('\n');
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    protected boolean hasToBeRegistered(final TaskExec execution) {
+        return true;
+    }
+}
@@ -18,15 +18,21 @@
  */
 package org.apache.syncope.core.provisioning.java.job;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.BulkMembersActionType;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
@@ -44,9 +50,17 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
 
     public static final String GROUP_KEY_JOBDETAIL_KEY = "groupKey";
 
+    private static final int CHUNK_SIZE = 1000;
+
     @Autowired
     private GroupDAO groupDAO;
 
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private AnyObjectDAO anyObjectDAO;
+
     @Autowired
     private AnySearchDAO searchDAO;
 
@@ -71,6 +85,21 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
         super.execute(taskKey, dryRun, context);
     }
 
+    /**
+     * Flushes the changes performed while provisioning the given members, then detaches them, in order to keep the
+     * persistence context small with large groups.
+     *
+     * @param anyDAO DAO for the given members
+     * @param members members provisioned so far
+     */
+    private static <A extends Any<?>> void detach(final AnyDAO<A> anyDAO, final List<A> members) {
+        anyDAO.flush();
+        for (A member : members) {
+            anyDAO.detach(member);
+        }
+        members.clear();
+    }
+
     @Override
     protected String doExecute(final boolean dryRun) throws JobExecutionException {
         Group group = groupDAO.authFind(groupKey);
@@ -81,15 +110,25 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
         }
         result.append("provision\n\n");
 
+        List<String> resourceKeys = group.getResourceKeys();
+
+        List<User> users = new ArrayList<>(CHUNK_SIZE);
         MembershipCond membershipCond = new MembershipCond();
         membershipCond.setGroup(groupKey);
-        List<User> users = searchDAO.search(SearchCond.getLeafCond(membershipCond), AnyTypeKind.USER);
-        for (User user : users) {
+        for (String userKey : searchDAO.searchKeys(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getLeafCond(membershipCond), CHUNK_SIZE, AnyTypeKind.USER)) {
+
+            // loaded here once, then found in the persistence context while provisioning
+            User user = userDAO.find(userKey);
+            if (user == null) {
+                continue;
+            }
+
             List<PropagationStatus> statuses = actionType == BulkMembersActionType.DEPROVISION
-                    ? userProvisioningManager.deprovision(user.getKey(), group.getResourceKeys(), false)
-                    : userProvisioningManager.provision(user.getKey(), true, null, group.getResourceKeys(), false);
+                    ? userProvisioningManager.deprovision(userKey, resourceKeys, false)
+                    : userProvisioningManager.provision(userKey, true, null, resourceKeys, false);
             for (PropagationStatus status : statuses) {
-                result.append("User ").append(user.getKey()).append('\t').
+                result.append("User ").append(userKey).append('\t').
                         append("Resource ").append(status.getResource()).append('\t').
                         append(status.getStatus());
                 if (StringUtils.isNotBlank(status.getFailureReason())) {
@@ -98,18 +137,31 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
                 result.append("\n");
             }
             result.append("\n");
+
+            users.add(user);
+            if (users.size() == CHUNK_SIZE) {
+                detach(userDAO, users);
+            }
         }
+        detach(userDAO, users);
 
+        List<AnyObject> anyObjects = new ArrayList<>(CHUNK_SIZE);
         membershipCond = new MembershipCond();
         membershipCond.setGroup(groupKey);
-        List<AnyObject> anyObjects = searchDAO.search(SearchCond.getLeafCond(membershipCond), AnyTypeKind.ANY_OBJECT);
-        for (AnyObject anyObject : anyObjects) {
+        for (String anyObjectKey : searchDAO.searchKeys(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getLeafCond(membershipCond), CHUNK_SIZE, AnyTypeKind.ANY_OBJECT)) {
+
+            AnyObject anyObject = anyObjectDAO.find(anyObjectKey);
+            if (anyObject == null) {
+                continue;
+            }
+
             List<PropagationStatus> statuses = actionType == BulkMembersActionType.DEPROVISION
-                    ? anyObjectProvisioningManager.deprovision(anyObject.getKey(), group.getResourceKeys(), false)
-                    : anyObjectProvisioningManager.provision(anyObject.getKey(), group.getResourceKeys(), false);
+                    ? anyObjectProvisioningManager.deprovision(anyObjectKey, resourceKeys, false)
+                    : anyObjectProvisioningManager.provision(anyObjectKey, resourceKeys, false);
 
             for (PropagationStatus status : statuses) {
-                result.append(anyObject.getType().getKey()).append(' ').append(anyObject.getKey()).append('\t').
+                result.append(anyObject.getType().getKey()).append(' ').append(anyObjectKey).append('\t').
                         append("Resource ").append(status.getResource()).append('\t').
                         append(status.getStatus());
                 if (StringUtils.isNotBlank(status.getFailureReason())) {
@@ -118,7 +170,13 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
                 result.append("\n");
             }
             result.append("\n");
+
+            anyObjects.add(anyObject);
+            if (anyObjects.size() == CHUNK_SIZE) {
+                detach(anyObjectDAO, anyObjects);
+            }
         }
+        detach(anyObjectDAO, anyObjects);
 
         return result.toString();
     }
@@ -45,7 +45,6 @@ import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.Notification;
-import org.apache.syncope.core.persistence.api.entity.PlainAttr;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.task.NotificationTask;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
@@ -158,7 +157,7 @@ public class NotificationManagerImpl implements NotificationManager {
     @Transactional(readOnly = true)
     @Override
     public long getMaxRetries() {
-        return confDAO.find("notification.maxRetries", "0").getValues().get(0).getLongValue();
+        return confDAO.snapshot().getLong("notification.maxRetries", 0);
     }
 
     /**
@@ -434,10 +433,6 @@ public class NotificationManagerImpl implements NotificationManager {
     }
 
     protected Map<String, String> findAllSyncopeConfs() {
-        Map<String, String> syncopeConfMap = new HashMap<>();
-        for (PlainAttr<?> attr : confDAO.get().getPlainAttrs()) {
-            syncopeConfMap.put(attr.getSchema().getKey(), attr.getValuesAsStrings().get(0));
-        }
-        return syncopeConfMap;
+        return confDAO.snapshot().asMap();
     }
 }
@@ -24,10 +24,14 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
 import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
@@ -63,7 +67,9 @@ import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
+import org.identityconnectors.framework.common.exceptions.AlreadyExistsException;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
@@ -74,6 +80,8 @@ import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ResultsHandler;
 import org.identityconnectors.framework.common.objects.Uid;
 import org.identityconnectors.framework.common.objects.filter.EqualsFilter;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -148,6 +156,22 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     @Autowired
     protected VirAttrCache virAttrCache;
 
+    /**
+     * Bundles of connectors translating OR filters on {@link Uid} into native queries: with other connectors,
+     * filtering might take place client-side, after reading all remote objects, hence remote objects are read one by
+     * one instead.
+     */
+    protected final Set<String> batchReadBundles = new HashSet<>();
+
+    public void setBatchReadBundles(final String[] batchReadBundles) {
+        this.batchReadBundles.clear();
+        for (String bundle : batchReadBundles) {
+            if (StringUtils.isNotBlank(bundle)) {
+                this.batchReadBundles.add(bundle.trim());
+            }
+        }
+    }
+
     @Override
     public TaskExec execute(final PropagationTask task) {
         return execute(task, null);
@@ -195,6 +219,30 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return map;
     }
 
+    protected Uid propagate(
+            final PropagationTask task,
+            final ConnectorObject beforeObj,
+            final Connector connector,
+            final Boolean[] propagationAttempted) {
+
+        Uid result;
+        switch (task.getOperation()) {
+            case CREATE:
+            case UPDATE:
+                result = createOrUpdate(task, beforeObj, connector, propagationAttempted);
+                break;
+
+            case DELETE:
+                result = delete(task, beforeObj, connector, propagationAttempted);
+                break;
+
+            default:
+                result = null;
+        }
+
+        return result;
+    }
+
     protected Uid createOrUpdate(
             final PropagationTask task,
             final ConnectorObject beforeObj,
@@ -350,6 +398,23 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     }
 
     protected TaskExec execute(final PropagationTask task, final PropagationReporter reporter) {
+        return execute(task, reporter, null);
+    }
+
+    /**
+     * Execute the given task.
+     *
+     * @param task to be executed
+     * @param reporter to report propagation execution status
+     * @param beforeObjs when not null, remote objects read in advance, by connObjectKey; they are used instead of
+     * reading the remote object BEFORE the actual operation, while reading AFTER the actual operation is skipped
+     * @return the generated TaskExec
+     */
+    protected TaskExec execute(
+            final PropagationTask task,
+            final PropagationReporter reporter,
+            final Map<String, ConnectorObject> beforeObjs) {
+
         List<PropagationActions> actions = getPropagationActions(task.getResource());
 
         Date start = new Date();
@@ -370,34 +435,42 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         OrgUnit orgUnit = null;
         Uid uid = null;
         Connector connector = null;
+        boolean trusted = false;
         Result result;
         try {
             provision = task.getResource().getProvision(new ObjectClass(task.getObjectClassName()));
             orgUnit = task.getResource().getOrgUnit();
             connector = connFactory.getConnector(task.getResource());
 
-            // Try to read remote object BEFORE any actual operation
-            beforeObj = provision == null && orgUnit == null
-                    ? null
-                    : orgUnit == null
-                            ? getRemoteObject(task, connector, provision, false)
-                            : getRemoteObject(task, connector, orgUnit);
+            // Try to read remote object BEFORE any actual operation, unless already available
+            if (orgUnit != null) {
+                beforeObj = getRemoteObject(task, connector, orgUnit);
+            } else if (provision != null) {
+                if (beforeObjs != null) {
+                    beforeObj = beforeObjs.get(getConnObjectKey(task, false));
+                } else if (task.getResource().isTrustLocalState()) {
+                    trusted = true;
+                    beforeObj = getTrustedRemoteObject(task);
+                } else {
+                    beforeObj = getRemoteObject(task, connector, provision, false);
+                }
+            }
 
             for (PropagationActions action : actions) {
                 action.before(task, beforeObj);
             }
 
-            switch (task.getOperation()) {
-                case CREATE:
-                case UPDATE:
-                    uid = createOrUpdate(task, beforeObj, connector, propagationAttempted);
-                    break;
-
-                case DELETE:
-                    uid = delete(task, beforeObj, connector, propagationAttempted);
-                    break;
+            try {
+                uid = propagate(task, beforeObj, connector, propagationAttempted);
+            } catch (UnknownUidException | AlreadyExistsException e) {
+                if (!trusted) {
+                    throw e;
+                }
 
-                default:
+                LOG.debug("Local state not matching {}, reading remote object", task.getResource().getKey(), e);
+                trusted = false;
+                beforeObj = getRemoteObject(task, connector, provision, false);
+                uid = propagate(task, beforeObj, connector, propagationAttempted);
             }
 
             execution.setStatus(propagationAttempted[0]
@@ -438,11 +511,13 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 action.onError(task, execution, e);
             }
         } finally {
+            // the remote object might have been renamed
+            if (uid != null) {
+                task.setConnObjectKey(uid.getUidValue());
+            }
+
             // Try to read remote object AFTER any actual operation
-            if (connector != null) {
-                if (uid != null) {
-                    task.setConnObjectKey(uid.getUidValue());
-                }
+            if (connector != null && beforeObjs == null && !trusted) {
                 try {
                     afterObj = provision == null && orgUnit == null
                             ? null
@@ -517,6 +592,64 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return execution;
     }
 
+    /**
+     * Execute the given tasks, all related to the same resource: for each object class, remote objects are read in
+     * advance by means of a single search, then the actual operations are performed one after the other.
+     *
+     * @param tasks to be executed
+     * @param reporter to report propagation execution status
+     * @return the generated TaskExecs, in the same order of the given tasks
+     */
+    protected List<TaskExec> executeBatch(final List<PropagationTask> tasks, final PropagationReporter reporter) {
+        Map<String, List<PropagationTask>> byObjectClass = new LinkedHashMap<>();
+        for (PropagationTask task : tasks) {
+            List<PropagationTask> group = byObjectClass.get(task.getObjectClassName());
+            if (group == null) {
+                group = new ArrayList<>();
+                byObjectClass.put(task.getObjectClassName(), group);
+            }
+            group.add(task);
+        }
+
+        Map<PropagationTask, TaskExec> executions = new IdentityHashMap<>(tasks.size());
+        for (List<PropagationTask> group : byObjectClass.values()) {
+            PropagationTask first = group.get(0);
+            Provision provision = first.getResource().getProvision(new ObjectClass(first.getObjectClassName()));
+
+            Map<String, ConnectorObject> beforeObjs = null;
+            if (group.size() > 1 && provision != null && first.getResource().getOrgUnit() == null
+                    && !first.getResource().isTrustLocalState()) {
+                try {
+                    Connector connector = connFactory.getConnector(first.getResource());
+                    if (batchReadBundles.contains(connector.getConnInstance().getBundleName())) {
+                        beforeObjs = getRemoteObjects(group, connector, provision);
+                    }
+                } catch (Exception e) {
+                    LOG.debug("While reading remote objects for {} tasks on {}, reverting to one by one reading",
+                            group.size(), first.getResource().getKey(), e);
+                }
+            }
+
+            // objects already touched by previous tasks in the same group need to be read again
+            Set<String> touched = new HashSet<>();
+            for (PropagationTask task : group) {
+                String connObjectKey = getConnObjectKey(task, false);
+                boolean available = beforeObjs != null && connObjectKey != null && touched.add(connObjectKey);
+                if (task.getConnObjectKey() != null) {
+                    touched.add(task.getConnObjectKey());
+                }
+
+                executions.put(task, execute(task, reporter, available ? beforeObjs : null));
+            }
+        }
+
+        List<TaskExec> result = new ArrayList<>(tasks.size());
+        for (PropagationTask task : tasks) {
+            result.add(executions.get(task));
+        }
+        return result;
+    }
+
     @Override
     public void execute(final Collection<PropagationTask> tasks) {
         execute(tasks, false);
@@ -578,6 +711,113 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return result;
     }
 
+    protected String getConnObjectKey(final PropagationTask task, final boolean latest) {
+        return latest || task.getOldConnObjectKey() == null
+                ? task.getConnObjectKey()
+                : task.getOldConnObjectKey();
+    }
+
+    protected List<MappingItem> getLinkingMappingItems(final Provision provision) {
+        List<MappingItem> linkingMappingItems = new ArrayList<>();
+        for (VirSchema schema : virSchemaDAO.findByProvision(provision)) {
+            linkingMappingItems.add(schema.asLinkingMappingItem());
+        }
+        return linkingMappingItems;
+    }
+
+    protected void updateVirAttrCache(
+            final PropagationTask task, final ConnectorObject obj, final List<MappingItem> linkingMappingItems) {
+
+        for (MappingItem item : linkingMappingItems) {
+            Attribute attr = obj.getAttributeByName(item.getExtAttrName());
+            if (attr == null) {
+                virAttrCache.expire(task.getAnyType(), task.getEntityKey(), item.getIntAttrName());
+            } else {
+                VirAttrCacheValue cacheValue = new VirAttrCacheValue();
+                cacheValue.setValues(attr.getValue());
+                virAttrCache.put(task.getAnyType(), task.getEntityKey(), item.getIntAttrName(), cacheValue);
+            }
+        }
+    }
+
+    /**
+     * Build, without reading from the resource, the remote object for given task as expected according to local
+     * state: not existing for creations, existing with stored connObjectKey otherwise.
+     * Only key and name are available from the returned object, hence all attributes are sent on update.
+     *
+     * @param task current propagation task.
+     * @return remote connector object, as expected according to local state.
+     */
+    protected ConnectorObject getTrustedRemoteObject(final PropagationTask task) {
+        String connObjectKey = getConnObjectKey(task, false);
+
+        return task.getOperation() == ResourceOperation.CREATE || connObjectKey == null
+                ? null
+                : new ConnectorObjectBuilder().
+                        setObjectClass(new ObjectClass(task.getObjectClassName())).
+                        setUid(connObjectKey).
+                        setName(connObjectKey).
+                        build();
+    }
+
+    /**
+     * Get remote objects for given tasks, all related to the same provision, by means of a single search.
+     *
+     * @param tasks propagation tasks
+     * @param connector connector facade proxy.
+     * @param provision provision
+     * @return remote connector objects found, by connObjectKey (case insensitive); tasks whose object is not found
+     * have no matching entry
+     */
+    protected Map<String, ConnectorObject> getRemoteObjects(
+            final List<PropagationTask> tasks,
+            final Connector connector,
+            final Provision provision) {
+
+        Map<String, PropagationTask> byConnObjectKey = new HashMap<>(tasks.size());
+        Filter filter = null;
+        for (PropagationTask task : tasks) {
+            String connObjectKey = getConnObjectKey(task, false);
+            if (connObjectKey != null && !byConnObjectKey.containsKey(connObjectKey)) {
+                byConnObjectKey.put(connObjectKey, task);
+
+                Filter equals = FilterBuilder.equalTo(new Uid(connObjectKey));
+                filter = filter == null ? equals : FilterBuilder.or(filter, equals);
+            }
+        }
+
+        final Map<String, ConnectorObject> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (filter == null) {
+            return result;
+        }
+
+        List<MappingItem> linkingMappingItems = getLinkingMappingItems(provision);
+
+        connector.search(
+                new ObjectClass(tasks.get(0).getObjectClassName()),
+                filter,
+                new ResultsHandler() {
+
+            @Override
+            public boolean handle(final ConnectorObject connectorObject) {
+                result.put(connectorObject.getUid().getUidValue(), connectorObject);
+                return true;
+            }
+        }, MappingUtils.buildOperationOptions(IteratorUtils.chainedIterator(
+                MappingUtils.getPropagationMappingItems(provision).iterator(),
+                linkingMappingItems.iterator())));
+
+        for (Map.Entry<String, PropagationTask> entry : byConnObjectKey.entrySet()) {
+            ConnectorObject obj = result.get(entry.getKey());
+            if (obj != null) {
+                updateVirAttrCache(entry.getValue(), obj, linkingMappingItems);
+            }
+        }
+
+        LOG.debug("{} remote objects read out of {} tasks", result.size(), tasks.size());
+        return result;
+    }
+
     /**
      * Get remote object for given task.
      *
@@ -593,14 +833,9 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             final Provision provision,
             final boolean latest) {
 
-        String connObjectKey = latest || task.getOldConnObjectKey() == null
-                ? task.getConnObjectKey()
-                : task.getOldConnObjectKey();
+        String connObjectKey = getConnObjectKey(task, latest);
 
-        List<MappingItem> linkingMappingItems = new ArrayList<>();
-        for (VirSchema schema : virSchemaDAO.findByProvision(provision)) {
-            linkingMappingItems.add(schema.asLinkingMappingItem());
-        }
+        List<MappingItem> linkingMappingItems = getLinkingMappingItems(provision);
 
         ConnectorObject obj = null;
         try {
@@ -610,16 +845,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                             MappingUtils.getPropagationMappingItems(provision).iterator(),
                             linkingMappingItems.iterator())));
 
-            for (MappingItem item : linkingMappingItems) {
-                Attribute attr = obj.getAttributeByName(item.getExtAttrName());
-                if (attr == null) {
-                    virAttrCache.expire(task.getAnyType(), task.getEntityKey(), item.getIntAttrName());
-                } else {
-                    VirAttrCacheValue cacheValue = new VirAttrCacheValue();
-                    cacheValue.setValues(attr.getValue());
-                    virAttrCache.put(task.getAnyType(), task.getEntityKey(), item.getIntAttrName(), cacheValue);
-                }
-            }
+            updateVirAttrCache(task, obj, linkingMappingItems);
         } catch (TimeoutException toe) {
             LOG.debug("Request timeout", toe);
             throw toe;
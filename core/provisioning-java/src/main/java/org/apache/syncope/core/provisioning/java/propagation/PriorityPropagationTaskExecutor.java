@@ -115,6 +115,21 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
         }
 
         // then process non-priority resources concurrently...
+        executeConcurrently(concurrentTasks, reporter, nullPriorityAsync);
+    }
+
+    /**
+     * Executes tasks related to resources with NULL priority; failures are reported but not treated as fatal.
+     *
+     * @param concurrentTasks tasks related to resources with NULL priority
+     * @param reporter to report propagation execution status
+     * @param nullPriorityAsync whether to wait for execution completion or not
+     */
+    protected void executeConcurrently(
+            final Collection<PropagationTask> concurrentTasks,
+            final PropagationReporter reporter,
+            final boolean nullPriorityAsync) {
+
         final CompletionService<TaskExec> completionService = new ExecutorCompletionService<>(executor);
         Map<PropagationTask, Future<TaskExec>> nullPriority = new HashMap<>(concurrentTasks.size());
         for (PropagationTask task : concurrentTasks) {
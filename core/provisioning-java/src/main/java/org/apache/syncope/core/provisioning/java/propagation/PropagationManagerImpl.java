@@ -40,6 +40,7 @@ import org.apache.syncope.core.provisioning.api.PropagationByResource;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
@@ -121,6 +122,9 @@ public class PropagationManagerImpl implements PropagationManager {
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
+    @Autowired
+    protected ProvisionHashDAO provisionHashDAO;
+
     protected Any<?> find(final AnyTypeKind kind, final String key) {
         AnyDAO<? extends Any<?>> dao;
         switch (kind) {
@@ -442,6 +446,11 @@ public class PropagationManagerImpl implements PropagationManager {
 
                 tasks.add(task);
 
+                // the content hash stored by pull or push is no longer reliable once the resource is updated
+                if (resource.isChangeDetection()) {
+                    provisionHashDAO.delete(any.getKey(), resource.getKey());
+                }
+
                 LOG.debug("PropagationTask created: {}", task);
             }
         }
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.java.ConnectorCircuitBreaker;
+import org.apache.syncope.core.provisioning.java.ConnectorCircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Dispatches propagation tasks to worker pools dedicated to each external resource, so that a slow or unavailable
+ * resource only affects the tasks related to it.
+ * Stored tasks are attempted up to {@code maxAttempts} times, waiting {@code retryDelay} seconds - multiplied by the
+ * number of attempts performed so far - between each attempt.
+ * First attempts are grouped in batches of up to {@code batchSize} tasks, collected for at most {@code batchLinger}
+ * milliseconds, so that remote objects can be read with a single search for each batch.
+ * While the circuit breaker of the connector instance used by a resource is open, attempts are postponed.
+ * Stored tasks are claimed by this node before being executed, so that each is handled by a single node; claims not
+ * renewed for {@code claimTimeout} seconds are considered expired, so that other nodes can take over the tasks
+ * left behind by a stopped node when they start.
+ */
+public class PropagationQueue implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropagationQueue.class);
+
+    @Autowired
+    private PropagationQueueWorker worker;
+
+    @Autowired
+    private ConnectorCircuitBreakerRegistry breakers;
+
+    private int poolSize = 2;
+
+    private int maxAttempts = 3;
+
+    private long retryDelay = 30;
+
+    private int batchSize = 50;
+
+    private long batchLinger = 200;
+
+    private long claimTimeout = 600;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final Map<String, ThreadPoolTaskScheduler> pools = new ConcurrentHashMap<>();
+
+    private final Set<String> queued = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final Map<String, Batch> batches = new HashMap<>();
+
+    public void setPoolSize(final int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public void setRetryDelay(final long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchLinger(final long batchLinger) {
+        this.batchLinger = batchLinger;
+    }
+
+    public void setClaimTimeout(final long claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * @return identifier of this node, used to claim stored propagation tasks
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * @return claims performed before this date are considered as expired
+     */
+    public Date getClaimExpiration() {
+        return new Date(System.currentTimeMillis() - claimTimeout * 1000);
+    }
+
+    protected ThreadPoolTaskScheduler getPool(final String domain, final String resource) {
+        String key = domain + "/" + resource;
+
+        ThreadPoolTaskScheduler pool = pools.get(key);
+        if (pool == null) {
+            synchronized (pools) {
+                pool = pools.get(key);
+                if (pool == null) {
+                    pool = new ThreadPoolTaskScheduler();
+                    pool.setPoolSize(poolSize);
+                    pool.setThreadNamePrefix("propagation-" + key + "-");
+                    pool.setWaitForTasksToCompleteOnShutdown(false);
+                    pool.initialize();
+
+                    pools.put(key, pool);
+                }
+            }
+        }
+
+        return pool;
+    }
+
+    /**
+     * @param domain domain
+     * @param resource external resource key
+     * @return milliseconds to wait before the connector instance used by the given resource can be called again
+     */
+    public long retryAfter(final String domain, final String resource) {
+        ConnectorCircuitBreaker breaker = breakers.getByResource(domain, resource);
+        return breaker == null ? 0 : breaker.retryAfter();
+    }
+
+    /**
+     * Executes the given callable within the pool dedicated to the given resource.
+     *
+     * @param <T> result type
+     * @param domain domain
+     * @param resource external resource key
+     * @param callable propagation to execute
+     * @return future for the execution result
+     */
+    public <T> Future<T> submit(final String domain, final String resource, final Callable<T> callable) {
+        return getPool(domain, resource).submit(callable);
+    }
+
+    /**
+     * Enqueues the stored propagation task with given key, unless already queued.
+     *
+     * @param executor propagation task executor
+     * @param domain domain
+     * @param resource external resource key
+     * @param taskKey stored propagation task key
+     * @param auth authentication to execute the task with
+     */
+    public void enqueue(
+            final AbstractPropagationTaskExecutor executor,
+            final String domain,
+            final String resource,
+            final String taskKey,
+            final Authentication auth) {
+
+        if (!queued.add(domain + "/" + taskKey)) {
+            LOG.debug("Propagation task {} already queued", taskKey);
+            return;
+        }
+
+        if (batchSize <= 1) {
+            getPool(domain, resource).execute(new Attempt(executor, domain, resource, taskKey, auth, 1));
+            return;
+        }
+
+        // tasks are batched together only when to be executed with the same authentication
+        String batchKey = domain + "/" + resource + "/" + auth.getName();
+
+        Batch full = null;
+        synchronized (batches) {
+            Batch batch = batches.get(batchKey);
+            if (batch == null) {
+                batch = new Batch(executor, domain, resource, batchKey, auth);
+                batches.put(batchKey, batch);
+
+                getPool(domain, resource).schedule(batch, new Date(System.currentTimeMillis() + batchLinger));
+            }
+            batch.taskKeys.add(taskKey);
+
+            if (batch.taskKeys.size() >= batchSize) {
+                batches.remove(batchKey);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            getPool(domain, resource).execute(full);
+        }
+    }
+
+    protected void completed(
+            final AbstractPropagationTaskExecutor executor,
+            final String domain,
+            final String resource,
+            final String taskKey,
+            final Authentication auth,
+            final int attempt,
+            final boolean retry) {
+
+        if (retry && attempt < maxAttempts) {
+            Date next = new Date(System.currentTimeMillis() + retryDelay * 1000 * attempt);
+            LOG.debug("Propagation task {} failed, attempt {} scheduled at {}", taskKey, attempt + 1, next);
+
+            getPool(domain, resource).schedule(
+                    new Attempt(executor, domain, resource, taskKey, auth, attempt + 1), next);
+        } else {
+            queued.remove(domain + "/" + taskKey);
+        }
+    }
+
+    private static boolean isFailure(final TaskExec execution) {
+        return execution != null
+                && PropagationTaskExecStatus.valueOf(execution.getStatus()) == PropagationTaskExecStatus.FAILURE;
+    }
+
+    @Override
+    public void destroy() {
+        for (ThreadPoolTaskScheduler pool : pools.values()) {
+            pool.shutdown();
+        }
+        pools.clear();
+    }
+
+    private class Attempt implements Runnable {
+
+        private final AbstractPropagationTaskExecutor executor;
+
+        private final String domain;
+
+        private final String resource;
+
+        private final String taskKey;
+
+        private final Authentication auth;
+
+        private final int attempt;
+
+        Attempt(
+                final AbstractPropagationTaskExecutor executor,
+                final String domain,
+                final String resource,
+                final String taskKey,
+                final Authentication auth,
+                final int attempt) {
+
+            this.executor = executor;
+            this.domain = domain;
+            this.resource = resource;
+            this.taskKey = taskKey;
+            this.auth = auth;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void run() {
+            long wait = retryAfter(domain, resource);
+            if (wait > 0) {
+                LOG.debug("Connector for {} not available, postponing propagation task {}", resource, taskKey);
+                getPool(domain, resource).schedule(this, new Date(System.currentTimeMillis() + wait));
+                return;
+            }
+
+            boolean retry;
+
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            try {
+                retry = isFailure(
+                        worker.process(executor, node, getClaimExpiration(), taskKey, attempt >= maxAttempts));
+            } catch (Exception e) {
+                LOG.error("While processing propagation task {}, attempt {}", taskKey, attempt, e);
+                retry = true;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+
+            completed(executor, domain, resource, taskKey, auth, attempt, retry);
+        }
+    }
+
+    private class Batch implements Runnable {
+
+        private final AbstractPropagationTaskExecutor executor;
+
+        private final String domain;
+
+        private final String resource;
+
+        private final String batchKey;
+
+        private final Authentication auth;
+
+        private final List<String> taskKeys = new ArrayList<>();
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        Batch(
+                final AbstractPropagationTaskExecutor executor,
+                final String domain,
+                final String resource,
+                final String batchKey,
+                final Authentication auth) {
+
+            this.executor = executor;
+            this.domain = domain;
+            this.resource = resource;
+            this.batchKey = batchKey;
+            this.auth = auth;
+        }
+
+        @Override
+        public void run() {
+            // either full or lingered enough, whatever comes first
+            synchronized (batches) {
+                if (batches.get(batchKey) == this) {
+                    batches.remove(batchKey);
+                }
+            }
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+
+            long wait = retryAfter(domain, resource);
+            if (wait > 0) {
+                LOG.debug("Connector for {} not available, postponing {} propagation tasks",
+                        resource, taskKeys.size());
+                Date next = new Date(System.currentTimeMillis() + wait);
+                for (String taskKey : taskKeys) {
+                    getPool(domain, resource).schedule(
+                            new Attempt(executor, domain, resource, taskKey, auth, 1), next);
+                }
+                return;
+            }
+
+            Map<String, TaskExec> executions = null;
+
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            try {
+                executions = worker.process(executor, node, getClaimExpiration(), taskKeys, maxAttempts <= 1);
+            } catch (Exception e) {
+                LOG.error("While processing batch of {} propagation tasks", taskKeys.size(), e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+
+            for (String taskKey : taskKeys) {
+                completed(executor, domain, resource, taskKey, auth, 1,
+                        executions == null || isFailure(executions.get(taskKey)));
+            }
+        }
+    }
+}
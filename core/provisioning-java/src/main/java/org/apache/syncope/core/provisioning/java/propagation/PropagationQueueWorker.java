@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Executes, within a transaction of the current domain, the {@link PropagationTask}s dispatched by
+ * {@link PropagationQueue}.
+ */
+@Component
+public class PropagationQueueWorker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropagationQueueWorker.class);
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    /**
+     * Claims, for the given owner, all propagation tasks stored but not executed yet, except for those currently
+     * claimed by other owners.
+     *
+     * @param owner owner, e.g. the current node
+     * @param expiredBefore claims performed by other owners before this date are considered as expired
+     * @return resource and task keys of the claimed propagation tasks
+     */
+    @Transactional(rollbackFor = { Throwable.class })
+    public List<Pair<String, String>> claimQueued(final String owner, final Date expiredBefore) {
+        List<Pair<String, String>> result = new ArrayList<>();
+        for (PropagationTask task : taskDAO.<PropagationTask>findToExec(TaskType.PROPAGATION)) {
+            if (taskDAO.claim(task.getKey(), owner, expiredBefore)) {
+                result.add(Pair.of(task.getResource().getKey(), task.getKey()));
+            } else {
+                LOG.debug("Propagation task {} claimed by {}, skipping", task.getKey(), task.getClaimedBy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given propagation tasks, all related to the same resource, as a batch; when no more attempts are
+     * going to be performed and no execution was registered (according to the resource's trace levels), each task is
+     * removed.
+     * The claim of the given owner on each task is renewed; tasks meanwhile claimed by other owners are skipped.
+     *
+     * @param executor propagation task executor
+     * @param owner owner, e.g. the current node
+     * @param expiredBefore claims performed by other owners before this date are considered as expired
+     * @param taskKeys propagation task keys
+     * @param last whether this is the last attempt
+     * @return generated executions, by task key; tasks not existing any more or claimed by other owners are not
+     * reported
+     */
+    @Transactional(rollbackFor = { Throwable.class })
+    public Map<String, TaskExec> process(
+            final AbstractPropagationTaskExecutor executor,
+            final String owner,
+            final Date expiredBefore,
+            final List<String> taskKeys,
+            final boolean last) {
+
+        List<PropagationTask> tasks = new ArrayList<>(taskKeys.size());
+        for (String taskKey : taskKeys) {
+            PropagationTask task = taskDAO.claim(taskKey, owner, expiredBefore)
+                    ? taskDAO.<PropagationTask>find(taskKey)
+                    : null;
+            if (task == null) {
+                LOG.debug("Queued propagation task {} not found or claimed by another owner, ignoring", taskKey);
+            } else {
+                tasks.add(task);
+            }
+        }
+
+        Map<String, TaskExec> result = new HashMap<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return result;
+        }
+
+        List<TaskExec> executions = executor.executeBatch(tasks, null);
+        for (int i = 0; i < tasks.size(); i++) {
+            PropagationTask task = tasks.get(i);
+            TaskExec execution = executions.get(i);
+
+            if ((last || PropagationTaskExecStatus.valueOf(execution.getStatus()) != PropagationTaskExecStatus.FAILURE)
+                    && task.getExecutions().isEmpty()) {
+
+                LOG.debug("No execution registered for {}, removing", task);
+                taskDAO.delete(task);
+            }
+
+            result.put(task.getKey(), execution);
+        }
+
+        return result;
+    }
+
+    /**
+     * Executes the given propagation tasks, not stored and all related to the same resource, as a batch.
+     *
+     * @param executor propagation task executor
+     * @param tasks propagation tasks
+     * @param reporter to report propagation execution status
+     * @return generated executions, in the same order of the given tasks
+     */
+    @Transactional(rollbackFor = { Throwable.class })
+    public List<TaskExec> execute(
+            final AbstractPropagationTaskExecutor executor,
+            final List<PropagationTask> tasks,
+            final PropagationReporter reporter) {
+
+        return executor.executeBatch(tasks, reporter);
+    }
+
+    /**
+     * Executes the given propagation task; when no more attempts are going to be performed and no execution was
+     * registered (according to the resource's trace levels), the task is removed.
+     *
+     * @param executor propagation task executor
+     * @param owner owner, e.g. the current node
+     * @param expiredBefore claims performed by other owners before this date are considered as expired
+     * @param taskKey propagation task key
+     * @param last whether this is the last attempt
+     * @return generated execution, or null if the task does not exist any more or is claimed by another owner
+     */
+    @Transactional(rollbackFor = { Throwable.class })
+    public TaskExec process(
+            final AbstractPropagationTaskExecutor executor,
+            final String owner,
+            final Date expiredBefore,
+            final String taskKey,
+            final boolean last) {
+
+        return process(executor, owner, expiredBefore, Collections.singletonList(taskKey), last).get(taskKey);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.core.persistence.api.DomainsHolder;
+import org.apache.syncope.core.persistence.api.SyncopeLoader;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Variant of {@link PriorityPropagationTaskExecutor} where tasks related to resources with NULL priority are
+ * executed by {@link PropagationQueue}, on worker pools dedicated to each resource.
+ * When asynchronous execution is requested, such tasks are first stored, then enqueued once the current transaction
+ * is committed and attempted until success or up to the configured number of times; stored tasks not yet executed
+ * are enqueued again at startup, provided that no other node holds a valid claim on them.
+ * Tasks related to the same resource are executed in batches, reading remote objects with a single search per batch.
+ * When synchronous execution is requested for tasks related to resources whose connector instance is not available
+ * according to its circuit breaker, such tasks are stored and enqueued as well, instead of failing.
+ */
+public class QueuedPropagationTaskExecutor extends PriorityPropagationTaskExecutor implements SyncopeLoader {
+
+    @Autowired
+    protected PropagationQueue queue;
+
+    @Autowired
+    protected PropagationQueueWorker worker;
+
+    @Autowired
+    protected DomainsHolder domainsHolder;
+
+    @Override
+    public Integer getPriority() {
+        return 1000;
+    }
+
+    @Override
+    public void load() {
+        for (final String domain : domainsHolder.getDomains().keySet()) {
+            AuthContextUtils.execWithAuthContext(domain, new AuthContextUtils.Executable<Void>() {
+
+                @Override
+                public Void exec() {
+                    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+                    List<Pair<String, String>> stored = worker.claimQueued(queue.getNode(), queue.getClaimExpiration());
+                    enqueue(domain, stored, auth);
+                    LOG.info("[{}] {} stored propagation tasks claimed and enqueued", domain, stored.size());
+
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void executeConcurrently(
+            final Collection<PropagationTask> concurrentTasks,
+            final PropagationReporter reporter,
+            final boolean nullPriorityAsync) {
+
+        if (concurrentTasks.isEmpty()) {
+            return;
+        }
+
+        final String domain = AuthContextUtils.getDomain();
+
+        if (nullPriorityAsync) {
+            store(domain, concurrentTasks, reporter);
+        } else {
+            // execute a single attempt on each dedicated pool, in batches, and wait for results
+            Map<String, List<PropagationTask>> byResource = new LinkedHashMap<>();
+            List<PropagationTask> unavailable = new ArrayList<>();
+            for (PropagationTask task : concurrentTasks) {
+                if (queue.retryAfter(domain, task.getResource().getKey()) > 0) {
+                    unavailable.add(task);
+                    continue;
+                }
+
+                List<PropagationTask> resourceTasks = byResource.get(task.getResource().getKey());
+                if (resourceTasks == null) {
+                    resourceTasks = new ArrayList<>();
+                    byResource.put(task.getResource().getKey(), resourceTasks);
+                }
+                resourceTasks.add(task);
+            }
+
+            final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            List<Future<List<TaskExec>>> futures = new ArrayList<>();
+            for (Map.Entry<String, List<PropagationTask>> entry : byResource.entrySet()) {
+                for (final List<PropagationTask> batch
+                        : ListUtils.partition(entry.getValue(), Math.max(1, queue.getBatchSize()))) {
+
+                    try {
+                        futures.add(queue.submit(domain, entry.getKey(), new Callable<List<TaskExec>>() {
+
+                            @Override
+                            public List<TaskExec> call() throws Exception {
+                                SecurityContextHolder.getContext().setAuthentication(auth);
+                                try {
+                                    return worker.execute(QueuedPropagationTaskExecutor.this, batch, reporter);
+                                } finally {
+                                    SecurityContextHolder.clearContext();
+                                }
+                            }
+                        }));
+                    } catch (Exception e) {
+                        LOG.error("Unexpected exception", e);
+                    }
+                }
+            }
+
+            if (!unavailable.isEmpty()) {
+                store(domain, unavailable, reporter);
+            }
+
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+            for (Future<List<TaskExec>> future : futures) {
+                try {
+                    future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    LOG.error("While waiting for propagation", e);
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the given tasks, so that they can be reported as CREATED and survive restarts, then enqueues them once
+     * visible to workers.
+     *
+     * @param domain domain
+     * @param tasks propagation tasks
+     * @param reporter to report propagation execution status
+     */
+    protected void store(
+            final String domain,
+            final Collection<PropagationTask> tasks,
+            final PropagationReporter reporter) {
+
+        Date now = new Date();
+        List<PropagationTask> saved = new ArrayList<>(tasks.size());
+        for (PropagationTask task : tasks) {
+            task.setClaimedBy(queue.getNode());
+            task.setClaimedAt(now);
+            saved.add(taskDAO.save(task));
+
+            reporter.onSuccessOrNonPriorityResourceFailures(
+                    task, PropagationTaskExecStatus.CREATED, null, null, null);
+        }
+        // needed to generate values for the task keys
+        taskDAO.flush();
+
+        final List<Pair<String, String>> stored = new ArrayList<>(saved.size());
+        for (PropagationTask task : saved) {
+            stored.add(Pair.of(task.getResource().getKey(), task.getKey()));
+        }
+
+        final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    enqueue(domain, stored, auth);
+                }
+            });
+        } else {
+            enqueue(domain, stored, auth);
+        }
+    }
+
+    protected void enqueue(final String domain, final List<Pair<String, String>> stored, final Authentication auth) {
+        for (Pair<String, String> task : stored) {
+            queue.enqueue(this, domain, task.getLeft(), task.getRight(), auth);
+        }
+    }
+}
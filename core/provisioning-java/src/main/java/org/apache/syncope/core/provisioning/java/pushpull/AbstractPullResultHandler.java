@@ -20,7 +20,11 @@ package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.syncope.common.lib.patch.AnyPatch;
 import org.apache.syncope.common.lib.patch.StringPatchItem;
@@ -28,6 +32,7 @@ import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
+import org.apache.syncope.common.lib.types.MappingPurpose;
 import org.apache.syncope.common.lib.types.MatchingRule;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.core.provisioning.api.PropagationByResource;
@@ -35,6 +40,7 @@ import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.lib.types.UnmatchingRule;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
@@ -46,6 +52,7 @@ import org.apache.syncope.core.provisioning.api.ProvisioningManager;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
 import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.apache.syncope.core.provisioning.api.pushpull.PullActions;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
@@ -64,16 +71,34 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
     @Autowired
     protected PullUtils pullUtils;
 
+    @Autowired
+    protected ChangeDetectionUtils changeDetectionUtils;
+
     @Autowired
     protected VirSchemaDAO virSchemaDAO;
 
     @Autowired
     protected VirAttrCache virAttrCache;
 
+    @Autowired
+    protected TaskDAO taskDAO;
+
     protected SyncopePullExecutor executor;
 
     protected Result latestResult = null;
 
+    /**
+     * Matches looked up in bulk for deltas about to be handled, by uid; each is removed when used.
+     */
+    protected final Map<String, List<String>> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * Profile for the delta being handled by the current thread, when deltas are handled concurrently.
+     */
+    private final ThreadLocal<ProvisioningProfile<PullTask, PullActions>> workerProfile = new ThreadLocal<>();
+
+    private String concurrentTaskKey;
+
     protected abstract String getName(AnyTO anyTO);
 
     protected abstract ProvisioningManager<?, ?> getProvisioningManager();
@@ -84,7 +109,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
     protected void doDelete(final AnyTypeKind kind, final String key) {
         PropagationByResource propByRes = new PropagationByResource();
-        propByRes.add(ResourceOperation.DELETE, profile.getTask().getResource().getKey());
+        propByRes.add(ResourceOperation.DELETE, getProfile().getTask().getResource().getKey());
         try {
             taskExecutor.execute(propagationManager.getDeleteTasks(
                     kind,
@@ -105,21 +130,84 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         this.executor = executor;
     }
 
+    private static String getMatchingUid(final SyncDelta delta) {
+        return delta.getPreviousUid() == null
+                ? delta.getUid().getUidValue()
+                : delta.getPreviousUid().getUidValue();
+    }
+
+    @Override
+    public void prefetch(final List<SyncDelta> deltas) {
+        if (deltas.isEmpty() || deltas.get(0).getObject() == null) {
+            return;
+        }
+        Provision provision = profile.getTask().getResource().getProvision(deltas.get(0).getObject().getObjectClass());
+        if (provision == null) {
+            return;
+        }
+
+        // uids occurring more than once are left out, as earlier deltas might change their matches
+        Set<String> uids = new HashSet<>();
+        Set<String> duplicates = new HashSet<>();
+        for (SyncDelta delta : deltas) {
+            String uid = getMatchingUid(delta);
+            if (!uids.add(uid)) {
+                duplicates.add(uid);
+            }
+        }
+        uids.removeAll(duplicates);
+
+        Map<String, List<String>> found = pullUtils.findExisting(uids, provision, getAnyUtils());
+        if (found != null) {
+            prefetched.putAll(found);
+        }
+    }
+
+    @Override
+    public void clearPrefetched() {
+        prefetched.clear();
+    }
+
+    @Override
+    public void setConcurrent(final boolean concurrent) {
+        this.concurrentTaskKey = concurrent ? profile.getTask().getKey() : null;
+    }
+
+    @Override
+    public ProvisioningProfile<PullTask, PullActions> getProfile() {
+        ProvisioningProfile<PullTask, PullActions> current = workerProfile.get();
+        return current == null ? profile : current;
+    }
+
     @Override
     public boolean handle(final SyncDelta delta) {
+        if (concurrentTaskKey == null) {
+            return handleDelta(delta);
+        }
+
+        PullTask task = taskDAO.find(concurrentTaskKey);
+        workerProfile.set(new ProvisioningProfile<>(profile, task));
+        try {
+            return handleDelta(delta);
+        } finally {
+            workerProfile.remove();
+        }
+    }
+
+    private boolean handleDelta(final SyncDelta delta) {
         Provision provision = null;
         try {
-            provision = profile.getTask().getResource().getProvision(delta.getObject().getObjectClass());
+            provision = getProfile().getTask().getResource().getProvision(delta.getObject().getObjectClass());
             if (provision == null) {
-                throw new JobExecutionException("No provision found on " + profile.getTask().getResource() + " for "
-                        + delta.getObject().getObjectClass());
+                throw new JobExecutionException("No provision found on " + getProfile().getTask().getResource()
+                        + " for " + delta.getObject().getObjectClass());
             }
 
             doHandle(delta, provision);
 
             LOG.debug("Successfully handled {}", delta);
 
-            if (profile.getTask().getPullMode() != PullMode.INCREMENTAL) {
+            if (getProfile().getTask().getPullMode() != PullMode.INCREMENTAL) {
                 return true;
             }
 
@@ -140,7 +228,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             ignoreResult.setStatus(ProvisioningReport.Status.IGNORE);
             ignoreResult.setKey(null);
             ignoreResult.setName(delta.getObject().getName().getNameValue());
-            profile.getResults().add(ignoreResult);
+            getProfile().getResults().add(ignoreResult);
 
             LOG.warn("Ignoring during pull", e);
 
@@ -158,15 +246,15 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final SyncDelta delta, final Provision provision, final AnyUtils anyUtils)
             throws JobExecutionException {
 
-        if (!profile.getTask().isPerformCreate()) {
+        if (!getProfile().getTask().isPerformCreate()) {
             LOG.debug("PullTask not configured for create");
             finalize(UnmatchingRule.toEventName(UnmatchingRule.ASSIGN), Result.SUCCESS, null, null, delta);
             return Collections.<ProvisioningReport>emptyList();
         }
 
-        AnyTO anyTO = connObjectUtils.getAnyTO(delta.getObject(), profile.getTask(), provision, anyUtils);
+        AnyTO anyTO = connObjectUtils.getAnyTO(delta.getObject(), getProfile().getTask(), provision, anyUtils);
 
-        anyTO.getResources().add(profile.getTask().getResource().getKey());
+        anyTO.getResources().add(getProfile().getTask().getResource().getKey());
 
         ProvisioningReport result = new ProvisioningReport();
         result.setOperation(ResourceOperation.CREATE);
@@ -174,16 +262,21 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         result.setStatus(ProvisioningReport.Status.SUCCESS);
         result.setName(getName(anyTO));
 
-        if (profile.isDryRun()) {
+        if (getProfile().isDryRun()) {
             result.setKey(null);
             finalize(UnmatchingRule.toEventName(UnmatchingRule.ASSIGN), Result.SUCCESS, null, null, delta);
         } else {
             SyncDelta actionedDelta = delta;
-            for (PullActions action : profile.getActions()) {
-                actionedDelta = action.beforeAssign(profile, actionedDelta, anyTO);
+            for (PullActions action : getProfile().getActions()) {
+                actionedDelta = action.beforeAssign(getProfile(), actionedDelta, anyTO);
             }
 
             create(anyTO, actionedDelta, UnmatchingRule.toEventName(UnmatchingRule.ASSIGN), result);
+
+            if (result.getStatus() == ProvisioningReport.Status.SUCCESS && result.getKey() != null) {
+                changeDetectionUtils.store(result.getKey(), getProfile().getTask().getResource(), MappingPurpose.PULL,
+                        ChangeDetectionUtils.hash(delta.getObject().getAttributes(), provision, MappingPurpose.PULL));
+            }
         }
 
         return Collections.singletonList(result);
@@ -193,13 +286,13 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final SyncDelta delta, final Provision provision, final AnyUtils anyUtils)
             throws JobExecutionException {
 
-        if (!profile.getTask().isPerformCreate()) {
+        if (!getProfile().getTask().isPerformCreate()) {
             LOG.debug("PullTask not configured for create");
             finalize(UnmatchingRule.toEventName(UnmatchingRule.PROVISION), Result.SUCCESS, null, null, delta);
             return Collections.<ProvisioningReport>emptyList();
         }
 
-        AnyTO anyTO = connObjectUtils.getAnyTO(delta.getObject(), profile.getTask(), provision, anyUtils);
+        AnyTO anyTO = connObjectUtils.getAnyTO(delta.getObject(), getProfile().getTask(), provision, anyUtils);
 
         ProvisioningReport result = new ProvisioningReport();
         result.setOperation(ResourceOperation.CREATE);
@@ -207,13 +300,13 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         result.setStatus(ProvisioningReport.Status.SUCCESS);
         result.setName(getName(anyTO));
 
-        if (profile.isDryRun()) {
+        if (getProfile().isDryRun()) {
             result.setKey(null);
             finalize(UnmatchingRule.toEventName(UnmatchingRule.PROVISION), Result.SUCCESS, null, null, delta);
         } else {
             SyncDelta actionedDelta = delta;
-            for (PullActions action : profile.getActions()) {
-                actionedDelta = action.beforeProvision(profile, actionedDelta, anyTO);
+            for (PullActions action : getProfile().getActions()) {
+                actionedDelta = action.beforeProvision(getProfile(), actionedDelta, anyTO);
             }
 
             create(anyTO, actionedDelta, UnmatchingRule.toEventName(UnmatchingRule.PROVISION), result);
@@ -230,9 +323,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         }
 
         IgnoreProvisionException ipe = null;
-        for (PullActions action : profile.getActions()) {
+        for (PullActions action : getProfile().getActions()) {
             if (ipe == null) {
-                ipe = action.onError(profile, delta, exception);
+                ipe = action.onError(getProfile(), delta, exception);
             }
         }
         if (ipe != null) {
@@ -256,8 +349,8 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             output = actual;
             resultStatus = Result.SUCCESS;
 
-            for (PullActions action : profile.getActions()) {
-                action.after(profile, delta, actual, result);
+            for (PullActions action : getProfile().getActions()) {
+                action.after(getProfile(), delta, actual, result);
             }
 
             LOG.debug("{} {} successfully created", actual.getType(), actual.getKey());
@@ -283,7 +376,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
     protected List<ProvisioningReport> update(
             final SyncDelta delta, final List<String> anys, final Provision provision) throws JobExecutionException {
 
-        if (!profile.getTask().isPerformUpdate()) {
+        if (!getProfile().getTask().isPerformUpdate()) {
             LOG.debug("PullTask not configured for update");
             finalize(MatchingRule.toEventName(MatchingRule.UPDATE), Result.SUCCESS, null, null, delta);
             return Collections.<ProvisioningReport>emptyList();
@@ -293,8 +386,28 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
         List<ProvisioningReport> results = new ArrayList<>();
 
+        String hash = getProfile().getTask().getResource().isChangeDetection()
+                ? ChangeDetectionUtils.hash(delta.getObject().getAttributes(), provision, MappingPurpose.PULL)
+                : null;
+
         SyncDelta workingDelta = delta;
         for (String key : anys) {
+            if (hash != null && changeDetectionUtils.isUnchanged(
+                    getAnyUtils().getAnyTypeKind(), key, getProfile().getTask().getResource(), MappingPurpose.PULL,
+                    hash)) {
+
+                LOG.debug("{} {} unchanged since last pull or push, skipping", provision.getAnyType().getKey(), key);
+
+                ProvisioningReport result = new ProvisioningReport();
+                result.setOperation(ResourceOperation.NONE);
+                result.setAnyType(provision.getAnyType().getKey());
+                result.setStatus(ProvisioningReport.Status.IGNORE);
+                result.setKey(key);
+                result.setMessage("Unchanged");
+                results.add(result);
+                continue;
+            }
+
             LOG.debug("About to update {}", key);
 
             ProvisioningReport result = new ProvisioningReport();
@@ -313,7 +426,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
             Result resultStatus;
             Object output;
-            if (!profile.isDryRun()) {
+            if (!getProfile().isDryRun()) {
                 if (before == null) {
                     resultStatus = Result.FAILURE;
                     output = null;
@@ -323,24 +436,29 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                                 before.getKey(),
                                 workingDelta.getObject(),
                                 before,
-                                profile.getTask(),
+                                getProfile().getTask(),
                                 provision,
                                 getAnyUtils());
 
-                        for (PullActions action : profile.getActions()) {
-                            workingDelta = action.beforeUpdate(profile, workingDelta, before, anyPatch);
+                        for (PullActions action : getProfile().getActions()) {
+                            workingDelta = action.beforeUpdate(getProfile(), workingDelta, before, anyPatch);
                         }
 
                         AnyTO updated = doUpdate(before, anyPatch, workingDelta, result);
 
-                        for (PullActions action : profile.getActions()) {
-                            action.after(profile, workingDelta, updated, result);
+                        for (PullActions action : getProfile().getActions()) {
+                            action.after(getProfile(), workingDelta, updated, result);
                         }
 
                         output = updated;
                         resultStatus = Result.SUCCESS;
                         result.setName(getName(updated));
 
+                        if (hash != null) {
+                            changeDetectionUtils.store(
+                                    key, getProfile().getTask().getResource(), MappingPurpose.PULL, hash);
+                        }
+
                         LOG.debug("{} {} successfully updated", provision.getAnyType().getKey(), key);
                     } catch (PropagationException e) {
                         // A propagation failure doesn't imply a pull failure.
@@ -374,7 +492,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final boolean unlink)
             throws JobExecutionException {
 
-        if (!profile.getTask().isPerformUpdate()) {
+        if (!getProfile().getTask().isPerformUpdate()) {
             LOG.debug("PullTask not configured for update");
             finalize(unlink
                     ? MatchingRule.toEventName(MatchingRule.UNASSIGN)
@@ -405,7 +523,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 result.setMessage(String.format("Any '%s(%s)' not found", provision.getAnyType().getKey(), key));
             }
 
-            if (!profile.isDryRun()) {
+            if (!getProfile().isDryRun()) {
                 if (before == null) {
                     resultStatus = Result.FAILURE;
                     output = null;
@@ -414,17 +532,17 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
                     try {
                         if (unlink) {
-                            for (PullActions action : profile.getActions()) {
-                                action.beforeUnassign(profile, delta, before);
+                            for (PullActions action : getProfile().getActions()) {
+                                action.beforeUnassign(getProfile(), delta, before);
                             }
                         } else {
-                            for (PullActions action : profile.getActions()) {
-                                action.beforeDeprovision(profile, delta, before);
+                            for (PullActions action : getProfile().getActions()) {
+                                action.beforeDeprovision(getProfile(), delta, before);
                             }
                         }
 
                         PropagationByResource propByRes = new PropagationByResource();
-                        propByRes.add(ResourceOperation.DELETE, profile.getTask().getResource().getKey());
+                        propByRes.add(ResourceOperation.DELETE, getProfile().getTask().getResource().getKey());
                         taskExecutor.execute(propagationManager.getDeleteTasks(
                                 provision.getAnyType().getKind(),
                                 key,
@@ -436,7 +554,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                             anyPatch = newPatch(key);
                             anyPatch.getResources().add(new StringPatchItem.Builder().
                                     operation(PatchOperation.DELETE).
-                                    value(profile.getTask().getResource().getKey()).build());
+                                    value(getProfile().getTask().getResource().getKey()).build());
                         }
                         if (anyPatch == null) {
                             output = getAnyTO(key);
@@ -444,8 +562,8 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                             output = doUpdate(before, anyPatch, delta, result);
                         }
 
-                        for (PullActions action : profile.getActions()) {
-                            action.after(profile, delta, AnyTO.class.cast(output), result);
+                        for (PullActions action : getProfile().getActions()) {
+                            action.after(getProfile(), delta, AnyTO.class.cast(output), result);
                         }
 
                         resultStatus = Result.SUCCESS;
@@ -486,7 +604,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final boolean unlink)
             throws JobExecutionException {
 
-        if (!profile.getTask().isPerformUpdate()) {
+        if (!getProfile().getTask().isPerformUpdate()) {
             LOG.debug("PullTask not configured for update");
             finalize(unlink
                     ? MatchingRule.toEventName(MatchingRule.UNLINK)
@@ -517,7 +635,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 result.setMessage(String.format("Any '%s(%s)' not found", provision.getAnyType().getKey(), key));
             }
 
-            if (!profile.isDryRun()) {
+            if (!getProfile().isDryRun()) {
                 if (before == null) {
                     resultStatus = Result.FAILURE;
                     output = null;
@@ -526,24 +644,24 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
                     try {
                         if (unlink) {
-                            for (PullActions action : profile.getActions()) {
-                                action.beforeUnlink(profile, delta, before);
+                            for (PullActions action : getProfile().getActions()) {
+                                action.beforeUnlink(getProfile(), delta, before);
                             }
                         } else {
-                            for (PullActions action : profile.getActions()) {
-                                action.beforeLink(profile, delta, before);
+                            for (PullActions action : getProfile().getActions()) {
+                                action.beforeLink(getProfile(), delta, before);
                             }
                         }
 
                         AnyPatch patch = newPatch(before.getKey());
                         patch.getResources().add(new StringPatchItem.Builder().
                                 operation(unlink ? PatchOperation.DELETE : PatchOperation.ADD_REPLACE).
-                                value(profile.getTask().getResource().getKey()).build());
+                                value(getProfile().getTask().getResource().getKey()).build());
 
                         output = getAnyTO(update(patch).getResult());
 
-                        for (PullActions action : profile.getActions()) {
-                            action.after(profile, delta, AnyTO.class.cast(output), result);
+                        for (PullActions action : getProfile().getActions()) {
+                            action.after(getProfile(), delta, AnyTO.class.cast(output), result);
                         }
 
                         resultStatus = Result.SUCCESS;
@@ -583,7 +701,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             final Provision provision)
             throws JobExecutionException {
 
-        if (!profile.getTask().isPerformDelete()) {
+        if (!getProfile().getTask().isPerformDelete()) {
             LOG.debug("PullTask not configured for delete");
             finalize(ResourceOperation.DELETE.name().toLowerCase(), Result.SUCCESS, null, null, delta);
             return Collections.<ProvisioningReport>emptyList();
@@ -609,9 +727,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 result.setAnyType(provision.getAnyType().getKey());
                 result.setStatus(ProvisioningReport.Status.SUCCESS);
 
-                if (!profile.isDryRun()) {
-                    for (PullActions action : profile.getActions()) {
-                        workingDelta = action.beforeDelete(profile, workingDelta, before);
+                if (!getProfile().isDryRun()) {
+                    for (PullActions action : getProfile().getActions()) {
+                        workingDelta = action.beforeDelete(getProfile(), workingDelta, before);
                     }
 
                     try {
@@ -619,8 +737,8 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                         output = null;
                         resultStatus = Result.SUCCESS;
 
-                        for (PullActions action : profile.getActions()) {
-                            action.after(profile, workingDelta, before, result);
+                        for (PullActions action : getProfile().getActions()) {
+                            action.after(getProfile(), workingDelta, before, result);
                         }
                     } catch (Exception e) {
                         throwIgnoreProvisionException(delta, e);
@@ -671,9 +789,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
     }
 
     /**
-     * Look into SyncDelta and take necessary profile.getActions() (create / update / delete) on any object(s).
+     * Look into SyncDelta and take necessary getProfile().getActions() (create / update / delete) on any object(s).
      *
-     * @param delta returned by the underlying profile.getConnector()
+     * @param delta returned by the underlying getProfile().getConnector()
      * @param provision provisioning info
      * @throws JobExecutionException in case of pull failure.
      */
@@ -683,17 +801,18 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         LOG.debug("Process {} for {} as {}",
                 delta.getDeltaType(), delta.getUid().getUidValue(), delta.getObject().getObjectClass());
 
-        String uid = delta.getPreviousUid() == null
-                ? delta.getUid().getUidValue()
-                : delta.getPreviousUid().getUidValue();
+        String uid = getMatchingUid(delta);
 
         try {
-            List<String> anyKeys = pullUtils.findExisting(uid, delta.getObject(), provision, anyUtils);
+            List<String> anyKeys = prefetched.remove(uid);
+            if (anyKeys == null) {
+                anyKeys = pullUtils.findExisting(uid, delta.getObject(), provision, anyUtils);
+            }
             LOG.debug("Match(es) found for {} as {}: {}",
                     delta.getUid().getUidValue(), delta.getObject().getObjectClass(), anyKeys);
 
             if (anyKeys.size() > 1) {
-                switch (profile.getResAct()) {
+                switch (getProfile().getResAct()) {
                     case IGNORE:
                         throw new IllegalStateException("More than one match " + anyKeys);
 
@@ -712,17 +831,17 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
             if (SyncDeltaType.CREATE_OR_UPDATE == delta.getDeltaType()) {
                 if (anyKeys.isEmpty()) {
-                    switch (profile.getTask().getUnmatchingRule()) {
+                    switch (getProfile().getTask().getUnmatchingRule()) {
                         case ASSIGN:
-                            profile.getResults().addAll(assign(delta, provision, anyUtils));
+                            getProfile().getResults().addAll(assign(delta, provision, anyUtils));
                             break;
 
                         case PROVISION:
-                            profile.getResults().addAll(provision(delta, provision, anyUtils));
+                            getProfile().getResults().addAll(provision(delta, provision, anyUtils));
                             break;
 
                         case IGNORE:
-                            profile.getResults().add(ignore(delta, provision, false));
+                            getProfile().getResults().add(ignore(delta, provision, false));
                             break;
 
                         default:
@@ -750,29 +869,29 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                         }
                     }
 
-                    switch (profile.getTask().getMatchingRule()) {
+                    switch (getProfile().getTask().getMatchingRule()) {
                         case UPDATE:
-                            profile.getResults().addAll(update(delta, anyKeys, provision));
+                            getProfile().getResults().addAll(update(delta, anyKeys, provision));
                             break;
 
                         case DEPROVISION:
-                            profile.getResults().addAll(deprovision(delta, anyKeys, provision, false));
+                            getProfile().getResults().addAll(deprovision(delta, anyKeys, provision, false));
                             break;
 
                         case UNASSIGN:
-                            profile.getResults().addAll(deprovision(delta, anyKeys, provision, true));
+                            getProfile().getResults().addAll(deprovision(delta, anyKeys, provision, true));
                             break;
 
                         case LINK:
-                            profile.getResults().addAll(link(delta, anyKeys, provision, false));
+                            getProfile().getResults().addAll(link(delta, anyKeys, provision, false));
                             break;
 
                         case UNLINK:
-                            profile.getResults().addAll(link(delta, anyKeys, provision, true));
+                            getProfile().getResults().addAll(link(delta, anyKeys, provision, true));
                             break;
 
                         case IGNORE:
-                            profile.getResults().add(ignore(delta, provision, true));
+                            getProfile().getResults().add(ignore(delta, provision, true));
                             break;
 
                         default:
@@ -784,7 +903,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                     finalize(ResourceOperation.DELETE.name().toLowerCase(), Result.SUCCESS, null, null, delta);
                     LOG.debug("No match found for deletion");
                 } else {
-                    profile.getResults().addAll(delete(delta, anyKeys, provision));
+                    getProfile().getResults().addAll(delete(delta, anyKeys, provision));
                 }
             }
         } catch (IllegalStateException | IllegalArgumentException e) {
@@ -805,7 +924,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
         notificationManager.createTasks(AuditElements.EventCategoryType.PULL,
                 getAnyUtils().getAnyTypeKind().name().toLowerCase(),
-                profile.getTask().getResource().getKey(),
+                getProfile().getTask().getResource().getKey(),
                 event,
                 result,
                 before,
@@ -814,7 +933,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
         auditManager.audit(AuditElements.EventCategoryType.PULL,
                 getAnyUtils().getAnyTypeKind().name().toLowerCase(),
-                profile.getTask().getResource().getKey(),
+                getProfile().getTask().getResource().getKey(),
                 event,
                 result,
                 before,
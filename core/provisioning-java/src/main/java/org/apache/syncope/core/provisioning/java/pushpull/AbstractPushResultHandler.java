@@ -27,10 +27,13 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.syncope.common.lib.patch.AnyPatch;
 import org.apache.syncope.common.lib.patch.StringPatchItem;
 import org.apache.syncope.common.lib.to.AnyTO;
+import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
+import org.apache.syncope.common.lib.types.MappingPurpose;
 import org.apache.syncope.common.lib.types.MatchingRule;
 import org.apache.syncope.common.lib.types.PatchOperation;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
 import org.apache.syncope.core.provisioning.api.PropagationByResource;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.lib.types.UnmatchingRule;
@@ -46,6 +49,7 @@ import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.provisioning.api.MappingManager;
 import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
 import org.apache.syncope.core.provisioning.api.utils.EntityUtils;
@@ -64,6 +68,9 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
     @Autowired
     protected MappingManager mappingManager;
 
+    @Autowired
+    protected ChangeDetectionUtils changeDetectionUtils;
+
     protected abstract String getName(Any<?> any);
 
     protected void deprovision(final Any<?> any) {
@@ -194,6 +201,30 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
         Provision provision = profile.getTask().getResource().getProvision(any.getType());
         String connObjecKey = mappingManager.getConnObjectKeyValue(any, provision);
 
+        // With change detection, objects to be updated are skipped if the attributes to be sent are the same
+        // exchanged with the resource last time: neither remote read nor propagation are performed
+        String hash = null;
+        if (profile.getTask().getResource().isChangeDetection()
+                && profile.getTask().getMatchingRule() == MatchingRule.UPDATE
+                && profile.getTask().isPerformUpdate()) {
+
+            hash = ChangeDetectionUtils.hash(
+                    mappingManager.prepareAttrs(any, null, false, enabled, provision).getValue(),
+                    provision,
+                    MappingPurpose.PROPAGATION);
+            if (changeDetectionUtils.isUnchanged(anyUtils.getAnyTypeKind(), any.getKey(),
+                    profile.getTask().getResource(), MappingPurpose.PROPAGATION, hash)) {
+
+                LOG.debug("{} {} unchanged since last pull or push, skipping",
+                        anyUtils.getAnyTypeKind(), any.getKey());
+
+                result.setOperation(ResourceOperation.NONE);
+                result.setStatus(ProvisioningReport.Status.IGNORE);
+                result.setMessage("Unchanged");
+                return;
+            }
+        }
+
         ConnectorObject beforeObj = getRemoteObject(connObjecKey, provision.getObjectClass());
 
         Boolean status = profile.getTask().isSyncStatus() ? enabled : null;
@@ -268,8 +299,9 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                             }
                             if (!profile.getTask().isPerformUpdate()) {
                                 LOG.debug("PushTask not configured for update");
-                            } else {
-                                update(any);
+                            } else if (update(any) && hash != null) {
+                                changeDetectionUtils.store(any.getKey(), profile.getTask().getResource(),
+                                        MappingPurpose.PROPAGATION, hash);
                             }
 
                             break;
@@ -399,7 +431,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
         }
     }
 
-    private Any<?> update(final Any<?> any) {
+    private boolean update(final Any<?> any) {
         boolean changepwd;
         Collection<String> resourceKeys;
         if (any instanceof User) {
@@ -421,15 +453,22 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
         PropagationByResource propByRes = new PropagationByResource();
         propByRes.add(ResourceOperation.CREATE, profile.getTask().getResource().getKey());
 
-        taskExecutor.execute(propagationManager.getUpdateTasks(
+        PropagationReporter reporter = taskExecutor.execute(propagationManager.getUpdateTasks(
                 any.getType().getKind(),
                 any.getKey(),
                 changepwd,
                 null,
                 propByRes,
                 null,
-                noPropResources));
+                noPropResources), false);
 
-        return getAny(any.getKey());
+        // tell whether the object was actually updated on the resource
+        boolean propagated = false;
+        for (PropagationStatus status : reporter.getStatuses()) {
+            if (profile.getTask().getResource().getKey().equals(status.getResource())) {
+                propagated = status.getStatus() == PropagationTaskExecStatus.SUCCESS;
+            }
+        }
+        return propagated;
     }
 }
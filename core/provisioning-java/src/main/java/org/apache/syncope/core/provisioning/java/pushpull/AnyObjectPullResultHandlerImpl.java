@@ -84,7 +84,7 @@ public class AnyObjectPullResultHandlerImpl extends AbstractPullResultHandler im
         AnyObjectTO anyObjectTO = AnyObjectTO.class.cast(anyTO);
 
         Map.Entry<String, List<PropagationStatus>> created = anyObjectProvisioningManager.create(
-                anyObjectTO, Collections.singleton(profile.getTask().getResource().getKey()), true);
+                anyObjectTO, Collections.singleton(getProfile().getTask().getResource().getKey()), true);
 
         result.setKey(created.getKey());
         result.setName(getName(anyTO));
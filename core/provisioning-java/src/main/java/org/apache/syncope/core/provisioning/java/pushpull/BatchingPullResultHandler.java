@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+
+/**
+ * Collects the deltas received from the connector in batches, so that matches for each batch are looked up in bulk
+ * before passing its deltas, in the same order, to the given handler.
+ */
+public class BatchingPullResultHandler implements SyncResultsHandler {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final SyncopePullResultHandler matcher;
+
+    private final SyncResultsHandler handler;
+
+    private final List<SyncDelta> batch = new ArrayList<>(BATCH_SIZE);
+
+    private boolean stopped = false;
+
+    /**
+     * @param matcher pull result handler looking up matches
+     * @param handler handler of deltas, either the given pull result handler or a wrapper
+     */
+    public BatchingPullResultHandler(final SyncopePullResultHandler matcher, final SyncResultsHandler handler) {
+        this.matcher = matcher;
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean handle(final SyncDelta delta) {
+        if (stopped) {
+            return false;
+        }
+
+        batch.add(delta);
+        if (batch.size() >= BATCH_SIZE) {
+            flush();
+        }
+
+        return !stopped;
+    }
+
+    /**
+     * Handles the deltas collected so far; to be invoked once the connector has sent all deltas.
+     *
+     * @return whether all deltas were successfully handled
+     */
+    public boolean flush() {
+        if (!stopped && !batch.isEmpty()) {
+            boolean handled = false;
+            try {
+                matcher.prefetch(batch);
+                for (SyncDelta delta : batch) {
+                    if (!handler.handle(delta)) {
+                        stopped = true;
+                        break;
+                    }
+                }
+                handled = true;
+            } finally {
+                batch.clear();
+                // matches for deltas left unhandled would otherwise linger, and be stale on a later pull
+                if (!handled || stopped) {
+                    matcher.clearPrefetched();
+                }
+            }
+        }
+        batch.clear();
+
+        return !stopped;
+    }
+}
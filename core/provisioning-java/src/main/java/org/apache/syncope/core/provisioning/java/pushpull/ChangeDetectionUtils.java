@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.MappingPurpose;
+import org.apache.syncope.core.persistence.api.dao.ProvisionHashDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.identityconnectors.common.security.GuardedByteArray;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.OperationalAttributes;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Change detection for pull and push, enabled per resource: the content hash of the mapped attributes exchanged for
+ * each entity is stored, and objects whose hash did not change since are skipped.
+ * <p>
+ * A hash is stored for each direction, each covering the attributes mapped for that direction: the name and the
+ * attributes mapped for {@link MappingPurpose#PULL} or {@link MappingPurpose#BOTH} for attributes read during pull,
+ * those mapped for {@link MappingPurpose#PROPAGATION} or {@link MappingPurpose#BOTH} for attributes sent during push.
+ */
+@Component
+public class ChangeDetectionUtils {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private ProvisionHashDAO provisionHashDAO;
+
+    private static String toString(final Object value) {
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            char[] chars = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+                chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+            }
+            return new String(chars);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Computes the content hash of the given attributes: the result does not depend on the ordering of attributes
+     * and values, nor on the case of attribute names; {@link Uid} and password are not considered, as well as
+     * guarded values in general and attributes without values.
+     *
+     * @param attrs attributes, as read from or to be sent to an external resource
+     * @return content hash
+     */
+    public static String hash(final Collection<Attribute> attrs) {
+        Map<String, List<String>> sorted = new TreeMap<>();
+        for (Attribute attr : attrs) {
+            if (!Uid.NAME.equals(attr.getName()) && !OperationalAttributes.PASSWORD_NAME.equals(attr.getName())
+                    && attr.getValue() != null) {
+
+                List<String> values = new ArrayList<>();
+                for (Object value : attr.getValue()) {
+                    if (value != null && !(value instanceof GuardedString) && !(value instanceof GuardedByteArray)) {
+                        values.add(toString(value));
+                    }
+                }
+                if (!values.isEmpty()) {
+                    Collections.sort(values);
+                    sorted.put(attr.getName().toLowerCase(), values);
+                }
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, List<String>> entry : sorted.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            for (String value : entry.getValue()) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) '\n');
+        }
+        return toString(digest.digest());
+    }
+
+    /**
+     * Computes the content hash of the given attributes, only considering the name and the attributes mapped by the
+     * given provision for the given direction, so that changes to any of them are detected.
+     *
+     * @param attrs attributes, as read from or to be sent to an external resource
+     * @param provision provision
+     * @param direction {@link MappingPurpose#PULL} for attributes read during pull,
+     * {@link MappingPurpose#PROPAGATION} for attributes to be sent during push
+     * @return content hash
+     */
+    public static String hash(
+            final Collection<Attribute> attrs, final Provision provision, final MappingPurpose direction) {
+
+        Set<String> names = new HashSet<>();
+        names.add(Name.NAME.toLowerCase());
+        if (provision.getMapping() != null) {
+            for (MappingItem item : provision.getMapping().getItems()) {
+                if ((item.getPurpose() == direction || item.getPurpose() == MappingPurpose.BOTH)
+                        && item.getExtAttrName() != null) {
+
+                    names.add(item.getExtAttrName().toLowerCase());
+                }
+            }
+        }
+
+        List<Attribute> canonical = new ArrayList<>();
+        for (Attribute attr : attrs) {
+            if (names.contains(attr.getName().toLowerCase())) {
+                canonical.add(attr);
+            }
+        }
+        return hash(canonical);
+    }
+
+    /**
+     * @param kind any type kind
+     * @param anyKey entity key
+     * @param resource external resource
+     * @param direction {@link MappingPurpose#PULL} or {@link MappingPurpose#PROPAGATION}
+     * @param hash content hash of the mapped attributes, as computed by {@link #hash(java.util.Collection,
+     * org.apache.syncope.core.persistence.api.entity.resource.Provision, MappingPurpose)} for the same direction
+     * @return whether change detection is enabled on the given resource and the given hash matches the one stored
+     * for the entity, still assigned to the resource, and direction
+     */
+    public boolean isUnchanged(
+            final AnyTypeKind kind,
+            final String anyKey,
+            final ExternalResource resource,
+            final MappingPurpose direction,
+            final String hash) {
+
+        return resource.isChangeDetection()
+                && hash.equals(provisionHashDAO.find(kind, anyKey, resource.getKey(), direction));
+    }
+
+    public void store(
+            final String anyKey, final ExternalResource resource, final MappingPurpose direction, final String hash) {
+
+        if (resource.isChangeDetection()) {
+            provisionHashDAO.save(anyKey, resource.getKey(), direction, hash);
+        }
+    }
+}
@@ -40,7 +40,7 @@ import org.apache.syncope.core.provisioning.api.pushpull.GroupPullResultHandler;
 
 public class GroupPullResultHandlerImpl extends AbstractPullResultHandler implements GroupPullResultHandler {
 
-    protected final Map<String, String> groupOwnerMap = new HashMap<>();
+    protected final Map<String, String> groupOwnerMap = Collections.synchronizedMap(new HashMap<String, String>());
 
     @Override
     public Map<String, String> getGroupOwnerMap() {
@@ -96,7 +96,7 @@ public class GroupPullResultHandlerImpl extends AbstractPullResultHandler implem
         Map.Entry<String, List<PropagationStatus>> created = groupProvisioningManager.create(
                 groupTO,
                 groupOwnerMap,
-                Collections.singleton(profile.getTask().getResource().getKey()),
+                Collections.singleton(getProfile().getTask().getResource().getKey()),
                 true);
 
         result.setKey(created.getKey());
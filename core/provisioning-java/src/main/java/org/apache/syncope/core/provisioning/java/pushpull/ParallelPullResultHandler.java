@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Dispatches the deltas received from the connector to a fixed number of partitions, each processed by its own
+ * thread through a bounded queue: deltas are partitioned by remote object key, so that deltas about the same object are
+ * always handled in order, while the connector is slowed down when all queues are full.
+ */
+public class ParallelPullResultHandler implements SyncResultsHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelPullResultHandler.class);
+
+    private static final int QUEUE_CAPACITY = 100;
+
+    private final SyncResultsHandler handler;
+
+    private final List<ThreadPoolExecutor> partitions;
+
+    private final Authentication auth;
+
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    public ParallelPullResultHandler(final SyncResultsHandler handler, final String name, final int concurrency) {
+        this.handler = handler;
+        this.auth = SecurityContextHolder.getContext().getAuthentication();
+
+        RejectedExecutionHandler backpressure = new RejectedExecutionHandler() {
+
+            @Override
+            public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+                if (executor.isShutdown()) {
+                    throw new RejectedExecutionException("Pull already completed");
+                }
+                try {
+                    executor.getQueue().put(runnable);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException(e);
+                }
+            }
+        };
+
+        partitions = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            final String threadName = "pull-" + name + "-" + i;
+            ThreadFactory threadFactory = new ThreadFactory() {
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    return new Thread(runnable, threadName);
+                }
+            };
+
+            partitions.add(new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                    threadFactory,
+                    backpressure));
+        }
+    }
+
+    private int partition(final SyncDelta delta) {
+        String key = delta.getUid() == null ? null : delta.getUid().getUidValue();
+        return key == null ? 0 : (key.hashCode() & Integer.MAX_VALUE) % partitions.size();
+    }
+
+    @Override
+    public boolean handle(final SyncDelta delta) {
+        if (stopped.get()) {
+            return false;
+        }
+
+        partitions.get(partition(delta)).execute(new Runnable() {
+
+            @Override
+            public void run() {
+                if (stopped.get()) {
+                    return;
+                }
+
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                try {
+                    if (!handler.handle(delta)) {
+                        stopped.set(true);
+                    }
+                } catch (Throwable t) {
+                    LOG.error("While handling {}", delta, t);
+                    error.compareAndSet(null, t);
+                    stopped.set(true);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Waits for all received deltas to be handled.
+     *
+     * @throws JobExecutionException if handling any delta raised an error
+     */
+    public void await() throws JobExecutionException {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor partition : partitions) {
+                while (!partition.awaitTermination(1, TimeUnit.MINUTES)) {
+                    LOG.debug("Still waiting for {} deltas to be handled", partition.getQueue().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while waiting for pull to complete", e);
+        }
+
+        if (error.get() != null) {
+            throw new JobExecutionException("While pulling from connector", error.get());
+        }
+    }
+
+    /**
+     * Discards any delta not yet handled and terminates all threads.
+     */
+    public void abort() {
+        stopped.set(true);
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the sync token of the latest delta fully processed by incremental pulls, every given number of deltas or
+ * seconds, so that interrupted or failed pulls can resume from there.
+ * For a checkpoint to only cover committed work, incremental pulls handle each delta in its own transaction, via
+ * {@link #handle(SyncResultsHandler, SyncDelta)}; reconciliations are not affected.
+ */
+public class PullCheckpointer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PullCheckpointer.class);
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    private int deltas = 1000;
+
+    private long interval = 60;
+
+    public int getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(final int deltas) {
+        this.deltas = deltas;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * @param processed number of deltas processed since the latest checkpoint
+     * @param lastCheckpoint time of the latest checkpoint
+     * @return whether a checkpoint is due
+     */
+    public boolean isDue(final int processed, final long lastCheckpoint) {
+        return (deltas > 0 && processed >= deltas)
+                || (interval > 0 && System.currentTimeMillis() - lastCheckpoint >= interval * 1000);
+    }
+
+    /**
+     * Handles the given delta in its own transaction.
+     *
+     * @param handler pull result handler
+     * @param delta delta
+     * @return whether the pull shall go on, as reported by the given handler
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
+    public boolean handle(final SyncResultsHandler handler, final SyncDelta delta) {
+        return handler.handle(delta);
+    }
+
+    /**
+     * Stores the given sync token, in its own transaction.
+     *
+     * @param resource external resource key
+     * @param objectClass object class of the organizational unit or provision being pulled
+     * @param token sync token of the latest delta fully processed
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void checkpoint(final String resource, final ObjectClass objectClass, final SyncToken token) {
+        ExternalResource externalResource = resourceDAO.find(resource);
+        if (externalResource == null) {
+            LOG.warn("Resource {} not found, cannot store sync token for {}", resource, objectClass);
+            return;
+        }
+
+        if (externalResource.getOrgUnit() != null
+                && objectClass.equals(externalResource.getOrgUnit().getObjectClass())) {
+
+            externalResource.getOrgUnit().setSyncToken(token);
+        } else {
+            Provision provision = externalResource.getProvision(objectClass);
+            if (provision == null) {
+                LOG.warn("No provision found on {} for {}, cannot store sync token", resource, objectClass);
+                return;
+            }
+            provision.setSyncToken(token);
+        }
+        resourceDAO.save(externalResource);
+
+        LOG.debug("Sync token for {} on {} set to {}", objectClass, resource, token);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.policy.PullPolicySpec;
+import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
@@ -55,6 +56,8 @@ import org.apache.syncope.core.provisioning.api.pushpull.UserPullResultHandler;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
 import org.identityconnectors.framework.common.objects.SyncToken;
 
 public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> implements SyncopePullExecutor {
@@ -71,11 +74,39 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
     @Autowired
     private PullUtils pullUtils;
 
+    @Autowired
+    private PullCheckpointer checkpointer;
+
     private final Map<ObjectClass, SyncToken> latestSyncTokens = new HashMap<>();
 
+    private String checkpointResource;
+
+    private int processed;
+
+    private long lastCheckpoint;
+
     @Override
     public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
-        latestSyncTokens.put(objectClass, latestSyncToken);
+        // the delta which brought the previous token was fully processed, within its own transaction
+        SyncToken processedSyncToken = latestSyncTokens.put(objectClass, latestSyncToken);
+
+        if (checkpointResource != null && processedSyncToken != null
+                && checkpointer.isDue(++processed, lastCheckpoint)) {
+
+            checkpointer.checkpoint(checkpointResource, objectClass, processedSyncToken);
+            processed = 0;
+            lastCheckpoint = System.currentTimeMillis();
+        }
+    }
+
+    private SyncResultsHandler inOwnTransaction(final SyncResultsHandler handler) {
+        return new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                return checkpointer.handle(handler, delta);
+            }
+        };
     }
 
     private void setGroupOwners(final GroupPullResultHandler ghandler) {
@@ -114,6 +145,56 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
         }
     }
 
+    private void reconcile(
+            final Connector connector,
+            final ObjectClass objectClass,
+            final ReconciliationFilterBuilder filterBuilder,
+            final SyncResultsHandler handler,
+            final OperationOptions options) {
+
+        if (filterBuilder == null) {
+            connector.fullReconciliation(objectClass, handler, options);
+        } else {
+            connector.filteredReconciliation(objectClass, filterBuilder, handler, options);
+        }
+    }
+
+    private void reconcile(
+            final Connector connector,
+            final ObjectClass objectClass,
+            final ReconciliationFilterBuilder filterBuilder,
+            final SyncopePullResultHandler handler,
+            final OperationOptions options,
+            final int concurrency) throws JobExecutionException {
+
+        if (concurrency <= 1) {
+            BatchingPullResultHandler batching = new BatchingPullResultHandler(handler, handler);
+            reconcile(connector, objectClass, filterBuilder, batching, options);
+            batching.flush();
+            return;
+        }
+
+        handler.setConcurrent(true);
+        ParallelPullResultHandler parallel = new ParallelPullResultHandler(
+                handler, objectClass.getObjectClassValue(), concurrency);
+        boolean received = false;
+        try {
+            BatchingPullResultHandler batching = new BatchingPullResultHandler(handler, parallel);
+            reconcile(connector, objectClass, filterBuilder, batching, options);
+            batching.flush();
+            received = true;
+        } finally {
+            if (!received) {
+                parallel.abort();
+            }
+        }
+        try {
+            parallel.await();
+        } finally {
+            handler.setConcurrent(false);
+        }
+    }
+
     @Override
     protected String doExecuteProvisioning(
             final PullTask pullTask,
@@ -141,6 +222,11 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
         profile.setResAct(getPullPolicySpec(pullTask).getConflictResolutionAction());
 
         latestSyncTokens.clear();
+        checkpointResource = !dryRun && pullTask.getPullMode() == PullMode.INCREMENTAL
+                ? pullTask.getResource().getKey()
+                : null;
+        processed = 0;
+        lastCheckpoint = System.currentTimeMillis();
 
         if (!profile.isDryRun()) {
             for (PullActions action : actions) {
@@ -165,7 +251,7 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                         connector.sync(
                                 orgUnit.getObjectClass(),
                                 orgUnit.getSyncToken(),
-                                rhandler,
+                                inOwnTransaction(rhandler),
                                 options);
                         if (!dryRun) {
                             orgUnit.setSyncToken(latestSyncTokens.get(orgUnit.getObjectClass()));
@@ -241,11 +327,14 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
 
                     switch (pullTask.getPullMode()) {
                         case INCREMENTAL:
+                            BatchingPullResultHandler batching =
+                                    new BatchingPullResultHandler(handler, inOwnTransaction(handler));
                             connector.sync(
                                     provision.getObjectClass(),
                                     provision.getSyncToken(),
-                                    handler,
+                                    batching,
                                     options);
+                            batching.flush();
                             if (!dryRun) {
                                 provision.setSyncToken(latestSyncTokens.get(provision.getObjectClass()));
                                 resourceDAO.save(provision.getResource());
@@ -257,17 +346,22 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                                     (ReconciliationFilterBuilder) ApplicationContextProvider.getBeanFactory().
                                     createBean(Class.forName(pullTask.getReconciliationFilterBuilderClassName()),
                                             AbstractBeanDefinition.AUTOWIRE_BY_NAME, false);
-                            connector.filteredReconciliation(provision.getObjectClass(),
+                            reconcile(connector,
+                                    provision.getObjectClass(),
                                     filterBuilder,
                                     handler,
-                                    options);
+                                    options,
+                                    pullTask.getConcurrency());
                             break;
 
                         case FULL_RECONCILIATION:
                         default:
-                            connector.fullReconciliation(provision.getObjectClass(),
+                            reconcile(connector,
+                                    provision.getObjectClass(),
+                                    null,
                                     handler,
-                                    options);
+                                    options,
+                                    pullTask.getConcurrency());
                             break;
                     }
                 } catch (Throwable t) {
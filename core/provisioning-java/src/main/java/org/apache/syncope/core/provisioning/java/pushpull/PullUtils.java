@@ -19,8 +19,11 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.policy.PullPolicySpec;
@@ -168,13 +171,7 @@ public class PullUtils {
                         : groupDAO;
     }
 
-    private List<String> findByConnObjectKeyItem(
-            final String uid, final Provision provision, final AnyUtils anyUtils) {
-
-        List<String> result = new ArrayList<>();
-
-        MappingItem connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
-
+    private String transformUid(final MappingItem connObjectKeyItem, final String uid) {
         String transfUid = uid;
         for (MappingItemTransformer transformer : MappingUtils.getMappingItemTransformers(connObjectKeyItem)) {
             List<Object> output = transformer.beforePull(
@@ -185,6 +182,17 @@ public class PullUtils {
                 transfUid = output.get(0).toString();
             }
         }
+        return transfUid;
+    }
+
+    private List<String> findByConnObjectKeyItem(
+            final String uid, final Provision provision, final AnyUtils anyUtils) {
+
+        List<String> result = new ArrayList<>();
+
+        MappingItem connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
+
+        String transfUid = transformUid(connObjectKeyItem, uid);
 
         IntAttrName intAttrName = intAttrNameParser.parse(
                 connObjectKeyItem.getIntAttrName(),
@@ -323,6 +331,91 @@ public class PullUtils {
         }
     }
 
+    /**
+     * Find any objects based on mapped uid values, with as few queries as possible; this is only available when no
+     * correlation rule is defined and the connObjectKey is mapped to key, username or name.
+     *
+     * @param uids for finding by connObjectKey
+     * @param provision external resource
+     * @param anyUtils any util
+     * @return list of matching users / groups for each given uid, or null if bulk lookup is not available
+     */
+    public Map<String, List<String>> findExisting(
+            final Collection<String> uids,
+            final Provision provision,
+            final AnyUtils anyUtils) {
+
+        PullPolicySpec pullPolicySpec = provision.getResource().getPullPolicy() == null
+                ? null
+                : provision.getResource().getPullPolicy().getSpecification();
+        if (pullPolicySpec != null && getCorrelationRule(provision, pullPolicySpec) != null) {
+            return null;
+        }
+
+        MappingItem connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
+        IntAttrName intAttrName = intAttrNameParser.parse(
+                connObjectKeyItem.getIntAttrName(),
+                provision.getAnyType().getKind());
+        if (intAttrName.getField() == null) {
+            return null;
+        }
+
+        try {
+            Map<String, String> transfUids = new HashMap<>(uids.size());
+            for (String uid : uids) {
+                transfUids.put(uid, transformUid(connObjectKeyItem, uid));
+            }
+
+            Map<String, List<String>> found = new HashMap<>();
+            switch (intAttrName.getField()) {
+                case "key":
+                    for (Any<?> any : getAnyDAO(provision.getAnyType().getKind()).findByKeys(transfUids.values())) {
+                        add(found, any.getKey(), any.getKey());
+                    }
+                    break;
+
+                case "username":
+                    for (Map.Entry<String, String> entry
+                            : userDAO.findKeysByUsernames(transfUids.values()).entrySet()) {
+
+                        add(found, entry.getKey(), entry.getValue());
+                    }
+                    break;
+
+                case "name":
+                    Map<String, String> keysByName = provision.getAnyType().getKind() == AnyTypeKind.GROUP
+                            ? groupDAO.findKeysByNames(transfUids.values())
+                            : anyObjectDAO.findKeysByNames(provision.getAnyType(), transfUids.values());
+                    for (Map.Entry<String, String> entry : keysByName.entrySet()) {
+                        add(found, entry.getKey(), entry.getValue());
+                    }
+                    break;
+
+                default:
+                    return null;
+            }
+
+            Map<String, List<String>> result = new HashMap<>(uids.size());
+            for (Map.Entry<String, String> entry : transfUids.entrySet()) {
+                List<String> anyKeys = found.get(entry.getValue());
+                result.put(entry.getKey(), anyKeys == null ? new ArrayList<String>() : new ArrayList<>(anyKeys));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            LOG.error("While finding matches for {}", uids, e);
+            return null;
+        }
+    }
+
+    private static void add(final Map<String, List<String>> found, final String value, final String anyKey) {
+        List<String> anyKeys = found.get(value);
+        if (anyKeys == null) {
+            anyKeys = new ArrayList<>();
+            found.put(value, anyKeys);
+        }
+        anyKeys.add(anyKey);
+    }
+
     public Boolean readEnabled(final ConnectorObject connectorObject, final ProvisioningTask task) {
         Boolean enabled = null;
         if (task.isSyncStatus()) {
@@ -19,21 +19,16 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
-import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
-import org.apache.syncope.core.persistence.api.dao.AnyDAO;
-import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
-import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
-import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
-import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
@@ -51,13 +46,7 @@ import org.springframework.beans.factory.support.AbstractBeanDefinition;
 
 public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
-    private static final int PAGE_SIZE = 1000;
-
-    /**
-     * User DAO.
-     */
-    @Autowired
-    private UserDAO userDAO;
+    private static final int CHUNK_SIZE = 1000;
 
     /**
      * Search DAO.
@@ -65,49 +54,30 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
     @Autowired
     private AnySearchDAO searchDAO;
 
-    /**
-     * Group DAO.
-     */
-    @Autowired
-    private GroupDAO groupDAO;
-
-    @Autowired
-    private AnyObjectDAO anyObjectDAO;
-
     @Autowired
     private RealmDAO realmDAO;
 
-    private AnyDAO<?> getAnyDAO(final AnyTypeKind anyTypeKind) {
-        AnyDAO<?> result;
-        switch (anyTypeKind) {
-            case USER:
-                result = userDAO;
-                break;
-
-            case GROUP:
-                result = groupDAO;
-                break;
-
-            case ANY_OBJECT:
-            default:
-                result = anyObjectDAO;
-        }
-
-        return result;
-    }
-
+    /**
+     * Pushes the given any objects, one by one: each is read and pushed by the handler in its own transaction, so
+     * that nothing piles up in the persistence context of the job while iterating over the matching keys.
+     *
+     * @param anyKeys keys of the any objects to push
+     * @param handler push handler
+     * @param resource external resource
+     * @throws JobExecutionException if any push fails
+     */
     private void doHandle(
-            final List<? extends Any<?>> anys,
+            final Iterable<String> anyKeys,
             final SyncopePushResultHandler handler,
             final ExternalResource resource)
             throws JobExecutionException {
 
-        for (Any<?> any : anys) {
+        for (String anyKey : anyKeys) {
             try {
-                handler.handle(any.getKey());
+                handler.handle(anyKey);
             } catch (Exception e) {
-                LOG.warn("Failure pushing '{}' on '{}'", any, resource, e);
-                throw new JobExecutionException("While pushing " + any + " on " + resource, e);
+                LOG.warn("Failure pushing '{}' on '{}'", anyKey, resource, e);
+                throw new JobExecutionException("While pushing " + anyKey + " on " + resource, e);
             }
         }
     }
@@ -179,44 +149,46 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
                 createBean(GroupPushResultHandlerImpl.class, AbstractBeanDefinition.AUTOWIRE_BY_NAME, false);
         ghandler.setProfile(profile);
 
+        List<Provision> provisions = new ArrayList<>();
         for (Provision provision : pushTask.getResource().getProvisions()) {
             if (provision.getMapping() != null) {
-                AnyDAO<?> anyDAO = getAnyDAO(provision.getAnyType().getKind());
+                provisions.add(provision);
+            }
+        }
 
-                SyncopePushResultHandler handler;
-                switch (provision.getAnyType().getKind()) {
-                    case USER:
-                        handler = uhandler;
-                        break;
+        for (Provision provision : provisions) {
+            SyncopePushResultHandler handler;
+            switch (provision.getAnyType().getKind()) {
+                case USER:
+                    handler = uhandler;
+                    break;
 
-                    case GROUP:
-                        handler = ghandler;
-                        break;
+                case GROUP:
+                    handler = ghandler;
+                    break;
 
-                    case ANY_OBJECT:
-                    default:
-                        handler = ahandler;
-                }
+                case ANY_OBJECT:
+                default:
+                    handler = ahandler;
+            }
 
-                String filter = pushTask.getFilter(provision.getAnyType()) == null
-                        ? null
-                        : pushTask.getFilter(provision.getAnyType()).getFIQLCond();
-                if (StringUtils.isBlank(filter)) {
-                    doHandle(anyDAO.findAll(), handler, pushTask.getResource());
-                } else {
-                    int count = anyDAO.count(SyncopeConstants.FULL_ADMIN_REALMS);
-                    for (int page = 1; page <= (count / PAGE_SIZE) + 1; page++) {
-                        List<? extends Any<?>> anys = searchDAO.search(
-                                SyncopeConstants.FULL_ADMIN_REALMS,
-                                SearchCondConverter.convert(filter),
-                                page,
-                                PAGE_SIZE,
-                                Collections.<OrderByClause>emptyList(),
-                                provision.getAnyType().getKind());
-                        doHandle(anys, handler, pushTask.getResource());
-                    }
-                }
+            String filter = pushTask.getFilter(provision.getAnyType()) == null
+                    ? null
+                    : pushTask.getFilter(provision.getAnyType()).getFIQLCond();
+            SearchCond cond;
+            if (StringUtils.isBlank(filter)) {
+                AnyCond keyCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
+                keyCond.setSchema("key");
+                cond = SearchCond.getLeafCond(keyCond);
+            } else {
+                cond = SearchCondConverter.convert(filter);
             }
+
+            doHandle(
+                    searchDAO.searchKeys(
+                            SyncopeConstants.FULL_ADMIN_REALMS, cond, CHUNK_SIZE, provision.getAnyType().getKind()),
+                    handler,
+                    pushTask.getResource());
         }
 
         if (!profile.isDryRun()) {
@@ -78,6 +78,23 @@ public class RealmPullResultHandlerImpl
         this.executor = executor;
     }
 
+    @Override
+    public void prefetch(final List<SyncDelta> deltas) {
+        // realms are matched one at a time
+    }
+
+    @Override
+    public void clearPrefetched() {
+        // nothing to clear
+    }
+
+    @Override
+    public void setConcurrent(final boolean concurrent) {
+        if (concurrent) {
+            throw new UnsupportedOperationException("Realms are pulled one at a time");
+        }
+    }
+
     @Override
     public boolean handle(final SyncDelta delta) {
         try {
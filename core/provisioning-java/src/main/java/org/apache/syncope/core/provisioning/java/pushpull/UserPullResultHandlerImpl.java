@@ -86,10 +86,10 @@ public class UserPullResultHandlerImpl extends AbstractPullResultHandler impleme
     protected AnyTO doCreate(final AnyTO anyTO, final SyncDelta delta, final ProvisioningReport result) {
         UserTO userTO = UserTO.class.cast(anyTO);
 
-        Boolean enabled = pullUtils.readEnabled(delta.getObject(), profile.getTask());
+        Boolean enabled = pullUtils.readEnabled(delta.getObject(), getProfile().getTask());
         Map.Entry<String, List<PropagationStatus>> created =
                 userProvisioningManager.create(userTO, true, true, enabled,
-                        Collections.singleton(profile.getTask().getResource().getKey()), true);
+                        Collections.singleton(getProfile().getTask().getResource().getKey()), true);
 
         result.setKey(created.getKey());
         result.setName(getName(anyTO));
@@ -105,13 +105,13 @@ public class UserPullResultHandlerImpl extends AbstractPullResultHandler impleme
             final ProvisioningReport result) {
 
         UserPatch userPatch = UserPatch.class.cast(anyPatch);
-        Boolean enabled = pullUtils.readEnabled(delta.getObject(), profile.getTask());
+        Boolean enabled = pullUtils.readEnabled(delta.getObject(), getProfile().getTask());
 
         Map.Entry<String, List<PropagationStatus>> updated = userProvisioningManager.update(
                 userPatch,
                 result,
                 enabled,
-                Collections.singleton(profile.getTask().getResource().getKey()),
+                Collections.singleton(getProfile().getTask().getResource().getKey()),
                 true);
 
         return getAnyTO(updated.getKey());
@@ -121,7 +121,7 @@ public class UserPullResultHandlerImpl extends AbstractPullResultHandler impleme
     protected void doDelete(final AnyTypeKind kind, final String key) {
         try {
             userProvisioningManager.delete(
-                    key, Collections.<String>singleton(profile.getTask().getResource().getKey()), true);
+                    key, Collections.<String>singleton(getProfile().getTask().getResource().getKey()), true);
         } catch (Exception e) {
             // A propagation failure doesn't imply a pull failure.
             // The propagation exception status will be reported into the propagation task execution.
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+public class ConnectorBulkheadTest {
+
+    @Test
+    public void saturation() throws InterruptedException {
+        ConnectorBulkhead bulkhead = new ConnectorBulkhead("Master", "conn", 1, 1, false);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            Callable<Void> slow = new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return null;
+                }
+            };
+
+            bulkhead.getExecutor().submit(slow);
+            started.await(10, TimeUnit.SECONDS);
+            bulkhead.getExecutor().submit(slow);
+
+            assertEquals(1, bulkhead.getPoolSize());
+            assertEquals(1, bulkhead.getActiveCount());
+            assertEquals(1, bulkhead.getQueueSize());
+            assertEquals(1, bulkhead.getQueueCapacity());
+
+            try {
+                bulkhead.getExecutor().submit(slow);
+                fail();
+            } catch (TaskRejectedException e) {
+                assertEquals(1, bulkhead.getRejected());
+            }
+
+            release.countDown();
+
+            bulkhead.resize(3);
+            assertEquals(3, bulkhead.getPoolSize());
+        } finally {
+            bulkhead.shutdown();
+        }
+    }
+}
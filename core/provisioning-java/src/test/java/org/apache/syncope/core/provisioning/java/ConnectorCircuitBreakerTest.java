@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.syncope.common.lib.types.CircuitBreakerState;
+import org.apache.syncope.core.provisioning.api.ConnectorUnavailableException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectorCircuitBreakerTest {
+
+    private ConnectorCircuitBreakerRegistry conf;
+
+    @Before
+    public void before() {
+        conf = new ConnectorCircuitBreakerRegistry();
+        conf.setWindowSize(10);
+        conf.setMinCalls(4);
+        conf.setFailureRate(50);
+        conf.setOpenDuration(0);
+        conf.setTimeoutPercentile(50);
+        conf.setTimeoutFactor(2);
+        conf.setMinTimeout(10);
+    }
+
+    @Test
+    public void openAndClose() {
+        ConnectorCircuitBreaker breaker = new ConnectorCircuitBreaker("conn", conf);
+
+        breaker.acquire();
+        breaker.onSuccess("getObject", 5);
+        breaker.acquire();
+        breaker.onFailure();
+        breaker.acquire();
+        breaker.onSuccess("getObject", 5);
+        assertEquals(CircuitBreakerState.CLOSED, breaker.getState());
+
+        breaker.acquire();
+        breaker.onFailure();
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+
+        // open duration elapsed: a single probe is let through
+        breaker.acquire();
+        assertEquals(CircuitBreakerState.HALF_OPEN, breaker.getState());
+        conf.setOpenDuration(60);
+        try {
+            breaker.acquire();
+            fail();
+        } catch (ConnectorUnavailableException e) {
+            assertTrue(e.getMessage().contains("conn"));
+        }
+
+        // failed probe opens the circuit again
+        breaker.onFailure();
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+        assertTrue(breaker.retryAfter() > 0);
+        try {
+            breaker.acquire();
+            fail();
+        } catch (ConnectorUnavailableException e) {
+            assertTrue(e.getMessage().contains("conn"));
+        }
+
+        // successful probe closes the circuit
+        conf.setOpenDuration(0);
+        breaker.acquire();
+        breaker.onSuccess("getObject", 5);
+        assertEquals(CircuitBreakerState.CLOSED, breaker.getState());
+        assertEquals(0, breaker.retryAfter());
+    }
+
+    @Test
+    public void slowCalls() {
+        conf.setSlowCallDuration(100);
+        ConnectorCircuitBreaker breaker = new ConnectorCircuitBreaker("conn", conf);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire();
+            breaker.onSuccess("getObject", i % 2 == 0 ? 5 : 500);
+        }
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void adaptiveTimeout() {
+        ConnectorCircuitBreaker breaker = new ConnectorCircuitBreaker("conn", conf);
+        for (long latency : new long[] { 100, 200, 300, 400 }) {
+            breaker.acquire();
+            breaker.onSuccess("getObject", latency);
+        }
+
+        // not enabled by default
+        assertEquals(30000, breaker.getTimeout("getObject", 30));
+
+        conf.setAdaptiveTimeout(true);
+        assertEquals(400, breaker.getTimeout("getObject", 30));
+
+        // latencies are only considered for the operation they were observed for
+        assertEquals(30000, breaker.getTimeout("create", 30));
+        for (long latency : new long[] { 1000, 2000, 3000 }) {
+            breaker.acquire();
+            breaker.onSuccess("create", latency);
+        }
+        assertEquals(30000, breaker.getTimeout("create", 30));
+        breaker.acquire();
+        breaker.onSuccess("create", 4000);
+        assertEquals(4000, breaker.getTimeout("create", 30));
+        assertEquals(400, breaker.getTimeout("getObject", 30));
+
+        assertEquals(2, breaker.getInfo(30).getTimeouts().size());
+        assertEquals(Long.valueOf(4000), breaker.getInfo(30).getTimeouts().get("create"));
+        assertEquals(30000, breaker.getInfo(30).getTimeout());
+
+        conf.setAdaptiveTimeout(false);
+        assertEquals(30000, breaker.getTimeout("getObject", 30));
+        assertTrue(breaker.getInfo(30).getTimeouts().isEmpty());
+    }
+}
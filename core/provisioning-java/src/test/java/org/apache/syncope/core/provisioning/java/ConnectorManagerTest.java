@@ -42,11 +42,23 @@ public class ConnectorManagerTest extends AbstractTest {
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private ConnectorCircuitBreakerRegistry breakers;
+
+    @Autowired
+    private ConnectorMetricsRegistry metrics;
+
+    @Autowired
+    private ConnectorBulkheadRegistry bulkheads;
+
     @Before
     public void before() {
         connManager = new ConnectorManager();
         ReflectionTestUtils.setField(connManager, "connIdBundleManager", connIdBundleManager);
         ReflectionTestUtils.setField(connManager, "resourceDAO", resourceDAO);
+        ReflectionTestUtils.setField(connManager, "breakers", breakers);
+        ReflectionTestUtils.setField(connManager, "metrics", metrics);
+        ReflectionTestUtils.setField(connManager, "bulkheads", bulkheads);
 
         // Remove any other connector instance bean set up by standard ConnectorManager.load()
         connManager.unload();
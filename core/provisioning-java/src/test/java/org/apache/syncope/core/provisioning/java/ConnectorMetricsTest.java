@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
+import org.junit.Test;
+
+public class ConnectorMetricsTest {
+
+    @Test
+    public void record() {
+        ConnectorMetricsRegistry registry = new ConnectorMetricsRegistry();
+        registry.setReservoirSize(100);
+
+        ConnectorMetrics metrics = registry.register("Master", "conn");
+        for (int i = 1; i <= 200; i++) {
+            metrics.record("getObject", i, i % 10 == 0);
+        }
+        metrics.record("create", 42, false);
+
+        ConnectorMetricsInfo info = metrics.getInfo();
+        assertEquals("conn", info.getConnector());
+        assertEquals(2, info.getOperations().size());
+
+        ConnectorMetricsInfo.OperationStats create = info.getOperations().get(0);
+        assertEquals("create", create.getOperation());
+        assertEquals(1, create.getCount());
+        assertEquals(42, create.getP99());
+
+        // percentiles are computed over the latest 100 calls only
+        ConnectorMetricsInfo.OperationStats getObject = info.getOperations().get(1);
+        assertEquals("getObject", getObject.getOperation());
+        assertEquals(200, getObject.getCount());
+        assertEquals(20, getObject.getErrors());
+        assertEquals(200, getObject.getLastMinute());
+        assertEquals(150, getObject.getP50());
+        assertEquals(195, getObject.getP95());
+        assertEquals(199, getObject.getP99());
+        assertEquals(200, getObject.getMax());
+
+        assertEquals(1, registry.getAll("Master").size());
+        assertEquals(0, registry.getAll("Two").size());
+    }
+}
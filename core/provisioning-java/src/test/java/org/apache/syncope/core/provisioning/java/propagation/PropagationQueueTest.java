@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class PropagationQueueTest extends AbstractTest {
+
+    /**
+     * Records the batches of tasks it is asked to execute, failing those whose key was given.
+     */
+    private class RecordingExecutor extends PriorityPropagationTaskExecutor {
+
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+
+        private final Set<String> failing = Collections.synchronizedSet(new HashSet<String>());
+
+        @Override
+        protected List<TaskExec> executeBatch(final List<PropagationTask> tasks, final PropagationReporter reporter) {
+            List<String> batch = new ArrayList<>(tasks.size());
+            List<TaskExec> executions = new ArrayList<>(tasks.size());
+            for (PropagationTask task : tasks) {
+                batch.add(task.getKey());
+
+                TaskExec execution = entityFactory.newEntity(TaskExec.class);
+                execution.setStatus(failing.contains(task.getKey())
+                        ? PropagationTaskExecStatus.FAILURE.name()
+                        : PropagationTaskExecStatus.SUCCESS.name());
+                executions.add(execution);
+            }
+            batches.add(batch);
+            return executions;
+        }
+
+        public List<String> executed() {
+            List<String> executed = new ArrayList<>();
+            synchronized (batches) {
+                for (List<String> batch : batches) {
+                    executed.addAll(batch);
+                }
+            }
+            return executed;
+        }
+    }
+
+    @Autowired
+    private ApplicationContext ctx;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    private PropagationQueueWorker worker;
+
+    private static <T> T exec(final AuthContextUtils.Executable<T> executable) {
+        return AuthContextUtils.execWithAuthContext(SyncopeConstants.MASTER_DOMAIN, executable);
+    }
+
+    private String store(final String claimedBy) {
+        return exec(new AuthContextUtils.Executable<String>() {
+
+            @Override
+            public String exec() {
+                PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+                task.setResource(resourceDAO.find("ws-target-resource-1"));
+                task.setOperation(ResourceOperation.CREATE);
+                task.setAnyTypeKind(AnyTypeKind.USER);
+                task.setAnyType(AnyTypeKind.USER.name());
+                task.setEntityKey("1417acbe-cbf6-4277-9372-e75e04f97000");
+                task.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+                task.setConnObjectKey("queued");
+                task.setAttributes(Collections.<Attribute>singleton(AttributeBuilder.build("fullname", "queued")));
+                if (claimedBy != null) {
+                    task.setClaimedBy(claimedBy);
+                    task.setClaimedAt(new Date());
+                }
+                return taskDAO.save(task).getKey();
+            }
+        });
+    }
+
+    private boolean exists(final String taskKey) {
+        return exec(new AuthContextUtils.Executable<Boolean>() {
+
+            @Override
+            public Boolean exec() {
+                return taskDAO.find(taskKey) != null;
+            }
+        });
+    }
+
+    private List<String> claimQueued(final String owner, final Date expiredBefore) {
+        return exec(new AuthContextUtils.Executable<List<String>>() {
+
+            @Override
+            public List<String> exec() {
+                List<String> claimed = new ArrayList<>();
+                for (Pair<String, String> task : worker.claimQueued(owner, expiredBefore)) {
+                    claimed.add(task.getRight());
+                }
+                return claimed;
+            }
+        });
+    }
+
+    private TaskExec process(
+            final RecordingExecutor executor, final String owner, final String taskKey, final boolean last) {
+
+        return exec(new AuthContextUtils.Executable<TaskExec>() {
+
+            @Override
+            public TaskExec exec() {
+                return worker.process(executor, owner, new Date(System.currentTimeMillis() - 60000), taskKey, last);
+            }
+        });
+    }
+
+    private PropagationQueue queue(final int batchSize) {
+        PropagationQueue queue = new PropagationQueue();
+        ctx.getAutowireCapableBeanFactory().autowireBean(queue);
+        queue.setPoolSize(1);
+        queue.setMaxAttempts(3);
+        queue.setRetryDelay(0);
+        queue.setBatchSize(batchSize);
+        queue.setBatchLinger(500);
+        return queue;
+    }
+
+    private static Authentication auth() {
+        return exec(new AuthContextUtils.Executable<Authentication>() {
+
+            @Override
+            public Authentication exec() {
+                return SecurityContextHolder.getContext().getAuthentication();
+            }
+        });
+    }
+
+    private static void waitFor(final RecordingExecutor executor, final int executions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (executor.executed().size() < executions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void claim() {
+        String unclaimed = store(null);
+        String claimedByOther = store("node2");
+
+        // restart: only tasks without valid claim are recovered
+        List<String> claimed = claimQueued("node1", new Date(System.currentTimeMillis() - 60000));
+        assertTrue(claimed.contains(unclaimed));
+        assertFalse(claimed.contains(claimedByOther));
+
+        // claims are renewed by the same owner, not taken over by others
+        assertTrue(claimQueued("node1", new Date(System.currentTimeMillis() - 60000)).contains(unclaimed));
+        assertFalse(claimQueued("node2", new Date(System.currentTimeMillis() - 60000)).contains(unclaimed));
+
+        // expired claims are taken over
+        claimed = claimQueued("node3", new Date(System.currentTimeMillis() + 60000));
+        assertTrue(claimed.contains(unclaimed));
+        assertTrue(claimed.contains(claimedByOther));
+
+        RecordingExecutor executor = new RecordingExecutor();
+        process(executor, "node3", unclaimed, true);
+        process(executor, "node3", claimedByOther, true);
+        assertFalse(exists(unclaimed));
+        assertFalse(exists(claimedByOther));
+    }
+
+    @Test
+    public void failure() {
+        String taskKey = store("node1");
+
+        RecordingExecutor executor = new RecordingExecutor();
+        executor.failing.add(taskKey);
+
+        // not executed when claimed by another node
+        assertNull(process(executor, "node2", taskKey, false));
+        assertTrue(executor.executed().isEmpty());
+
+        // failed, not last attempt: the task is kept for retrying
+        TaskExec execution = process(executor, "node1", taskKey, false);
+        assertNotNull(execution);
+        assertEquals(PropagationTaskExecStatus.FAILURE.name(), execution.getStatus());
+        assertTrue(exists(taskKey));
+
+        // failed, last attempt: no execution registered, hence the task is removed
+        execution = process(executor, "node1", taskKey, true);
+        assertEquals(PropagationTaskExecStatus.FAILURE.name(), execution.getStatus());
+        assertFalse(exists(taskKey));
+    }
+
+    @Test
+    public void ordering() throws InterruptedException {
+        PropagationQueue queue = queue(1);
+        try {
+            RecordingExecutor executor = new RecordingExecutor();
+            Authentication auth = auth();
+
+            List<String> taskKeys = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                taskKeys.add(store(queue.getNode()));
+            }
+            for (String taskKey : taskKeys) {
+                queue.enqueue(executor, SyncopeConstants.MASTER_DOMAIN, "ws-target-resource-1", taskKey, auth);
+            }
+
+            waitFor(executor, taskKeys.size());
+            assertEquals(taskKeys, executor.executed());
+        } finally {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void batching() throws InterruptedException {
+        PropagationQueue queue = queue(10);
+        try {
+            RecordingExecutor executor = new RecordingExecutor();
+            Authentication auth = auth();
+
+            List<String> taskKeys = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                taskKeys.add(store(queue.getNode()));
+            }
+            for (String taskKey : taskKeys) {
+                queue.enqueue(executor, SyncopeConstants.MASTER_DOMAIN, "ws-target-resource-1", taskKey, auth);
+            }
+
+            waitFor(executor, taskKeys.size());
+            assertEquals(1, executor.batches.size());
+            assertEquals(taskKeys, executor.batches.get(0));
+        } finally {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void retry() throws InterruptedException {
+        PropagationQueue queue = queue(1);
+        try {
+            String taskKey = store(queue.getNode());
+
+            RecordingExecutor executor = new RecordingExecutor();
+            executor.failing.add(taskKey);
+
+            queue.enqueue(executor, SyncopeConstants.MASTER_DOMAIN, "ws-target-resource-1", taskKey, auth());
+
+            // attempted up to maxAttempts times, then removed
+            waitFor(executor, 3);
+            Thread.sleep(500);
+            assertEquals(Collections.nCopies(3, taskKey), executor.executed());
+            assertFalse(exists(taskKey));
+        } finally {
+            queue.destroy();
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.ConnConfProperty;
+import org.apache.syncope.common.lib.types.ConnectorCapability;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.api.ConnectorFactory;
+import org.apache.syncope.core.provisioning.api.pushpull.ReconciliationFilterBuilder;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.AttributeUtil;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.ObjectClassInfo;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class PropagationTaskExecutorTest extends AbstractTest {
+
+    /**
+     * Keeps remote objects in memory, counting reads; keys are generated from names, as some connectors do.
+     */
+    private static class InMemoryConnector implements Connector {
+
+        private final ConnInstance connInstance;
+
+        private final Map<String, ConnectorObject> objects = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private int gets;
+
+        private int searches;
+
+        InMemoryConnector(final ConnInstance connInstance) {
+            this.connInstance = connInstance;
+        }
+
+        private static Uid uid(final String name) {
+            return new Uid("uid=" + name);
+        }
+
+        private void put(final Uid uid, final Set<Attribute> attrs) {
+            ConnectorObjectBuilder builder = new ConnectorObjectBuilder().
+                    setObjectClass(ObjectClass.ACCOUNT).setUid(uid).setName(uid.getUidValue());
+            for (Attribute attr : attrs) {
+                if (!attr.is(Name.NAME) && !attr.is(Uid.NAME)) {
+                    builder.addAttribute(attr);
+                }
+            }
+            objects.put(uid.getUidValue(), builder.build());
+        }
+
+        public void add(final String name) {
+            put(uid(name), new HashSet<Attribute>());
+        }
+
+        @Override
+        public Uid authenticate(final String username, final String password, final OperationOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uid create(
+                final ObjectClass objectClass,
+                final Set<Attribute> attrs,
+                final OperationOptions options,
+                final Boolean[] propagationAttempted) {
+
+            propagationAttempted[0] = true;
+            Uid uid = uid(AttributeUtil.getNameFromAttributes(attrs).getNameValue());
+            put(uid, attrs);
+            return uid;
+        }
+
+        @Override
+        public Uid update(
+                final ObjectClass objectClass,
+                final Uid uid,
+                final Set<Attribute> attrs,
+                final OperationOptions options,
+                final Boolean[] propagationAttempted) {
+
+            propagationAttempted[0] = true;
+            ConnectorObject obj = objects.remove(uid.getUidValue());
+            if (obj == null) {
+                throw new IllegalArgumentException(uid.getUidValue() + " not found");
+            }
+
+            Name name = AttributeUtil.getNameFromAttributes(attrs);
+            Uid updated = name == null ? uid : uid(name.getNameValue());
+            put(updated, attrs);
+            return updated;
+        }
+
+        @Override
+        public void delete(
+                final ObjectClass objectClass,
+                final Uid uid,
+                final OperationOptions options,
+                final Boolean[] propagationAttempted) {
+
+            propagationAttempted[0] = true;
+            objects.remove(uid.getUidValue());
+        }
+
+        @Override
+        public void fullReconciliation(
+                final ObjectClass objectClass, final SyncResultsHandler handler, final OperationOptions options) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void filteredReconciliation(
+                final ObjectClass objectClass,
+                final ReconciliationFilterBuilder filterBuilder,
+                final SyncResultsHandler handler,
+                final OperationOptions options) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void sync(
+                final ObjectClass objectClass,
+                final SyncToken token,
+                final SyncResultsHandler handler,
+                final OperationOptions options) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SyncToken getLatestSyncToken(final ObjectClass objectClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ConnectorObject getObject(final ObjectClass objectClass, final Uid uid, final OperationOptions options) {
+            gets++;
+            return objects.get(uid.getUidValue());
+        }
+
+        @Override
+        public void search(
+                final ObjectClass objectClass,
+                final Filter filter,
+                final ResultsHandler handler,
+                final OperationOptions options) {
+
+            searches++;
+            for (ConnectorObject obj : objects.values()) {
+                if ((filter == null || filter.accept(obj)) && !handler.handle(obj)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void search(
+                final ObjectClass objectClass,
+                final Filter filter,
+                final ResultsHandler handler,
+                final int pageSize,
+                final String pagedResultsCookie,
+                final List<OrderByClause> orderBy,
+                final Iterator<? extends MappingItem> mapItems) {
+
+            search(objectClass, filter, handler, (OperationOptions) null);
+        }
+
+        @Override
+        public Set<ObjectClassInfo> getObjectClassInfo() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void validate() {
+            // nothing to validate
+        }
+
+        @Override
+        public void test() {
+            // nothing to test
+        }
+
+        @Override
+        public ConnInstance getConnInstance() {
+            return connInstance;
+        }
+    }
+
+    /**
+     * Propagates via the given connector, without storing executions.
+     */
+    private static class InMemoryExecutor extends PriorityPropagationTaskExecutor {
+
+        InMemoryExecutor(final InMemoryConnector connector) {
+            connFactory = new ConnectorFactory() {
+
+                @Override
+                public ConnInstance buildConnInstanceOverride(
+                        final ConnInstance connInstance,
+                        final Set<ConnConfProperty> confOverride,
+                        final Set<ConnectorCapability> capabilitiesOverride) {
+
+                    return connInstance;
+                }
+
+                @Override
+                public Connector createConnector(final ConnInstance connInstance) {
+                    return connector;
+                }
+
+                @Override
+                public Connector getConnector(final ExternalResource resource) {
+                    return connector;
+                }
+
+                @Override
+                public void load() {
+                    // nothing to load
+                }
+
+                @Override
+                public void unload() {
+                    // nothing to unload
+                }
+            };
+        }
+
+        @Override
+        protected boolean hasToBeregistered(final PropagationTask task, final TaskExec execution) {
+            return false;
+        }
+    }
+
+    @Autowired
+    private ApplicationContext ctx;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    private InMemoryExecutor executor(final InMemoryConnector connector) {
+        InMemoryExecutor executor = new InMemoryExecutor(connector);
+        ConnectorFactory connFactory = executor.connFactory;
+        ctx.getAutowireCapableBeanFactory().autowireBean(executor);
+        executor.connFactory = connFactory;
+        executor.setBatchReadBundles(new String[] { "net.tirasa.connid.bundles.db.table" });
+        return executor;
+    }
+
+    private PropagationTask task(
+            final ExternalResource resource,
+            final ResourceOperation operation,
+            final String connObjectKey,
+            final String oldConnObjectKey,
+            final String name) {
+
+        PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+        task.setResource(resource);
+        task.setOperation(operation);
+        task.setAnyTypeKind(AnyTypeKind.USER);
+        task.setAnyType(AnyTypeKind.USER.name());
+        task.setEntityKey("1417acbe-cbf6-4277-9372-e75e04f97000");
+        task.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+        task.setConnObjectKey(connObjectKey);
+        task.setOldConnObjectKey(oldConnObjectKey);
+        task.setAttributes(new HashSet<>(Arrays.asList(
+                new Name(name), AttributeBuilder.build("fullname", name))));
+        return task;
+    }
+
+    private static void assertSuccess(final List<TaskExec> executions) {
+        for (TaskExec execution : executions) {
+            assertEquals(PropagationTaskExecStatus.SUCCESS.name(), execution.getStatus());
+        }
+    }
+
+    @Test
+    public void getRemoteObjects() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        InMemoryConnector connector = new InMemoryConnector(resource.getConnector());
+        connector.add("a");
+        connector.add("b");
+
+        InMemoryExecutor executor = executor(connector);
+        Map<String, ConnectorObject> found = executor.getRemoteObjects(
+                Arrays.asList(
+                        task(resource, ResourceOperation.UPDATE, "uid=a", null, "a"),
+                        task(resource, ResourceOperation.UPDATE, "uid=renamed", "uid=b", "renamed"),
+                        task(resource, ResourceOperation.UPDATE, "uid=missing", null, "missing")),
+                connector,
+                resource.getProvision(ObjectClass.ACCOUNT));
+
+        assertEquals(1, connector.searches);
+        assertEquals(0, connector.gets);
+        assertEquals(2, found.size());
+        assertNotNull(found.get("UID=A"));
+        assertNotNull(found.get("uid=b"));
+        assertNull(found.get("uid=renamed"));
+        assertFalse(found.containsKey("uid=missing"));
+    }
+
+    @Test
+    public void executeBatch() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        InMemoryConnector connector = new InMemoryConnector(resource.getConnector());
+        connector.add("a");
+        connector.add("b");
+
+        List<PropagationTask> tasks = Arrays.asList(
+                task(resource, ResourceOperation.UPDATE, "uid=a", null, "a"),
+                task(resource, ResourceOperation.UPDATE, "uid=b", null, "b"),
+                task(resource, ResourceOperation.CREATE, "c", null, "c"));
+        assertSuccess(executor(connector).executeBatch(tasks, null));
+
+        // all remote objects read via a single search, none read after propagation
+        assertEquals(1, connector.searches);
+        assertEquals(0, connector.gets);
+        assertEquals(3, connector.objects.size());
+        assertEquals("a", AttributeUtil.getStringValue(connector.objects.get("uid=a").getAttributeByName("fullname")));
+        assertEquals("uid=c", tasks.get(2).getConnObjectKey());
+    }
+
+    @Test
+    public void executeBatchWithRepeatedObject() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        InMemoryConnector connector = new InMemoryConnector(resource.getConnector());
+        connector.add("a");
+        connector.add("b");
+
+        // the second task on the same remote object needs to see the outcome of the first one
+        List<PropagationTask> tasks = Arrays.asList(
+                task(resource, ResourceOperation.UPDATE, "uid=a", null, "a"),
+                task(resource, ResourceOperation.UPDATE, "uid=b", null, "b"),
+                task(resource, ResourceOperation.UPDATE, "uid=a", null, "a"));
+        assertSuccess(executor(connector).executeBatch(tasks, null));
+
+        assertEquals(1, connector.searches);
+        assertEquals(2, connector.gets);
+    }
+
+    @Test
+    public void executeBatchOneByOne() {
+        // connector not known to search natively by OR filters
+        ExternalResource resource = resourceDAO.find("ws-target-resource-1");
+        InMemoryConnector connector = new InMemoryConnector(resource.getConnector());
+        connector.add("a");
+        connector.add("b");
+
+        List<PropagationTask> tasks = Arrays.asList(
+                task(resource, ResourceOperation.UPDATE, "uid=a", null, "a"),
+                task(resource, ResourceOperation.UPDATE, "uid=b", null, "b"));
+        assertSuccess(executor(connector).executeBatch(tasks, null));
+
+        // remote objects read before and after each propagation
+        assertEquals(0, connector.searches);
+        assertEquals(4, connector.gets);
+    }
+
+    @Test
+    public void trustLocalState() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        resource.setTrustLocalState(true);
+
+        InMemoryConnector connector = new InMemoryConnector(resource.getConnector());
+        connector.add("old");
+
+        InMemoryExecutor executor = executor(connector);
+
+        // creation: the key generated by the connector is kept
+        PropagationTask create = task(resource, ResourceOperation.CREATE, "created", null, "created");
+        assertEquals(PropagationTaskExecStatus.SUCCESS.name(), executor.execute(create).getStatus());
+        assertEquals("uid=created", create.getConnObjectKey());
+
+        // rename: the new key is kept, not the stale one
+        PropagationTask rename = task(resource, ResourceOperation.UPDATE, "new", "uid=old", "new");
+        assertEquals(PropagationTaskExecStatus.SUCCESS.name(), executor.execute(rename).getStatus());
+        assertEquals("uid=new", rename.getConnObjectKey());
+        assertTrue(connector.objects.containsKey("uid=new"));
+        assertFalse(connector.objects.containsKey("uid=old"));
+
+        // no remote object read at all
+        assertEquals(0, connector.searches);
+        assertEquals(0, connector.gets);
+    }
+}
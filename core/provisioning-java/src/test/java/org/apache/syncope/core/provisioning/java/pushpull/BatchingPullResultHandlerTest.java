@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.junit.Test;
+
+public class BatchingPullResultHandlerTest {
+
+    private static SyncDelta delta(final int token) {
+        return new SyncDeltaBuilder().
+                setObject(new ConnectorObjectBuilder().setUid("uid" + token).setName("uid" + token).build()).
+                setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                setToken(new SyncToken(token)).
+                build();
+    }
+
+    /**
+     * @param calls where to record the calls to {@code prefetch} and {@code clearPrefetched}, with the tokens of
+     * the deltas prefetched
+     * @return matcher only recording calls
+     */
+    private static SyncopePullResultHandler matcher(final List<String> calls) {
+        return (SyncopePullResultHandler) Proxy.newProxyInstance(
+                SyncopePullResultHandler.class.getClassLoader(),
+                new Class<?>[] { SyncopePullResultHandler.class },
+                new InvocationHandler() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("prefetch".equals(method.getName())) {
+                    List<SyncDelta> deltas = (List<SyncDelta>) args[0];
+                    calls.add("prefetch " + deltas.get(0).getToken().getValue()
+                            + "-" + deltas.get(deltas.size() - 1).getToken().getValue());
+                } else if ("clearPrefetched".equals(method.getName())) {
+                    calls.add("clearPrefetched");
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void prefetchBeforeHandling() {
+        final List<String> calls = new ArrayList<>();
+        BatchingPullResultHandler batching = new BatchingPullResultHandler(matcher(calls), new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                calls.add("handle " + delta.getToken().getValue());
+                return true;
+            }
+        });
+
+        for (int i = 0; i < 150; i++) {
+            assertTrue(batching.handle(delta(i)));
+        }
+        // the first batch was handled as soon as full, the rest is left for flush
+        assertEquals(101, calls.size());
+        assertEquals("prefetch 0-99", calls.get(0));
+        assertEquals("handle 99", calls.get(100));
+
+        assertTrue(batching.flush());
+        assertEquals(152, calls.size());
+        assertEquals("prefetch 100-149", calls.get(101));
+        for (int i = 100; i < 150; i++) {
+            assertEquals("handle " + i, calls.get(i + 2));
+        }
+        assertFalse(calls.contains("clearPrefetched"));
+    }
+
+    @Test
+    public void stop() {
+        final List<String> calls = new ArrayList<>();
+        BatchingPullResultHandler batching = new BatchingPullResultHandler(matcher(calls), new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                calls.add("handle " + delta.getToken().getValue());
+                return (Integer) delta.getToken().getValue() < 2;
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(batching.handle(delta(i)));
+        }
+        assertFalse(batching.flush());
+        assertEquals(
+                Arrays.asList("prefetch 0-4", "handle 0", "handle 1", "handle 2", "clearPrefetched"),
+                calls);
+
+        // nothing else is handled, nor prefetched
+        assertFalse(batching.handle(delta(5)));
+        assertFalse(batching.flush());
+        assertEquals(5, calls.size());
+    }
+
+    @Test
+    public void error() {
+        final List<String> calls = new ArrayList<>();
+        BatchingPullResultHandler batching = new BatchingPullResultHandler(matcher(calls), new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                calls.add("handle " + delta.getToken().getValue());
+                throw new IllegalStateException();
+            }
+        });
+
+        batching.handle(delta(0));
+        batching.handle(delta(1));
+        try {
+            batching.flush();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(Arrays.asList("prefetch 0-1", "handle 0", "clearPrefetched"), calls);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.syncope.common.lib.types.MappingPurpose;
+import org.apache.syncope.core.persistence.api.entity.resource.Mapping;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAMapping;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAMappingItem;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAProvision;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.OperationalAttributes;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.Test;
+
+public class ChangeDetectionUtilsTest {
+
+    @Test
+    public void hash() {
+        List<Attribute> attrs = Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@syncope.apache.org", "gioacchino@syncope.apache.org"));
+        String hash = ChangeDetectionUtils.hash(attrs);
+
+        // ordering of attributes and values, case of attribute names, uid and password are not relevant
+        assertEquals(hash, ChangeDetectionUtils.hash(Arrays.asList(
+                AttributeBuilder.build("EMAIL", "gioacchino@syncope.apache.org", "rossini@syncope.apache.org"),
+                new Uid("1417acbe-cbf6-4277-9372-e75e04f97000"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build(
+                        OperationalAttributes.PASSWORD_NAME, new GuardedString("password".toCharArray())),
+                new Name("rossini"))));
+
+        // any value change is
+        assertNotEquals(hash, ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@syncope.apache.org"))));
+
+        // as well as moving values between attributes
+        assertNotEquals(
+                ChangeDetectionUtils.hash(Arrays.asList(
+                        AttributeBuilder.build("firstname", "Gioacchino"),
+                        AttributeBuilder.build("surname"))),
+                ChangeDetectionUtils.hash(Arrays.asList(
+                        AttributeBuilder.build("firstname"),
+                        AttributeBuilder.build("surname", "Gioacchino"))));
+    }
+
+    private static MappingItem item(final Mapping mapping, final String extAttrName, final MappingPurpose purpose) {
+        MappingItem item = new JPAMappingItem();
+        item.setMapping(mapping);
+        item.setExtAttrName(extAttrName);
+        item.setPurpose(purpose);
+        return item;
+    }
+
+    @Test
+    public void hashByDirection() {
+        Provision provision = new JPAProvision();
+        Mapping mapping = new JPAMapping();
+        mapping.setProvision(provision);
+        provision.setMapping(mapping);
+        mapping.add(item(mapping, "surname", MappingPurpose.BOTH));
+        mapping.add(item(mapping, "email", MappingPurpose.PULL));
+        mapping.add(item(mapping, "fullname", MappingPurpose.PROPAGATION));
+
+        // as read by pull: uid, operational and unmapped attributes are not relevant
+        String pulled = ChangeDetectionUtils.hash(Arrays.asList(
+                new Uid("rossini"),
+                new Name("rossini"),
+                AttributeBuilder.build("SURNAME", "Rossini"),
+                AttributeBuilder.build("email", "rossini@syncope.apache.org"),
+                AttributeBuilder.build(OperationalAttributes.ENABLE_NAME, true),
+                AttributeBuilder.build("createTimestamp", "20160101000000Z")),
+                provision, MappingPurpose.PULL);
+        assertEquals(pulled, ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@syncope.apache.org"),
+                AttributeBuilder.build("fullname", "Gioacchino Rossini")),
+                provision, MappingPurpose.PULL));
+
+        // changes to attributes mapped for pull only are detected
+        assertNotEquals(pulled, ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "gioacchino@syncope.apache.org")),
+                provision, MappingPurpose.PULL));
+
+        // as sent by push: attributes mapped for pull only are not relevant
+        String pushed = ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("fullname", "Gioacchino Rossini"),
+                AttributeBuilder.build(
+                        OperationalAttributes.PASSWORD_NAME, new GuardedString("password".toCharArray()))),
+                provision, MappingPurpose.PROPAGATION);
+        assertEquals(pushed, ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@syncope.apache.org"),
+                AttributeBuilder.build("fullname", "Gioacchino Rossini")),
+                provision, MappingPurpose.PROPAGATION));
+
+        // changes to attributes mapped for propagation only are detected
+        assertNotEquals(pushed, ChangeDetectionUtils.hash(Arrays.asList(
+                new Name("rossini"),
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("fullname", "G. Rossini")),
+                provision, MappingPurpose.PROPAGATION));
+    }
+}
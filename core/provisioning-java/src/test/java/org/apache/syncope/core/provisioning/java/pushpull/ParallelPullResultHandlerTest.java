@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.junit.Test;
+import org.quartz.JobExecutionException;
+
+public class ParallelPullResultHandlerTest {
+
+    private static SyncDelta delta(final String uid, final int token) {
+        return new SyncDeltaBuilder().
+                setObject(new ConnectorObjectBuilder().setUid(uid).setName(uid).build()).
+                setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                setToken(new SyncToken(token)).
+                build();
+    }
+
+    @Test
+    public void ordering() throws JobExecutionException {
+        final Map<String, List<Integer>> handled = Collections.synchronizedMap(new HashMap<String, List<Integer>>());
+
+        ParallelPullResultHandler parallel = new ParallelPullResultHandler(new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                String uid = delta.getUid().getUidValue();
+                synchronized (handled) {
+                    if (!handled.containsKey(uid)) {
+                        handled.put(uid, new ArrayList<Integer>());
+                    }
+                }
+                handled.get(uid).add((Integer) delta.getToken().getValue());
+                return true;
+            }
+        }, "test", 4);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(parallel.handle(delta("uid" + (i % 10), i)));
+        }
+        parallel.await();
+
+        assertEquals(10, handled.size());
+        for (List<Integer> tokens : handled.values()) {
+            assertEquals(100, tokens.size());
+            for (int i = 1; i < tokens.size(); i++) {
+                assertTrue(tokens.get(i - 1) < tokens.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void error() {
+        ParallelPullResultHandler parallel = new ParallelPullResultHandler(new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                throw new IllegalStateException(delta.getUid().getUidValue());
+            }
+        }, "test", 2);
+
+        parallel.handle(delta("uid", 0));
+        try {
+            parallel.await();
+            fail();
+        } catch (JobExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(parallel.handle(delta("uid", 1)));
+    }
+}
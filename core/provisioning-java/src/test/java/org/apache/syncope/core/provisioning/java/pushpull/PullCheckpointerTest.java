@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class PullCheckpointerTest extends AbstractTest {
+
+    private static final String RESOURCE = "resource-testdb";
+
+    @Autowired
+    private PullCheckpointer checkpointer;
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    private static SyncDelta delta(final String token) {
+        return new SyncDeltaBuilder().
+                setToken(new SyncToken(token)).
+                setDeltaType(SyncDeltaType.DELETE).
+                setObjectClass(ObjectClass.ACCOUNT).
+                setUid(new Uid("uid" + token)).
+                build();
+    }
+
+    @Test
+    public void isDue() {
+        PullCheckpointer byDeltas = new PullCheckpointer();
+        byDeltas.setDeltas(3);
+        byDeltas.setInterval(0);
+        assertFalse(byDeltas.isDue(2, 0));
+        assertTrue(byDeltas.isDue(3, System.currentTimeMillis()));
+
+        PullCheckpointer byInterval = new PullCheckpointer();
+        byInterval.setDeltas(0);
+        byInterval.setInterval(60);
+        assertFalse(byInterval.isDue(10000, System.currentTimeMillis()));
+        assertTrue(byInterval.isDue(1, System.currentTimeMillis() - 61000));
+    }
+
+    @Test
+    public void resumeFromCheckpoint() {
+        final List<String> handled = new ArrayList<>();
+        SyncResultsHandler handler = new SyncResultsHandler() {
+
+            @Override
+            public boolean handle(final SyncDelta delta) {
+                if ("3".equals(delta.getToken().getValue())) {
+                    throw new IllegalStateException("Failure while handling " + delta.getUid());
+                }
+                handled.add(delta.getToken().getValue().toString());
+                return true;
+            }
+        };
+
+        try {
+            for (String token : new String[] { "1", "2", "3", "4" }) {
+                SyncDelta delta = delta(token);
+                try {
+                    checkpointer.handle(handler, delta);
+                } catch (IllegalStateException e) {
+                    break;
+                }
+                // as each delta is handled in its own transaction, the token can be stored as soon as it is done
+                checkpointer.checkpoint(RESOURCE, ObjectClass.ACCOUNT, delta.getToken());
+            }
+            assertEquals(2, handled.size());
+
+            // the next incremental pull resumes after the latest delta fully processed
+            SyncToken stored = resourceDAO.find(RESOURCE).getProvision(ObjectClass.ACCOUNT).getSyncToken();
+            assertNotNull(stored);
+            assertEquals("2", stored.getValue());
+        } finally {
+            checkpointer.checkpoint(RESOURCE, ObjectClass.ACCOUNT, null);
+        }
+    }
+}
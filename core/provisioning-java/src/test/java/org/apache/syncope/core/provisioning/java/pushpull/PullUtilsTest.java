@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.MappingPurpose;
+import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
+import org.apache.syncope.core.persistence.api.entity.AnyType;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.Mapping;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyType;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAExternalResource;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAMapping;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAMappingItem;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAProvision;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class PullUtilsTest extends AbstractTest {
+
+    @Autowired
+    private PullUtils pullUtils;
+
+    @Autowired
+    private AnyTypeDAO anyTypeDAO;
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    private static Provision provision(final AnyType anyType, final String intAttrName) {
+        JPAExternalResource resource = new JPAExternalResource();
+        resource.setKey("test");
+
+        Provision provision = new JPAProvision();
+        provision.setResource(resource);
+        provision.setAnyType(anyType);
+        provision.setObjectClass(new ObjectClass(anyType.getKey()));
+
+        Mapping mapping = new JPAMapping();
+        mapping.setProvision(provision);
+        provision.setMapping(mapping);
+
+        MappingItem item = new JPAMappingItem();
+        item.setMapping(mapping);
+        item.setIntAttrName(intAttrName);
+        item.setExtAttrName(Name.NAME);
+        item.setPurpose(MappingPurpose.BOTH);
+        mapping.setConnObjectKeyItem(item);
+
+        return provision;
+    }
+
+    @Test
+    public void findExistingByUsername() {
+        Map<String, List<String>> found = pullUtils.findExisting(
+                Arrays.asList("rossini", "notfound"),
+                provision(anyTypeDAO.findUser(), "username"),
+                anyUtilsFactory.getInstance(AnyTypeKind.USER));
+
+        assertEquals(2, found.size());
+        assertEquals(Collections.singletonList("1417acbe-cbf6-4277-9372-e75e04f97000"), found.get("rossini"));
+        assertTrue(found.get("notfound").isEmpty());
+    }
+
+    @Test
+    public void findExistingByGroupName() {
+        Map<String, List<String>> found = pullUtils.findExisting(
+                Collections.singletonList("root"),
+                provision(anyTypeDAO.findGroup(), "name"),
+                anyUtilsFactory.getInstance(AnyTypeKind.GROUP));
+
+        assertEquals(Collections.singletonList("37d15e4c-cdc1-460b-a591-8505c8133806"), found.get("root"));
+    }
+
+    @Test
+    public void findExistingByAnyObjectName() {
+        Map<String, List<String>> found = pullUtils.findExisting(
+                Arrays.asList("HP LJ 1300n", "Canon MF 8030cn"),
+                provision(anyTypeDAO.find("PRINTER"), "name"),
+                anyUtilsFactory.getInstance(AnyTypeKind.ANY_OBJECT));
+
+        assertEquals(
+                Collections.singletonList("fc6dbc3a-6c07-4965-8781-921e7401a4a5"), found.get("HP LJ 1300n"));
+        assertEquals(
+                Collections.singletonList("8559d14d-58c2-46eb-a2d4-a7d35161e8f8"), found.get("Canon MF 8030cn"));
+
+        // any objects of other types with the same name are not matches
+        AnyType other = new JPAAnyType();
+        other.setKey("OTHER");
+        other.setKind(AnyTypeKind.ANY_OBJECT);
+        other = anyTypeDAO.save(other);
+
+        found = pullUtils.findExisting(
+                Collections.singletonList("HP LJ 1300n"),
+                provision(other, "name"),
+                anyUtilsFactory.getInstance(AnyTypeKind.ANY_OBJECT));
+
+        assertTrue(found.get("HP LJ 1300n").isEmpty());
+    }
+}
@@ -18,10 +18,12 @@
  */
 package org.apache.syncope.core.rest.cxf.service;
 
+import java.util.List;
 import java.util.Set;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.AnyOperations;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.patch.AnyPatch;
@@ -49,6 +51,8 @@ import org.apache.syncope.common.rest.api.service.AnyService;
 import org.apache.syncope.core.logic.AbstractAnyLogic;
 import org.apache.syncope.core.logic.UserLogic;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 
 public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
@@ -59,6 +63,13 @@ public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
 
     protected abstract P newPatch(String key);
 
+    /**
+     * @return whether search conditions must include the any type, as for any objects
+     */
+    protected boolean isAnyTypeCondRequired() {
+        return false;
+    }
+
     @Override
     public Set<AttrTO> read(final String key, final SchemaType schemaType) {
         TO any = read(key);
@@ -114,6 +125,10 @@ public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
     public PagedResult<TO> search(final AnyQuery anyQuery) {
         String realm = StringUtils.prependIfMissing(anyQuery.getRealm(), SyncopeConstants.ROOT_REALM);
 
+        if (anyQuery.getAfter() != null) {
+            return searchAfter(anyQuery, realm);
+        }
+
         if (StringUtils.isBlank(anyQuery.getFiql())) {
             return buildPagedResult(
                     getAnyLogic().list(
@@ -130,18 +145,48 @@ public abstract class AbstractAnyService<TO extends AnyTO, P extends AnyPatch>
             boolean isAssignableCond = -1 != anyQuery.getFiql().indexOf(SpecialAttr.ASSIGNABLE.toString());
 
             SearchCond cond = getSearchCond(anyQuery.getFiql(), realm);
+            Pair<Integer, List<TO>> result = getAnyLogic().search(
+                    cond,
+                    anyQuery.getPage(),
+                    anyQuery.getSize(),
+                    getOrderByClauses(anyQuery.getOrderBy()),
+                    isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
+                    anyQuery.getDetails());
             return buildPagedResult(
-                    getAnyLogic().search(
-                            cond,
-                            anyQuery.getPage(),
-                            anyQuery.getSize(),
-                            getOrderByClauses(anyQuery.getOrderBy()),
-                            isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
-                            anyQuery.getDetails()),
+                    result.getRight(),
                     anyQuery.getPage(),
                     anyQuery.getSize(),
-                    getAnyLogic().searchCount(cond, isAssignableCond ? SyncopeConstants.ROOT_REALM : realm));
+                    result.getLeft());
+        }
+    }
+
+    private PagedResult<TO> searchAfter(final AnyQuery anyQuery, final String realm) {
+        SearchCond cond;
+        if (StringUtils.isBlank(anyQuery.getFiql())) {
+            AnyCond keyCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
+            keyCond.setSchema("key");
+            cond = SearchCond.getLeafCond(keyCond);
+        } else {
+            cond = getSearchCond(anyQuery.getFiql(), realm);
         }
+        if (isAnyTypeCondRequired() && cond.hasAnyTypeCond() == null) {
+            throw new BadRequestException(SpecialAttr.TYPE.toString() + " is required in the FIQL string");
+        }
+
+        // if an assignable query is provided in the FIQL string, start anyway from root realm
+        boolean isAssignableCond = anyQuery.getFiql() != null
+                && -1 != anyQuery.getFiql().indexOf(SpecialAttr.ASSIGNABLE.toString());
+
+        List<TO> result = getAnyLogic().searchAfter(
+                cond,
+                anyQuery.getAfter(),
+                anyQuery.getSize(),
+                isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
+                anyQuery.getDetails());
+        return buildKeysetPagedResult(
+                result,
+                result.isEmpty() ? null : result.get(result.size() - 1).getKey(),
+                anyQuery.getSize());
     }
 
     @Override
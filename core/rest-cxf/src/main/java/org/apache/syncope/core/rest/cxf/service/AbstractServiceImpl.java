@@ -231,4 +231,40 @@ abstract class AbstractServiceImpl implements JAXRSService {
         return result;
     }
 
+    /**
+     * Builds a paged result for keyset pagination: total count is not available, and the next page link is set only
+     * when the current page is full.
+     *
+     * @param <T> result item type
+     * @param list current page items
+     * @param lastKey key of the last item in the current page
+     * @param size requested page size
+     * @return paged result
+     */
+    protected <T extends AbstractBaseBean> PagedResult<T> buildKeysetPagedResult(
+            final List<T> list, final String lastKey, final int size) {
+
+        PagedResult<T> result = new PagedResult<>();
+        result.getResult().addAll(list);
+
+        result.setPage(1);
+        result.setSize(result.getResult().size());
+        result.setTotalCount(-1);
+
+        if (result.getSize() == size && lastKey != null) {
+            UriBuilder builder = uriInfo.getAbsolutePathBuilder();
+            MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+            for (Map.Entry<String, List<String>> queryParam : queryParams.entrySet()) {
+                builder.queryParam(queryParam.getKey(), queryParam.getValue().toArray());
+            }
+
+            result.setNext(builder.
+                    replaceQueryParam(PARAM_AFTER, lastKey).
+                    replaceQueryParam(PARAM_SIZE, size).
+                    build());
+        }
+
+        return result;
+    }
+
 }
@@ -49,6 +49,11 @@ public class AnyObjectServiceImpl extends AbstractAnyService<AnyObjectTO, AnyObj
         return patch;
     }
 
+    @Override
+    protected boolean isAnyTypeCondRequired() {
+        return true;
+    }
+
     @Override
     public PagedResult<AnyObjectTO> search(final AnyQuery anyQuery) {
         if (StringUtils.isBlank(anyQuery.getFiql())
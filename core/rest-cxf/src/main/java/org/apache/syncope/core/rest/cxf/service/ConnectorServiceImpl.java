@@ -21,6 +21,7 @@ package org.apache.syncope.core.rest.cxf.service;
 import java.net.URI;
 import java.util.List;
 import javax.ws.rs.core.Response;
+import org.apache.syncope.common.lib.info.CircuitBreakerInfo;
 import org.apache.syncope.common.lib.to.BulkAction;
 import org.apache.syncope.common.lib.to.BulkActionResult;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
@@ -89,6 +90,11 @@ public class ConnectorServiceImpl extends AbstractServiceImpl implements Connect
         logic.check(connInstanceTO);
     }
 
+    @Override
+    public List<CircuitBreakerInfo> breakers() {
+        return logic.breakers();
+    }
+
     @Override
     public void reload() {
         logic.reload();
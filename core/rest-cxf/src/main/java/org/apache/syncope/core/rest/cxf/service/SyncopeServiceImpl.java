@@ -18,6 +18,9 @@
  */
 package org.apache.syncope.core.rest.cxf.service;
 
+import java.util.List;
+import org.apache.syncope.common.lib.info.CacheInfo;
+import org.apache.syncope.common.lib.info.ConnectorMetricsInfo;
 import org.apache.syncope.common.lib.info.NumbersInfo;
 import org.apache.syncope.common.lib.info.SystemInfo;
 import org.apache.syncope.common.lib.info.PlatformInfo;
@@ -47,4 +50,14 @@ public class SyncopeServiceImpl extends AbstractServiceImpl implements SyncopeSe
         return logic.numbers();
     }
 
+    @Override
+    public CacheInfo caches() {
+        return logic.caches();
+    }
+
+    @Override
+    public List<ConnectorMetricsInfo> connectorMetrics() {
+        return logic.connectorMetrics();
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.event;
+
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published whenever an user, group or any object is saved; listeners can bind to the current transaction in order to
+ * act only once changes are actually committed.
+ */
+public class AnyCreatedUpdatedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -781747175059834365L;
+
+    private final AnyTypeKind anyTypeKind;
+
+    private final Any<?> any;
+
+    private final String domain;
+
+    public AnyCreatedUpdatedEvent(
+            final Object source, final AnyTypeKind anyTypeKind, final Any<?> any, final String domain) {
+
+        super(source);
+        this.anyTypeKind = anyTypeKind;
+        this.any = any;
+        this.domain = domain;
+    }
+
+    public AnyTypeKind getAnyTypeKind() {
+        return anyTypeKind;
+    }
+
+    public Any<?> getAny() {
+        return any;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.io.IOException;
+import java.util.Collection;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.rest.api.RESTHeaders;
+import org.apache.syncope.core.spring.security.AuthContextUtils.Executable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+/**
+ * Authenticates requests bearing an access token, as issued by {@link AccessTokenManager}, in the
+ * {@code Authorization} header: the token signature is verified, as well as the owner being still allowed to
+ * authenticate, but no password check is performed.
+ * Requests without access token are passed through, for HTTP Basic authentication to take place.
+ */
+public class AccessTokenFilter implements Filter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessTokenFilter.class);
+
+    private static final String BEARER = "Bearer ";
+
+    private AccessTokenManager accessTokenManager;
+
+    private UserDetailsService userDetailsService;
+
+    private AuthDataAccessor dataAccessor;
+
+    private SyncopeAuthenticationDetailsSource authenticationDetailsSource;
+
+    private AuthenticationEntryPoint authenticationEntryPoint;
+
+    public void setAccessTokenManager(final AccessTokenManager accessTokenManager) {
+        this.accessTokenManager = accessTokenManager;
+    }
+
+    public void setUserDetailsService(final UserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    public void setDataAccessor(final AuthDataAccessor dataAccessor) {
+        this.dataAccessor = dataAccessor;
+    }
+
+    public void setAuthenticationDetailsSource(final SyncopeAuthenticationDetailsSource authenticationDetailsSource) {
+        this.authenticationDetailsSource = authenticationDetailsSource;
+    }
+
+    public void setAuthenticationEntryPoint(final AuthenticationEntryPoint authenticationEntryPoint) {
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
+    @Override
+    public void init(final FilterConfig filterConfig) throws ServletException {
+        // not used
+    }
+
+    @Override
+    public void destroy() {
+        // not used
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = HttpServletRequest.class.cast(request);
+
+        String header = httpRequest.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            final AccessTokenManager.AccessToken accessToken =
+                    accessTokenManager.verify(header.substring(BEARER.length()).trim());
+            if (accessToken == null) {
+                throw new BadCredentialsException("Invalid access token");
+            }
+
+            String domain = httpRequest.getHeader(RESTHeaders.DOMAIN);
+            if (StringUtils.isNotBlank(domain) && !domain.equals(accessToken.getDomain())) {
+                throw new BadCredentialsException("Access token not valid for domain " + domain);
+            }
+
+            Collection<? extends GrantedAuthority> authorities = AuthContextUtils.execWithAuthContext(
+                    accessToken.getDomain(), new Executable<Collection<? extends GrantedAuthority>>() {
+
+                @Override
+                public Collection<? extends GrantedAuthority> exec() {
+                    dataAccessor.checkEnabled(accessToken.getUsername());
+                    return userDetailsService.loadUserByUsername(accessToken.getUsername()).getAuthorities();
+                }
+            });
+
+            SyncopeAuthenticationDetails details = authenticationDetailsSource.buildDetails(httpRequest);
+            details.setDomain(accessToken.getDomain());
+
+            // the verified token is kept as credentials, for it not to be renewed
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(accessToken.getUsername(), accessToken, authorities);
+            authentication.setDetails(details);
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } catch (UsernameNotFoundException e) {
+            fail(httpRequest, response, new BadCredentialsException("Access token owner not found", e));
+            return;
+        } catch (AuthenticationException e) {
+            fail(httpRequest, response, e);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private void fail(
+            final HttpServletRequest request, final ServletResponse response, final AuthenticationException e)
+            throws IOException, ServletException {
+
+        LOG.debug("Access token authentication failed", e);
+
+        SecurityContextHolder.clearContext();
+        authenticationEntryPoint.commence(request, HttpServletResponse.class.cast(response), e);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.codec.Base64;
+
+/**
+ * Issues and verifies stateless access tokens, carrying domain, username and expiration and signed with HMAC-SHA256;
+ * each domain gets its own signing key, derived from the configured one for every token issued or verified, so that
+ * nothing is kept for the (possibly forged) domains found in the tokens received.
+ * If no key is configured, or the build-time placeholder {@link #DEFAULT_KEY} is left in place, a random one is
+ * generated at startup: tokens are then only valid on the issuing node and until it is restarted, and none is issued
+ * or accepted for the administrator, as that would not be protected by any credential explicitly set up.
+ */
+public class AccessTokenManager implements InitializingBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessTokenManager.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * Publicly known key, as possibly found in builds not overriding it: never used for signing.
+     */
+    public static final String DEFAULT_KEY = "accessTokenKey";
+
+    public static final class AccessToken {
+
+        private final String value;
+
+        private final String domain;
+
+        private final String username;
+
+        private final Date expiration;
+
+        private AccessToken(final String value, final String domain, final String username, final Date expiration) {
+            this.value = value;
+            this.domain = domain;
+            this.username = username;
+            this.expiration = expiration;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getDomain() {
+            return domain;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Date getExpiration() {
+            return new Date(expiration.getTime());
+        }
+    }
+
+    private String key;
+
+    private long expiration = 120;
+
+    private String adminUser;
+
+    private byte[] masterKey;
+
+    private boolean keyConfigured;
+
+    public void setKey(final String key) {
+        this.key = key;
+    }
+
+    public void setAdminUser(final String adminUser) {
+        this.adminUser = adminUser;
+    }
+
+    /**
+     * @param expiration token validity, in minutes
+     */
+    public void setExpiration(final long expiration) {
+        this.expiration = expiration;
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        keyConfigured = StringUtils.isNotBlank(key) && !DEFAULT_KEY.equals(key);
+        if (keyConfigured) {
+            masterKey = key.getBytes(StandardCharsets.UTF_8);
+        } else {
+            LOG.warn("{} access token key configured, generating a random one: tokens will not be accepted "
+                    + "by other nodes nor after restart, and will not be issued for {}",
+                    StringUtils.isBlank(key) ? "No" : "Default", adminUser);
+            masterKey = SecureRandomUtils.generateRandomPassword(64).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return whether tokens are signed with an explicitly configured key, rather than a random one
+     */
+    public boolean isKeyConfigured() {
+        return keyConfigured;
+    }
+
+    private boolean isAllowed(final String username) {
+        return keyConfigured || adminUser == null || !adminUser.equals(username);
+    }
+
+    private static Mac mac(final byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Could not initialize " + ALGORITHM, e);
+        }
+    }
+
+    private byte[] sign(final String domain, final String payload) {
+        byte[] domainKey = mac(masterKey).doFinal(domain.getBytes(StandardCharsets.UTF_8));
+        return mac(domainKey).doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(final byte[] value) {
+        return new String(Base64.encode(value), StandardCharsets.US_ASCII);
+    }
+
+    private static String encode(final String value) {
+        return encode(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] decode(final String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        if (!Base64.isBase64(bytes)) {
+            throw new IllegalArgumentException("Not Base64: " + value);
+        }
+        return Base64.decode(bytes);
+    }
+
+    /**
+     * Issues a new access token.
+     *
+     * @param domain domain
+     * @param username username
+     * @return signed access token
+     * @throws AccessDeniedException if requested for the administrator and no key was configured
+     */
+    public AccessToken issue(final String domain, final String username) {
+        if (!isAllowed(username)) {
+            throw new AccessDeniedException("Access tokens for " + username + " require a configured key");
+        }
+
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(expiration));
+
+        String payload = encode(domain) + SEPARATOR + encode(username) + SEPARATOR + expiresAt.getTime();
+        String value = payload + SEPARATOR + encode(sign(domain, payload));
+
+        return new AccessToken(value, domain, username, expiresAt);
+    }
+
+    /**
+     * Verifies the given access token.
+     *
+     * @param value access token, as issued by {@link #issue(java.lang.String, java.lang.String)}
+     * @return verified access token, or null if the given value is malformed, not properly signed, expired or
+     * for the administrator while no key was configured
+     */
+    public AccessToken verify(final String value) {
+        String[] parts = StringUtils.split(value, SEPARATOR);
+        if (parts == null || parts.length != 4) {
+            LOG.debug("Malformed access token: {}", value);
+            return null;
+        }
+
+        try {
+            String domain = new String(decode(parts[0]), StandardCharsets.UTF_8);
+            String payload = parts[0] + SEPARATOR + parts[1] + SEPARATOR + parts[2];
+            if (!MessageDigest.isEqual(sign(domain, payload), decode(parts[3]))) {
+                LOG.debug("Invalid signature for access token: {}", value);
+                return null;
+            }
+
+            Date expiresAt = new Date(Long.parseLong(parts[2]));
+            if (expiresAt.before(new Date())) {
+                LOG.debug("Expired access token: {}", value);
+                return null;
+            }
+
+            String username = new String(decode(parts[1]), StandardCharsets.UTF_8);
+            if (!isAllowed(username)) {
+                LOG.warn("Access token for {} rejected, as no key was configured", username);
+                return null;
+            }
+
+            return new AccessToken(value, domain, username, expiresAt);
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Malformed access token: {}", value, e);
+            return null;
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.apache.syncope.core.provisioning.api.EntitlementsHolder;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
+import org.apache.syncope.core.persistence.api.dao.ConfSnapshot;
 import org.apache.syncope.core.persistence.api.dao.DomainDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
@@ -47,7 +48,6 @@ import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.Domain;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.Role;
-import org.apache.syncope.core.persistence.api.entity.conf.CPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.user.User;
@@ -109,6 +109,12 @@ public class AuthDataAccessor {
     @Autowired
     protected MappingManager mappingManager;
 
+    @Autowired
+    protected AuthoritiesCache authoritiesCache;
+
+    @Autowired
+    protected CredentialsCache credentialsCache;
+
     @Transactional(readOnly = true)
     public Domain findDomain(final String key) {
         Domain domain = domainDAO.find(key);
@@ -135,19 +141,13 @@ public class AuthDataAccessor {
             key = user.getKey();
             authenticated = false;
 
-            if (user.isSuspended() != null && user.isSuspended()) {
-                throw new DisabledException("User " + user.getUsername() + " is suspended");
-            }
-
-            CPlainAttr authStatuses = confDAO.find("authentication.statuses");
-            if (authStatuses != null && !authStatuses.getValuesAsStrings().contains(user.getStatus())) {
-                throw new DisabledException("User " + user.getUsername() + " not allowed to authenticate");
-            }
+            ConfSnapshot conf = confDAO.snapshot();
+            checkEnabled(user, conf);
 
             boolean userModified = false;
             authenticated = authenticate(user, authentication.getCredentials().toString());
             if (authenticated) {
-                if (confDAO.find("log.lastlogindate", Boolean.toString(true)).getValues().get(0).getBooleanValue()) {
+                if (conf.getBoolean("log.lastlogindate", true)) {
                     user.setLastLoginDate(new Date());
                     userModified = true;
                 }
@@ -170,7 +170,43 @@ public class AuthDataAccessor {
         return ImmutablePair.of(key, authenticated);
     }
 
+    protected void checkEnabled(final User user, final ConfSnapshot conf) {
+        if (user.isSuspended() != null && user.isSuspended()) {
+            throw new DisabledException("User " + user.getUsername() + " is suspended");
+        }
+
+        if (conf.contains("authentication.statuses")
+                && !conf.getValues("authentication.statuses").contains(user.getStatus())) {
+
+            throw new DisabledException("User " + user.getUsername() + " not allowed to authenticate");
+        }
+    }
+
+    /**
+     * Verifies that the given user is still allowed to authenticate, e.g. not suspended and with one of the
+     * statuses configured via {@code authentication.statuses}; to be invoked when no credentials are checked.
+     *
+     * @param username username
+     */
+    @Transactional(readOnly = true)
+    public void checkEnabled(final String username) {
+        if (anonymousUser.equals(username) || adminUser.equals(username)) {
+            return;
+        }
+
+        User user = userDAO.findByUsername(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("Could not find any user with id " + username);
+        }
+        checkEnabled(user, confDAO.snapshot());
+    }
+
     protected boolean authenticate(final User user, final String password) {
+        String domain = AuthContextUtils.getDomain();
+        if (credentialsCache.isVerified(domain, user, password)) {
+            return true;
+        }
+
         boolean authenticated = ENCRYPTOR.verify(password, user.getCipherAlgorithm(), user.getPassword());
         LOG.debug("{} authenticated on internal storage: {}", user.getUsername(), authenticated);
 
@@ -193,6 +229,10 @@ public class AuthDataAccessor {
                     user.getUsername(), resource.getKey(), connObjectKey, authenticated);
         }
 
+        if (authenticated) {
+            credentialsCache.put(domain, user, password);
+        }
+
         return authenticated;
     }
 
@@ -254,11 +294,19 @@ public class AuthDataAccessor {
                 }
             }, authorities);
         } else {
+            String domain = AuthContextUtils.getDomain();
+            Set<SyncopeGrantedAuthority> cached = authoritiesCache.get(domain, username);
+            if (cached != null) {
+                authorities.addAll(cached);
+                return authorities;
+            }
+
             User user = userDAO.findByUsername(username);
             if (user == null) {
                 throw new UsernameNotFoundException("Could not find any user with id " + username);
             }
 
+            Set<String> ownedGroupKeys = new HashSet<>();
             if (user.isMustChangePassword()) {
                 authorities.add(new SyncopeGrantedAuthority(StandardEntitlement.MUST_CHANGE_PASSWORD));
             } else {
@@ -290,6 +338,7 @@ public class AuthDataAccessor {
 
                 // Give group entitlements for owned groups
                 for (Group group : groupDAO.findOwnedByUser(user.getKey())) {
+                    ownedGroupKeys.add(group.getKey());
                     for (String entitlement : Arrays.asList(
                             StandardEntitlement.GROUP_READ,
                             StandardEntitlement.GROUP_UPDATE,
@@ -312,6 +361,9 @@ public class AuthDataAccessor {
                     authorities.add(authority);
                 }
             }
+
+            authoritiesCache.put(domain, username, user.getKey(),
+                    new HashSet<>(userDAO.findAllGroupKeys(user)), ownedGroupKeys, authorities);
         }
 
         return authorities;
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.UMembership;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, per-domain cache of the authorities computed by {@link AuthDataAccessor#load(java.lang.String)} for
+ * users, by username; entries expire after the configured time to live.
+ * Entries are evicted as soon as the related user is saved or deleted, as a group the user owns (directly or via
+ * memberships) is saved or deleted, and upon any change to roles or realms; evictions are repeated once the
+ * current transaction completes, in order to drop entries reloaded meanwhile from uncommitted data.
+ * Changes committed by other nodes of the cluster are received via {@link EntityCacheDAO}, when a remote commit
+ * provider is configured; otherwise entries cached by other nodes are only dropped once their time to live expires.
+ */
+public class AuthoritiesCache implements InitializingBean {
+
+    private static final class Entry {
+
+        private final String userKey;
+
+        private final Set<String> groupKeys;
+
+        private final Set<String> ownedGroupKeys;
+
+        private final Set<SyncopeGrantedAuthority> authorities;
+
+        private final long expiresAt;
+
+        Entry(
+                final String userKey,
+                final Set<String> groupKeys,
+                final Set<String> ownedGroupKeys,
+                final Set<SyncopeGrantedAuthority> authorities,
+                final long ttl) {
+
+            this.userKey = userKey;
+            this.groupKeys = groupKeys;
+            this.ownedGroupKeys = ownedGroupKeys;
+            this.authorities = Collections.unmodifiableSet(new HashSet<>(authorities));
+            this.expiresAt = System.currentTimeMillis() + ttl;
+        }
+
+        public Set<SyncopeGrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+    }
+
+    @Autowired(required = false)
+    private EntityCacheDAO entityCacheDAO;
+
+    private final Map<String, Map<String, Entry>> domains = new ConcurrentHashMap<>();
+
+    private long ttl = 60;
+
+    private int maxSize = 1000;
+
+    /**
+     * @param ttl time to live of entries, in seconds; caching is disabled if not positive
+     */
+    public void setTtl(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return ttl > 0 && maxSize > 0;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (entityCacheDAO == null) {
+            return;
+        }
+
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                for (Map.Entry<Class<?>, Set<String>> change : changes.entrySet()) {
+                    if (User.class.isAssignableFrom(change.getKey()) && !change.getValue().isEmpty()) {
+                        for (String userKey : change.getValue()) {
+                            evictUser(domain, userKey);
+                        }
+                    } else if (User.class.isAssignableFrom(change.getKey())
+                            || UMembership.class.isAssignableFrom(change.getKey())
+                            || Group.class.isAssignableFrom(change.getKey())
+                            || Role.class.isAssignableFrom(change.getKey())
+                            || Realm.class.isAssignableFrom(change.getKey())) {
+
+                        evictAll(domain);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private Map<String, Entry> entries(final String domain) {
+        Map<String, Entry> entries = domains.get(domain);
+        if (entries == null) {
+            synchronized (domains) {
+                entries = domains.get(domain);
+                if (entries == null) {
+                    entries = Collections.synchronizedMap(new LRUMap<String, Entry>(maxSize));
+                    domains.put(domain, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    public Set<SyncopeGrantedAuthority> get(final String domain, final String username) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Map<String, Entry> entries = entries(domain);
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(username);
+            entry = null;
+        }
+        return entry == null ? null : entry.getAuthorities();
+    }
+
+    public void put(
+            final String domain,
+            final String username,
+            final String userKey,
+            final Set<String> groupKeys,
+            final Set<String> ownedGroupKeys,
+            final Set<SyncopeGrantedAuthority> authorities) {
+
+        if (isEnabled()) {
+            entries(domain).put(username, new Entry(
+                    userKey, groupKeys, ownedGroupKeys, authorities, TimeUnit.SECONDS.toMillis(ttl)));
+        }
+    }
+
+    private void doEvict(final String domain, final Predicate<Entry> predicate) {
+        Map<String, Entry> entries = domains.get(domain);
+        if (entries != null) {
+            synchronized (entries) {
+                for (Iterator<Entry> itor = entries.values().iterator(); itor.hasNext();) {
+                    if (predicate.evaluate(itor.next())) {
+                        itor.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private void evict(final String domain, final Predicate<Entry> predicate) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        doEvict(domain, predicate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    doEvict(domain, predicate);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts all entries for the given domain; to be invoked when roles or realms are changed, including realm
+     * renames and moves, as entitlements are granted on realm full paths.
+     *
+     * @param domain domain
+     */
+    public void evictAll(final String domain) {
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return true;
+            }
+        });
+    }
+
+    public void evictUser(final String domain, final String userKey) {
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return entry.userKey.equals(userKey);
+            }
+        });
+    }
+
+    /**
+     * Evicts entries for users owning the given group, before or after the latest change, and for members of
+     * the group itself, which might own other groups.
+     *
+     * @param domain domain
+     * @param groupKey group key
+     * @param userOwnerKey key of the user owning the group, if any
+     * @param groupOwnerKey key of the group owning the group, if any
+     */
+    public void evictGroup(
+            final String domain, final String groupKey, final String userOwnerKey, final String groupOwnerKey) {
+
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return entry.ownedGroupKeys.contains(groupKey)
+                        || entry.groupKeys.contains(groupKey)
+                        || entry.userKey.equals(userOwnerKey)
+                        || (groupOwnerKey != null && entry.groupKeys.contains(groupOwnerKey));
+            }
+        });
+    }
+
+    @EventListener
+    public void onCreatedUpdated(final AnyCreatedUpdatedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            evictUser(event.getDomain(), event.getAny().getKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            Group group = (Group) event.getAny();
+            if (group.getUDynMembership() == null) {
+                evictGroup(event.getDomain(),
+                        group.getKey(),
+                        group.getUserOwner() == null ? null : group.getUserOwner().getKey(),
+                        group.getGroupOwner() == null ? null : group.getGroupOwner().getKey());
+            } else {
+                // dynamic members might have changed, hence owners of groups owned by this group
+                evictAll(event.getDomain());
+            }
+        }
+    }
+
+    @EventListener
+    public void onDeleted(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            evictUser(event.getDomain(), event.getAnyKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            evictGroup(event.getDomain(), event.getAnyKey(), null, null);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.persistence.api.entity.Policy;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.user.UMembership;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, per-domain cache of successfully verified credentials, as keyed hashes (HMAC-SHA256 with a process-local
+ * random secret) of username and password: plain passwords are never stored.
+ * Entries are bound to the user key and the stored password value, hence are ignored as soon as the password is
+ * changed; suspension and status are checked by {@link AuthDataAccessor} before consulting this cache.
+ * As pass-through authentication depends on realm, resources and groups of the user, entries are evicted when a user
+ * is saved with any of these (or password, or suspension) changed - but not, for example, when only the last login
+ * date is updated - or deleted, when a group the user is member of is saved or deleted, and are expected to be evicted
+ * upon changes to policies, realms or resources. Changes committed by other nodes of the cluster are received via
+ * {@link EntityCacheDAO}, when a remote commit provider is configured; otherwise entries cached by other nodes are
+ * only dropped once their time to live expires.
+ * Caching is disabled unless a positive time to live is configured.
+ */
+public class CredentialsCache implements InitializingBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CredentialsCache.class);
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final class Entry {
+
+        private final String userKey;
+
+        private final String storedPassword;
+
+        private final AccessState accessState;
+
+        private final byte[] hash;
+
+        private final long expiresAt;
+
+        Entry(final User user, final byte[] hash, final long ttl) {
+            this.userKey = user.getKey();
+            this.storedPassword = user.getPassword();
+            this.accessState = new AccessState(user);
+            this.hash = hash;
+            this.expiresAt = System.currentTimeMillis() + ttl;
+        }
+    }
+
+    /**
+     * What pass-through authentication of an user depends on, besides policies and resources themselves.
+     */
+    private static final class AccessState {
+
+        private final String realmKey;
+
+        private final Set<String> resourceKeys;
+
+        private final Set<String> groupKeys;
+
+        AccessState(final User user) {
+            this.realmKey = user.getRealm() == null ? null : user.getRealm().getKey();
+            this.resourceKeys = new HashSet<>(user.getResourceKeys());
+            this.groupKeys = new HashSet<>();
+            for (UMembership membership : user.getMemberships()) {
+                groupKeys.add(membership.getRightEnd().getKey());
+            }
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof AccessState)) {
+                return false;
+            }
+            AccessState other = (AccessState) obj;
+            return StringUtils.equals(realmKey, other.realmKey)
+                    && resourceKeys.equals(other.resourceKeys)
+                    && groupKeys.equals(other.groupKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return resourceKeys.hashCode() + 31 * groupKeys.hashCode();
+        }
+    }
+
+    @Autowired(required = false)
+    private EntityCacheDAO entityCacheDAO;
+
+    private final Map<String, Map<String, Entry>> domains = new ConcurrentHashMap<>();
+
+    private final SecretKeySpec secret;
+
+    private long ttl = 0;
+
+    private int maxSize = 1000;
+
+    public CredentialsCache() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        secret = new SecretKeySpec(key, MAC_ALGORITHM);
+    }
+
+    /**
+     * @param ttl time to live of entries, in seconds; caching is disabled if not positive
+     */
+    public void setTtl(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return ttl > 0 && maxSize > 0;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (entityCacheDAO == null) {
+            return;
+        }
+
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                for (Map.Entry<Class<?>, Set<String>> change : changes.entrySet()) {
+                    if (User.class.isAssignableFrom(change.getKey()) && !change.getValue().isEmpty()) {
+                        for (String userKey : change.getValue()) {
+                            evictUser(domain, userKey);
+                        }
+                    } else if (User.class.isAssignableFrom(change.getKey())
+                            || UMembership.class.isAssignableFrom(change.getKey())
+                            || Group.class.isAssignableFrom(change.getKey())
+                            || Realm.class.isAssignableFrom(change.getKey())
+                            || Policy.class.isAssignableFrom(change.getKey())
+                            || ExternalResource.class.isAssignableFrom(change.getKey())) {
+
+                        evictAll(domain);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private Map<String, Entry> entries(final String domain) {
+        Map<String, Entry> entries = domains.get(domain);
+        if (entries == null) {
+            synchronized (domains) {
+                entries = domains.get(domain);
+                if (entries == null) {
+                    entries = Collections.synchronizedMap(new LRUMap<String, Entry>(maxSize));
+                    domains.put(domain, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private byte[] hash(final String domain, final String username, final String password) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            mac.update(domain.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not compute " + MAC_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Checks whether the given password was successfully verified for the given user, since the latest password
+     * change and within the configured time to live.
+     *
+     * @param domain domain
+     * @param user user
+     * @param password password
+     * @return whether the given credentials were already verified
+     */
+    public boolean isVerified(final String domain, final User user, final String password) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        Map<String, Entry> entries = entries(domain);
+        Entry entry = entries.get(user.getUsername());
+        if (entry == null) {
+            return false;
+        }
+
+        if (entry.expiresAt < System.currentTimeMillis()
+                || !entry.userKey.equals(user.getKey())
+                || !StringUtils.equals(entry.storedPassword, user.getPassword())) {
+
+            entries.remove(user.getUsername());
+            return false;
+        }
+
+        boolean verified = MessageDigest.isEqual(entry.hash, hash(domain, user.getUsername(), password));
+        LOG.debug("{} found in credentials cache, matching: {}", user.getUsername(), verified);
+        return verified;
+    }
+
+    public void put(final String domain, final User user, final String password) {
+        if (isEnabled()) {
+            entries(domain).put(user.getUsername(), new Entry(
+                    user, hash(domain, user.getUsername(), password), TimeUnit.SECONDS.toMillis(ttl)));
+        }
+    }
+
+    private void doEvict(final String domain, final Predicate<Entry> predicate) {
+        Map<String, Entry> entries = domains.get(domain);
+        if (entries != null) {
+            synchronized (entries) {
+                for (Iterator<Entry> itor = entries.values().iterator(); itor.hasNext();) {
+                    if (predicate.evaluate(itor.next())) {
+                        itor.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private void evict(final String domain, final Predicate<Entry> predicate) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        doEvict(domain, predicate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    doEvict(domain, predicate);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts all entries for the given domain; to be invoked when policies, realms or resources are changed.
+     *
+     * @param domain domain
+     */
+    public void evictAll(final String domain) {
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return true;
+            }
+        });
+    }
+
+    public void evictUser(final String domain, final String userKey) {
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return entry.userKey.equals(userKey);
+            }
+        });
+    }
+
+    /**
+     * Evicts the entries of the given user, unless only attributes not affecting authentication were changed.
+     *
+     * @param domain domain
+     * @param user user, as just saved
+     */
+    public void evictIfChanged(final String domain, final User user) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final String userKey = user.getKey();
+        final boolean suspended = user.isSuspended() != null && user.isSuspended();
+        final AccessState accessState = new AccessState(user);
+        final String storedPassword = user.getPassword();
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return entry.userKey.equals(userKey)
+                        && (suspended
+                        || !StringUtils.equals(entry.storedPassword, storedPassword)
+                        || !entry.accessState.equals(accessState));
+            }
+        });
+    }
+
+    public void evictGroup(final String domain, final String groupKey) {
+        evict(domain, new Predicate<Entry>() {
+
+            @Override
+            public boolean evaluate(final Entry entry) {
+                return entry.accessState.groupKeys.contains(groupKey);
+            }
+        });
+    }
+
+    @EventListener
+    public void onCreatedUpdated(final AnyCreatedUpdatedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            evictIfChanged(event.getDomain(), (User) event.getAny());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            evictGroup(event.getDomain(), event.getAny().getKey());
+        }
+    }
+
+    @EventListener
+    public void onDeleted(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            evictUser(event.getDomain(), event.getAnyKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            evictGroup(event.getDomain(), event.getAnyKey());
+        }
+    }
+}
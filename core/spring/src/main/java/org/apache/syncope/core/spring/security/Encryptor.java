@@ -36,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.jasypt.commons.CommonUtils;
+import org.jasypt.digest.PooledStringDigester;
 import org.jasypt.digest.StandardStringDigester;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,11 @@ public final class Encryptor {
 
     private static final Map<String, Encryptor> INSTANCES = new ConcurrentHashMap<>();
 
+    /**
+     * Digesters are thread-safe and do not depend on the secret key, hence are shared by all instances.
+     */
+    private static final Map<CipherAlgorithm, PooledStringDigester> DIGESTERS = new ConcurrentHashMap<>();
+
     private static final String DEFAULT_SECRET_KEY = "1abcdefghilmnopqrstuvz2!";
 
     /**
@@ -150,6 +156,14 @@ public final class Encryptor {
 
     private SecretKeySpec keySpec;
 
+    /**
+     * {@link Cipher} instances are not thread-safe: each thread gets its own, initialized once for encryption and
+     * once for decryption, then reused as {@link Cipher#doFinal(byte[])} resets to the initialized state.
+     */
+    private final ThreadLocal<Cipher> encryptCiphers = new ThreadLocal<>();
+
+    private final ThreadLocal<Cipher> decryptCiphers = new ThreadLocal<>();
+
     private Encryptor(final String secretKey) {
         String actualKey = secretKey;
         if (actualKey.length() < 16) {
@@ -180,10 +194,7 @@ public final class Encryptor {
             if (cipherAlgorithm == null || cipherAlgorithm == CipherAlgorithm.AES) {
                 final byte[] cleartext = value.getBytes(SyncopeConstants.DEFAULT_CHARSET);
 
-                final Cipher cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
-                cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-
-                encodedValue = new String(Base64.encode(cipher.doFinal(cleartext)));
+                encodedValue = new String(Base64.encode(doFinal(encryptCiphers, Cipher.ENCRYPT_MODE, cleartext)));
             } else if (cipherAlgorithm == CipherAlgorithm.BCRYPT) {
                 encodedValue = BCrypt.hashpw(value, BCrypt.gensalt());
             } else {
@@ -223,17 +234,46 @@ public final class Encryptor {
         if (encodedValue != null && cipherAlgorithm == CipherAlgorithm.AES) {
             final byte[] encoded = encodedValue.getBytes(SyncopeConstants.DEFAULT_CHARSET);
 
-            final Cipher cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-
-            value = new String(cipher.doFinal(Base64.decode(encoded)), SyncopeConstants.DEFAULT_CHARSET);
+            value = new String(
+                    doFinal(decryptCiphers, Cipher.DECRYPT_MODE, Base64.decode(encoded)),
+                    SyncopeConstants.DEFAULT_CHARSET);
         }
 
         return value;
     }
 
-    private StandardStringDigester getDigester(final CipherAlgorithm cipherAlgorithm) {
-        StandardStringDigester digester = new StandardStringDigester();
+    private byte[] doFinal(final ThreadLocal<Cipher> ciphers, final int mode, final byte[] input)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+            IllegalBlockSizeException, BadPaddingException {
+
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CipherAlgorithm.AES.getAlgorithm());
+            cipher.init(mode, keySpec);
+            ciphers.set(cipher);
+        }
+
+        try {
+            return cipher.doFinal(input);
+        } catch (IllegalBlockSizeException | BadPaddingException e) {
+            // do not rely on the state of a cipher which failed
+            ciphers.remove();
+            throw e;
+        }
+    }
+
+    private static PooledStringDigester getDigester(final CipherAlgorithm cipherAlgorithm) {
+        PooledStringDigester digester = DIGESTERS.get(cipherAlgorithm);
+        if (digester == null) {
+            digester = newDigester(cipherAlgorithm);
+            DIGESTERS.put(cipherAlgorithm, digester);
+        }
+        return digester;
+    }
+
+    private static PooledStringDigester newDigester(final CipherAlgorithm cipherAlgorithm) {
+        PooledStringDigester digester = new PooledStringDigester();
+        digester.setPoolSize(Runtime.getRuntime().availableProcessors());
 
         if (cipherAlgorithm.getAlgorithm().startsWith("S-")) {
             // Salted ...
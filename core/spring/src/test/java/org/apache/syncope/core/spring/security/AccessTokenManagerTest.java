@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+public class AccessTokenManagerTest {
+
+    private static AccessTokenManager manager(final String key, final long expiration) {
+        AccessTokenManager manager = new AccessTokenManager();
+        manager.setKey(key);
+        manager.setAdminUser("admin");
+        manager.setExpiration(expiration);
+        manager.afterPropertiesSet();
+        return manager;
+    }
+
+    @Test
+    public void issueAndVerify() {
+        AccessTokenManager manager = manager("secret", 10);
+
+        AccessTokenManager.AccessToken issued = manager.issue("Two", "bellini");
+        AccessTokenManager.AccessToken verified = manager.verify(issued.getValue());
+        assertNotNull(verified);
+        assertEquals("Two", verified.getDomain());
+        assertEquals("bellini", verified.getUsername());
+        assertEquals(issued.getExpiration(), verified.getExpiration());
+
+        // same key on another node
+        assertNotNull(manager("secret", 10).verify(issued.getValue()));
+    }
+
+    @Test
+    public void reject() {
+        AccessTokenManager manager = manager("secret", 10);
+        String value = manager.issue("Master", "rossini").getValue();
+
+        // different key
+        assertNull(manager("another secret", 10).verify(value));
+
+        // tampered username: signature no longer matches
+        String[] parts = value.split("\\.");
+        String tampered = parts[0] + "." + manager.issue("Master", "admin").getValue().split("\\.")[1] + "."
+                + parts[2] + "." + parts[3];
+        assertNull(manager.verify(tampered));
+
+        // tampered domain: the key derived for another domain does not match
+        tampered = manager.issue("Forged", "rossini").getValue().split("\\.")[0] + "." + parts[1] + "."
+                + parts[2] + "." + parts[3];
+        assertNull(manager.verify(tampered));
+
+        // malformed
+        assertNull(manager.verify("rossini"));
+        assertNull(manager.verify("a.b.c.d"));
+
+        // expired
+        assertNull(manager.verify(manager("secret", -1).issue("Master", "rossini").getValue()));
+    }
+
+    @Test
+    public void adminOnlyWithConfiguredKey() {
+        AccessTokenManager configured = manager("secret", 10);
+        assertTrue(configured.isKeyConfigured());
+        assertNotNull(configured.verify(configured.issue("Master", "admin").getValue()));
+
+        for (String key : new String[] { null, "", AccessTokenManager.DEFAULT_KEY }) {
+            AccessTokenManager random = manager(key, 10);
+            assertFalse(random.isKeyConfigured());
+
+            // tokens are still available for other users
+            assertNotNull(random.verify(random.issue("Master", "rossini").getValue()));
+
+            try {
+                random.issue("Master", "admin");
+                fail();
+            } catch (AccessDeniedException e) {
+                assertNotNull(e.getMessage());
+            }
+
+            // the publicly known key is not used for signing
+            assertNull(random.verify(manager(key, 10).issue("Master", "rossini").getValue()));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.Set;
+import org.apache.syncope.common.lib.types.StandardEntitlement;
+import org.junit.Test;
+
+public class AuthoritiesCacheTest {
+
+    private static final Set<SyncopeGrantedAuthority> AUTHORITIES =
+            Collections.singleton(new SyncopeGrantedAuthority(StandardEntitlement.USER_READ));
+
+    private static AuthoritiesCache cache(final long ttl) {
+        AuthoritiesCache cache = new AuthoritiesCache();
+        cache.setTtl(ttl);
+        cache.setMaxSize(10);
+        return cache;
+    }
+
+    private static void put(final AuthoritiesCache cache, final String username, final String userKey) {
+        cache.put("Master", username, userKey,
+                Collections.singleton("group1"), Collections.singleton("group2"), AUTHORITIES);
+    }
+
+    @Test
+    public void getAndPut() {
+        AuthoritiesCache cache = cache(60);
+        assertNull(cache.get("Master", "rossini"));
+
+        put(cache, "rossini", "user1");
+        assertEquals(AUTHORITIES, cache.get("Master", "rossini"));
+        assertNull(cache.get("Two", "rossini"));
+
+        // disabled
+        cache = cache(0);
+        put(cache, "rossini", "user1");
+        assertNull(cache.get("Master", "rossini"));
+    }
+
+    @Test
+    public void evict() {
+        AuthoritiesCache cache = cache(60);
+        put(cache, "rossini", "user1");
+        put(cache, "verdi", "user2");
+
+        cache.evictUser("Master", "user1");
+        assertNull(cache.get("Master", "rossini"));
+        assertNotNull(cache.get("Master", "verdi"));
+
+        put(cache, "rossini", "user1");
+        cache.evictGroup("Master", "group3", "user1", null);
+        assertNull(cache.get("Master", "rossini"));
+        assertNotNull(cache.get("Master", "verdi"));
+
+        // owned group
+        cache.evictGroup("Master", "group2", null, null);
+        assertNull(cache.get("Master", "verdi"));
+
+        // group owned by a group the user is member of
+        put(cache, "verdi", "user2");
+        cache.evictGroup("Master", "group4", null, "group1");
+        assertNull(cache.get("Master", "verdi"));
+
+        put(cache, "rossini", "user1");
+        put(cache, "verdi", "user2");
+        cache.evictAll("Master");
+        assertNull(cache.get("Master", "rossini"));
+        assertNull(cache.get("Master", "verdi"));
+    }
+}
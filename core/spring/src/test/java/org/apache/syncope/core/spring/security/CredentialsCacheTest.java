@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.UMembership;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
+import org.junit.Test;
+
+public class CredentialsCacheTest {
+
+    private static CredentialsCache cache(final long ttl) {
+        CredentialsCache cache = new CredentialsCache();
+        cache.setTtl(ttl);
+        cache.setMaxSize(10);
+        return cache;
+    }
+
+    private static <T> T stub(final Class<T> reference, final Map<String, Object> values) {
+        return reference.cast(Proxy.newProxyInstance(
+                reference.getClassLoader(), new Class<?>[] { reference }, new InvocationHandler() {
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                return values.get(method.getName());
+            }
+        }));
+    }
+
+    private static Group stubGroup(final String key) {
+        Map<String, Object> group = new HashMap<>();
+        group.put("getKey", key);
+        return stub(Group.class, group);
+    }
+
+    private static User user(
+            final String key,
+            final String username,
+            final String password,
+            final List<String> resourceKeys,
+            final String... groupKeys) {
+
+        Map<String, Object> realm = new HashMap<>();
+        realm.put("getKey", "realm1");
+
+        List<UMembership> memberships = new ArrayList<>();
+        for (String groupKey : groupKeys) {
+            Map<String, Object> membership = new HashMap<>();
+            membership.put("getRightEnd", stubGroup(groupKey));
+            memberships.add(stub(UMembership.class, membership));
+        }
+
+        Map<String, Object> user = new HashMap<>();
+        user.put("getKey", key);
+        user.put("getUsername", username);
+        user.put("getPassword", password);
+        user.put("isSuspended", Boolean.FALSE);
+        user.put("getRealm", stub(Realm.class, realm));
+        user.put("getResourceKeys", resourceKeys);
+        user.put("getMemberships", memberships);
+        return stub(User.class, user);
+    }
+
+    private static User user(final String key, final String password) {
+        return user(key, "rossini", password, Collections.<String>emptyList(), "group1");
+    }
+
+    @Test
+    public void verify() {
+        CredentialsCache cache = cache(60);
+        User user = user("user1", "stored1");
+        assertFalse(cache.isVerified("Master", user, "password"));
+
+        cache.put("Master", user, "password");
+        assertTrue(cache.isVerified("Master", user, "password"));
+
+        // wrong password
+        assertFalse(cache.isVerified("Master", user, "wrong"));
+        assertTrue(cache.isVerified("Master", user, "password"));
+
+        // other domain
+        assertFalse(cache.isVerified("Two", user, "password"));
+
+        // password changed
+        assertFalse(cache.isVerified("Master", user("user1", "stored2"), "password"));
+        assertFalse(cache.isVerified("Master", user, "password"));
+
+        // same username, different user key
+        cache.put("Master", user, "password");
+        assertFalse(cache.isVerified("Master", user("user2", "stored1"), "password"));
+
+        // disabled
+        cache = cache(0);
+        cache.put("Master", user, "password");
+        assertFalse(cache.isVerified("Master", user, "password"));
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        CredentialsCache cache = cache(1);
+        User user = user("user1", "stored1");
+        cache.put("Master", user, "password");
+        assertTrue(cache.isVerified("Master", user, "password"));
+
+        Thread.sleep(1100);
+        assertFalse(cache.isVerified("Master", user, "password"));
+    }
+
+    @Test
+    public void evict() {
+        CredentialsCache cache = cache(60);
+        User rossini = user("user1", "rossini", "stored1", Collections.singletonList("resource1"), "group1");
+        User verdi = user("user2", "verdi", "stored2", Collections.<String>emptyList(), "group2");
+        cache.put("Master", rossini, "password");
+        cache.put("Master", verdi, "password");
+
+        // saved with nothing relevant changed, e.g. upon login
+        cache.onCreatedUpdated(new AnyCreatedUpdatedEvent(this, AnyTypeKind.USER, rossini, "Master"));
+        assertTrue(cache.isVerified("Master", rossini, "password"));
+
+        // saved with resources changed
+        User updated = user("user1", "rossini", "stored1", Arrays.asList("resource1", "resource2"), "group1");
+        cache.onCreatedUpdated(new AnyCreatedUpdatedEvent(this, AnyTypeKind.USER, updated, "Master"));
+        assertFalse(cache.isVerified("Master", updated, "password"));
+        assertTrue(cache.isVerified("Master", verdi, "password"));
+
+        // group the user is member of saved
+        cache.put("Master", rossini, "password");
+        cache.onCreatedUpdated(new AnyCreatedUpdatedEvent(this, AnyTypeKind.GROUP, stubGroup("group2"), "Master"));
+        assertTrue(cache.isVerified("Master", rossini, "password"));
+        assertFalse(cache.isVerified("Master", verdi, "password"));
+
+        // deleted
+        cache.put("Master", verdi, "password");
+        cache.onDeleted(new AnyDeletedEvent(this, AnyTypeKind.USER, "user1", "Master"));
+        assertFalse(cache.isVerified("Master", rossini, "password"));
+        assertTrue(cache.isVerified("Master", verdi, "password"));
+
+        cache.put("Master", rossini, "password");
+        cache.evictAll("Master");
+        assertFalse(cache.isVerified("Master", rossini, "password"));
+        assertFalse(cache.isVerified("Master", verdi, "password"));
+    }
+}
@@ -20,10 +20,17 @@ package org.apache.syncope.core.spring.security;
 
 import org.apache.syncope.core.spring.security.Encryptor;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.junit.Test;
 
@@ -57,4 +64,43 @@ public class EncryptorTest {
             }
         }
     }
+
+    @Test
+    public void decodeAfterFailure() throws Exception {
+        String encoded = encryptor.encode(password, CipherAlgorithm.AES);
+
+        try {
+            encryptor.decode("bm90IGVuY29kZWQ=", CipherAlgorithm.AES);
+        } catch (Exception e) {
+            // expected, as not encoded with AES
+        }
+        assertEquals(password, encryptor.decode(encoded, CipherAlgorithm.AES));
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                final String value = password + i;
+                final CipherAlgorithm cipherAlgorithm = i % 2 == 0 ? CipherAlgorithm.AES : CipherAlgorithm.SSHA256;
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        String encoded = encryptor.encode(value, cipherAlgorithm);
+                        return encryptor.verify(value, cipherAlgorithm, encoded)
+                                && (cipherAlgorithm != CipherAlgorithm.AES
+                                || value.equals(encryptor.decode(encoded, cipherAlgorithm)));
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,647 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.lucene;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.validation.ValidationException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.RoleDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
+import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.jpa.dao.JPAAnySearchDAO;
+import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Serves searches from the Lucene index maintained by {@link LuceneIndexManager}, falling back to
+ * {@link JPAAnySearchDAO} whenever the index cannot be used: when not (yet) complete for the current domain, within
+ * read-write transactions (as the index only reflects committed changes), or for conditions and ordering clauses
+ * not covered by the index, as relationships, assignable or member conditions, dynamic memberships and non-plain
+ * fields other than key, username, name and status.
+ * <p>
+ * Enable by setting {@code anySearchDAO=org.apache.syncope.core.persistence.lucene.LuceneAnySearchDAO} in
+ * {@code persistence.properties}.
+ */
+public class LuceneAnySearchDAO extends JPAAnySearchDAO {
+
+    /**
+     * Max number of groups considered when evaluating resource conditions for users.
+     */
+    private static final int MAX_GROUPS = 1000;
+
+    /**
+     * Raised when the search condition or the ordering clauses cannot be evaluated against the index.
+     */
+    private static class UnsupportedSearchException extends RuntimeException {
+
+        private static final long serialVersionUID = -3637938735446398571L;
+
+        UnsupportedSearchException(final String message) {
+            super(message);
+        }
+    }
+
+    @Autowired
+    private LuceneIndexManager indexManager;
+
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    @Autowired
+    private GroupDAO groupDAO;
+
+    @Autowired
+    private RoleDAO roleDAO;
+
+    @Autowired
+    private RealmDAO realmDAO;
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    /**
+     * Number of searches served by the JPA implementation rather than by the index.
+     */
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    private boolean useIndex() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            return false;
+        }
+        return indexManager.isComplete(AuthContextUtils.getDomain());
+    }
+
+    @Override
+    public int count(final Set<String> adminRealms, final SearchCond searchCondition, final AnyTypeKind typeKind) {
+        if (useIndex()) {
+            String domain = AuthContextUtils.getDomain();
+            try {
+                LuceneIndexManager.Lease lease = indexManager.acquire(domain);
+                try {
+                    IndexSearcher searcher = lease.getSearcher();
+                    return searcher.count(getQuery(searcher, adminRealms, searchCondition, typeKind));
+                } finally {
+                    indexManager.release(lease);
+                }
+            } catch (UnsupportedSearchException e) {
+                LOG.debug("Falling back to JPA: {}", e.getMessage());
+            } catch (IOException e) {
+                LOG.error("While searching Lucene index, falling back to JPA", e);
+            }
+        }
+
+        fallbacks.incrementAndGet();
+        return super.count(adminRealms, searchCondition, typeKind);
+    }
+
+    @Override
+    protected Pair<Integer, Set<String>> doSearchKeys(final Set<String> adminRealms,
+            final SearchCond nodeCond, final int page, final int itemsPerPage, final List<OrderByClause> orderBy,
+            final String afterKey, final boolean withTotalCount, final AnyTypeKind typeKind) {
+
+        if (useIndex()) {
+            String domain = AuthContextUtils.getDomain();
+            try {
+                LuceneIndexManager.Lease lease = indexManager.acquire(domain);
+                try {
+                    return doSearchKeys(lease.getSearcher(),
+                            adminRealms, nodeCond, page, itemsPerPage, orderBy, afterKey, withTotalCount, typeKind);
+                } finally {
+                    indexManager.release(lease);
+                }
+            } catch (UnsupportedSearchException e) {
+                LOG.debug("Falling back to JPA: {}", e.getMessage());
+            } catch (IOException e) {
+                LOG.error("While searching Lucene index, falling back to JPA", e);
+            }
+        }
+
+        fallbacks.incrementAndGet();
+        return super.doSearchKeys(
+                adminRealms, nodeCond, page, itemsPerPage, orderBy, afterKey, withTotalCount, typeKind);
+    }
+
+    private Pair<Integer, Set<String>> doSearchKeys(final IndexSearcher searcher, final Set<String> adminRealms,
+            final SearchCond nodeCond, final int page, final int itemsPerPage, final List<OrderByClause> orderBy,
+            final String afterKey, final boolean withTotalCount, final AnyTypeKind typeKind) throws IOException {
+
+        Query query = getQuery(searcher, adminRealms, nodeCond, typeKind);
+
+        int first;
+        Sort sort;
+        if (afterKey == null) {
+            first = itemsPerPage <= 0 ? 0 : itemsPerPage * (page <= 0 ? 0 : page - 1);
+            sort = getSort(orderBy, typeKind);
+        } else {
+            first = 0;
+            sort = new Sort(new SortField(LuceneIndexManager.KEY, SortField.Type.STRING));
+
+            query = new BooleanQuery.Builder().
+                    add(query, BooleanClause.Occur.MUST).
+                    add(TermRangeQuery.newStringRange(LuceneIndexManager.KEY, afterKey, null, false, false),
+                            BooleanClause.Occur.MUST).
+                    build();
+        }
+
+        int max = itemsPerPage < 0 ? searcher.getIndexReader().maxDoc() : first + itemsPerPage;
+        TopFieldDocs docs = searcher.search(query, Math.max(1, max), sort);
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = first; i < docs.scoreDocs.length && i < max; i++) {
+            ScoreDoc scoreDoc = docs.scoreDocs[i];
+            keys.add(searcher.doc(scoreDoc.doc).get(LuceneIndexManager.KEY));
+        }
+
+        return Pair.of(withTotalCount ? docs.totalHits : null, keys);
+    }
+
+    private static Query nothing() {
+        return new BooleanQuery.Builder().build();
+    }
+
+    private static Query kind(final AnyTypeKind typeKind) {
+        return new TermQuery(new Term(LuceneIndexManager.KIND, typeKind.name()));
+    }
+
+    private static Query not(final AnyTypeKind typeKind, final Query query) {
+        return new BooleanQuery.Builder().
+                add(kind(typeKind), BooleanClause.Occur.MUST).
+                add(query, BooleanClause.Occur.MUST_NOT).
+                build();
+    }
+
+    private static Query existingBut(final Query exists, final Query query) {
+        return new BooleanQuery.Builder().
+                add(exists, BooleanClause.Occur.MUST).
+                add(query, BooleanClause.Occur.MUST_NOT).
+                build();
+    }
+
+    private Query getQuery(
+            final IndexSearcher searcher,
+            final Set<String> adminRealms,
+            final SearchCond nodeCond,
+            final AnyTypeKind typeKind) throws IOException {
+
+        // documents refer to realms by key: resolve admin realms and their descendants
+        Set<String> realmKeys = new HashSet<>();
+        for (String realmPath : RealmUtils.normalize(adminRealms)) {
+            Realm realm = realmDAO.findByFullPath(realmPath);
+            if (realm == null) {
+                LOG.warn("Ignoring invalid realm {}", realmPath);
+            } else {
+                for (Realm descendant : realmDAO.findDescendants(realm)) {
+                    realmKeys.add(descendant.getKey());
+                }
+            }
+        }
+        if (realmKeys.size() > BooleanQuery.getMaxClauseCount()) {
+            throw new UnsupportedSearchException("too many realms: " + realmKeys.size());
+        }
+
+        BooleanQuery.Builder realms = new BooleanQuery.Builder();
+        for (String realmKey : realmKeys) {
+            realms.add(new TermQuery(new Term(LuceneIndexManager.REALM, realmKey)), BooleanClause.Occur.SHOULD);
+        }
+
+        return new BooleanQuery.Builder().
+                add(kind(typeKind), BooleanClause.Occur.MUST).
+                add(getQuery(searcher, nodeCond, typeKind), BooleanClause.Occur.MUST).
+                add(realms.build(), BooleanClause.Occur.MUST).
+                build();
+    }
+
+    private Query getQuery(final IndexSearcher searcher, final SearchCond nodeCond, final AnyTypeKind typeKind)
+            throws IOException {
+
+        switch (nodeCond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                boolean not = nodeCond.getType() == SearchCond.Type.NOT_LEAF;
+
+                if (nodeCond.getAnyTypeCond() != null && AnyTypeKind.ANY_OBJECT == typeKind) {
+                    Query query = new TermQuery(
+                            new Term(LuceneIndexManager.TYPE, nodeCond.getAnyTypeCond().getAnyTypeKey()));
+                    return not ? not(typeKind, query) : query;
+                } else if (nodeCond.getRelationshipTypeCond() != null
+                        && (AnyTypeKind.USER == typeKind || AnyTypeKind.ANY_OBJECT == typeKind)) {
+
+                    throw new UnsupportedSearchException("relationship type conditions are not indexed");
+                } else if (nodeCond.getRelationshipCond() != null
+                        && (AnyTypeKind.USER == typeKind || AnyTypeKind.ANY_OBJECT == typeKind)) {
+
+                    throw new UnsupportedSearchException("relationship conditions are not indexed");
+                } else if (nodeCond.getMembershipCond() != null
+                        && (AnyTypeKind.USER == typeKind || AnyTypeKind.ANY_OBJECT == typeKind)) {
+
+                    return getQuery(nodeCond.getMembershipCond(), not, typeKind);
+                } else if (nodeCond.getAssignableCond() != null) {
+                    throw new UnsupportedSearchException("assignable conditions are not indexed");
+                } else if (nodeCond.getRoleCond() != null && AnyTypeKind.USER == typeKind) {
+                    return getQuery(nodeCond.getRoleCond(), not, typeKind);
+                } else if (nodeCond.getMemberCond() != null && AnyTypeKind.GROUP == typeKind) {
+                    throw new UnsupportedSearchException("member conditions are not indexed");
+                } else if (nodeCond.getResourceCond() != null) {
+                    return getQuery(searcher, nodeCond.getResourceCond(), not, typeKind);
+                } else if (nodeCond.getAttributeCond() != null) {
+                    return getQuery(nodeCond.getAttributeCond(), not, typeKind);
+                } else if (nodeCond.getAnyCond() != null) {
+                    return getQuery(nodeCond.getAnyCond(), not, typeKind);
+                }
+                throw new UnsupportedSearchException("unexpected condition " + nodeCond);
+
+            case AND:
+                return new BooleanQuery.Builder().
+                        add(getQuery(searcher, nodeCond.getLeftNodeCond(), typeKind), BooleanClause.Occur.MUST).
+                        add(getQuery(searcher, nodeCond.getRightNodeCond(), typeKind), BooleanClause.Occur.MUST).
+                        build();
+
+            case OR:
+                return new BooleanQuery.Builder().
+                        add(getQuery(searcher, nodeCond.getLeftNodeCond(), typeKind), BooleanClause.Occur.SHOULD).
+                        add(getQuery(searcher, nodeCond.getRightNodeCond(), typeKind), BooleanClause.Occur.SHOULD).
+                        build();
+
+            default:
+                throw new UnsupportedSearchException("unexpected condition " + nodeCond);
+        }
+    }
+
+    private Query getQuery(final MembershipCond cond, final boolean not, final AnyTypeKind typeKind) {
+        Group group = SyncopeConstants.UUID_PATTERN.matcher(cond.getGroup()).matches()
+                ? groupDAO.find(cond.getGroup())
+                : groupDAO.findByName(cond.getGroup());
+        if (group == null) {
+            return nothing();
+        }
+
+        // dynamic memberships are not indexed, as they can change without any update to members
+        if ((AnyTypeKind.USER == typeKind && group.getUDynMembership() != null)
+                || (AnyTypeKind.ANY_OBJECT == typeKind && !group.getADynMemberships().isEmpty())) {
+
+            throw new UnsupportedSearchException("group " + group.getName() + " has dynamic members");
+        }
+
+        Query query = new TermQuery(new Term(LuceneIndexManager.GROUP, group.getKey()));
+        return not ? not(typeKind, query) : query;
+    }
+
+    private Query getQuery(final RoleCond cond, final boolean not, final AnyTypeKind typeKind) {
+        Role role = roleDAO.find(cond.getRoleKey());
+        if (role != null && role.getDynMembership() != null) {
+            throw new UnsupportedSearchException("role " + role.getKey() + " has dynamic members");
+        }
+
+        Query query = new TermQuery(new Term(LuceneIndexManager.ROLE, cond.getRoleKey()));
+        return not ? not(typeKind, query) : query;
+    }
+
+    private Query getQuery(
+            final IndexSearcher searcher, final ResourceCond cond, final boolean not, final AnyTypeKind typeKind)
+            throws IOException {
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().
+                add(new TermQuery(new Term(LuceneIndexManager.RESOURCE, cond.getResourceKey())),
+                        BooleanClause.Occur.SHOULD);
+
+        // users are also assigned the resources of the groups they are members of
+        if (AnyTypeKind.USER == typeKind) {
+            Query groups = new BooleanQuery.Builder().
+                    add(kind(AnyTypeKind.GROUP), BooleanClause.Occur.MUST).
+                    add(new TermQuery(new Term(LuceneIndexManager.RESOURCE, cond.getResourceKey())),
+                            BooleanClause.Occur.MUST).
+                    build();
+            TopFieldDocs docs = searcher.search(groups, MAX_GROUPS, Sort.INDEXORDER);
+            if (docs.totalHits > MAX_GROUPS) {
+                throw new UnsupportedSearchException("too many groups assigned to " + cond.getResourceKey());
+            }
+            for (ScoreDoc scoreDoc : docs.scoreDocs) {
+                query.add(new TermQuery(new Term(
+                        LuceneIndexManager.GROUP, searcher.doc(scoreDoc.doc).get(LuceneIndexManager.KEY))),
+                        BooleanClause.Occur.SHOULD);
+            }
+        }
+
+        return not ? not(typeKind, query.build()) : query.build();
+    }
+
+    private static String toWildcard(final String likeExpression) {
+        StringBuilder wildcard = new StringBuilder();
+        for (char c : likeExpression.toCharArray()) {
+            switch (c) {
+                case '%':
+                    wildcard.append(WildcardQuery.WILDCARD_STRING);
+                    break;
+
+                case '_':
+                    wildcard.append(WildcardQuery.WILDCARD_CHAR);
+                    break;
+
+                case WildcardQuery.WILDCARD_STRING:
+                case WildcardQuery.WILDCARD_CHAR:
+                case WildcardQuery.WILDCARD_ESCAPE:
+                    wildcard.append(WildcardQuery.WILDCARD_ESCAPE).append(c);
+                    break;
+
+                default:
+                    wildcard.append(c);
+            }
+        }
+        return wildcard.toString();
+    }
+
+    private static Query getStringQuery(final String field, final AttributeCond.Type type, final String value) {
+        switch (type) {
+            case LIKE:
+                return new WildcardQuery(new Term(field, toWildcard(value)));
+
+            case GE:
+                return TermRangeQuery.newStringRange(field, value, null, true, false);
+
+            case GT:
+                return TermRangeQuery.newStringRange(field, value, null, false, false);
+
+            case LE:
+                return TermRangeQuery.newStringRange(field, null, value, false, true);
+
+            case LT:
+                return TermRangeQuery.newStringRange(field, null, value, false, false);
+
+            case EQ:
+            default:
+                return new TermQuery(new Term(field, value));
+        }
+    }
+
+    private static Query getLongQuery(final String field, final AttributeCond.Type type, final Long value) {
+        switch (type) {
+            case GE:
+                return NumericRangeQuery.newLongRange(field, value, null, true, false);
+
+            case GT:
+                return NumericRangeQuery.newLongRange(field, value, null, false, false);
+
+            case LE:
+                return NumericRangeQuery.newLongRange(field, null, value, false, true);
+
+            case LT:
+                return NumericRangeQuery.newLongRange(field, null, value, false, false);
+
+            case EQ:
+            default:
+                return NumericRangeQuery.newLongRange(field, value, value, true, true);
+        }
+    }
+
+    private static Query getDoubleQuery(final String field, final AttributeCond.Type type, final Double value) {
+        switch (type) {
+            case GE:
+                return NumericRangeQuery.newDoubleRange(field, value, null, true, false);
+
+            case GT:
+                return NumericRangeQuery.newDoubleRange(field, value, null, false, false);
+
+            case LE:
+                return NumericRangeQuery.newDoubleRange(field, null, value, false, true);
+
+            case LT:
+                return NumericRangeQuery.newDoubleRange(field, null, value, false, false);
+
+            case EQ:
+            default:
+                return NumericRangeQuery.newDoubleRange(field, value, value, true, true);
+        }
+    }
+
+    private Query getQuery(final AttributeCond cond, final boolean not, final AnyTypeKind typeKind) {
+        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
+        if (schema == null) {
+            LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
+            return nothing();
+        }
+
+        Query exists = new TermQuery(new Term(LuceneIndexManager.ATTRS, schema.getKey()));
+        switch (cond.getType()) {
+            case ISNOTNULL:
+                return not ? not(typeKind, exists) : exists;
+
+            case ISNULL:
+                return not ? exists : not(typeKind, exists);
+
+            default:
+        }
+
+        switch (schema.getType()) {
+            case Binary:
+                throw new UnsupportedSearchException("binary schema " + schema.getKey() + " is not indexed");
+
+            case String:
+            case Enum:
+                break;
+
+            default:
+                if (cond.getType() == AttributeCond.Type.LIKE) {
+                    LOG.error("LIKE is only compatible with string or enum schemas");
+                    return nothing();
+                }
+        }
+        if (not && schema.isMultivalue()) {
+            throw new UnsupportedSearchException("negated condition on multivalue schema " + schema.getKey());
+        }
+
+        PlainAttrValue attrValue = anyUtilsFactory.getInstance(typeKind).newPlainAttrValue();
+        if (cond.getType() != AttributeCond.Type.LIKE) {
+            try {
+                schema.getValidator().validate(cond.getExpression(), attrValue);
+            } catch (ValidationException e) {
+                LOG.error("Could not validate expression '" + cond.getExpression() + "'", e);
+                return nothing();
+            }
+        }
+
+        String field = LuceneIndexManager.ATTR_PREFIX + schema.getKey();
+        Query query;
+        switch (schema.getType()) {
+            case Long:
+                query = getLongQuery(field, cond.getType(), attrValue.getLongValue());
+                break;
+
+            case Date:
+                query = getLongQuery(field, cond.getType(), attrValue.getDateValue().getTime());
+                break;
+
+            case Double:
+                query = getDoubleQuery(field, cond.getType(), attrValue.getDoubleValue());
+                break;
+
+            case Boolean:
+                query = getStringQuery(field, cond.getType(), attrValue.getBooleanValue().toString());
+                break;
+
+            default:
+                query = getStringQuery(field, cond.getType(), cond.getType() == AttributeCond.Type.LIKE
+                        ? cond.getExpression()
+                        : attrValue.getStringValue());
+        }
+
+        return not ? existingBut(exists, query) : query;
+    }
+
+    private static String getIndexedField(final String field, final AnyTypeKind typeKind) {
+        String indexed = null;
+        if ("key".equals(field) || "id".equals(field)) {
+            indexed = LuceneIndexManager.KEY;
+        } else if ("status".equals(field)
+                || ("username".equals(field) && AnyTypeKind.USER == typeKind)
+                || ("name".equals(field) && AnyTypeKind.USER != typeKind)) {
+
+            indexed = field;
+        }
+        return indexed;
+    }
+
+    private Query getQuery(final AnyCond cond, final boolean not, final AnyTypeKind typeKind) {
+        String indexed = getIndexedField(cond.getSchema(), typeKind);
+        if (indexed == null) {
+            throw new UnsupportedSearchException("field " + cond.getSchema() + " is not indexed");
+        }
+
+        String field;
+        Query exists;
+        if (LuceneIndexManager.KEY.equals(indexed)) {
+            field = LuceneIndexManager.KEY;
+            exists = kind(typeKind);
+        } else {
+            field = LuceneIndexManager.FIELD_PREFIX + indexed;
+            exists = new TermQuery(new Term(LuceneIndexManager.FIELDS, indexed));
+        }
+
+        switch (cond.getType()) {
+            case ISNOTNULL:
+                return not ? not(typeKind, exists) : exists;
+
+            case ISNULL:
+                return not ? exists : not(typeKind, exists);
+
+            default:
+                Query query = getStringQuery(field, cond.getType(), cond.getExpression());
+                return not ? existingBut(exists, query) : query;
+        }
+    }
+
+    private Sort getSort(final List<OrderByClause> orderBy, final AnyTypeKind typeKind) {
+        List<SortField> sortFields = new ArrayList<>();
+
+        for (OrderByClause clause : orderBy) {
+            boolean reverse = clause.getDirection() == OrderByClause.Direction.DESC;
+
+            String indexed = getIndexedField(clause.getField(), typeKind);
+            if (LuceneIndexManager.KEY.equals(indexed)) {
+                sortFields.add(new SortField(LuceneIndexManager.KEY, SortField.Type.STRING, reverse));
+            } else if (indexed != null) {
+                SortField sortField = new SortField(
+                        LuceneIndexManager.SORT_PREFIX + indexed, SortField.Type.STRING, reverse);
+                sortField.setMissingValue(reverse ? SortField.STRING_FIRST : SortField.STRING_LAST);
+                sortFields.add(sortField);
+            } else if (ReflectionUtils.findField(
+                    anyUtilsFactory.getInstance(typeKind).anyClass(), clause.getField()) != null) {
+
+                throw new UnsupportedSearchException("field " + clause.getField() + " is not indexed");
+            } else {
+                PlainSchema schema = plainSchemaDAO.find(clause.getField());
+                if (schema == null) {
+                    LOG.warn("Cannot build any valid clause from {}", clause);
+                } else {
+                    String field = LuceneIndexManager.SORT_PREFIX + LuceneIndexManager.ATTR_PREFIX + schema.getKey();
+                    SortField sortField;
+                    switch (schema.getType()) {
+                        case Binary:
+                            throw new UnsupportedSearchException(
+                                    "binary schema " + schema.getKey() + " is not indexed");
+
+                        case Long:
+                        case Date:
+                            sortField = new SortField(field, SortField.Type.LONG, reverse);
+                            sortField.setMissingValue(reverse ? Long.MIN_VALUE : Long.MAX_VALUE);
+                            break;
+
+                        case Double:
+                            sortField = new SortField(field, SortField.Type.DOUBLE, reverse);
+                            sortField.setMissingValue(reverse ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+                            break;
+
+                        default:
+                            sortField = new SortField(field, SortField.Type.STRING, reverse);
+                            sortField.setMissingValue(reverse ? SortField.STRING_FIRST : SortField.STRING_LAST);
+                    }
+                    sortFields.add(sortField);
+                }
+            }
+        }
+
+        // ties (and searches without ordering clauses) are resolved by key
+        sortFields.add(new SortField(LuceneIndexManager.KEY, SortField.Type.STRING));
+
+        return new Sort(sortFields.toArray(new SortField[sortFields.size()]));
+    }
+}
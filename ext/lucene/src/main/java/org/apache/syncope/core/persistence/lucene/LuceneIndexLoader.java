@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.lucene;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.apache.openjpa.event.RemoteCommitEventManager;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+import org.apache.syncope.core.persistence.api.DomainsHolder;
+import org.apache.syncope.core.persistence.api.SyncopeLoader;
+import org.apache.syncope.core.persistence.api.dao.EntityCacheDAO;
+import org.apache.syncope.core.persistence.api.dao.RemoteChangeListener;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+/**
+ * Builds the Lucene index for domains where it was never completely built, e.g. at first startup, and keeps it up to
+ * date with the changes committed by other nodes.
+ */
+public class LuceneIndexLoader implements SyncopeLoader, InitializingBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LuceneIndexLoader.class);
+
+    @Autowired
+    private DomainsHolder domainsHolder;
+
+    @Autowired
+    private LuceneIndexManager indexManager;
+
+    @Autowired
+    private EntityCacheDAO entityCacheDAO;
+
+    @Override
+    public void afterPropertiesSet() {
+        entityCacheDAO.addRemoteChangeListener(new RemoteChangeListener() {
+
+            @Override
+            public void changed(final String domain, final Map<Class<?>, Set<String>> changes) {
+                AuthContextUtils.execWithAuthContext(domain, new AuthContextUtils.Executable<Void>() {
+
+                    @Override
+                    public Void exec() {
+                        indexManager.refresh(changes);
+                        return null;
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public Integer getPriority() {
+        return 10;
+    }
+
+    @Override
+    public void load() {
+        for (final String domain : domainsHolder.getDomains().keySet()) {
+            // keys of created entities are needed as well, to add them to the index on the other nodes
+            EntityManagerFactory emf = EntityManagerFactoryUtils.findEntityManagerFactory(
+                    ApplicationContextProvider.getBeanFactory(), domain);
+            EntityManager entityManager = emf.createEntityManager();
+            try {
+                RemoteCommitEventManager eventManager = entityManager.unwrap(OpenJPAEntityManagerSPI.class).
+                        getConfiguration().getRemoteCommitEventManager();
+                if (eventManager != null) {
+                    eventManager.setTransmitPersistedObjectIds(true);
+                }
+            } finally {
+                entityManager.close();
+            }
+
+            if (!indexManager.isComplete(domain)) {
+                AuthContextUtils.execWithAuthContext(domain, new AuthContextUtils.Executable<Void>() {
+
+                    @Override
+                    public Void exec() {
+                        try {
+                            indexManager.rebuild();
+                        } catch (IOException e) {
+                            LOG.error("While building Lucene index for domain {}", domain, e);
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+    }
+}
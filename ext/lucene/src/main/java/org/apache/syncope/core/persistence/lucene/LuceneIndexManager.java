@@ -0,0 +1,848 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.lucene;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoubleField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainAttrValueDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.Membership;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.spring.event.AnyDeletedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maintains one Lucene index per domain, under the configured directory, with a document for each user, group and
+ * any object.
+ * Changes are collected from {@link AnyCreatedUpdatedEvent} and {@link AnyDeletedEvent}: documents are built right
+ * before the current transaction commits, and written to the index only once it has actually committed.
+ * Documents only refer to realms by key, which never changes, so that realm renames and moves do not make the index
+ * stale; the realm itself and its descendants are resolved when searching.
+ * Rebuilds write a new generation of the index, in a separate directory, which replaces the current one only once
+ * complete: meanwhile, searches are still served by the current generation and committed changes are applied to
+ * both. Once replaced, a generation is closed and removed as soon as the last searcher acquired from it is released.
+ * Changes committed by other nodes are applied via {@link #refresh(java.util.Map)}: when their keys are not known, the
+ * index is no longer used for searching until rebuilt.
+ */
+public class LuceneIndexManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LuceneIndexManager.class);
+
+    static final String KEY = "_key";
+
+    static final String KIND = "_kind";
+
+    static final String TYPE = "_type";
+
+    static final String REALM = "_realm";
+
+    static final String GROUP = "_group";
+
+    static final String ROLE = "_role";
+
+    static final String RESOURCE = "_resource";
+
+    static final String FIELDS = "_fields";
+
+    static final String ATTRS = "_attrs";
+
+    static final String FIELD_PREFIX = "f_";
+
+    static final String ATTR_PREFIX = "a_";
+
+    static final String SORT_PREFIX = "s_";
+
+    private static final String COMPLETE = "complete";
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    /**
+     * Lucene index for a given domain.
+     */
+    private static class DomainIndex {
+
+        private final Path path;
+
+        private final Directory directory;
+
+        private final IndexWriter writer;
+
+        private final SearcherManager searcherManager;
+
+        /**
+         * Whether the index contains all users, groups and any objects, e.g. whether it was completely rebuilt once.
+         */
+        private volatile boolean complete;
+
+        /**
+         * Number of searchers acquired from this generation and not yet released.
+         */
+        private final AtomicInteger leases = new AtomicInteger();
+
+        /**
+         * Whether this generation was replaced by a rebuild: no more searchers are acquired from it.
+         */
+        private volatile boolean retired;
+
+        private final AtomicBoolean disposed = new AtomicBoolean();
+
+        DomainIndex(final Path path) throws IOException {
+            this.path = path;
+            this.directory = FSDirectory.open(path);
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()).
+                    setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, true, null);
+            this.complete = Boolean.valueOf(writer.getCommitData().get(COMPLETE));
+        }
+
+        void close() throws IOException {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    /**
+     * Searcher acquired from a given generation of the index, to be released to the same generation.
+     */
+    public static final class Lease {
+
+        private final DomainIndex index;
+
+        private final IndexSearcher searcher;
+
+        private Lease(final DomainIndex index, final IndexSearcher searcher) {
+            this.index = index;
+            this.searcher = searcher;
+        }
+
+        public IndexSearcher getSearcher() {
+            return searcher;
+        }
+    }
+
+    /**
+     * Generation of the index being rebuilt for a given domain.
+     */
+    private static class Rebuild {
+
+        private final DomainIndex index;
+
+        /**
+         * Keys of documents written or deleted by committed changes while rebuilding: never overwritten by the
+         * rebuild, which might have read older data.
+         */
+        private final Set<String> changed = new HashSet<>();
+
+        private volatile boolean failed;
+
+        Rebuild(final DomainIndex index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Changes performed by the current transaction on the given domain.
+     */
+    private class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final String domain;
+
+        private final List<AnyCreatedUpdatedEvent> updated = new ArrayList<>();
+
+        private final Set<String> deleted = new HashSet<>();
+
+        private final Map<String, Document> documents = new LinkedHashMap<>();
+
+        PendingChanges(final String domain) {
+            this.domain = domain;
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            // make sure that keys are generated for new entities
+            userDAO.flush();
+
+            for (AnyCreatedUpdatedEvent event : updated) {
+                if (!deleted.contains(event.getAny().getKey())) {
+                    documents.put(event.getAny().getKey(), document(event.getAnyTypeKind(), event.getAny()));
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResource(resourceKey(domain));
+
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                apply(domain, documents, deleted);
+            }
+        }
+    }
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private GroupDAO groupDAO;
+
+    @Autowired
+    private AnyObjectDAO anyObjectDAO;
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private PlainAttrDAO plainAttrDAO;
+
+    @Autowired
+    private PlainAttrValueDAO plainAttrValueDAO;
+
+    private String indexDirectory;
+
+    private final Map<String, DomainIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Map<String, Rebuild> rebuilds = new ConcurrentHashMap<>();
+
+    public void setIndexDirectory(final String indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    private static boolean isCompleteGeneration(final Path generation) {
+        try (Directory directory = FSDirectory.open(generation)) {
+            return DirectoryReader.indexExists(directory)
+                    && Boolean.valueOf(SegmentInfos.readLatestCommit(directory).getUserData().get(COMPLETE));
+        } catch (IOException e) {
+            LOG.error("While reading Lucene index {}", generation, e);
+            return false;
+        }
+    }
+
+    /**
+     * Opens the latest complete generation of the index for the given domain, or the latest one if none is complete,
+     * and removes the others, left by interrupted rebuilds or superseded.
+     *
+     * @param domain domain
+     * @return index for the given domain
+     * @throws IOException if the index cannot be opened
+     */
+    private DomainIndex open(final String domain) throws IOException {
+        Path domainDirectory = Files.createDirectories(Paths.get(indexDirectory, domain));
+
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(domainDirectory)) {
+            for (Path path : stream) {
+                try {
+                    generations.add(Long.valueOf(path.getFileName().toString()));
+                } catch (NumberFormatException e) {
+                    LOG.warn("Unexpected path {} found in Lucene index directory, ignoring", path);
+                }
+            }
+        }
+        Collections.sort(generations, Collections.reverseOrder());
+
+        Path current = null;
+        for (int i = 0; i < generations.size() && current == null; i++) {
+            Path generation = domainDirectory.resolve(generations.get(i).toString());
+            if (isCompleteGeneration(generation)) {
+                current = generation;
+            }
+        }
+        if (current == null) {
+            current = generations.isEmpty()
+                    ? newGeneration(domain)
+                    : domainDirectory.resolve(generations.get(0).toString());
+        }
+        for (Long generation : generations) {
+            Path path = domainDirectory.resolve(generation.toString());
+            if (!path.equals(current)) {
+                remove(path);
+            }
+        }
+
+        return new DomainIndex(current);
+    }
+
+    private Path newGeneration(final String domain) throws IOException {
+        Path domainDirectory = Paths.get(indexDirectory, domain);
+        long generation = System.currentTimeMillis();
+        while (Files.exists(domainDirectory.resolve(String.valueOf(generation)))) {
+            generation++;
+        }
+        return Files.createDirectories(domainDirectory.resolve(String.valueOf(generation)));
+    }
+
+    private static void remove(final Path generation) {
+        try {
+            IOUtils.rm(generation);
+        } catch (IOException e) {
+            LOG.warn("Could not remove Lucene index {}, will retry at next startup", generation, e);
+        }
+    }
+
+    private DomainIndex index(final String domain) {
+        synchronized (indexes) {
+            DomainIndex index = indexes.get(domain);
+            if (index == null) {
+                try {
+                    index = open(domain);
+                    indexes.put(domain, index);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not open Lucene index for domain " + domain, e);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @param domain domain
+     * @return whether the index for the given domain can be used for searching
+     */
+    public boolean isComplete(final String domain) {
+        return index(domain).complete;
+    }
+
+    /**
+     * Acquires a searcher from the current generation of the index for the given domain: the returned lease must be
+     * released via {@link #release(Lease)} once done.
+     *
+     * @param domain domain
+     * @return searcher lease
+     * @throws IOException if no searcher can be acquired
+     */
+    public Lease acquire(final String domain) throws IOException {
+        while (true) {
+            DomainIndex index = index(domain);
+            index.leases.incrementAndGet();
+            if (index.retired) {
+                // replaced meanwhile by a rebuild: try again with the new generation
+                unlease(index);
+            } else {
+                try {
+                    return new Lease(index, index.searcherManager.acquire());
+                } catch (IOException | RuntimeException e) {
+                    unlease(index);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void release(final Lease lease) throws IOException {
+        try {
+            lease.index.searcherManager.release(lease.searcher);
+        } finally {
+            unlease(lease.index);
+        }
+    }
+
+    private static void unlease(final DomainIndex index) {
+        if (index.leases.decrementAndGet() == 0 && index.retired) {
+            dispose(index);
+        }
+    }
+
+    /**
+     * Closes and removes the given generation, once retired and no longer in use; safe to invoke more than once.
+     *
+     * @param index generation to dispose
+     */
+    private static void dispose(final DomainIndex index) {
+        if (index.disposed.compareAndSet(false, true)) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                LOG.error("While closing Lucene index {}", index.path, e);
+            }
+            remove(index.path);
+        }
+    }
+
+    private static String resourceKey(final String domain) {
+        return LuceneIndexManager.class.getName() + "." + domain;
+    }
+
+    private PendingChanges pendingChanges(final String domain) {
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey(domain));
+        if (changes == null) {
+            changes = new PendingChanges(domain);
+            TransactionSynchronizationManager.bindResource(resourceKey(domain), changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    @EventListener
+    public void onCreatedUpdated(final AnyCreatedUpdatedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges(event.getDomain()).updated.add(event);
+        } else {
+            apply(event.getDomain(),
+                    Collections.singletonMap(event.getAny().getKey(), document(event.getAnyTypeKind(), event.getAny())),
+                    Collections.<String>emptySet());
+        }
+    }
+
+    @EventListener
+    public void onDeleted(final AnyDeletedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = pendingChanges(event.getDomain());
+            changes.deleted.add(event.getAnyKey());
+        } else {
+            apply(event.getDomain(),
+                    Collections.<String, Document>emptyMap(),
+                    Collections.singleton(event.getAnyKey()));
+        }
+    }
+
+    private static AnyTypeKind anyTypeKind(final Object any) {
+        return any instanceof User
+                ? AnyTypeKind.USER
+                : any instanceof Group
+                        ? AnyTypeKind.GROUP
+                        : any instanceof AnyObject
+                                ? AnyTypeKind.ANY_OBJECT
+                                : null;
+    }
+
+    private static AnyTypeKind anyTypeKind(final Class<?> type) {
+        return User.class.isAssignableFrom(type)
+                ? AnyTypeKind.USER
+                : Group.class.isAssignableFrom(type)
+                        ? AnyTypeKind.GROUP
+                        : AnyObject.class.isAssignableFrom(type)
+                                ? AnyTypeKind.ANY_OBJECT
+                                : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private PlainAttr<?> findAttr(final Class<?> type, final String key) {
+        return plainAttrDAO.find(key, (Class<PlainAttr<?>>) type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PlainAttrValue findAttrValue(final Class<?> type, final String key) {
+        return plainAttrValueDAO.find(key, (Class<PlainAttrValue>) type);
+    }
+
+    private static void addOwner(final Map<String, AnyTypeKind> anys, final PlainAttr<?> attr) {
+        if (attr != null && anyTypeKind(attr.getOwner()) != null) {
+            anys.put(attr.getOwner().getKey(), anyTypeKind(attr.getOwner()));
+        }
+    }
+
+    /**
+     * Applies to the index for the current domain the changes committed by another node, as reported by
+     * {@link org.apache.syncope.core.persistence.api.dao.RemoteChangeListener}: users, groups and any objects changed,
+     * directly or via their attributes, are read again and their documents replaced, or deleted if not found.
+     * Changes whose keys are not known cannot be applied: the index is then no longer used for searching until rebuilt.
+     *
+     * @param changes changed entity types, each with the keys of changed entities, or empty if not known
+     */
+    @Transactional(readOnly = true)
+    public void refresh(final Map<Class<?>, Set<String>> changes) {
+        String domain = AuthContextUtils.getDomain();
+
+        Map<String, AnyTypeKind> anys = new HashMap<>();
+        for (Map.Entry<Class<?>, Set<String>> entry : changes.entrySet()) {
+            Class<?> type = entry.getKey();
+            AnyTypeKind anyTypeKind = anyTypeKind(type);
+            if (anyTypeKind == null
+                    && !PlainAttr.class.isAssignableFrom(type) && !PlainAttrValue.class.isAssignableFrom(type)) {
+
+                continue;
+            }
+
+            if (entry.getValue().isEmpty()) {
+                LOG.warn("Keys of {} changed by another node are not known, "
+                        + "Lucene index for domain {} must be rebuilt", type.getSimpleName(), domain);
+                index(domain).complete = false;
+                return;
+            }
+
+            for (String key : entry.getValue()) {
+                if (anyTypeKind != null) {
+                    anys.put(key, anyTypeKind);
+                } else if (PlainAttr.class.isAssignableFrom(type)) {
+                    addOwner(anys, findAttr(type, key));
+                } else {
+                    // values removed are reported along with their attribute, changed as well
+                    PlainAttrValue value = findAttrValue(type, key);
+                    if (value != null) {
+                        addOwner(anys, value.getAttr());
+                    }
+                }
+            }
+        }
+
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Set<String> deleted = new HashSet<>();
+        for (Map.Entry<String, AnyTypeKind> entry : anys.entrySet()) {
+            Any<?> any = anyDAO(entry.getValue()).find(entry.getKey());
+            if (any == null) {
+                deleted.add(entry.getKey());
+            } else {
+                documents.put(entry.getKey(), document(entry.getValue(), any));
+            }
+        }
+        apply(domain, documents, deleted);
+    }
+
+    private static void write(final DomainIndex index, final Map<String, Document> documents, final Set<String> deleted)
+            throws IOException {
+
+        for (Map.Entry<String, Document> entry : documents.entrySet()) {
+            index.writer.updateDocument(new Term(KEY, entry.getKey()), entry.getValue());
+        }
+        for (String key : deleted) {
+            index.writer.deleteDocuments(new Term(KEY, key));
+        }
+        index.writer.commit();
+        index.searcherManager.maybeRefresh();
+    }
+
+    private void apply(final String domain, final Map<String, Document> documents, final Set<String> deleted) {
+        if (documents.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+
+        // serialized with rebuilds, in order to apply changes to the new generation as well, until swapped
+        synchronized (rebuilds) {
+            DomainIndex index = index(domain);
+            try {
+                write(index, documents, deleted);
+            } catch (IOException e) {
+                // the index is now stale: stop using it until rebuilt
+                LOG.error("While updating Lucene index for domain {}, rebuild required", domain, e);
+                index.complete = false;
+            }
+
+            Rebuild rebuild = rebuilds.get(domain);
+            if (rebuild != null) {
+                rebuild.changed.addAll(documents.keySet());
+                rebuild.changed.addAll(deleted);
+                try {
+                    write(rebuild.index, documents, deleted);
+                } catch (IOException e) {
+                    LOG.error("While updating Lucene index being rebuilt for domain {}", domain, e);
+                    rebuild.failed = true;
+                }
+            }
+        }
+    }
+
+    private static void addString(final Document document, final String field, final String value) {
+        if (value != null) {
+            document.add(new StringField(FIELD_PREFIX + field, value, Field.Store.NO));
+            document.add(new SortedDocValuesField(SORT_PREFIX + field, new BytesRef(value)));
+            document.add(new StringField(FIELDS, field, Field.Store.NO));
+        }
+    }
+
+    private static void addValue(
+            final Document document, final PlainSchema schema, final PlainAttrValue value, final boolean sortable) {
+
+        String field = ATTR_PREFIX + schema.getKey();
+        String sortField = SORT_PREFIX + ATTR_PREFIX + schema.getKey();
+        switch (schema.getType()) {
+            case Long:
+                if (value.getLongValue() != null) {
+                    document.add(new LongField(field, value.getLongValue(), Field.Store.NO));
+                    if (sortable) {
+                        document.add(new NumericDocValuesField(sortField, value.getLongValue()));
+                    }
+                }
+                break;
+
+            case Date:
+                if (value.getDateValue() != null) {
+                    document.add(new LongField(field, value.getDateValue().getTime(), Field.Store.NO));
+                    if (sortable) {
+                        document.add(new NumericDocValuesField(sortField, value.getDateValue().getTime()));
+                    }
+                }
+                break;
+
+            case Double:
+                if (value.getDoubleValue() != null) {
+                    document.add(new DoubleField(field, value.getDoubleValue(), Field.Store.NO));
+                    if (sortable) {
+                        document.add(new DoubleDocValuesField(sortField, value.getDoubleValue()));
+                    }
+                }
+                break;
+
+            case Boolean:
+                if (value.getBooleanValue() != null) {
+                    document.add(new StringField(field, value.getBooleanValue().toString(), Field.Store.NO));
+                    if (sortable) {
+                        document.add(new SortedDocValuesField(
+                                sortField, new BytesRef(value.getBooleanValue().toString())));
+                    }
+                }
+                break;
+
+            case Binary:
+                // binary values are not indexed
+                break;
+
+            default:
+                if (value.getStringValue() != null) {
+                    document.add(new StringField(field, value.getStringValue(), Field.Store.NO));
+                    if (sortable) {
+                        document.add(new SortedDocValuesField(sortField, new BytesRef(value.getStringValue())));
+                    }
+                }
+        }
+    }
+
+    private Document document(final AnyTypeKind anyTypeKind, final Any<?> any) {
+        Document document = new Document();
+
+        document.add(new StringField(KEY, any.getKey(), Field.Store.YES));
+        document.add(new SortedDocValuesField(KEY, new BytesRef(any.getKey())));
+        document.add(new StringField(KIND, anyTypeKind.name(), Field.Store.NO));
+        document.add(new StringField(TYPE, any.getType().getKey(), Field.Store.NO));
+        document.add(new StringField(REALM, any.getRealm().getKey(), Field.Store.NO));
+        addString(document, "status", any.getStatus());
+
+        for (ExternalResource resource : any.getResources()) {
+            document.add(new StringField(RESOURCE, resource.getKey(), Field.Store.NO));
+        }
+
+        List<? extends Membership<?>> memberships = Collections.emptyList();
+        if (any instanceof User) {
+            addString(document, "username", ((User) any).getUsername());
+            memberships = ((User) any).getMemberships();
+            for (Role role : ((User) any).getRoles()) {
+                document.add(new StringField(ROLE, role.getKey(), Field.Store.NO));
+            }
+        } else if (any instanceof Group) {
+            addString(document, "name", ((Group) any).getName());
+        } else if (any instanceof AnyObject) {
+            addString(document, "name", ((AnyObject) any).getName());
+            memberships = ((AnyObject) any).getMemberships();
+        }
+        for (Membership<?> membership : memberships) {
+            document.add(new StringField(GROUP, membership.getRightEnd().getKey(), Field.Store.NO));
+        }
+
+        Set<String> sorted = new HashSet<>();
+        for (PlainAttr<?> attr : any.getPlainAttrs()) {
+            PlainSchema schema = attr.getSchema();
+            document.add(new StringField(ATTRS, schema.getKey(), Field.Store.NO));
+
+            // only the first value of each schema can be used for sorting
+            if (attr.getUniqueValue() == null) {
+                for (PlainAttrValue value : attr.getValues()) {
+                    addValue(document, schema, value, sorted.add(schema.getKey()));
+                }
+            } else {
+                addValue(document, schema, attr.getUniqueValue(), sorted.add(schema.getKey()));
+            }
+        }
+
+        return document;
+    }
+
+    private AnyDAO<?> anyDAO(final AnyTypeKind anyTypeKind) {
+        return anyTypeKind == AnyTypeKind.USER
+                ? userDAO
+                : anyTypeKind == AnyTypeKind.GROUP
+                        ? groupDAO
+                        : anyObjectDAO;
+    }
+
+    /**
+     * Rebuilds the index for the current domain from scratch, as a new generation: until completed, searches are
+     * served by the current generation, if complete, or by the JPA implementation otherwise.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @Transactional
+    public void rebuild() throws IOException {
+        String domain = AuthContextUtils.getDomain();
+
+        Rebuild rebuild;
+        synchronized (rebuilds) {
+            if (rebuilds.containsKey(domain)) {
+                throw new IllegalStateException("Lucene index for domain " + domain + " is already being rebuilt");
+            }
+            rebuild = new Rebuild(new DomainIndex(newGeneration(domain)));
+            rebuilds.put(domain, rebuild);
+        }
+
+        boolean swapped = false;
+        try {
+            AnyCond keyCond = new AnyCond(AttributeCond.Type.ISNOTNULL);
+            keyCond.setSchema("key");
+            for (AnyTypeKind anyTypeKind : AnyTypeKind.values()) {
+                int count = 0;
+
+                List<String> keys = new ArrayList<>(REBUILD_CHUNK_SIZE);
+                for (String key : searchDAO.searchKeys(
+                        SyncopeConstants.FULL_ADMIN_REALMS, SearchCond.getLeafCond(keyCond), REBUILD_CHUNK_SIZE,
+                        anyTypeKind)) {
+
+                    keys.add(key);
+                    if (keys.size() == REBUILD_CHUNK_SIZE) {
+                        count += add(rebuild, anyTypeKind, keys);
+                    }
+                }
+                count += add(rebuild, anyTypeKind, keys);
+
+                LOG.info("Lucene index for domain {}: {} {} added", domain, count, anyTypeKind);
+            }
+
+            DomainIndex previous;
+            synchronized (rebuilds) {
+                if (rebuild.failed) {
+                    throw new IOException("Could not apply changes committed while rebuilding");
+                }
+
+                rebuild.index.writer.setCommitData(Collections.singletonMap(COMPLETE, Boolean.TRUE.toString()));
+                rebuild.index.writer.commit();
+                rebuild.index.searcherManager.maybeRefresh();
+                rebuild.index.complete = true;
+
+                synchronized (indexes) {
+                    previous = indexes.put(domain, rebuild.index);
+                }
+                rebuilds.remove(domain);
+                swapped = true;
+            }
+
+            if (previous != null) {
+                // searchers acquired before the swap might still be in use: the last one released disposes
+                previous.retired = true;
+                if (previous.leases.get() == 0) {
+                    dispose(previous);
+                }
+            }
+        } finally {
+            if (!swapped) {
+                synchronized (rebuilds) {
+                    rebuilds.remove(domain);
+                }
+                rebuild.index.close();
+                remove(rebuild.index.path);
+            }
+        }
+    }
+
+    private int add(final Rebuild rebuild, final AnyTypeKind anyTypeKind, final List<String> keys)
+            throws IOException {
+
+        int count = add(rebuild, anyTypeKind, anyDAO(anyTypeKind), keys);
+        keys.clear();
+        return count;
+    }
+
+    private <A extends Any<?>> int add(
+            final Rebuild rebuild, final AnyTypeKind anyTypeKind, final AnyDAO<A> anyDAO, final List<String> keys)
+            throws IOException {
+
+        int count = 0;
+        for (A any : anyDAO.findByKeys(keys)) {
+            Document document = document(anyTypeKind, any);
+            synchronized (rebuilds) {
+                // changes committed meanwhile are more recent than what was read here
+                if (!rebuild.changed.contains(any.getKey())) {
+                    rebuild.index.writer.updateDocument(new Term(KEY, any.getKey()), document);
+                }
+            }
+            // not needed anymore: keep the persistence context small while rebuilding
+            anyDAO.detach(any);
+            count++;
+        }
+        return count;
+    }
+
+    public void close() {
+        for (Map.Entry<String, DomainIndex> entry : indexes.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                LOG.error("While closing Lucene index for domain {}", entry.getKey(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.lucene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
+import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.AopTestUtils;
+
+/**
+ * Checks that searches served by the Lucene index return the same results as the JPA implementation, on the same
+ * content.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {
+    "classpath:persistenceTest.xml",
+    "classpath:luceneContext.xml",
+    "classpath:luceneTest.xml"
+})
+public class LuceneAnySearchDAOTest {
+
+    private static final Set<String> EVEN = Collections.singleton("/even");
+
+    @Autowired
+    private AnySearchDAO jpaSearchDAO;
+
+    @Autowired
+    @Qualifier("luceneAnySearchDAO")
+    private AnySearchDAO luceneSearchDAO;
+
+    @Autowired
+    private LuceneIndexManager indexManager;
+
+    @Before
+    public void buildIndex() throws IOException {
+        if (!indexManager.isComplete(SyncopeConstants.MASTER_DOMAIN)) {
+            indexManager.rebuild();
+        }
+        assertTrue(indexManager.isComplete(SyncopeConstants.MASTER_DOMAIN));
+    }
+
+    private static List<String> keys(final List<? extends Any<?>> anys) {
+        List<String> keys = new ArrayList<>(anys.size());
+        for (Any<?> any : anys) {
+            keys.add(any.getKey());
+        }
+        return keys;
+    }
+
+    private long getFallbacks() {
+        return AopTestUtils.<LuceneAnySearchDAO>getUltimateTargetObject(luceneSearchDAO).getFallbacks();
+    }
+
+    private void assertSame(
+            final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind, final boolean notEmpty) {
+
+        assertTrue(cond.isValid());
+        long fallbacks = getFallbacks();
+
+        List<? extends Any<?>> expected = jpaSearchDAO.search(
+                adminRealms, cond, -1, -1, Collections.<OrderByClause>emptyList(), kind);
+        List<? extends Any<?>> actual = luceneSearchDAO.search(
+                adminRealms, cond, -1, -1, Collections.<OrderByClause>emptyList(), kind);
+        assertEquals(new HashSet<>(keys(expected)), new HashSet<>(keys(actual)));
+        assertEquals(expected.isEmpty(), !notEmpty);
+
+        assertEquals(jpaSearchDAO.count(adminRealms, cond, kind), luceneSearchDAO.count(adminRealms, cond, kind));
+
+        // otherwise the JPA implementation was compared with itself
+        assertEquals("Lucene index not used for " + cond, fallbacks, getFallbacks());
+    }
+
+    private static SearchCond attr(final String schema, final AttributeCond.Type type, final String expression) {
+        AttributeCond cond = new AttributeCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    private static SearchCond any(final String schema, final AttributeCond.Type type, final String expression) {
+        AnyCond cond = new AnyCond(type);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeafCond(cond);
+    }
+
+    @Test
+    public void attributes() {
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                attr("fullname", AttributeCond.Type.EQ, "Giuseppe Verdi"), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                attr("fullname", AttributeCond.Type.LIKE, "%o%"), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getNotLeafCond(attr("fullname", AttributeCond.Type.EQ, "Giuseppe Verdi")),
+                AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                attr("loginDate", AttributeCond.Type.ISNULL, null), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                attr("cool", AttributeCond.Type.EQ, "true"), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                attr("show", AttributeCond.Type.ISNOTNULL, null), AnyTypeKind.GROUP, true);
+    }
+
+    @Test
+    public void fields() {
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                any("username", AttributeCond.Type.EQ, "rossini"), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                any("username", AttributeCond.Type.LIKE, "%ini"), AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                any("name", AttributeCond.Type.EQ, "root"), AnyTypeKind.GROUP, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                any("status", AttributeCond.Type.EQ, "active"), AnyTypeKind.USER, true);
+    }
+
+    @Test
+    public void relations() {
+        MembershipCond membershipCond = new MembershipCond();
+        membershipCond.setGroup("root");
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getLeafCond(membershipCond), AnyTypeKind.USER, true);
+
+        RoleCond roleCond = new RoleCond();
+        roleCond.setRole("Other");
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS, SearchCond.getLeafCond(roleCond), AnyTypeKind.USER, true);
+
+        ResourceCond resourceCond = new ResourceCond();
+        resourceCond.setResourceKey("ws-target-resource-2");
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getLeafCond(resourceCond), AnyTypeKind.USER, true);
+
+        AnyTypeCond anyTypeCond = new AnyTypeCond();
+        anyTypeCond.setAnyTypeKey("PRINTER");
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getLeafCond(anyTypeCond), AnyTypeKind.ANY_OBJECT, true);
+    }
+
+    @Test
+    public void compound() {
+        MembershipCond membershipCond = new MembershipCond();
+        membershipCond.setGroup("root");
+
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getAndCond(
+                        attr("fullname", AttributeCond.Type.LIKE, "%o%"), SearchCond.getLeafCond(membershipCond)),
+                AnyTypeKind.USER, true);
+        assertSame(SyncopeConstants.FULL_ADMIN_REALMS,
+                SearchCond.getOrCond(
+                        any("username", AttributeCond.Type.EQ, "rossini"),
+                        any("username", AttributeCond.Type.EQ, "verdi")),
+                AnyTypeKind.USER, true);
+    }
+
+    @Test
+    public void realms() {
+        SearchCond all = any("key", AttributeCond.Type.ISNOTNULL, null);
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            assertSame(SyncopeConstants.FULL_ADMIN_REALMS, all, kind, true);
+            assertSame(EVEN, all, kind, true);
+        }
+        assertSame(Collections.singleton("/even/two"), all, AnyTypeKind.USER, false);
+    }
+
+    @Test
+    public void orderBy() {
+        OrderByClause clause = new OrderByClause();
+        clause.setField("username");
+        clause.setDirection(OrderByClause.Direction.DESC);
+        List<OrderByClause> orderBy = Collections.singletonList(clause);
+
+        SearchCond cond = attr("fullname", AttributeCond.Type.LIKE, "%o%");
+        List<String> expected = keys(jpaSearchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 1, 2, orderBy, AnyTypeKind.USER));
+        assertFalse(expected.isEmpty());
+        long fallbacks = getFallbacks();
+        assertEquals(expected, keys(luceneSearchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 1, 2, orderBy, AnyTypeKind.USER)));
+        assertEquals(fallbacks, getFallbacks());
+    }
+}